@@ -0,0 +1,102 @@
+package com.sistema.benchmark;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+import com.sistema.model.Catalogo;
+import com.sistema.model.Humus;
+import com.sistema.model.Muda;
+import com.sistema.service.Controlador;
+import com.sistema.service.ImportadorCatalogo;
+import com.sistema.service.ResultadoImportacao;
+
+/**
+ * Mede a vazão (linhas por segundo) da importação de um catálogo CSV com o
+ * ImportadorCatalogo em 1 e em todas as threads disponíveis, comparando com a
+ * leitura linha a linha e o cadastro de um produto por vez pelo Controlador.
+ *
+ * Execução: java -cp target/benchmarks.jar com.sistema.benchmark.ImportadorCatalogoBenchmark [linhas]
+ */
+public class ImportadorCatalogoBenchmark {
+    
+    public static void main(String[] args) throws IOException {
+        int linhas = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+        Path arquivo = Files.createTempFile("catalogo-benchmark", ".csv");
+        int threads = Runtime.getRuntime().availableProcessors();
+        
+        try {
+            gerarArquivo(arquivo, linhas);
+            System.out.printf("Arquivo com %,d linhas (%,d bytes), %d threads disponíveis%n",
+                              linhas, Files.size(arquivo), threads);
+            
+            for (int rodada = 1; rodada <= 3; rodada++) {
+                System.out.println("Rodada " + rodada);
+                medirImportador(arquivo, 1);
+                if (threads > 1) {
+                    medirImportador(arquivo, threads);
+                }
+                medirUmPorVez(arquivo);
+            }
+        } finally {
+            Files.deleteIfExists(arquivo);
+        }
+    }
+    
+    private static void medirImportador(Path arquivo, int threads) throws IOException {
+        Catalogo.getInstancia().limpar();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            ResultadoImportacao resultado = new ImportadorCatalogo(pool, 0).importar(arquivo);
+            System.out.printf("  importador, %2d thread(s): %,12.0f linhas/s (%,d importados)%n", threads,
+                              resultado.getLinhasPorSegundo(), resultado.getProdutosImportados());
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    private static void medirUmPorVez(Path arquivo) throws IOException {
+        Catalogo.getInstancia().limpar();
+        Controlador controlador = Controlador.getInstancia();
+        long lidas = 0;
+        long inicio = System.nanoTime();
+        
+        try (BufferedReader leitor = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+            String linha;
+            while ((linha = leitor.readLine()) != null) {
+                String[] campos = linha.split(";");
+                lidas++;
+                if (campos[0].equals("MUDA")) {
+                    controlador.cadastrarProduto(new Muda(Integer.parseInt(campos[1]), campos[2], campos[3],
+                        Double.parseDouble(campos[4]), Integer.parseInt(campos[5]), campos[6],
+                        Integer.parseInt(campos[7]), campos[8]));
+                } else {
+                    controlador.cadastrarProduto(new Humus(Integer.parseInt(campos[1]), campos[2], campos[3],
+                        Double.parseDouble(campos[4]), Integer.parseInt(campos[5]), campos[6],
+                        Double.parseDouble(campos[7]), campos[8]));
+                }
+            }
+        }
+        
+        long duracao = System.nanoTime() - inicio;
+        System.out.printf("  um por vez:               %,12.0f linhas/s%n", lidas * 1_000_000_000.0 / duracao);
+    }
+    
+    private static void gerarArquivo(Path arquivo, int linhas) throws IOException {
+        try (BufferedWriter escritor = Files.newBufferedWriter(arquivo, StandardCharsets.UTF_8)) {
+            for (int id = 1; id <= linhas; id++) {
+                if ((id & 1) == 0) {
+                    escritor.write("MUDA;" + id + ";Muda " + id + ";Muda de viveiro certificado;" + (5 + id % 50)
+                                   + ".90;" + (id % 1000) + ";Espécie " + (id % 40) + ";" + (30 + id % 90) + ";Argiloso\n");
+                } else {
+                    escritor.write("HUMUS;" + id + ";Húmus " + id + ";Húmus de minhoca peneirado;15.50;"
+                                   + (id % 1000) + ";Minhoca Californiana;2.5;Rico em nitrogênio\n");
+                }
+            }
+        }
+    }
+}
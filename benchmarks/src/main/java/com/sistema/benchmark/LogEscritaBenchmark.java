@@ -0,0 +1,76 @@
+package com.sistema.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import com.sistema.model.Humus;
+import com.sistema.model.Produto;
+import com.sistema.persistencia.LogEscrita;
+
+/**
+ * Mede a vazão de vendas duráveis (registro no log e espera pelo fsync) com
+ * 16 threads vendedoras, variando a janela de agrupamento do group commit.
+ *
+ * Execução: java -cp target/benchmarks.jar com.sistema.benchmark.LogEscritaBenchmark [diretório]
+ */
+public class LogEscritaBenchmark {
+    private static final int THREADS = 16;
+    private static final int VENDAS_POR_THREAD = 2_000;
+    private static final long[] JANELAS_MICROS = {0, 100, 1_000, 5_000};
+    
+    public static void main(String[] args) throws Exception {
+        Path diretorio = args.length > 0 ? Path.of(args[0]) : Files.createTempDirectory("log-escrita-benchmark");
+        
+        for (int rodada = 1; rodada <= 3; rodada++) {
+            System.out.println("Rodada " + rodada);
+            for (long janela : JANELAS_MICROS) {
+                Path arquivo = diretorio.resolve("vendas-" + janela + ".wal");
+                Files.deleteIfExists(arquivo);
+                double vendasPorSegundo = medir(arquivo, janela);
+                System.out.printf("  janela %5d us: %,.0f vendas duráveis/s%n", janela, vendasPorSegundo);
+                Files.deleteIfExists(arquivo);
+            }
+        }
+    }
+    
+    private static double medir(Path arquivo, long janelaMicros) throws IOException, InterruptedException {
+        Produto produto = new Humus(1, "Húmus", "Benchmark", 15.0, Integer.MAX_VALUE / 2,
+                                    "Minhoca", 2.5, "Nitrogênio");
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        
+        try (LogEscrita log = new LogEscrita(arquivo, janelaMicros)) {
+            for (int t = 0; t < THREADS; t++) {
+                final int idCliente = t + 1;
+                Thread thread = new Thread(() -> {
+                    try {
+                        largada.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    for (int i = 0; i < VENDAS_POR_THREAD; i++) {
+                        produto.reduzirEstoque(1);
+                        long lsn = log.registrarVenda(System.currentTimeMillis(), 1, 0, idCliente, 1, 15.0);
+                        log.aguardarDurabilidade(lsn);
+                    }
+                });
+                threads.add(thread);
+                thread.start();
+            }
+            
+            long inicio = System.nanoTime();
+            largada.countDown();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            long duracao = System.nanoTime() - inicio;
+            
+            return (double) THREADS * VENDAS_POR_THREAD * 1_000_000_000.0 / duracao;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.sistema.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import com.sistema.model.Catalogo;
+import com.sistema.model.Humus;
+import com.sistema.model.Muda;
+import com.sistema.model.Produto;
+import com.sistema.persistencia.GerenciadorPersistencia;
+import com.sistema.persistencia.LogEscrita;
+import com.sistema.service.Controlador;
+
+/**
+ * Mede o tempo de recuperação de um catálogo grande em dois cenários:
+ * reaplicando o log inteiro (cadastros e vendas) e carregando um instantâneo
+ * seguido apenas da cauda de vendas gravada depois dele.
+ *
+ * Execução: java -cp target/benchmarks.jar com.sistema.benchmark.RecuperacaoBenchmark [produtos] [vendas]
+ */
+public class RecuperacaoBenchmark {
+    
+    public static void main(String[] args) throws IOException {
+        int produtos = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int vendas = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+        
+        Path somenteLog = Files.createTempDirectory("recuperacao-log");
+        Path comInstantaneo = Files.createTempDirectory("recuperacao-instantaneo");
+        
+        try {
+            prepararSomenteLog(somenteLog, produtos, vendas);
+            prepararComInstantaneo(comInstantaneo, produtos, vendas);
+            
+            for (int rodada = 1; rodada <= 3; rodada++) {
+                System.out.println("Rodada " + rodada);
+                medir("  somente log           ", somenteLog);
+                medir("  instantâneo + cauda   ", comInstantaneo);
+            }
+        } finally {
+            apagar(somenteLog);
+            apagar(comInstantaneo);
+        }
+    }
+    
+    private static void medir(String descricao, Path diretorio) throws IOException {
+        System.gc();
+        try (GerenciadorPersistencia gerenciador = GerenciadorPersistencia.abrir(diretorio, 0)) {
+            System.out.printf("%s %,6d ms (%,d produtos, %,d registros reaplicados)%n", descricao,
+                              gerenciador.getTempoRecuperacaoMillis(), Catalogo.getInstancia().tamanho(),
+                              gerenciador.getRegistrosReaplicados());
+        }
+    }
+    
+    /**
+     * Grava cadastros e vendas diretamente em um único segmento do log
+     */
+    private static void prepararSomenteLog(Path diretorio, int produtos, int vendas) throws IOException {
+        try (LogEscrita log = new LogEscrita(diretorio.resolve(String.format("log-%020d.wal", 1)), 0)) {
+            long lsn = 0;
+            for (int i = 1; i <= produtos; i++) {
+                lsn = log.registrarCadastroProduto(criarProduto(i));
+            }
+            for (int i = 0; i < vendas; i++) {
+                lsn = log.registrarVenda(i, 1 + i % produtos, 0, 0, 1, 10.0);
+            }
+            log.aguardarDurabilidade(lsn);
+        }
+    }
+    
+    /**
+     * Grava um instantâneo do catálogo e depois as vendas pelo Controlador, que ficam na cauda do log
+     */
+    private static void prepararComInstantaneo(Path diretorio, int produtos, int vendas) throws IOException {
+        try (GerenciadorPersistencia gerenciador = GerenciadorPersistencia.abrir(diretorio, 0)) {
+            Catalogo catalogo = Catalogo.getInstancia();
+            for (int i = 1; i <= produtos; i++) {
+                catalogo.adicionar(criarProduto(i));
+            }
+            gerenciador.gravarInstantaneo();
+            
+            Controlador controlador = Controlador.getInstancia();
+            for (int i = 0; i < vendas; i++) {
+                controlador.realizarVenda(1 + i % produtos, 1);
+            }
+        }
+    }
+    
+    private static Produto criarProduto(int id) {
+        if ((id & 1) == 0) {
+            return new Muda(id, "Muda " + id, "Muda para benchmark", 10.0, 1_000, "Espécie " + (id % 50), 60, "Argiloso");
+        }
+        return new Humus(id, "Húmus " + id, "Húmus para benchmark", 15.0, 1_000, "Minhoca", 2.5, "Nitrogênio");
+    }
+    
+    private static void apagar(Path diretorio) throws IOException {
+        try (Stream<Path> arquivos = Files.walk(diretorio)) {
+            arquivos.sorted(Comparator.reverseOrder()).forEach(arquivo -> arquivo.toFile().delete());
+        }
+    }
+}
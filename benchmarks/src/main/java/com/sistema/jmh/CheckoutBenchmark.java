@@ -0,0 +1,90 @@
+package com.sistema.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import com.sistema.model.Muda;
+import com.sistema.model.ResultadoLote;
+import com.sistema.service.Estoque;
+
+/**
+ * Mede a vazão de pedidos de 8 linhas baixados com travas ordenadas
+ * (Estoque.baixarEstoqueEmLote) em dois cenários: cada thread comprando
+ * produtos próprios (disjuntos) e todas as threads disputando os mesmos
+ * 8 produtos. Metade das threads envia as linhas em ordem invertida.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CheckoutBenchmark {
+    private static final int ID_BASE = 800_000;
+    private static final int LINHAS = 8;
+    // Estoque alto o bastante para que os pedidos não esgotem os produtos
+    private static final int ESTOQUE_INICIAL = Integer.MAX_VALUE / 2;
+    
+    @Param({"disjuntos", "compartilhados"})
+    public String cenario;
+    
+    private Estoque estoque;
+    private int quantidadeProdutos;
+    
+    @Setup(Level.Trial)
+    public void preparar(BenchmarkParams parametros) {
+        estoque = Estoque.getInstancia();
+        quantidadeProdutos = parametros.getThreads() * LINHAS;
+        for (int i = 0; i < quantidadeProdutos; i++) {
+            estoque.adicionarProduto(new Muda(ID_BASE + i, "Muda " + i, "Benchmark", 2.0, ESTOQUE_INICIAL,
+                                              "Espécie", 30, "Arenoso"));
+        }
+    }
+    
+    @Setup(Level.Iteration)
+    public void reporEstoque() {
+        for (int i = 0; i < quantidadeProdutos; i++) {
+            estoque.atualizarQuantidade(ID_BASE + i, ESTOQUE_INICIAL);
+        }
+    }
+    
+    /**
+     * Linhas do pedido de cada thread
+     */
+    @State(Scope.Thread)
+    public static class Pedido {
+        int[] ids;
+        int[] quantidades;
+        
+        @Setup(Level.Trial)
+        public void preparar(CheckoutBenchmark benchmark, ThreadParams thread) {
+            int indice = thread.getThreadIndex();
+            int primeiro = ID_BASE + ("disjuntos".equals(benchmark.cenario) ? indice * LINHAS : 0);
+            ids = new int[LINHAS];
+            quantidades = new int[LINHAS];
+            for (int i = 0; i < LINHAS; i++) {
+                ids[i] = indice % 2 == 0 ? primeiro + i : primeiro + LINHAS - 1 - i;
+                quantidades[i] = 1;
+            }
+        }
+    }
+    
+    @Benchmark
+    public ResultadoLote baixarEstoqueEmLote(Pedido pedido) {
+        return estoque.baixarEstoqueEmLote(pedido.ids, pedido.quantidades);
+    }
+}
@@ -0,0 +1,192 @@
+package com.sistema.jmh;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sistema.model.Esterco;
+import com.sistema.model.Humus;
+import com.sistema.model.Muda;
+import com.sistema.model.Produto;
+import com.sistema.persistencia.CodecProduto;
+
+/**
+ * Compara o CodecProduto com a serialização do java.io na codificação e
+ * decodificação de um fluxo de PRODUTOS produtos mistos (Muda, Humus e Esterco).
+ * A vazão é medida em produtos por segundo; os bytes por produto de cada formato
+ * são impressos na preparação. Como os produtos não são Serializable, a
+ * serialização grava uma cópia com os mesmos campos (DadosProduto).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class CodecProdutoBenchmark {
+    private static final int PRODUTOS = 10_000;
+    
+    private Produto[] produtos;
+    private ByteBuffer destino;
+    private ByteBuffer codificados;
+    private byte[] serializados;
+    
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        produtos = new Produto[PRODUTOS];
+        for (int i = 0; i < PRODUTOS; i++) {
+            produtos[i] = criarProduto(i);
+        }
+        
+        destino = ByteBuffer.allocate(PRODUTOS * 128);
+        codificarComCodec();
+        codificados = ByteBuffer.wrap(destino.array(), 0, destino.position()).asReadOnlyBuffer();
+        serializados = serializar();
+        
+        System.out.printf("%nCodecProduto %.1f bytes/produto, serialização %.1f bytes/produto%n",
+                          (double) codificados.remaining() / PRODUTOS, (double) serializados.length / PRODUTOS);
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(PRODUTOS)
+    public int codificarComCodec() {
+        // Cada fluxo começa com um dicionário de textos vazio, como um instantâneo
+        CodecProduto codec = new CodecProduto();
+        destino.clear();
+        for (Produto produto : produtos) {
+            codec.codificar(produto, destino);
+        }
+        return destino.position();
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(PRODUTOS)
+    public long decodificarComCodec() {
+        CodecProduto codec = new CodecProduto();
+        ByteBuffer origem = codificados.duplicate();
+        long soma = 0;
+        for (int i = 0; i < PRODUTOS; i++) {
+            soma += codec.decodificar(origem).getQuantidadeEstoque();
+        }
+        return soma;
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(PRODUTOS)
+    public byte[] serializar() throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream(PRODUTOS * 256);
+        try (ObjectOutputStream objetos = new ObjectOutputStream(saida)) {
+            for (Produto produto : produtos) {
+                objetos.writeObject(new DadosProduto(produto));
+            }
+        }
+        return saida.toByteArray();
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(PRODUTOS)
+    public long desserializar() throws IOException, ClassNotFoundException {
+        long soma = 0;
+        try (ObjectInputStream objetos = new ObjectInputStream(new ByteArrayInputStream(serializados))) {
+            for (int i = 0; i < PRODUTOS; i++) {
+                soma += ((DadosProduto) objetos.readObject()).paraProduto().getQuantidadeEstoque();
+            }
+        }
+        return soma;
+    }
+    
+    private static Produto criarProduto(int i) {
+        switch (i % 3) {
+            case 0:
+                return new Muda(i, "Muda " + (i % 500), "Muda de viveiro certificado", 5.0 + (i % 100),
+                                i % 1000, "Espécie " + (i % 40), 30 + i % 90, "Argiloso");
+            case 1:
+                return new Humus(i, "Húmus " + (i % 500), "Húmus de minhoca peneirado", 15.5, i % 1000,
+                                 "Minhoca Californiana", 2.5, "Rico em nitrogênio e fósforo");
+            default:
+                return new Esterco(i, "Esterco " + (i % 500), "Esterco curtido", 12.0, i % 1000,
+                                   i % 2 == 0 ? "Bovino" : "Equino", 5.0, i % 2 == 0, "Neutro");
+        }
+    }
+    
+    /**
+     * Campos de um produto em uma classe Serializable, para a comparação com o java.io
+     */
+    private static final class DadosProduto implements Serializable {
+        private static final long serialVersionUID = 1L;
+        
+        private final char tipo;
+        private final int id;
+        private final String nome;
+        private final String descricao;
+        private final double preco;
+        private final int quantidadeEstoque;
+        private final String texto1;
+        private final String texto2;
+        private final double numero;
+        private final int inteiro;
+        private final boolean processado;
+        
+        DadosProduto(Produto produto) {
+            this.id = produto.getId();
+            this.nome = produto.getNome();
+            this.descricao = produto.getDescricao();
+            this.preco = produto.getPreco();
+            this.quantidadeEstoque = produto.getQuantidadeEstoque();
+            if (produto instanceof Muda) {
+                Muda muda = (Muda) produto;
+                this.tipo = 'M';
+                this.texto1 = muda.getEspecie();
+                this.texto2 = muda.getTipoSolo();
+                this.numero = 0;
+                this.inteiro = muda.getTempoMaturacao();
+                this.processado = false;
+            } else if (produto instanceof Humus) {
+                Humus humus = (Humus) produto;
+                this.tipo = 'H';
+                this.texto1 = humus.getOrigem();
+                this.texto2 = humus.getComposicaoNutricional();
+                this.numero = humus.getPesoEmbalagem();
+                this.inteiro = 0;
+                this.processado = false;
+            } else {
+                Esterco esterco = (Esterco) produto;
+                this.tipo = 'E';
+                this.texto1 = esterco.getTipoAnimal();
+                this.texto2 = esterco.getNivelAcidez();
+                this.numero = esterco.getPesoEmbalagem();
+                this.inteiro = 0;
+                this.processado = esterco.isProcessado();
+            }
+        }
+        
+        Produto paraProduto() {
+            switch (tipo) {
+                case 'M':
+                    return new Muda(id, nome, descricao, preco, quantidadeEstoque, texto1, inteiro, texto2);
+                case 'H':
+                    return new Humus(id, nome, descricao, preco, quantidadeEstoque, texto1, numero, texto2);
+                default:
+                    return new Esterco(id, nome, descricao, preco, quantidadeEstoque, texto1, numero, processado, texto2);
+            }
+        }
+    }
+}
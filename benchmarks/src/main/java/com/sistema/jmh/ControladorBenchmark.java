@@ -0,0 +1,146 @@
+package com.sistema.jmh;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sistema.model.Catalogo;
+import com.sistema.model.Humus;
+import com.sistema.model.Muda;
+import com.sistema.model.Produto;
+import com.sistema.model.RegistroVendas;
+import com.sistema.model.Sistema;
+import com.sistema.model.Vendedor;
+import com.sistema.service.Controlador;
+
+/**
+ * Benchmarks dos caminhos críticos do Controlador (e, por meio dele, do
+ * Sistema e do Estoque) com catálogos de 1 mil, 100 mil e 1 milhão de produtos.
+ * 
+ * A quantidade de threads é definida na execução (-t no JMH ou a classe
+ * ExecutarBenchmarks, que repete a suíte com 1, 4 e 16 threads).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ControladorBenchmark {
+    private static final int USUARIOS = 1_000;
+    private static final int VENDAS_RELATORIO = 100_000;
+    private static final int TAMANHO_LOTE = 4_096;
+    private static final String SENHA = "senha123";
+    // Estoque alto o bastante para que as vendas não esgotem os produtos
+    private static final int ESTOQUE_INICIAL = Integer.MAX_VALUE / 2;
+    
+    @Param({"1000", "100000", "1000000"})
+    public int tamanhoCatalogo;
+    
+    private Controlador controlador;
+    private String[] emails;
+    private Writer descarte;
+    
+    @Setup(Level.Trial)
+    public void preparar() {
+        controlador = Controlador.getInstancia();
+        Sistema.getInstancia().limparUsuarios();
+        Catalogo.getInstancia().limpar();
+        
+        emails = new String[USUARIOS];
+        for (int i = 0; i < USUARIOS; i++) {
+            emails[i] = "vendedor" + i + "@sistema.com";
+            controlador.cadastrarUsuario(new Vendedor(i + 1, "Vendedor " + i, emails[i], SENHA, 5.0));
+        }
+        
+        Produto[] lote = new Produto[TAMANHO_LOTE];
+        int quantidadeLote = 0;
+        for (int id = 1; id <= tamanhoCatalogo; id++) {
+            lote[quantidadeLote++] = criarProduto(id);
+            if (quantidadeLote == TAMANHO_LOTE || id == tamanhoCatalogo) {
+                controlador.cadastrarProdutos(lote, quantidadeLote);
+                quantidadeLote = 0;
+            }
+        }
+        
+        descarte = Writer.nullWriter();
+    }
+    
+    /**
+     * Reinicia o registro de vendas a cada iteração, para que as vendas medidas
+     * não acumulem memória, e o preenche para o relatório de vendas
+     */
+    @Setup(Level.Iteration)
+    public void prepararVendas() {
+        RegistroVendas registro = RegistroVendas.getInstancia();
+        registro.limpar();
+        for (int i = 0; i < VENDAS_RELATORIO; i++) {
+            registro.registrar(i, 1 + i % tamanhoCatalogo, 1 + i % USUARIOS, RegistroVendas.SEM_IDENTIFICACAO,
+                               1 + i % 5, 10.0);
+        }
+    }
+    
+    @Benchmark
+    public boolean realizarLogin() {
+        return controlador.realizarLogin(emails[ThreadLocalRandom.current().nextInt(USUARIOS)], SENHA);
+    }
+    
+    @Benchmark
+    public Produto buscarProduto() {
+        return controlador.buscarProduto(idAleatorio());
+    }
+    
+    @Benchmark
+    public boolean realizarVenda() {
+        return controlador.realizarVenda(idAleatorio(), 1);
+    }
+    
+    @Benchmark
+    public boolean atualizarEstoque() {
+        return controlador.atualizarEstoque(idAleatorio(), ESTOQUE_INICIAL);
+    }
+    
+    @Benchmark
+    public List<Produto> listarProdutos() {
+        return controlador.listarProdutos();
+    }
+    
+    @Benchmark
+    public void gerarRelatorioEstoque() throws IOException {
+        // O relatório é gerado em fluxo e descartado, medindo a montagem sem o custo de E/S
+        controlador.gerarRelatorioEstoque(descarte);
+    }
+    
+    @Benchmark
+    public String gerarRelatorioVendas() {
+        return controlador.gerarRelatorioVendas();
+    }
+    
+    private int idAleatorio() {
+        return 1 + ThreadLocalRandom.current().nextInt(tamanhoCatalogo);
+    }
+    
+    private static Produto criarProduto(int id) {
+        if ((id & 1) == 0) {
+            return new Muda(id, "Muda " + id, "Muda de viveiro", 5.0 + id % 50, ESTOQUE_INICIAL,
+                            "Espécie " + id % 40, 60, "Argiloso");
+        }
+        return new Humus(id, "Húmus " + id, "Húmus de minhoca", 15.5, ESTOQUE_INICIAL,
+                         "Minhoca", 2.5, "Nitrogênio");
+    }
+}
@@ -0,0 +1,72 @@
+package com.sistema.jmh;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sistema.model.Humus;
+import com.sistema.model.Produto;
+
+/**
+ * Mede a vazão de baixas e reposições de estoque concorrentes em um único
+ * produto, comparando o compare-and-set do Produto com a mesma operação
+ * protegida por uma trava. Cada chamada baixa e repõe uma unidade, mantendo
+ * o estoque estável.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EstoqueAtomicoBenchmark {
+    private static final int ESTOQUE_INICIAL = Integer.MAX_VALUE / 2;
+    
+    private Produto produto;
+    private ReentrantLock trava;
+    
+    @Setup(Level.Trial)
+    public void preparar() {
+        produto = new Humus(1, "Húmus", "Benchmark", 15.0, ESTOQUE_INICIAL, "Minhoca", 2.5, "Nitrogênio");
+        trava = new ReentrantLock();
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(2)
+    public boolean compareAndSet() {
+        boolean baixado = produto.reduzirEstoque(1);
+        produto.adicionarEstoque(1);
+        return baixado;
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(2)
+    public boolean comTrava() {
+        boolean baixado;
+        trava.lock();
+        try {
+            baixado = produto.reduzirEstoque(1);
+        } finally {
+            trava.unlock();
+        }
+        trava.lock();
+        try {
+            produto.adicionarEstoque(1);
+        } finally {
+            trava.unlock();
+        }
+        return baixado;
+    }
+}
@@ -0,0 +1,42 @@
+package com.sistema.jmh;
+
+import java.io.File;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Executa a suíte de benchmarks com 1, 4 e 16 threads e grava os resultados
+ * de cada execução em JSON, para comparação entre versões.
+ * 
+ * Execução: java -cp target/benchmarks.jar com.sistema.jmh.ExecutarBenchmarks [diretório] [filtro]
+ * (por padrão grava em resultados/ e executa todos os benchmarks do pacote)
+ */
+public class ExecutarBenchmarks {
+    private static final int[] THREADS = {1, 4, 16};
+    
+    public static void main(String[] args) throws RunnerException {
+        File diretorio = new File(args.length > 0 ? args[0] : "resultados");
+        String filtro = args.length > 1 ? args[1] : "com\\.sistema\\.jmh\\..*";
+        
+        if (!diretorio.isDirectory() && !diretorio.mkdirs()) {
+            throw new IllegalStateException("Não foi possível criar o diretório " + diretorio);
+        }
+        
+        for (int threads : THREADS) {
+            File resultado = new File(diretorio, "jmh-" + threads + "-threads.json");
+            Options opcoes = new OptionsBuilder()
+                .include(filtro)
+                .threads(threads)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultado.getPath())
+                .build();
+            
+            new Runner(opcoes).run();
+            System.out.println("Resultados com " + threads + " thread(s) gravados em " + resultado);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.sistema.jmh;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sistema.util.Formatador;
+
+/**
+ * Compara a formatação de datas e valores com SimpleDateFormat e String.format
+ * (como Util fazia antes) com o Formatador escrevendo em um StringBuilder reutilizado.
+ * Para ver os bytes alocados por chamada, execute com o perfilador de GC (-prof gc).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class FormatadorBenchmark {
+    private final StringBuilder destino = new StringBuilder(64);
+    private long instante = System.currentTimeMillis();
+    private double valor;
+    
+    @Benchmark
+    public String dataSimpleDateFormat() {
+        instante += 1000;
+        return new SimpleDateFormat("dd/MM/yyyy").format(new Date(instante));
+    }
+    
+    @Benchmark
+    public int dataFormatador() {
+        instante += 1000;
+        destino.setLength(0);
+        return Formatador.anexarData(destino, instante).length();
+    }
+    
+    @Benchmark
+    public String valorStringFormat() {
+        valor += 1.37;
+        return String.format("R$ %.2f", valor);
+    }
+    
+    @Benchmark
+    public int valorFormatador() {
+        valor += 1.37;
+        destino.setLength(0);
+        return Formatador.anexarValor(destino, valor).length();
+    }
+}
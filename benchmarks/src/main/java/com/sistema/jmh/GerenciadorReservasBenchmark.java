@@ -0,0 +1,84 @@
+package com.sistema.jmh;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sistema.model.Humus;
+import com.sistema.model.Produto;
+import com.sistema.service.GerenciadorReservas;
+import com.sistema.service.ReservaEstoque;
+
+/**
+ * Mede a vazão das reservas de estoque dos carrinhos: criar e liberar uma
+ * reserva, e ajustar uma reserva existente (como um cliente que muda a
+ * quantidade no carrinho), com as threads escolhendo entre PRODUTOS produtos.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GerenciadorReservasBenchmark {
+    private static final int PRODUTOS = 1000;
+    
+    private GerenciadorReservas gerenciador;
+    private Produto[] produtos;
+    
+    @Setup(Level.Trial)
+    public void preparar() {
+        gerenciador = new GerenciadorReservas();
+        produtos = new Produto[PRODUTOS];
+        for (int i = 0; i < PRODUTOS; i++) {
+            produtos[i] = new Humus(i + 1, "Húmus " + i, "Benchmark", 15.0, Integer.MAX_VALUE / 2,
+                                    "Minhoca", 2.5, "Nitrogênio");
+        }
+    }
+    
+    /**
+     * Reserva aberta por cada thread, ajustada no benchmark ajustar
+     */
+    @State(Scope.Thread)
+    public static class Carrinho {
+        ReservaEstoque reserva;
+        int quantidade;
+        
+        @Setup(Level.Trial)
+        public void preparar(GerenciadorReservasBenchmark benchmark) {
+            Produto produto = benchmark.produtos[ThreadLocalRandom.current().nextInt(PRODUTOS)];
+            reserva = benchmark.gerenciador.reservar(produto, 1);
+            quantidade = 1;
+        }
+        
+        @TearDown(Level.Trial)
+        public void liberar(GerenciadorReservasBenchmark benchmark) {
+            benchmark.gerenciador.liberar(reserva);
+        }
+    }
+    
+    @Benchmark
+    public int reservarELiberar() {
+        Produto produto = produtos[ThreadLocalRandom.current().nextInt(PRODUTOS)];
+        return gerenciador.liberar(gerenciador.reservar(produto, 1));
+    }
+    
+    @Benchmark
+    public boolean ajustar(Carrinho carrinho) {
+        // Alterna entre aumentar (renovando o prazo) e reduzir a reserva
+        carrinho.quantidade = carrinho.quantidade == 1 ? 2 : 1;
+        return gerenciador.ajustar(carrinho.reserva, carrinho.quantidade);
+    }
+}
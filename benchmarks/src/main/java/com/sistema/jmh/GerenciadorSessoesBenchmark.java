@@ -0,0 +1,53 @@
+package com.sistema.jmh;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sistema.model.Vendedor;
+import com.sistema.service.GerenciadorSessoes;
+import com.sistema.service.Sessao;
+
+/**
+ * Mede a vazão da resolução de tokens de sessão com SESSOES sessões abertas,
+ * o caminho percorrido por toda operação feita em nome de uma sessão.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GerenciadorSessoesBenchmark {
+    private static final int SESSOES = 300_000;
+    
+    private GerenciadorSessoes sessoes;
+    private String[] tokens;
+    
+    @Setup(Level.Trial)
+    public void preparar() {
+        Vendedor vendedor = new Vendedor(1, "Vendedor", "vendedor@benchmark.com", "s", 1.0);
+        // Tempo ocioso maior que a execução, para que nenhuma sessão expire durante a medição
+        sessoes = new GerenciadorSessoes(24 * 60 * 60_000L, SESSOES, System::currentTimeMillis);
+        tokens = new String[SESSOES];
+        for (int i = 0; i < SESSOES; i++) {
+            tokens[i] = sessoes.abrir(vendedor);
+        }
+    }
+    
+    @Benchmark
+    public Sessao buscar() {
+        return sessoes.buscar(tokens[ThreadLocalRandom.current().nextInt(SESSOES)]);
+    }
+}
@@ -0,0 +1,73 @@
+package com.sistema.jmh;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sistema.model.Muda;
+import com.sistema.model.Produto;
+import com.sistema.util.IndiceInteiro;
+
+/**
+ * Compara a busca de produtos por ID na varredura de ArrayList usada
+ * anteriormente com o IndiceInteiro, com catálogos de 1 mil e 100 mil produtos.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IndiceProdutosBenchmark {
+    
+    @Param({"1000", "100000"})
+    public int tamanhoCatalogo;
+    
+    private List<Produto> lista;
+    private IndiceInteiro<Produto> indice;
+    
+    @Setup(Level.Trial)
+    public void preparar() {
+        lista = new ArrayList<>(tamanhoCatalogo);
+        indice = new IndiceInteiro<>(tamanhoCatalogo);
+        for (int i = 1; i <= tamanhoCatalogo; i++) {
+            Muda muda = new Muda(i, "Muda " + i, "Benchmark", 5.0, 100, "Espécie", 30, "Solo");
+            lista.add(muda);
+            indice.inserir(i, muda);
+        }
+    }
+    
+    @Benchmark
+    public Produto buscarNaLista() {
+        int id = idAleatorio();
+        for (Produto produto : lista) {
+            if (produto.getId() == id) {
+                return produto;
+            }
+        }
+        return null;
+    }
+    
+    @Benchmark
+    public Produto buscarNoIndice() {
+        return indice.buscar(idAleatorio());
+    }
+    
+    private int idAleatorio() {
+        return 1 + ThreadLocalRandom.current().nextInt(tamanhoCatalogo);
+    }
+}
@@ -0,0 +1,67 @@
+package com.sistema.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sistema.model.Humus;
+import com.sistema.model.RegistroVendas;
+import com.sistema.service.Controlador;
+import com.sistema.service.MetricasControlador;
+
+/**
+ * Mede o custo das métricas no caminho da venda, comparando a latência de
+ * realizarVenda com as métricas desativadas, com a latência amostrada em
+ * 1 de cada 16 chamadas e com a latência medida em toda chamada.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MetricasControladorBenchmark {
+    private static final int ID_PRODUTO = 9500;
+    
+    @Param({"desativadas", "amostradas", "todas"})
+    public String metricas;
+    
+    private Controlador controlador;
+    
+    @Setup(Level.Trial)
+    public void preparar() {
+        controlador = Controlador.getInstancia();
+        controlador.cadastrarProduto(new Humus(ID_PRODUTO, "Húmus", "Benchmark", 15.0, Integer.MAX_VALUE,
+                                               "Minhoca", 2.5, "Nitrogênio"));
+        
+        MetricasControlador metricasControlador = controlador.getMetricas();
+        metricasControlador.setAtivo(!"desativadas".equals(metricas));
+        metricasControlador.setIntervaloAmostragem("todas".equals(metricas) ? 1 : 16);
+    }
+    
+    /**
+     * Repõe o estoque e reinicia o registro de vendas, para que as vendas medidas
+     * não esgotem o produto nem acumulem memória
+     */
+    @Setup(Level.Iteration)
+    public void reporEstoque() {
+        controlador.atualizarEstoque(ID_PRODUTO, Integer.MAX_VALUE);
+        RegistroVendas.getInstancia().limpar();
+    }
+    
+    @Benchmark
+    public boolean realizarVenda() {
+        return controlador.realizarVenda(ID_PRODUTO, 1);
+    }
+}
@@ -0,0 +1,63 @@
+package com.sistema.jmh;
+
+import java.time.ZoneOffset;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sistema.model.ClassificacaoVendedores;
+import com.sistema.model.PlacarVendedores;
+
+/**
+ * Mede a vazão das vendas registradas no placar diário e o custo de consultar
+ * os 10 vendedores com maior receita, com VENDEDORES vendedores dos quais poucos
+ * concentram a maior parte das vendas.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PlacarVendedoresBenchmark {
+    private static final int VENDEDORES = 100_000;
+    private static final int VENDAS_INICIAIS = 1_000_000;
+    
+    private PlacarVendedores placar;
+    
+    @Setup(Level.Trial)
+    public void preparar() {
+        placar = new PlacarVendedores(10, System::currentTimeMillis, ZoneOffset.UTC);
+        Random random = new Random(25);
+        for (int i = 0; i < VENDAS_INICIAIS; i++) {
+            placar.registrar(vendedorAleatorio(random.nextGaussian()), 100 + random.nextInt(10_000));
+        }
+    }
+    
+    @Benchmark
+    public void registrar() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        placar.registrar(vendedorAleatorio(random.nextGaussian()), 100 + random.nextInt(10_000));
+    }
+    
+    @Benchmark
+    public ClassificacaoVendedores getClassificacao() {
+        return placar.getClassificacao();
+    }
+    
+    private static int vendedorAleatorio(double gaussiana) {
+        return 1 + (int) Math.min(VENDEDORES - 1, Math.abs(gaussiana) * 2000);
+    }
+}
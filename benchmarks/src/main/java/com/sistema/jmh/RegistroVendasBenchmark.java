@@ -0,0 +1,71 @@
+package com.sistema.jmh;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sistema.model.RegistroVendas;
+import com.sistema.model.ResumoVendas;
+
+/**
+ * Mede a gravação de vendas no registro e a agregação das vendas gravadas:
+ * o resumo geral, mantido em contadores, e o resumo de um período, que
+ * percorre as entradas.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RegistroVendasBenchmark {
+    private static final int VENDAS = 1_000_000;
+    
+    private RegistroVendas registro;
+    private long instanteInicial;
+    
+    /**
+     * Reinicia o registro a cada iteração, para que as vendas gravadas pelo
+     * benchmark não acumulem memória, e o preenche com VENDAS vendas
+     */
+    @Setup(Level.Iteration)
+    public void preparar() {
+        registro = RegistroVendas.getInstancia();
+        registro.limpar();
+        instanteInicial = System.currentTimeMillis();
+        Random random = new Random(3);
+        for (int i = 0; i < VENDAS; i++) {
+            registro.registrar(instanteInicial + i, 1 + random.nextInt(100_000), 1 + random.nextInt(500),
+                               1 + random.nextInt(1_000_000), 1 + random.nextInt(20), 1 + random.nextInt(5000) / 100.0);
+        }
+    }
+    
+    @Benchmark
+    public void registrar() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        registro.registrar(1 + random.nextInt(100_000), 1 + random.nextInt(500), 1 + random.nextInt(1_000_000),
+                           1 + random.nextInt(20), 1 + random.nextInt(5000) / 100.0);
+    }
+    
+    @Benchmark
+    public ResumoVendas resumir() {
+        return registro.resumir();
+    }
+    
+    @Benchmark
+    public ResumoVendas resumirPeriodo() {
+        return registro.resumirPeriodo(instanteInicial, instanteInicial + VENDAS / 2);
+    }
+}
@@ -0,0 +1,93 @@
+package com.sistema.jmh;
+
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sistema.util.ValidadorCPF;
+
+/**
+ * Compara a validação anterior de CPF (String.matches("\\d{11}"), sem dígitos
+ * verificadores) com o ValidadorCPF, por CPF isolado e em coluna de bytes.
+ * Os resultados são em CPFs validados por segundo.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidadorCPFBenchmark {
+    private static final int QUANTIDADE = 100_000;
+    
+    private String[] cpfs;
+    private byte[] dados;
+    private int[] inicios;
+    private int[] fins;
+    
+    @Setup(Level.Trial)
+    public void preparar() {
+        Random aleatorio = new Random(7);
+        cpfs = new String[QUANTIDADE];
+        dados = new byte[QUANTIDADE * 12];
+        inicios = new int[QUANTIDADE];
+        fins = new int[QUANTIDADE];
+        
+        for (int i = 0; i < QUANTIDADE; i++) {
+            StringBuilder cpf = new StringBuilder(11);
+            for (int d = 0; d < 11; d++) {
+                cpf.append((char) ('0' + aleatorio.nextInt(10)));
+            }
+            cpfs[i] = cpf.toString();
+            byte[] bytes = cpfs[i].getBytes(StandardCharsets.US_ASCII);
+            System.arraycopy(bytes, 0, dados, i * 12, 11);
+            dados[i * 12 + 11] = '\n';
+            inicios[i] = i * 12;
+            fins[i] = i * 12 + 11;
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(QUANTIDADE)
+    public int stringMatches() {
+        int aceitos = 0;
+        for (String cpf : cpfs) {
+            if (cpf.matches("\\d{11}")) {
+                aceitos++;
+            }
+        }
+        return aceitos;
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(QUANTIDADE)
+    public int validarPorCpf() {
+        int aceitos = 0;
+        for (String cpf : cpfs) {
+            if (ValidadorCPF.validar(cpf)) {
+                aceitos++;
+            }
+        }
+        return aceitos;
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(QUANTIDADE)
+    public BitSet validarColuna() {
+        return ValidadorCPF.validarColuna(dados, inicios, fins, QUANTIDADE);
+    }
+}
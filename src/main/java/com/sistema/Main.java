@@ -1,6 +1,11 @@
 package com.sistema;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
 import com.sistema.model.*;
+import com.sistema.persistencia.GerenciadorPersistencia;
 import com.sistema.service.Controlador;
 import com.sistema.util.Util;
 
@@ -9,12 +14,66 @@ import com.sistema.util.Util;
  */
 public class Main {
     
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
         System.out.println("Iniciando o Sistema de Vendas...");
         
         // Obtém a instância do controlador
         Controlador controlador = Controlador.getInstancia();
         
+        // Recupera o estado gravado na execução anterior (instantâneo mais cauda do log)
+        GerenciadorPersistencia persistencia = GerenciadorPersistencia.abrir(Paths.get("dados"), 1000);
+        persistencia.iniciarInstantaneosPeriodicos(5, TimeUnit.MINUTES);
+        System.out.println("Estado recuperado em " + persistencia.getTempoRecuperacaoMillis() + " ms ("
+                           + persistencia.getRegistrosReaplicados() + " registros reaplicados do log).");
+        
+        if (controlador.listarProdutos().isEmpty()) {
+            cadastrarDadosDemonstracao(controlador);
+        }
+        
+        // Realiza algumas operações para demonstração
+        System.out.println("\nRealizando login como vendedor...");
+        if (controlador.realizarLogin("vendedor@sistema.com", "vend123")) {
+            System.out.println("Login realizado com sucesso!");
+            
+            // Realiza uma venda
+            System.out.println("\nRealizando venda de 10 mudas de tomate...");
+            Produto mudaTomate = buscarProdutoPorNome(controlador, "Muda de Tomate");
+            if (mudaTomate != null && controlador.realizarVenda(mudaTomate.getId(), 10)) {
+                System.out.println("Venda realizada com sucesso!");
+            } else {
+                System.out.println("Falha ao realizar a venda.");
+            }
+            
+            controlador.realizarLogout();
+        }
+        
+        // Realiza login como administrador
+        System.out.println("\nRealizando login como administrador...");
+        if (controlador.realizarLogin("admin@sistema.com", "admin123")) {
+            System.out.println("Login realizado com sucesso!");
+            
+            // Gera relatórios
+            System.out.println("\nGerando relatório de estoque:");
+            System.out.println(controlador.gerarRelatorioEstoque());
+            
+            System.out.println("\nGerando relatório de vendas:");
+            System.out.println(controlador.gerarRelatorioVendas());
+            
+            controlador.realizarLogout();
+        }
+        
+        // Grava um instantâneo para que a próxima execução reaplique apenas o que vier depois
+        persistencia.gravarInstantaneo();
+        persistencia.close();
+        
+        System.out.println("\nSistema de Vendas finalizado.");
+    }
+    
+    /**
+     * Cadastra usuários e produtos de demonstração na primeira execução
+     * @param controlador Controlador do sistema
+     */
+    private static void cadastrarDadosDemonstracao(Controlador controlador) {
         // Cria alguns usuários para demonstração
         Administrador admin = new Administrador(
             Util.gerarId(), 
@@ -38,7 +97,7 @@ public class Main {
             "Cliente Exemplo", 
             "cliente@email.com", 
             "cli123", 
-            "12345678901", 
+            "12345678909", 
             "Rua Exemplo, 123", 
             "11987654321"
         );
@@ -87,38 +146,20 @@ public class Main {
         controlador.cadastrarProduto(mudaTomate);
         controlador.cadastrarProduto(humusPremium);
         controlador.cadastrarProduto(estercoBovino);
-        
-        // Realiza algumas operações para demonstração
-        System.out.println("\nRealizando login como vendedor...");
-        if (controlador.realizarLogin("vendedor@sistema.com", "vend123")) {
-            System.out.println("Login realizado com sucesso!");
-            
-            // Realiza uma venda
-            System.out.println("\nRealizando venda de 10 mudas de tomate...");
-            if (controlador.realizarVenda(mudaTomate.getId(), 10)) {
-                System.out.println("Venda realizada com sucesso!");
-            } else {
-                System.out.println("Falha ao realizar a venda.");
+    }
+    
+    /**
+     * Busca um produto cadastrado pelo nome
+     * @param controlador Controlador do sistema
+     * @param nome Nome do produto
+     * @return Produto encontrado ou null se não existir
+     */
+    private static Produto buscarProdutoPorNome(Controlador controlador, String nome) {
+        for (Produto produto : controlador.listarProdutos()) {
+            if (produto.getNome().equals(nome)) {
+                return produto;
             }
-            
-            controlador.realizarLogout();
         }
-        
-        // Realiza login como administrador
-        System.out.println("\nRealizando login como administrador...");
-        if (controlador.realizarLogin("admin@sistema.com", "admin123")) {
-            System.out.println("Login realizado com sucesso!");
-            
-            // Gera relatórios
-            System.out.println("\nGerando relatório de estoque:");
-            System.out.println(controlador.gerarRelatorioEstoque());
-            
-            System.out.println("\nGerando relatório de vendas:");
-            System.out.println(controlador.gerarRelatorioVendas());
-            
-            controlador.realizarLogout();
-        }
-        
-        System.out.println("\nSistema de Vendas finalizado.");
+        return null;
     }
 }
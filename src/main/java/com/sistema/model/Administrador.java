@@ -69,7 +69,8 @@ public class Administrador extends Usuario {
      * @return Relatório de vendas em formato de texto
      */
     public String gerarRelatorioVendas() {
-        return "Relatório de Vendas gerado pelo administrador " + getNome() + " do departamento " + departamento;
+        return "Relatório de Vendas gerado pelo administrador " + getNome() + " do departamento " + departamento
+               + "\n" + RegistroVendas.getInstancia().gerarRelatorio();
     }
     
     /**
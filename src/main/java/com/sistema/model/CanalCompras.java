@@ -0,0 +1,60 @@
+package com.sistema.model;
+
+/**
+ * Operações de estoque e de venda de que o carrinho do Cliente depende.
+ * Implementada pela camada de serviço (Controlador.getCanalCompras()), o que
+ * mantém o modelo independente dela.
+ */
+public interface CanalCompras {
+    
+    /**
+     * Reserva unidades disponíveis de um produto por tempo limitado
+     * @param produto Produto a reservar
+     * @param quantidade Quantidade a reservar
+     * @return Reserva criada ou null se não houver quantidade disponível
+     */
+    Reserva reservar(Produto produto, int quantidade);
+    
+    /**
+     * Altera a quantidade de uma reserva aberta, renovando o seu prazo
+     * @param reserva Reserva emitida por este canal
+     * @param quantidade Nova quantidade reservada
+     * @return true se a reserva foi ajustada, false caso contrário
+     */
+    boolean ajustar(Reserva reserva, int quantidade);
+    
+    /**
+     * Libera as unidades de uma reserva
+     * @param reserva Reserva emitida por este canal (null é ignorado)
+     * @return Quantidade liberada (zero se a reserva já estava encerrada)
+     */
+    int liberar(Reserva reserva);
+    
+    /**
+     * Encerra uma reserva para uma compra, sem liberar as unidades no produto
+     * @param reserva Reserva emitida por este canal (null se a linha não tiver reserva)
+     * @return Quantidade reservada tomada
+     */
+    int tomar(Reserva reserva);
+    
+    /**
+     * Reabre uma reserva tomada cuja compra não foi concluída
+     * @param reserva Reserva tomada
+     * @param quantidadeTomada Quantidade devolvida por tomar()
+     * @return true se a reserva foi reaberta, false caso contrário
+     */
+    boolean devolver(Reserva reserva, int quantidadeTomada);
+    
+    /**
+     * Vende um pedido com várias linhas, tudo ou nada, consumindo as reservas tomadas
+     * e cobrando os preços informados
+     * @param idsProdutos IDs dos produtos de cada linha
+     * @param quantidades Quantidade de cada linha
+     * @param reservadas Parte de cada linha já reservada pelo comprador
+     * @param precosUnitarios Preço unitário de cada linha
+     * @param idCliente ID do cliente comprador
+     * @return Resultado com a situação de cada linha e o valor total vendido
+     */
+    ResultadoLote venderPedido(int[] idsProdutos, int[] quantidades, int[] reservadas,
+                               double[] precosUnitarios, int idCliente);
+}
@@ -0,0 +1,193 @@
+package com.sistema.model;
+
+import java.util.Arrays;
+
+import com.sistema.util.IndiceInteiro;
+
+/**
+ * Carrinho de compras formado por linhas primitivas (ID do produto, quantidade
+ * e preço unitário em centavos).
+ *
+ * O IndiceInteiro guarda o ID de cada linha e a sua posição no vetor denso;
+ * quantidades e preços ficam em colunas alinhadas a esse vetor. O valor total é
+ * atualizado a cada inclusão ou remoção, de modo que consultar o total custa O(1)
+ * independentemente do número de linhas.
+ *
+ * O preço unitário de cada linha é o do produto no momento da primeira inclusão,
+ * e é esse o preço cobrado na finalização da compra.
+ *
+ * Esta classe não é thread-safe; a sincronização fica a cargo de quem a utiliza.
+ */
+public class CarrinhoCompras {
+    private static final int CAPACIDADE_INICIAL = 8;
+
+    private final IndiceInteiro<Void> linhas;
+    private int[] quantidades;
+    private long[] precosCentavos;
+    private long totalCentavos;
+    private long totalItens;
+
+    /**
+     * Construtor padrão
+     */
+    public CarrinhoCompras() {
+        this.linhas = new IndiceInteiro<>(CAPACIDADE_INICIAL);
+        this.quantidades = new int[CAPACIDADE_INICIAL];
+        this.precosCentavos = new long[CAPACIDADE_INICIAL];
+    }
+
+    /**
+     * Adiciona unidades de um produto, somando à linha existente se o produto já estiver no carrinho
+     *
+     * @param produto Produto a ser adicionado
+     * @param quantidade Quantidade a ser adicionada
+     * @return true se a operação for bem-sucedida, false caso contrário
+     */
+    public boolean adicionar(Produto produto, int quantidade) {
+        if (produto == null || quantidade <= 0) {
+            return false;
+        }
+
+        int posicao = linhas.posicaoDe(produto.getId());
+        if (posicao >= 0) {
+            if (quantidades[posicao] > Integer.MAX_VALUE - quantidade) {
+                return false;
+            }
+            quantidades[posicao] += quantidade;
+            totalCentavos += precosCentavos[posicao] * quantidade;
+            totalItens += quantidade;
+            return true;
+        }
+
+        posicao = linhas.inserirChave(produto.getId());
+        if (posicao == quantidades.length) {
+            quantidades = Arrays.copyOf(quantidades, posicao * 2);
+            precosCentavos = Arrays.copyOf(precosCentavos, posicao * 2);
+        }
+
+        long preco = Math.round(produto.getPreco() * 100.0);
+        quantidades[posicao] = quantidade;
+        precosCentavos[posicao] = preco;
+        totalCentavos += preco * quantidade;
+        totalItens += quantidade;
+        return true;
+    }
+
+    /**
+     * Remove unidades de um produto; a linha é removida quando a quantidade chega a zero
+     *
+     * @param idProduto ID do produto
+     * @param quantidade Quantidade a ser removida
+     * @return true se a operação for bem-sucedida, false se o produto não estiver no carrinho
+     *         ou a quantidade for inválida
+     */
+    public boolean remover(int idProduto, int quantidade) {
+        if (quantidade <= 0) {
+            return false;
+        }
+
+        int posicao = linhas.posicaoDe(idProduto);
+        if (posicao < 0 || quantidade > quantidades[posicao]) {
+            return false;
+        }
+        if (quantidade == quantidades[posicao]) {
+            removerLinha(idProduto, posicao);
+            return true;
+        }
+
+        quantidades[posicao] -= quantidade;
+        totalCentavos -= precosCentavos[posicao] * quantidade;
+        totalItens -= quantidade;
+        return true;
+    }
+
+    /**
+     * Remove a linha inteira de um produto
+     *
+     * @param idProduto ID do produto
+     * @return Quantidade removida ou 0 se o produto não estiver no carrinho
+     */
+    public int remover(int idProduto) {
+        int posicao = linhas.posicaoDe(idProduto);
+        return posicao < 0 ? 0 : removerLinha(idProduto, posicao);
+    }
+
+    /**
+     * Obtém a quantidade de um produto no carrinho
+     *
+     * @param idProduto ID do produto
+     * @return Quantidade no carrinho ou 0 se o produto não estiver presente
+     */
+    public int quantidadeDe(int idProduto) {
+        int posicao = linhas.posicaoDe(idProduto);
+        return posicao < 0 ? 0 : quantidades[posicao];
+    }
+
+    /**
+     * Esvazia o carrinho
+     */
+    public void limpar() {
+        linhas.limpar();
+        totalCentavos = 0;
+        totalItens = 0;
+    }
+
+    public int idProdutoNaPosicao(int posicao) {
+        return linhas.chaveNaPosicao(posicao);
+    }
+
+    public int quantidadeNaPosicao(int posicao) {
+        verificarPosicao(posicao);
+        return quantidades[posicao];
+    }
+
+    public long precoCentavosNaPosicao(int posicao) {
+        verificarPosicao(posicao);
+        return precosCentavos[posicao];
+    }
+
+    // Getters
+    public long getTotalCentavos() {
+        return totalCentavos;
+    }
+
+    public double getTotal() {
+        return totalCentavos / 100.0;
+    }
+
+    public long getQuantidadeItens() {
+        return totalItens;
+    }
+
+    public int getQuantidadeLinhas() {
+        return linhas.tamanho();
+    }
+
+    public boolean isVazio() {
+        return linhas.isVazio();
+    }
+
+    private void verificarPosicao(int posicao) {
+        if (posicao < 0 || posicao >= linhas.tamanho()) {
+            throw new IndexOutOfBoundsException("Posição inválida: " + posicao);
+        }
+    }
+
+    /**
+     * Remove uma linha, descontando-a dos totais. O índice move a última linha
+     * para a posição liberada, e as colunas acompanham a mesma mudança.
+     */
+    private int removerLinha(int idProduto, int posicao) {
+        int quantidade = quantidades[posicao];
+        totalCentavos -= precosCentavos[posicao] * quantidade;
+        totalItens -= quantidade;
+
+        linhas.remover(idProduto);
+        int ultima = linhas.tamanho();
+        if (posicao != ultima) {
+            quantidades[posicao] = quantidades[ultima];
+            precosCentavos[posicao] = precosCentavos[ultima];
+        }
+        return quantidade;
+    }
+}
@@ -0,0 +1,325 @@
+package com.sistema.model;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import com.sistema.util.IndiceInteiro;
+
+/**
+ * Classe que representa o catálogo de produtos do sistema.
+ * É o único repositório de produtos: o Sistema e o Estoque leem e escrevem
+ * por meio dele, de modo que cada alteração é aplicada uma única vez.
+ * Implementa o padrão Singleton e é thread-safe.
+ * 
+ * Os totais do estoque (produtos diferentes, unidades e valor) são mantidos
+ * incrementalmente a cada alteração de quantidade ou preço dos produtos
+ * cadastrados e podem ser lidos em tempo constante durante as vendas.
+ */
+public class Catalogo {
+    private static volatile Catalogo instancia;
+    private final IndiceInteiro<Produto> produtos;
+    private final ReadWriteLock trava;
+    private volatile int totalProdutos;
+    private final LongAdder totalUnidades;
+    private final LongAdder valorTotalCentavos;
+    private final ObservadorEstoque observadorTotais;
+    
+    /**
+     * Construtor privado para implementar o padrão Singleton
+     */
+    private Catalogo() {
+        this.produtos = new IndiceInteiro<>();
+        this.trava = new ReentrantReadWriteLock();
+        this.totalUnidades = new LongAdder();
+        this.valorTotalCentavos = new LongAdder();
+        this.observadorTotais = new ObservadorTotais();
+    }
+    
+    /**
+     * Método para obter a instância única do catálogo (Singleton)
+     * @return Instância única do catálogo
+     */
+    public static Catalogo getInstancia() {
+        Catalogo local = instancia;
+        if (local == null) {
+            synchronized (Catalogo.class) {
+                local = instancia;
+                if (local == null) {
+                    local = new Catalogo();
+                    instancia = local;
+                }
+            }
+        }
+        return local;
+    }
+    
+    /**
+     * Adiciona um produto ao catálogo
+     * @param produto Produto a ser adicionado
+     * @return true se o produto foi adicionado, false se for nulo ou o ID já existir
+     */
+    public boolean adicionar(Produto produto) {
+        if (produto == null) {
+            return false;
+        }
+        
+        trava.writeLock().lock();
+        try {
+            if (!produtos.inserir(produto.getId(), produto)) {
+                return false;
+            }
+            totalProdutos = produtos.tamanho();
+            // O observador é registrado antes da leitura da quantidade inicial
+            produto.setObservador(observadorTotais);
+            observadorTotais.quantidadeAlterada(produto, produto.getQuantidadeEstoque());
+            return true;
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Adiciona vários produtos ao catálogo obtendo a trava uma única vez.
+     * Produtos nulos ou com ID já cadastrado (no catálogo ou antes no próprio
+     * vetor) são rejeitados e substituídos por null no vetor, de modo que ao
+     * final ele contém apenas os produtos adicionados.
+     * @param produtos Vetor de produtos a adicionar
+     * @param quantidade Quantidade de posições do vetor a considerar
+     * @return Quantidade de produtos adicionados
+     */
+    public int adicionarTodos(Produto[] produtos, int quantidade) {
+        int adicionados = 0;
+        long unidades = 0;
+        long centavos = 0;
+        
+        trava.writeLock().lock();
+        try {
+            for (int i = 0; i < quantidade; i++) {
+                Produto produto = produtos[i];
+                if (produto == null || !this.produtos.inserir(produto.getId(), produto)) {
+                    produtos[i] = null;
+                    continue;
+                }
+                produto.setObservador(observadorTotais);
+                int estoque = produto.getQuantidadeEstoque();
+                unidades += estoque;
+                centavos += emCentavos(produto.getPreco()) * estoque;
+                adicionados++;
+            }
+            totalProdutos = this.produtos.tamanho();
+            // Os totais do lote são somados de uma vez
+            totalUnidades.add(unidades);
+            valorTotalCentavos.add(centavos);
+            return adicionados;
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Remove um produto do catálogo
+     * @param id ID do produto a ser removido
+     * @return Produto removido ou null se não existir
+     */
+    public Produto remover(int id) {
+        trava.writeLock().lock();
+        try {
+            Produto removido = produtos.remover(id);
+            if (removido != null) {
+                totalProdutos = produtos.tamanho();
+                removido.setObservador(null);
+                observadorTotais.quantidadeAlterada(removido, -removido.getQuantidadeEstoque());
+            }
+            return removido;
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Remove todos os produtos do catálogo e zera os totais
+     */
+    public void limpar() {
+        trava.writeLock().lock();
+        try {
+            for (int i = 0; i < produtos.tamanho(); i++) {
+                produtos.valorNaPosicao(i).setObservador(null);
+            }
+            produtos.limpar();
+            totalProdutos = 0;
+            totalUnidades.reset();
+            valorTotalCentavos.reset();
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Busca um produto pelo ID
+     * @param id ID do produto a ser buscado
+     * @return Produto encontrado ou null se não existir
+     */
+    public Produto buscar(int id) {
+        trava.readLock().lock();
+        try {
+            return produtos.buscar(id);
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Busca vários produtos com uma única obtenção da trava de leitura
+     * @param ids IDs dos produtos a serem buscados
+     * @return Produtos encontrados, na mesma ordem dos IDs (null onde não existir)
+     */
+    public Produto[] buscarVarios(int[] ids) {
+        Produto[] encontrados = new Produto[ids.length];
+        
+        trava.readLock().lock();
+        try {
+            for (int i = 0; i < ids.length; i++) {
+                encontrados[i] = produtos.buscar(ids[i]);
+            }
+        } finally {
+            trava.readLock().unlock();
+        }
+        
+        return encontrados;
+    }
+    
+    /**
+     * Lista todos os produtos do catálogo
+     * @return Cópia da lista de produtos
+     */
+    public List<Produto> listar() {
+        trava.readLock().lock();
+        try {
+            return produtos.listarValores();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Percorre todos os produtos do catálogo sem copiar a lista.
+     * A ação é executada com a trava de leitura obtida e não deve alterar o catálogo.
+     * @param acao Ação executada para cada produto
+     */
+    public void paraCada(Consumer<Produto> acao) {
+        trava.readLock().lock();
+        try {
+            for (int i = 0; i < produtos.tamanho(); i++) {
+                acao.accept(produtos.valorNaPosicao(i));
+            }
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Copia uma faixa de produtos para um vetor fornecido por quem chama,
+     * permitindo percorrer o catálogo em blocos sem copiá-lo inteiro.
+     * Produtos removidos durante a varredura podem deslocar outros entre blocos.
+     * @param inicio Posição do primeiro produto da faixa
+     * @param destino Vetor que recebe os produtos
+     * @return Quantidade de produtos copiados (zero ao fim do catálogo)
+     */
+    public int copiarFaixa(int inicio, Produto[] destino) {
+        trava.readLock().lock();
+        try {
+            int quantidade = Math.max(0, Math.min(destino.length, produtos.tamanho() - inicio));
+            for (int i = 0; i < quantidade; i++) {
+                destino[i] = produtos.valorNaPosicao(inicio + i);
+            }
+            return quantidade;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Obtém a quantidade de produtos diferentes no catálogo
+     * @return Quantidade de produtos
+     */
+    public int tamanho() {
+        trava.readLock().lock();
+        try {
+            return produtos.tamanho();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Obtém a quantidade de produtos diferentes sem obter travas
+     * @return Quantidade de produtos diferentes
+     */
+    public int getTotalProdutosDiferentes() {
+        return totalProdutos;
+    }
+    
+    /**
+     * Obtém a soma das quantidades em estoque de todos os produtos
+     * @return Total de unidades em estoque
+     */
+    public long getTotalUnidades() {
+        return totalUnidades.sum();
+    }
+    
+    /**
+     * Obtém o valor total do estoque (preço unitário vezes quantidade)
+     * @return Valor total em estoque
+     */
+    public double getValorTotal() {
+        return valorTotalCentavos.sum() / 100.0;
+    }
+    
+    /**
+     * Recalcula o valor total percorrendo todos os produtos.
+     * Corrige desvios causados por alterações de preço concorrentes com vendas.
+     * A quantidade total só muda pelas variações notificadas pelos produtos e não
+     * precisa de correção. A correção do valor é somada ao total em vez de zerá-lo,
+     * de modo que atualizações feitas depois da leitura não se perdem; para que a
+     * leitura seja exata, as vendas devem estar suspensas (ver
+     * Controlador.recalcularTotaisEstoque).
+     */
+    public void recalcularTotais() {
+        trava.writeLock().lock();
+        try {
+            long centavos = 0;
+            for (int i = 0; i < produtos.tamanho(); i++) {
+                Produto produto = produtos.valorNaPosicao(i);
+                centavos += emCentavos(produto.getPreco()) * produto.getQuantidadeEstoque();
+            }
+            valorTotalCentavos.add(centavos - valorTotalCentavos.sum());
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+    
+    private static long emCentavos(double valor) {
+        return Math.round(valor * 100.0);
+    }
+    
+    /**
+     * Atualiza os totais do catálogo a partir das notificações dos produtos
+     */
+    private class ObservadorTotais implements ObservadorEstoque {
+        
+        @Override
+        public void quantidadeAlterada(Produto produto, int delta) {
+            totalUnidades.add(delta);
+            valorTotalCentavos.add(emCentavos(produto.getPreco()) * delta);
+        }
+        
+        @Override
+        public void precoAlterado(Produto produto, double precoAnterior, double novoPreco) {
+            long diferenca = emCentavos(novoPreco) - emCentavos(precoAnterior);
+            valorTotalCentavos.add(diferenca * produto.getQuantidadeEstoque());
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.sistema.model;
+
+import java.time.LocalDate;
+
+/**
+ * Classificação dos vendedores com maior receita em um dia, em ordem decrescente.
+ * Obtida de PlacarVendedores; os valores não mudam depois de criada.
+ */
+public class ClassificacaoVendedores {
+    private final LocalDate dia;
+    private final int[] idsVendedores;
+    private final long[] receitasCentavos;
+
+    /**
+     * Construtor com parâmetros
+     *
+     * @param dia Dia da classificação
+     * @param idsVendedores IDs dos vendedores, do maior para o menor
+     * @param receitasCentavos Receita do dia de cada vendedor, em centavos
+     */
+    ClassificacaoVendedores(LocalDate dia, int[] idsVendedores, long[] receitasCentavos) {
+        this.dia = dia;
+        this.idsVendedores = idsVendedores;
+        this.receitasCentavos = receitasCentavos;
+    }
+
+    public LocalDate getDia() {
+        return dia;
+    }
+
+    public int getQuantidade() {
+        return idsVendedores.length;
+    }
+
+    public int getIdVendedor(int posicao) {
+        return idsVendedores[posicao];
+    }
+
+    public long getReceitaCentavos(int posicao) {
+        return receitasCentavos[posicao];
+    }
+
+    public double getReceita(int posicao) {
+        return receitasCentavos[posicao] / 100.0;
+    }
+
+    @Override
+    public String toString() {
+        return "ClassificacaoVendedores [dia=" + dia + ", vendedores=" + idsVendedores.length + "]";
+    }
+}
@@ -3,24 +3,31 @@ package com.sistema.model;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.sistema.util.IndiceInteiro;
+
 /**
  * Classe que representa um Cliente no sistema.
  * Herda da classe abstrata Usuario e implementa funcionalidades específicas de cliente.
+ * As reservas e as vendas do carrinho passam pelo CanalCompras informado em cada
+ * operação (em geral Controlador.getCanalCompras()).
  */
 public class Cliente extends Usuario {
     private String cpf;
     private String endereco;
     private String telefone;
-    private List<Produto> carrinhoCompras;
-    private List<Produto> historicoCompras;
+    private final CarrinhoCompras carrinhoCompras;
+    // Reserva de estoque de cada linha do carrinho, indexada pelo ID do produto
+    private final IndiceInteiro<Reserva> reservas;
+    private final HistoricoCompras historicoCompras;
     
     /**
      * Construtor padrão
      */
     public Cliente() {
         super();
-        this.carrinhoCompras = new ArrayList<>();
-        this.historicoCompras = new ArrayList<>();
+        this.carrinhoCompras = new CarrinhoCompras();
+        this.reservas = new IndiceInteiro<>();
+        this.historicoCompras = new HistoricoCompras();
     }
     
     /**
@@ -39,76 +46,182 @@ public class Cliente extends Usuario {
         this.cpf = cpf;
         this.endereco = endereco;
         this.telefone = telefone;
-        this.carrinhoCompras = new ArrayList<>();
-        this.historicoCompras = new ArrayList<>();
+        this.carrinhoCompras = new CarrinhoCompras();
+        this.reservas = new IndiceInteiro<>();
+        this.historicoCompras = new HistoricoCompras();
     }
     
     /**
-     * Adiciona um produto ao carrinho de compras
+     * Adiciona um produto ao carrinho de compras.
+     * Se o produto já estiver no carrinho, a quantidade é somada à linha existente.
+     * As unidades ficam reservadas no estoque por tempo limitado, renovado a cada inclusão.
      * 
+     * @param canal Canal que reserva as unidades
      * @param produto Produto a ser adicionado
      * @param quantidade Quantidade a ser adicionada
      * @return true se a operação for bem-sucedida, false caso contrário
      */
-    public boolean adicionarAoCarrinho(Produto produto, int quantidade) {
-        if (produto == null || quantidade <= 0 || produto.getQuantidadeEstoque() < quantidade) {
+    public synchronized boolean adicionarAoCarrinho(CanalCompras canal, Produto produto, int quantidade) {
+        if (produto == null || quantidade <= 0) {
             return false;
         }
         
-        // Adiciona o produto ao carrinho (simplificado para este exemplo)
-        carrinhoCompras.add(produto);
-        return true;
+        // A reserva precisa cobrir tudo o que já está no carrinho mais a nova quantidade
+        long desejada = (long) carrinhoCompras.quantidadeDe(produto.getId()) + quantidade;
+        if (desejada > Integer.MAX_VALUE) {
+            return false;
+        }
+        
+        Reserva reserva = reservas.buscar(produto.getId());
+        if (reserva == null) {
+            reserva = canal.reservar(produto, (int) desejada);
+            if (reserva == null) {
+                return false;
+            }
+            reservas.inserir(produto.getId(), reserva);
+        } else if (!canal.ajustar(reserva, (int) desejada)) {
+            return false;
+        }
+        
+        return carrinhoCompras.adicionar(produto, quantidade);
     }
     
     /**
-     * Remove um produto do carrinho de compras
+     * Remove um produto do carrinho de compras, liberando a sua reserva
      * 
+     * @param canal Canal que emitiu a reserva
      * @param idProduto ID do produto a ser removido
      * @return true se a operação for bem-sucedida, false caso contrário
      */
-    public boolean removerDoCarrinho(int idProduto) {
-        for (int i = 0; i < carrinhoCompras.size(); i++) {
-            if (carrinhoCompras.get(i).getId() == idProduto) {
-                carrinhoCompras.remove(i);
-                return true;
-            }
+    public synchronized boolean removerDoCarrinho(CanalCompras canal, int idProduto) {
+        if (carrinhoCompras.remover(idProduto) == 0) {
+            return false;
         }
         
-        return false;
+        canal.liberar(reservas.remover(idProduto));
+        return true;
     }
     
     /**
-     * Finaliza a compra dos produtos no carrinho
+     * Remove parte das unidades de um produto do carrinho de compras, liberando-as da reserva
      * 
-     * @return true se a compra for bem-sucedida, false caso contrário
+     * @param canal Canal que emitiu a reserva
+     * @param idProduto ID do produto
+     * @param quantidade Quantidade a ser removida
+     * @return true se a operação for bem-sucedida, false caso contrário
      */
-    public boolean finalizarCompra() {
-        if (carrinhoCompras.isEmpty()) {
+    public synchronized boolean removerDoCarrinho(CanalCompras canal, int idProduto, int quantidade) {
+        if (!carrinhoCompras.remover(idProduto, quantidade)) {
             return false;
         }
         
-        // Adiciona os produtos do carrinho ao histórico de compras
-        historicoCompras.addAll(carrinhoCompras);
-        
-        // Limpa o carrinho de compras
-        carrinhoCompras.clear();
-        
+        int restante = carrinhoCompras.quantidadeDe(idProduto);
+        if (restante == 0) {
+            canal.liberar(reservas.remover(idProduto));
+        } else {
+            Reserva reserva = reservas.buscar(idProduto);
+            // Uma reserva já expirada continua expirada: reduzir não a renova
+            if (reserva != null && !reserva.isEncerrada() && reserva.getQuantidade() > restante) {
+                canal.ajustar(reserva, restante);
+            }
+        }
         return true;
     }
     
     /**
-     * Calcula o valor total do carrinho de compras
+     * Finaliza a compra dos produtos no carrinho
      * 
-     * @return Valor total do carrinho
+     * @param canal Canal que realiza a venda
+     * @return true se a compra for bem-sucedida, false caso contrário
      */
-    public double calcularTotalCarrinho() {
-        double total = 0.0;
+    public boolean finalizarCompra(CanalCompras canal) {
+        ResultadoLote resultado = finalizarCompraDetalhada(canal);
+        return resultado != null && resultado.isSucesso();
+    }
+    
+    /**
+     * Finaliza a compra dos produtos no carrinho como um único pedido tudo ou nada.
+     * O estoque de todas as linhas é baixado atomicamente pelo canal, consumindo
+     * as reservas ainda válidas; linhas com reserva expirada dependem do estoque disponível.
+     * Cada linha é cobrada pelo preço fixado no carrinho, o mesmo de calcularTotalCarrinho.
+     * Se alguma linha não puder ser atendida, nada é baixado e o carrinho e as reservas
+     * permanecem inalterados. Se o canal lançar uma exceção (por exemplo, quando o
+     * log recusa a venda), as reservas já foram consumidas: o carrinho é esvaziado e as
+     * unidades não vendidas voltaram ao estoque disponível.
+     * 
+     * @param canal Canal que realiza a venda
+     * @return Resultado com a situação de cada linha do carrinho, ou null se o carrinho estiver vazio
+     */
+    public synchronized ResultadoLote finalizarCompraDetalhada(CanalCompras canal) {
+        int linhas = carrinhoCompras.getQuantidadeLinhas();
+        if (linhas == 0) {
+            return null;
+        }
+        
+        int[] idsProdutos = new int[linhas];
+        int[] quantidades = new int[linhas];
+        int[] reservadas = new int[linhas];
+        double[] precos = new double[linhas];
+        Reserva[] tomadas = new Reserva[linhas];
+        for (int i = 0; i < linhas; i++) {
+            idsProdutos[i] = carrinhoCompras.idProdutoNaPosicao(i);
+            quantidades[i] = carrinhoCompras.quantidadeNaPosicao(i);
+            precos[i] = carrinhoCompras.precoCentavosNaPosicao(i) / 100.0;
+            // Tomar a reserva impede que ela expire durante a compra
+            tomadas[i] = reservas.buscar(idsProdutos[i]);
+            reservadas[i] = canal.tomar(tomadas[i]);
+        }
         
-        for (Produto produto : carrinhoCompras) {
-            total += produto.getPreco();
+        ResultadoLote resultado;
+        try {
+            resultado = canal.venderPedido(idsProdutos, quantidades, reservadas, precos, getId());
+        } catch (RuntimeException e) {
+            // Os vetores montados a partir do carrinho são válidos, então a falha ocorreu depois
+            // da baixa: as reservas foram consumidas e o canal devolveu as unidades ao
+            // estoque disponível (ou a venda ficou aplicada), então as linhas saem do carrinho
+            carrinhoCompras.limpar();
+            reservas.limpar();
+            throw e;
         }
         
-        return total;
+        if (!resultado.isSucesso()) {
+            // Nada foi baixado: as reservas voltam a valer com o prazo original
+            for (int i = 0; i < linhas; i++) {
+                canal.devolver(tomadas[i], reservadas[i]);
+            }
+        } else {
+            // Registra cada linha no histórico de compras com o preço praticado na venda
+            long instante = System.currentTimeMillis();
+            for (int i = 0; i < linhas; i++) {
+                historicoCompras.registrar(instante, idsProdutos[i], quantidades[i], resultado.getPrecoUnitario(i));
+            }
+            
+            // Limpa o carrinho de compras
+            carrinhoCompras.limpar();
+            reservas.limpar();
+        }
+        
+        return resultado;
+    }
+    
+    /**
+     * Calcula o valor total do carrinho de compras.
+     * O total é mantido a cada inclusão e remoção, portanto a consulta é O(1).
+     * 
+     * @return Valor total do carrinho
+     */
+    public synchronized double calcularTotalCarrinho() {
+        return carrinhoCompras.getTotal();
+    }
+    
+    /**
+     * Obtém a quantidade de um produto no carrinho de compras
+     * 
+     * @param idProduto ID do produto
+     * @return Quantidade no carrinho ou 0 se o produto não estiver presente
+     */
+    public synchronized int getQuantidadeNoCarrinho(int idProduto) {
+        return carrinhoCompras.quantidadeDe(idProduto);
     }
     
     @Override
@@ -141,12 +254,43 @@ public class Cliente extends Usuario {
         this.telefone = telefone;
     }
     
-    public List<Produto> getCarrinhoCompras() {
-        return new ArrayList<>(carrinhoCompras);
+    /**
+     * Obtém os produtos do carrinho, um por linha, na ordem de inclusão
+     * 
+     * @return Cópia da lista de produtos do carrinho
+     */
+    public synchronized List<Produto> getCarrinhoCompras() {
+        // Cada linha do carrinho tem a sua reserva, que guarda o produto reservado
+        int linhas = carrinhoCompras.getQuantidadeLinhas();
+        List<Produto> produtos = new ArrayList<>(linhas);
+        for (int i = 0; i < linhas; i++) {
+            produtos.add(reservas.buscar(carrinhoCompras.idProdutoNaPosicao(i)).getProduto());
+        }
+        return produtos;
+    }
+    
+    /**
+     * Obtém as compras do histórico, em ordem de registro.
+     * As compras antigas gravadas em disco são lidas nesta chamada.
+     * 
+     * @return Cópia da lista de compras do histórico
+     */
+    public synchronized List<ItemCompra> getHistoricoCompras() {
+        return historicoCompras.listar();
+    }
+    
+    /**
+     * Percorre as compras do histórico sem criar um objeto por compra
+     * 
+     * @param consumidor Função que recebe cada compra
+     * @return Quantidade de compras percorridas
+     */
+    public synchronized int percorrerHistoricoCompras(ConsumidorCompra consumidor) {
+        return historicoCompras.percorrer(consumidor);
     }
     
-    public List<Produto> getHistoricoCompras() {
-        return new ArrayList<>(historicoCompras);
+    public synchronized int getQuantidadeCompras() {
+        return historicoCompras.getQuantidade();
     }
     
     @Override
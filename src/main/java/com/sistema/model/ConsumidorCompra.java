@@ -0,0 +1,17 @@
+package com.sistema.model;
+
+/**
+ * Interface que recebe as compras percorridas no HistoricoCompras de um cliente.
+ * Os campos são entregues como valores primitivos, sem criar um objeto por compra.
+ */
+public interface ConsumidorCompra {
+    
+    /**
+     * Recebe uma compra do histórico
+     * @param instante Instante da compra em milissegundos desde a época
+     * @param idProduto ID do produto comprado
+     * @param quantidade Quantidade comprada
+     * @param precoUnitario Preço unitário pago
+     */
+    void aceitar(long instante, int idProduto, int quantidade, double precoUnitario);
+}
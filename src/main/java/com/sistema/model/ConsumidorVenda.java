@@ -0,0 +1,19 @@
+package com.sistema.model;
+
+/**
+ * Interface que recebe as vendas percorridas no RegistroVendas.
+ * Os campos são entregues como valores primitivos, sem criar um objeto por venda.
+ */
+public interface ConsumidorVenda {
+    
+    /**
+     * Recebe uma venda do registro
+     * @param instante Instante da venda em milissegundos desde a época
+     * @param idProduto ID do produto vendido
+     * @param idVendedor ID do vendedor
+     * @param idCliente ID do cliente
+     * @param quantidade Quantidade vendida
+     * @param precoUnitario Preço unitário praticado
+     */
+    void aceitar(long instante, int idProduto, int idVendedor, int idCliente, int quantidade, double precoUnitario);
+}
@@ -47,10 +47,6 @@ public class Esterco extends Produto implements Vendavel, Estocavel {
     
     @Override
     public boolean vender(int quantidade) {
-        if (quantidade <= 0 || quantidade > getQuantidadeEstoque()) {
-            return false;
-        }
-        
         return reduzirEstoque(quantidade);
     }
     
@@ -69,24 +65,16 @@ public class Esterco extends Produto implements Vendavel, Estocavel {
             return false;
         }
         
-        return getQuantidadeEstoque() >= quantidade;
+        return getQuantidadeDisponivel() >= quantidade;
     }
     
     @Override
     public boolean adicionarAoEstoque(int quantidade) {
-        if (quantidade <= 0) {
-            return false;
-        }
-        
         return adicionarEstoque(quantidade);
     }
     
     @Override
     public boolean removerDoEstoque(int quantidade) {
-        if (quantidade <= 0 || quantidade > getQuantidadeEstoque()) {
-            return false;
-        }
-        
         return reduzirEstoque(quantidade);
     }
     
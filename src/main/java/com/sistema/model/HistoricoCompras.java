@@ -0,0 +1,277 @@
+package com.sistema.model;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import com.sistema.persistencia.SegmentosHistorico;
+
+/**
+ * Histórico de compras de um cliente guardado como registros primitivos
+ * (instante, ID do produto, quantidade e preço unitário em centavos), sem
+ * referências aos objetos Produto.
+ *
+ * As compras mais recentes ficam no heap em vetores paralelos. Quando o bloco
+ * recente enche, ele é codificado com deltas em varints, comprimido e gravado
+ * nos SegmentosHistorico, restando no heap apenas o localizador do bloco. Os
+ * blocos gravados só são lidos (e suas páginas carregadas) quando o histórico
+ * é percorrido. Se a gravação falhar, os registros continuam no heap.
+ *
+ * Esta classe não é thread-safe; a sincronização fica a cargo de quem a utiliza.
+ */
+public class HistoricoCompras {
+    public static final int LIMITE_RECENTES_PADRAO = 64;
+
+    private static final int CAPACIDADE_INICIAL = 4;
+    private static final long[] SEM_BLOCOS = new long[0];
+
+    private final boolean compartilhado;
+    private final int limiteRecentes;
+    private SegmentosHistorico segmentos;
+
+    private long[] instantes;
+    private int[] idsProdutos;
+    private int[] quantidades;
+    private int[] precosCentavos;
+    private int tamanho;
+
+    private long[] blocos;
+    private int quantidadeBlocos;
+    private int quantidadeArquivada;
+
+    /**
+     * Construtor padrão: 64 compras recentes no heap e blocos antigos gravados na
+     * instância compartilhada de SegmentosHistorico, obtida apenas na primeira gravação
+     */
+    public HistoricoCompras() {
+        this(null, LIMITE_RECENTES_PADRAO, true);
+    }
+
+    /**
+     * Construtor com parâmetros
+     *
+     * @param segmentos Arquivos onde os blocos antigos são gravados (null para manter tudo no heap)
+     * @param limiteRecentes Quantidade de compras mantidas no heap antes de gravar um bloco
+     */
+    public HistoricoCompras(SegmentosHistorico segmentos, int limiteRecentes) {
+        this(segmentos, limiteRecentes, false);
+    }
+
+    private HistoricoCompras(SegmentosHistorico segmentos, int limiteRecentes, boolean compartilhado) {
+        if (limiteRecentes <= 0) {
+            throw new IllegalArgumentException("Limite de compras recentes deve ser positivo");
+        }
+        this.segmentos = segmentos;
+        this.compartilhado = compartilhado;
+        this.limiteRecentes = limiteRecentes;
+        this.blocos = SEM_BLOCOS;
+        // Os vetores são criados na primeira compra: muitos clientes nunca compram
+        this.instantes = new long[0];
+        this.idsProdutos = new int[0];
+        this.quantidades = new int[0];
+        this.precosCentavos = new int[0];
+    }
+
+    /**
+     * Registra uma compra no histórico
+     *
+     * @param instante Instante da compra em milissegundos desde a época
+     * @param idProduto ID do produto comprado
+     * @param quantidade Quantidade comprada
+     * @param precoUnitario Preço unitário pago
+     */
+    public void registrar(long instante, int idProduto, int quantidade, double precoUnitario) {
+        // Após uma falha de gravação, tenta de novo a cada limiteRecentes compras
+        if (usaSegmentos() && tamanho >= limiteRecentes && tamanho % limiteRecentes == 0) {
+            arquivarRecentes();
+        }
+        if (tamanho == instantes.length) {
+            crescer();
+        }
+
+        instantes[tamanho] = instante;
+        idsProdutos[tamanho] = idProduto;
+        quantidades[tamanho] = quantidade;
+        precosCentavos[tamanho] = (int) Math.round(precoUnitario * 100.0);
+        tamanho++;
+    }
+
+    /**
+     * Percorre as compras em ordem de registro, lendo os blocos gravados em disco
+     *
+     * @param consumidor Função que recebe cada compra
+     * @return Quantidade de compras percorridas
+     */
+    public int percorrer(ConsumidorCompra consumidor) {
+        int percorridas = 0;
+        for (int b = 0; b < quantidadeBlocos; b++) {
+            percorridas += percorrerBloco(blocos[b], consumidor);
+        }
+        for (int i = 0; i < tamanho; i++) {
+            consumidor.aceitar(instantes[i], idsProdutos[i], quantidades[i], precosCentavos[i] / 100.0);
+        }
+        return percorridas + tamanho;
+    }
+
+    /**
+     * Copia as compras para uma nova lista, em ordem de registro
+     *
+     * @return Lista com as compras do histórico
+     */
+    public List<ItemCompra> listar() {
+        List<ItemCompra> lista = new ArrayList<>(getQuantidade());
+        percorrer((instante, idProduto, quantidade, precoUnitario) ->
+                  lista.add(new ItemCompra(instante, idProduto, quantidade, precoUnitario)));
+        return lista;
+    }
+
+    public int getQuantidade() {
+        return quantidadeArquivada + tamanho;
+    }
+
+    public int getQuantidadeArquivada() {
+        return quantidadeArquivada;
+    }
+
+    public int getQuantidadeRecentes() {
+        return tamanho;
+    }
+
+    public boolean isVazio() {
+        return getQuantidade() == 0;
+    }
+
+    /**
+     * Grava as compras recentes como um bloco comprimido e esvazia o bloco recente.
+     * Formato antes da compressão: quantidade de registros e, para cada registro,
+     * deltas do instante e do ID do produto (zigzag), quantidade e preço em varints.
+     */
+    private void arquivarRecentes() {
+        ByteBuffer codificado = ByteBuffer.allocate(4 + tamanho * 4 * 10);
+        escreverVarint(codificado, tamanho);
+        long instanteAnterior = 0;
+        int idAnterior = 0;
+        for (int i = 0; i < tamanho; i++) {
+            escreverVarint(codificado, zigzag(instantes[i] - instanteAnterior));
+            escreverVarint(codificado, zigzag((long) idsProdutos[i] - idAnterior));
+            escreverVarint(codificado, zigzag(quantidades[i]));
+            escreverVarint(codificado, zigzag(precosCentavos[i]));
+            instanteAnterior = instantes[i];
+            idAnterior = idsProdutos[i];
+        }
+        codificado.flip();
+
+        Deflater compressor = new Deflater(Deflater.BEST_SPEED);
+        try {
+            if (segmentos == null) {
+                segmentos = SegmentosHistorico.getInstancia();
+            }
+            compressor.setInput(codificado);
+            compressor.finish();
+            ByteBuffer comprimido = ByteBuffer.allocate(codificado.remaining() + 64);
+            while (!compressor.finished()) {
+                if (!comprimido.hasRemaining()) {
+                    comprimido = ByteBuffer.allocate(comprimido.capacity() * 2).put(comprimido.flip());
+                }
+                compressor.deflate(comprimido);
+            }
+            comprimido.flip();
+
+            long localizador = segmentos.gravar(comprimido);
+            if (quantidadeBlocos == blocos.length) {
+                blocos = Arrays.copyOf(blocos, Math.max(4, blocos.length * 2));
+            }
+            blocos[quantidadeBlocos++] = localizador;
+            quantidadeArquivada += tamanho;
+            tamanho = 0;
+        } catch (IOException | UncheckedIOException e) {
+            // Sem espaço em disco, as compras continuam no heap e o vetor cresce
+        } finally {
+            compressor.end();
+        }
+    }
+
+    private int percorrerBloco(long localizador, ConsumidorCompra consumidor) {
+        Inflater descompressor = new Inflater();
+        try {
+            descompressor.setInput(segmentos.ler(localizador));
+            ByteBuffer codificado = ByteBuffer.allocate(4 + limiteRecentes * 4 * 10);
+            while (!descompressor.finished()) {
+                if (!codificado.hasRemaining()) {
+                    codificado = ByteBuffer.allocate(codificado.capacity() * 2).put(codificado.flip());
+                }
+                if (descompressor.inflate(codificado) == 0 && descompressor.needsInput()) {
+                    throw new IOException("Bloco de histórico incompleto");
+                }
+            }
+            codificado.flip();
+
+            int registros = (int) lerVarint(codificado);
+            long instante = 0;
+            long idProduto = 0;
+            for (int i = 0; i < registros; i++) {
+                instante += dezigzag(lerVarint(codificado));
+                idProduto += dezigzag(lerVarint(codificado));
+                int quantidade = (int) dezigzag(lerVarint(codificado));
+                long preco = dezigzag(lerVarint(codificado));
+                consumidor.aceitar(instante, (int) idProduto, quantidade, preco / 100.0);
+            }
+            return registros;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (DataFormatException e) {
+            throw new UncheckedIOException(new IOException("Bloco de histórico corrompido", e));
+        } finally {
+            descompressor.end();
+        }
+    }
+
+    private void crescer() {
+        int capacidade = Math.max(CAPACIDADE_INICIAL, instantes.length * 2);
+        if (usaSegmentos() && instantes.length < limiteRecentes) {
+            capacidade = Math.min(capacidade, limiteRecentes);
+        }
+        instantes = Arrays.copyOf(instantes, capacidade);
+        idsProdutos = Arrays.copyOf(idsProdutos, capacidade);
+        quantidades = Arrays.copyOf(quantidades, capacidade);
+        precosCentavos = Arrays.copyOf(precosCentavos, capacidade);
+    }
+
+    private boolean usaSegmentos() {
+        return segmentos != null || compartilhado;
+    }
+
+    private static long zigzag(long valor) {
+        return (valor << 1) ^ (valor >> 63);
+    }
+
+    private static long dezigzag(long valor) {
+        return (valor >>> 1) ^ -(valor & 1);
+    }
+
+    private static void escreverVarint(ByteBuffer destino, long valor) {
+        while ((valor & ~0x7FL) != 0) {
+            destino.put((byte) ((valor & 0x7F) | 0x80));
+            valor >>>= 7;
+        }
+        destino.put((byte) valor);
+    }
+
+    private static long lerVarint(ByteBuffer origem) {
+        long valor = 0;
+        for (int deslocamento = 0; deslocamento < 64; deslocamento += 7) {
+            byte b = origem.get();
+            valor |= (long) (b & 0x7F) << deslocamento;
+            if (b >= 0) {
+                return valor;
+            }
+        }
+        throw new IllegalStateException("Varint inválido");
+    }
+}
@@ -44,10 +44,6 @@ public class Humus extends Produto implements Vendavel, Estocavel {
     
     @Override
     public boolean vender(int quantidade) {
-        if (quantidade <= 0 || quantidade > getQuantidadeEstoque()) {
-            return false;
-        }
-        
         return reduzirEstoque(quantidade);
     }
     
@@ -66,24 +62,16 @@ public class Humus extends Produto implements Vendavel, Estocavel {
             return false;
         }
         
-        return getQuantidadeEstoque() >= quantidade;
+        return getQuantidadeDisponivel() >= quantidade;
     }
     
     @Override
     public boolean adicionarAoEstoque(int quantidade) {
-        if (quantidade <= 0) {
-            return false;
-        }
-        
         return adicionarEstoque(quantidade);
     }
     
     @Override
     public boolean removerDoEstoque(int quantidade) {
-        if (quantidade <= 0 || quantidade > getQuantidadeEstoque()) {
-            return false;
-        }
-        
         return reduzirEstoque(quantidade);
     }
     
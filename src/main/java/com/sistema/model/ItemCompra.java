@@ -0,0 +1,59 @@
+package com.sistema.model;
+
+/**
+ * Compra registrada no histórico de um cliente.
+ * Guarda apenas o ID do produto, sem manter o objeto Produto em memória.
+ */
+public class ItemCompra {
+    private final long instante;
+    private final int idProduto;
+    private final int quantidade;
+    private final double precoUnitario;
+    
+    /**
+     * Construtor com parâmetros
+     * 
+     * @param instante Instante da compra em milissegundos desde a época
+     * @param idProduto ID do produto comprado
+     * @param quantidade Quantidade comprada
+     * @param precoUnitario Preço unitário pago
+     */
+    public ItemCompra(long instante, int idProduto, int quantidade, double precoUnitario) {
+        this.instante = instante;
+        this.idProduto = idProduto;
+        this.quantidade = quantidade;
+        this.precoUnitario = precoUnitario;
+    }
+    
+    /**
+     * Calcula o valor total da compra
+     * 
+     * @return Preço unitário vezes a quantidade
+     */
+    public double getValorTotal() {
+        return precoUnitario * quantidade;
+    }
+    
+    // Getters
+    public long getInstante() {
+        return instante;
+    }
+    
+    public int getIdProduto() {
+        return idProduto;
+    }
+    
+    public int getQuantidade() {
+        return quantidade;
+    }
+    
+    public double getPrecoUnitario() {
+        return precoUnitario;
+    }
+    
+    @Override
+    public String toString() {
+        return "ItemCompra [instante=" + instante + ", idProduto=" + idProduto + ", quantidade=" + quantidade
+               + ", precoUnitario=" + precoUnitario + "]";
+    }
+}
@@ -0,0 +1,23 @@
+package com.sistema.model;
+
+/**
+ * Interface notificada a cada alteração de quantidade ou preço de um produto.
+ * Usada pelo Catalogo para manter os totais do estoque sem percorrer os produtos.
+ */
+interface ObservadorEstoque {
+    
+    /**
+     * Notifica uma alteração na quantidade em estoque
+     * @param produto Produto alterado
+     * @param delta Variação da quantidade (negativa em vendas)
+     */
+    void quantidadeAlterada(Produto produto, int delta);
+    
+    /**
+     * Notifica uma alteração no preço unitário
+     * @param produto Produto alterado
+     * @param precoAnterior Preço antes da alteração
+     * @param novoPreco Preço após a alteração
+     */
+    void precoAlterado(Produto produto, double precoAnterior, double novoPreco);
+}
@@ -0,0 +1,291 @@
+package com.sistema.model;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Placar dos vendedores com maior receita no dia, atualizado a cada venda.
+ *
+ * A receita do dia de cada vendedor fica em um LongAdder próprio. O placar guarda
+ * apenas os vendedores classificados e o limiar de entrada (a menor receita entre
+ * eles): uma venda só toma a trava do dia quando o total do vendedor supera o
+ * limiar e ele ainda não está classificado. As vendas dos vendedores já
+ * classificados somam apenas no seu contador, e a ordem entre eles é calculada
+ * na consulta, que lê no máximo tamanho contadores, independentemente do número
+ * de vendedores. O placar recomeça à meia-noite do fuso informado.
+ * Implementa o padrão Singleton e é thread-safe.
+ */
+public class PlacarVendedores {
+    public static final int TAMANHO_PADRAO = 10;
+
+    private static volatile PlacarVendedores instancia;
+
+    private final int tamanho;
+    private final LongSupplier relogio;
+    private final ZoneId fuso;
+    private volatile Dia dia;
+
+    /**
+     * Construtor privado para implementar o padrão Singleton
+     */
+    private PlacarVendedores() {
+        this(TAMANHO_PADRAO, System::currentTimeMillis, ZoneId.systemDefault());
+    }
+
+    /**
+     * Construtor com parâmetros
+     *
+     * @param tamanho Quantidade de vendedores classificados
+     * @param relogio Fonte do instante atual em milissegundos
+     * @param fuso Fuso horário que define o início de cada dia
+     */
+    public PlacarVendedores(int tamanho, LongSupplier relogio, ZoneId fuso) {
+        if (tamanho <= 0) {
+            throw new IllegalArgumentException("Tamanho do placar deve ser positivo");
+        }
+        this.tamanho = tamanho;
+        this.relogio = relogio;
+        this.fuso = fuso;
+        this.dia = criarDia(relogio.getAsLong());
+    }
+
+    /**
+     * Método para obter a instância única do placar (Singleton)
+     * @return Instância única do placar de vendedores
+     */
+    public static PlacarVendedores getInstancia() {
+        PlacarVendedores local = instancia;
+        if (local == null) {
+            synchronized (PlacarVendedores.class) {
+                local = instancia;
+                if (local == null) {
+                    local = new PlacarVendedores();
+                    instancia = local;
+                }
+            }
+        }
+        return local;
+    }
+
+    /**
+     * Soma a receita de uma venda ao vendedor no dia atual
+     * @param idVendedor ID do vendedor
+     * @param receitaCentavos Valor da venda em centavos
+     */
+    public void registrar(int idVendedor, long receitaCentavos) {
+        somar(diaAtual(), idVendedor, receitaCentavos);
+    }
+
+    /**
+     * Soma a receita de uma venda feita em um instante conhecido, como as vendas
+     * recuperadas do registro. Vendas de outros dias não entram no placar.
+     * @param idVendedor ID do vendedor
+     * @param receitaCentavos Valor da venda em centavos
+     * @param instante Instante da venda em milissegundos
+     */
+    public void registrar(int idVendedor, long receitaCentavos, long instante) {
+        Dia atual = diaAtual();
+        if (instante >= atual.inicio && instante < atual.fim) {
+            somar(atual, idVendedor, receitaCentavos);
+        }
+    }
+
+    /**
+     * Descarta as receitas e a classificação do dia atual
+     */
+    public synchronized void limpar() {
+        dia = criarDia(relogio.getAsLong());
+    }
+
+    private void somar(Dia atual, int idVendedor, long receitaCentavos) {
+        LongAdder receita = atual.receitas.get(idVendedor);
+        if (receita == null) {
+            receita = atual.receitas.computeIfAbsent(idVendedor, id -> new LongAdder());
+        }
+        receita.add(receitaCentavos);
+
+        // O limiar só cresce, então quem não o supera não pode entrar no placar
+        if (receita.sum() > atual.limiar && !atual.classificados.contem(idVendedor)) {
+            atual.classificar(idVendedor, receita, tamanho);
+        }
+    }
+
+    /**
+     * Obtém os vendedores com maior receita no dia atual
+     * @return Classificação do dia, com no máximo tamanho vendedores
+     */
+    public ClassificacaoVendedores getClassificacao() {
+        Dia atual = diaAtual();
+        Classificados classificados = atual.classificados;
+        int quantidade = classificados.ids.length;
+        int[] ids = new int[quantidade];
+        long[] receitas = new long[quantidade];
+
+        for (int i = 0; i < quantidade; i++) {
+            long valor = classificados.receitas[i].sum();
+            // Inserção ordenada em um vetor pequeno
+            int j = i;
+            while (j > 0 && receitas[j - 1] < valor) {
+                ids[j] = ids[j - 1];
+                receitas[j] = receitas[j - 1];
+                j--;
+            }
+            ids[j] = classificados.ids[i];
+            receitas[j] = valor;
+        }
+
+        return new ClassificacaoVendedores(atual.data, ids, receitas);
+    }
+
+    /**
+     * Obtém a receita de um vendedor no dia atual
+     * @param idVendedor ID do vendedor
+     * @return Receita do dia em centavos ou 0 se o vendedor não vendeu hoje
+     */
+    public long getReceitaDoDiaCentavos(int idVendedor) {
+        LongAdder receita = diaAtual().receitas.get(idVendedor);
+        return receita == null ? 0 : receita.sum();
+    }
+
+    public int getTamanho() {
+        return tamanho;
+    }
+
+    /**
+     * Obtém o dia atual, iniciando um novo placar na virada do dia.
+     * Vendas ainda em andamento no dia anterior somam no placar antigo, já descartado.
+     */
+    private Dia diaAtual() {
+        long agora = relogio.getAsLong();
+        Dia atual = dia;
+        if (agora >= atual.inicio && agora < atual.fim) {
+            return atual;
+        }
+
+        synchronized (this) {
+            atual = dia;
+            // Um relógio que volta atrás continua no dia mais recente
+            if (agora >= atual.fim) {
+                atual = criarDia(agora);
+                dia = atual;
+            }
+            return atual;
+        }
+    }
+
+    private Dia criarDia(long instante) {
+        LocalDate data = Instant.ofEpochMilli(instante).atZone(fuso).toLocalDate();
+        long inicio = data.atStartOfDay(fuso).toInstant().toEpochMilli();
+        long fim = data.plusDays(1).atStartOfDay(fuso).toInstant().toEpochMilli();
+        return new Dia(data, inicio, fim);
+    }
+
+    /**
+     * Receitas e vendedores classificados de um dia
+     */
+    private static final class Dia {
+        final LocalDate data;
+        final long inicio;
+        final long fim;
+        final ConcurrentHashMap<Integer, LongAdder> receitas;
+        volatile Classificados classificados;
+        // Menor receita entre os classificados quando o placar está cheio
+        volatile long limiar;
+
+        Dia(LocalDate data, long inicio, long fim) {
+            this.data = data;
+            this.inicio = inicio;
+            this.fim = fim;
+            this.receitas = new ConcurrentHashMap<>();
+            this.classificados = new Classificados(new int[0], new LongAdder[0]);
+            this.limiar = Long.MIN_VALUE;
+        }
+
+        /**
+         * Inclui um vendedor no placar, substituindo o classificado de menor receita
+         * se o placar estiver cheio. As receitas dos classificados são relidas aqui,
+         * então o limiar publicado nunca passa da receita real do último colocado.
+         */
+        synchronized void classificar(int idVendedor, LongAdder receita, int tamanho) {
+            while (!classificados.contem(idVendedor)) {
+                Classificados atuais = classificados;
+                int quantidade = atuais.ids.length;
+                if (quantidade < tamanho) {
+                    int[] ids = Arrays.copyOf(atuais.ids, quantidade + 1);
+                    LongAdder[] receitasClassificados = Arrays.copyOf(atuais.receitas, quantidade + 1);
+                    ids[quantidade] = idVendedor;
+                    receitasClassificados[quantidade] = receita;
+                    publicar(ids, receitasClassificados, tamanho);
+                    return;
+                }
+
+                int menor = posicaoDaMenorReceita(atuais.receitas);
+                long menorValor = atuais.receitas[menor].sum();
+                if (receita.sum() <= menorValor) {
+                    limiar = menorValor;
+                    return;
+                }
+
+                int[] ids = atuais.ids.clone();
+                LongAdder[] receitasClassificados = atuais.receitas.clone();
+                ids[menor] = idVendedor;
+                receitasClassificados[menor] = receita;
+                publicar(ids, receitasClassificados, tamanho);
+
+                // O vendedor retirado pode ter vendido depois da leitura e disputa a vaga de novo
+                idVendedor = atuais.ids[menor];
+                receita = atuais.receitas[menor];
+                if (receita.sum() <= limiar) {
+                    return;
+                }
+            }
+        }
+
+        private void publicar(int[] ids, LongAdder[] receitasClassificados, int tamanho) {
+            classificados = new Classificados(ids, receitasClassificados);
+            if (ids.length == tamanho) {
+                limiar = receitasClassificados[posicaoDaMenorReceita(receitasClassificados)].sum();
+            }
+        }
+
+        private static int posicaoDaMenorReceita(LongAdder[] receitasClassificados) {
+            int menor = 0;
+            long menorValor = Long.MAX_VALUE;
+            for (int i = 0; i < receitasClassificados.length; i++) {
+                long valor = receitasClassificados[i].sum();
+                if (valor < menorValor) {
+                    menor = i;
+                    menorValor = valor;
+                }
+            }
+            return menor;
+        }
+    }
+
+    /**
+     * Vendedores classificados e seus contadores, publicados juntos
+     */
+    private static final class Classificados {
+        final int[] ids;
+        final LongAdder[] receitas;
+
+        Classificados(int[] ids, LongAdder[] receitas) {
+            this.ids = ids;
+            this.receitas = receitas;
+        }
+
+        boolean contem(int idVendedor) {
+            for (int id : ids) {
+                if (id == idVendedor) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
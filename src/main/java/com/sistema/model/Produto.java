@@ -1,15 +1,28 @@
 package com.sistema.model;
 
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
 /**
  * Classe abstrata que representa um produto no sistema.
  * Serve como base para os diferentes tipos de produtos.
+ * A quantidade em estoque é alterada com operações atômicas (compare-and-set),
+ * sem travas, podendo ser vendida e reposta por várias threads ao mesmo tempo.
+ * 
+ * A quantidade em estoque e a quantidade reservada em carrinhos ficam juntas em
+ * um único long (estoque nos 32 bits altos, reservas nos 32 baixos), de modo que
+ * vendas e reservas são verificadas contra o mesmo instantâneo em um único
+ * compare-and-set. As vendas comuns só consomem unidades não reservadas.
  */
 public abstract class Produto {
+    private static final AtomicLongFieldUpdater<Produto> ESTOQUE =
+        AtomicLongFieldUpdater.newUpdater(Produto.class, "estoqueReservas");
+    
     private int id;
     private String nome;
     private String descricao;
-    private double preco;
-    private int quantidadeEstoque;
+    private volatile double preco;
+    private volatile long estoqueReservas;
+    private volatile ObservadorEstoque observador;
     
     /**
      * Construtor padrão
@@ -31,7 +44,7 @@ public abstract class Produto {
         this.nome = nome;
         this.descricao = descricao;
         this.preco = preco;
-        this.quantidadeEstoque = quantidadeEstoque;
+        this.estoqueReservas = compor(quantidadeEstoque, 0);
     }
     
     /**
@@ -41,15 +54,40 @@ public abstract class Produto {
     public abstract String getInformacoesEspecificas();
     
     /**
-     * Método para atualizar o estoque após uma venda
+     * Método para atualizar o estoque após uma venda.
+     * Reduz a quantidade somente se houver ao menos a quantidade pedida disponível
+     * (sem contar as unidades reservadas), em um único passo atômico.
      * @param quantidade Quantidade vendida
      * @return true se a operação foi bem-sucedida, false caso contrário
      */
     public boolean reduzirEstoque(int quantidade) {
-        if (quantidade <= 0 || quantidade > this.quantidadeEstoque) {
+        return reduzirEstoque(quantidade, 0);
+    }
+    
+    /**
+     * Reduz o estoque consumindo parte da quantidade de reservas feitas por quem compra.
+     * As unidades reservadas saem do estoque e das reservas; o restante precisa estar disponível.
+     * @param quantidade Quantidade vendida
+     * @param reservada Parte da quantidade vendida que já estava reservada pelo comprador
+     * @return true se a operação foi bem-sucedida, false caso contrário
+     */
+    public boolean reduzirEstoque(int quantidade, int reservada) {
+        if (quantidade <= 0 || reservada < 0 || reservada > quantidade) {
             return false;
         }
-        this.quantidadeEstoque -= quantidade;
+        
+        long atual;
+        do {
+            atual = this.estoqueReservas;
+            int estoque = estoqueDe(atual);
+            int reservas = reservasDe(atual);
+            if (reservas < reservada || (long) estoque - reservas < quantidade - reservada) {
+                return false;
+            }
+        } while (!ESTOQUE.compareAndSet(this, atual, compor(estoqueDe(atual) - quantidade,
+                                                             reservasDe(atual) - reservada)));
+        
+        notificarQuantidade(-quantidade);
         return true;
     }
     
@@ -59,13 +97,90 @@ public abstract class Produto {
      * @return true se a operação foi bem-sucedida, false caso contrário
      */
     public boolean adicionarEstoque(int quantidade) {
+        return devolverEstoque(quantidade, 0);
+    }
+    
+    /**
+     * Devolve ao estoque uma venda desfeita, restaurando também as reservas que ela consumiu
+     * @param quantidade Quantidade devolvida ao estoque
+     * @param reservada Parte da quantidade que volta a ficar reservada
+     * @return true se a operação foi bem-sucedida, false caso contrário
+     */
+    public boolean devolverEstoque(int quantidade, int reservada) {
+        if (quantidade <= 0 || reservada < 0 || reservada > quantidade) {
+            return false;
+        }
+        
+        long atual;
+        do {
+            atual = this.estoqueReservas;
+            if (estoqueDe(atual) > Integer.MAX_VALUE - quantidade) {
+                return false;
+            }
+        } while (!ESTOQUE.compareAndSet(this, atual, compor(estoqueDe(atual) + quantidade,
+                                                             reservasDe(atual) + reservada)));
+        
+        notificarQuantidade(quantidade);
+        return true;
+    }
+    
+    /**
+     * Reserva unidades disponíveis, sem retirá-las do estoque
+     * @param quantidade Quantidade a reservar
+     * @return true se havia quantidade disponível e a reserva foi feita, false caso contrário
+     */
+    public boolean reservar(int quantidade) {
         if (quantidade <= 0) {
             return false;
         }
-        this.quantidadeEstoque += quantidade;
+        
+        long atual;
+        do {
+            atual = this.estoqueReservas;
+            if ((long) estoqueDe(atual) - reservasDe(atual) < quantidade) {
+                return false;
+            }
+        } while (!ESTOQUE.compareAndSet(this, atual, compor(estoqueDe(atual), reservasDe(atual) + quantidade)));
+        
         return true;
     }
     
+    /**
+     * Libera unidades reservadas, tornando-as novamente disponíveis
+     * @param quantidade Quantidade a liberar
+     * @return Quantidade efetivamente liberada (limitada ao total reservado)
+     */
+    public int liberarReserva(int quantidade) {
+        if (quantidade <= 0) {
+            return 0;
+        }
+        
+        long atual;
+        int liberada;
+        do {
+            atual = this.estoqueReservas;
+            liberada = Math.min(quantidade, reservasDe(atual));
+        } while (liberada > 0
+                 && !ESTOQUE.compareAndSet(this, atual, compor(estoqueDe(atual), reservasDe(atual) - liberada)));
+        
+        return liberada;
+    }
+    
+    /**
+     * Define quem é notificado das alterações de estoque e preço deste produto
+     * @param observador Observador (null para deixar de notificar)
+     */
+    void setObservador(ObservadorEstoque observador) {
+        this.observador = observador;
+    }
+    
+    private void notificarQuantidade(int delta) {
+        ObservadorEstoque atual = observador;
+        if (atual != null && delta != 0) {
+            atual.quantidadeAlterada(this, delta);
+        }
+    }
+    
     // Getters e Setters
     public int getId() {
         return id;
@@ -96,19 +211,67 @@ public abstract class Produto {
     }
     
     public void setPreco(double preco) {
+        double anterior = this.preco;
         this.preco = preco;
+        
+        ObservadorEstoque atual = observador;
+        if (atual != null && anterior != preco) {
+            atual.precoAlterado(this, anterior, preco);
+        }
     }
     
     public int getQuantidadeEstoque() {
-        return quantidadeEstoque;
+        return estoqueDe(estoqueReservas);
+    }
+    
+    public int getQuantidadeReservada() {
+        return reservasDe(estoqueReservas);
+    }
+    
+    /**
+     * Obtém a quantidade que pode ser vendida ou reservada, descontadas as reservas
+     * @return Quantidade em estoque não reservada (nunca negativa)
+     */
+    public int getQuantidadeDisponivel() {
+        long atual = estoqueReservas;
+        return (int) Math.max(0L, (long) estoqueDe(atual) - reservasDe(atual));
     }
     
     public void setQuantidadeEstoque(int quantidadeEstoque) {
-        this.quantidadeEstoque = quantidadeEstoque;
+        alterarQuantidadeEstoque(quantidadeEstoque);
+    }
+    
+    /**
+     * Substitui a quantidade em estoque de forma atômica
+     * @param quantidadeEstoque Nova quantidade
+     * @return Quantidade anterior à substituição
+     */
+    public int alterarQuantidadeEstoque(int quantidadeEstoque) {
+        // As reservas são preservadas; se o estoque ficar abaixo delas, nada fica disponível
+        long atual;
+        do {
+            atual = this.estoqueReservas;
+        } while (!ESTOQUE.compareAndSet(this, atual, compor(quantidadeEstoque, reservasDe(atual))));
+        
+        int anterior = estoqueDe(atual);
+        notificarQuantidade(quantidadeEstoque - anterior);
+        return anterior;
+    }
+    
+    private static long compor(int estoque, int reservas) {
+        return ((long) estoque << 32) | (reservas & 0xFFFFFFFFL);
+    }
+    
+    private static int estoqueDe(long estoqueReservas) {
+        return (int) (estoqueReservas >> 32);
+    }
+    
+    private static int reservasDe(long estoqueReservas) {
+        return (int) estoqueReservas;
     }
     
     @Override
     public String toString() {
-        return "Produto [id=" + id + ", nome=" + nome + ", preco=" + preco + ", quantidadeEstoque=" + quantidadeEstoque + "]";
+        return "Produto [id=" + id + ", nome=" + nome + ", preco=" + preco + ", quantidadeEstoque=" + getQuantidadeEstoque() + "]";
     }
 }
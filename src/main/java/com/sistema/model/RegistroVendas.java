@@ -0,0 +1,370 @@
+package com.sistema.model;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.sistema.util.AcumuladorInteiro;
+import com.sistema.util.Formatador;
+import com.sistema.util.TravasParticionadas;
+
+/**
+ * Classe que representa o registro de vendas do sistema.
+ * Cada venda é gravada como uma entrada de tamanho fixo (instante, produto,
+ * vendedor, cliente, quantidade e preço unitário) em um livro somente de
+ * acréscimo, armazenado em blocos de vetores primitivos, sem criar um objeto
+ * por venda. Os totais por produto e por vendedor são acumulados na gravação,
+ * de modo que o resumo não depende da quantidade de vendas registradas.
+ *
+ * A gravação não usa um monitor global: cada venda reserva a sua posição com um
+ * incremento atômico, preenche a entrada e a marca como pronta. O prefixo contínuo
+ * de entradas prontas é publicado aos leitores. Os totais por produto e por vendedor
+ * ficam em partições com travas próprias. Limpar o registro troca o livro inteiro,
+ * e cada leitura trabalha sobre o livro que obteve no início.
+ * Implementa o padrão Singleton e é thread-safe.
+ */
+public class RegistroVendas {
+    /** Identificador usado quando a venda não tem vendedor ou cliente associado */
+    public static final int SEM_IDENTIFICACAO = 0;
+    
+    private static final int BITS_BLOCO = 16;
+    private static final int TAMANHO_BLOCO = 1 << BITS_BLOCO;
+    private static final int MASCARA_BLOCO = TAMANHO_BLOCO - 1;
+    private static final int TOP_RELATORIO = 5;
+    
+    private static volatile RegistroVendas instancia;
+    
+    private volatile Livro livro;
+    
+    /**
+     * Construtor privado para implementar o padrão Singleton
+     */
+    private RegistroVendas() {
+        this.livro = new Livro();
+    }
+    
+    /**
+     * Método para obter a instância única do registro de vendas (Singleton)
+     * @return Instância única do registro de vendas
+     */
+    public static RegistroVendas getInstancia() {
+        RegistroVendas local = instancia;
+        if (local == null) {
+            synchronized (RegistroVendas.class) {
+                local = instancia;
+                if (local == null) {
+                    local = new RegistroVendas();
+                    instancia = local;
+                }
+            }
+        }
+        return local;
+    }
+    
+    /**
+     * Registra uma venda com o instante atual
+     * @param idProduto ID do produto vendido
+     * @param idVendedor ID do vendedor (SEM_IDENTIFICACAO se não houver)
+     * @param idCliente ID do cliente (SEM_IDENTIFICACAO se não houver)
+     * @param quantidade Quantidade vendida
+     * @param precoUnitario Preço unitário praticado na venda
+     */
+    public void registrar(int idProduto, int idVendedor, int idCliente, int quantidade, double precoUnitario) {
+        registrar(System.currentTimeMillis(), idProduto, idVendedor, idCliente, quantidade, precoUnitario);
+    }
+    
+    /**
+     * Registra uma venda. Vendas simultâneas reservam posições diferentes sem
+     * disputar uma trava; uma venda concorrente com limpar() pode ser descartada
+     * junto com o livro antigo.
+     * @param instante Instante da venda em milissegundos desde a época
+     * @param idProduto ID do produto vendido
+     * @param idVendedor ID do vendedor (SEM_IDENTIFICACAO se não houver)
+     * @param idCliente ID do cliente (SEM_IDENTIFICACAO se não houver)
+     * @param quantidade Quantidade vendida
+     * @param precoUnitario Preço unitário praticado na venda
+     */
+    public void registrar(long instante, int idProduto, int idVendedor, int idCliente,
+                          int quantidade, double precoUnitario) {
+        Livro atual = livro;
+        long posicao = atual.proxima.getAndIncrement();
+        Bloco bloco = atual.bloco((int) (posicao >>> BITS_BLOCO));
+        int i = (int) (posicao & MASCARA_BLOCO);
+        int precoCentavos = (int) Math.round(precoUnitario * 100.0);
+        bloco.instantes[i] = instante;
+        bloco.produtos[i] = idProduto;
+        bloco.vendedores[i] = idVendedor;
+        bloco.clientes[i] = idCliente;
+        bloco.quantidades[i] = quantidade;
+        bloco.precosCentavos[i] = precoCentavos;
+        
+        long valor = (long) precoCentavos * quantidade;
+        atual.totalUnidades.add(quantidade);
+        atual.receitaCentavos.add(valor);
+        atual.porProduto.somar(idProduto, quantidade, valor);
+        if (idVendedor != SEM_IDENTIFICACAO) {
+            atual.porVendedor.somar(idVendedor, quantidade, valor);
+        }
+        
+        // A escrita volátil da marca publica os campos da entrada
+        bloco.prontas.set(i, 1);
+        atual.publicar();
+    }
+    
+    /**
+     * Obtém a quantidade de vendas registradas
+     * @return Quantidade de entradas no registro
+     */
+    public long getTotalVendas() {
+        return livro.publicadas;
+    }
+    
+    /**
+     * Percorre as primeiras vendas do registro, na ordem de gravação.
+     * As entradas já publicadas não mudam, portanto a leitura não bloqueia novas vendas.
+     * @param quantidade Quantidade máxima de vendas a percorrer
+     * @param consumidor Recebe cada venda
+     * @return Quantidade de vendas percorridas
+     */
+    public long paraCada(long quantidade, ConsumidorVenda consumidor) {
+        // Lê o tamanho antes dos blocos para enxergar todas as entradas publicadas
+        Livro atual = livro;
+        long limite = Math.min(quantidade, atual.publicadas);
+        Bloco[] atuais = atual.blocos;
+        
+        for (long posicao = 0; posicao < limite; posicao++) {
+            Bloco bloco = atuais[(int) (posicao >>> BITS_BLOCO)];
+            int i = (int) (posicao & MASCARA_BLOCO);
+            consumidor.aceitar(bloco.instantes[i], bloco.produtos[i], bloco.vendedores[i], bloco.clientes[i],
+                               bloco.quantidades[i], bloco.precosCentavos[i] / 100.0);
+        }
+        
+        return limite;
+    }
+    
+    /**
+     * Calcula o resumo das vendas registradas até o momento.
+     * Usa os totais acumulados na gravação; o custo depende apenas da
+     * quantidade de produtos e vendedores distintos.
+     * Com vendas em andamento, os totais podem já incluir vendas ainda não publicadas.
+     * @return Resumo com totais, produtos mais vendidos e melhores vendedores
+     */
+    public ResumoVendas resumir() {
+        Livro atual = livro;
+        return new ResumoVendas(atual.publicadas, atual.totalUnidades.sum(), atual.receitaCentavos.sum() / 100.0,
+                                atual.porProduto.maiores(TOP_RELATORIO, false),
+                                atual.porVendedor.maiores(TOP_RELATORIO, true));
+    }
+    
+    /**
+     * Calcula o resumo das vendas de um período percorrendo o registro
+     * @param inicio Instante inicial (inclusivo) em milissegundos desde a época
+     * @param fim Instante final (exclusivo) em milissegundos desde a época
+     * @return Resumo das vendas do período
+     */
+    public ResumoVendas resumirPeriodo(long inicio, long fim) {
+        Livro atual = livro;
+        long total = atual.publicadas;
+        Bloco[] atuais = atual.blocos;
+        
+        long vendas = 0;
+        long unidades = 0;
+        long receita = 0;
+        AcumuladorInteiro produtosPeriodo = new AcumuladorInteiro();
+        AcumuladorInteiro vendedoresPeriodo = new AcumuladorInteiro();
+        
+        for (int b = 0; (long) b << BITS_BLOCO < total; b++) {
+            Bloco bloco = atuais[b];
+            int limite = (int) Math.min(TAMANHO_BLOCO, total - ((long) b << BITS_BLOCO));
+            
+            for (int i = 0; i < limite; i++) {
+                long instante = bloco.instantes[i];
+                if (instante < inicio || instante >= fim) {
+                    continue;
+                }
+                int quantidade = bloco.quantidades[i];
+                long valor = (long) bloco.precosCentavos[i] * quantidade;
+                vendas++;
+                unidades += quantidade;
+                receita += valor;
+                produtosPeriodo.somar(bloco.produtos[i], quantidade, valor);
+                if (bloco.vendedores[i] != SEM_IDENTIFICACAO) {
+                    vendedoresPeriodo.somar(bloco.vendedores[i], quantidade, valor);
+                }
+            }
+        }
+        
+        return new ResumoVendas(vendas, unidades, receita / 100.0,
+                                produtosPeriodo.maiores(TOP_RELATORIO, false),
+                                vendedoresPeriodo.maiores(TOP_RELATORIO, true));
+    }
+    
+    /**
+     * Gera o relatório de vendas a partir do registro
+     * @return Relatório de vendas em formato de texto
+     */
+    public String gerarRelatorio() {
+        ResumoVendas resumo = resumir();
+        Catalogo catalogo = Catalogo.getInstancia();
+        Sistema sistema = Sistema.getInstancia();
+        StringBuilder relatorio = new StringBuilder();
+        
+        relatorio.append("=== RELATÓRIO DE VENDAS ===\n");
+        relatorio.append("Total de vendas realizadas: ").append(resumo.getTotalVendas()).append("\n");
+        relatorio.append("Total de itens vendidos: ").append(resumo.getTotalUnidades()).append("\n");
+        Formatador.anexarValor(relatorio.append("Valor total das vendas: "), resumo.getReceita()).append("\n\n");
+        
+        relatorio.append("Produtos mais vendidos:\n");
+        for (int i = 0; i < resumo.getQuantidadeProdutos(); i++) {
+            Produto produto = catalogo.buscar(resumo.getIdProduto(i));
+            relatorio.append("- ").append(produto != null ? produto.getNome() : "Produto " + resumo.getIdProduto(i))
+                     .append(": ").append(resumo.getUnidadesProduto(i)).append(" unidades\n");
+        }
+        
+        relatorio.append("\nVendedores com melhor desempenho:\n");
+        for (int i = 0; i < resumo.getQuantidadeVendedores(); i++) {
+            Usuario vendedor = sistema.buscarUsuarioPorId(resumo.getIdVendedor(i));
+            relatorio.append("- ").append(vendedor != null ? vendedor.getNome() : "Vendedor " + resumo.getIdVendedor(i))
+                     .append(": ");
+            Formatador.anexarValor(relatorio, resumo.getReceitaVendedor(i)).append("\n");
+        }
+        
+        return relatorio.toString();
+    }
+    
+    /**
+     * Remove todas as vendas registradas. Leituras em andamento terminam sobre o livro antigo.
+     */
+    public void limpar() {
+        this.livro = new Livro();
+    }
+    
+    /**
+     * Entradas e totais do registro desde a última limpeza
+     */
+    private static final class Livro {
+        private static final AtomicLongFieldUpdater<Livro> PUBLICADAS =
+            AtomicLongFieldUpdater.newUpdater(Livro.class, "publicadas");
+        
+        // Próxima posição a reservar; pode estar à frente das entradas publicadas
+        final AtomicLong proxima = new AtomicLong();
+        final LongAdder totalUnidades = new LongAdder();
+        final LongAdder receitaCentavos = new LongAdder();
+        // Totais acumulados na gravação: {unidades, receita em centavos}
+        final TotaisParticionados porProduto = new TotaisParticionados();
+        final TotaisParticionados porVendedor = new TotaisParticionados();
+        volatile Bloco[] blocos = new Bloco[] {new Bloco()};
+        // Quantidade de entradas prontas e contínuas desde o início, visíveis aos leitores
+        volatile long publicadas;
+        
+        /**
+         * Obtém um bloco, criando-o se necessário. Só a criação, uma vez a cada
+         * TAMANHO_BLOCO vendas, passa pela trava do livro.
+         */
+        Bloco bloco(int indice) {
+            Bloco[] atuais = blocos;
+            Bloco bloco = indice < atuais.length ? atuais[indice] : null;
+            if (bloco != null) {
+                return bloco;
+            }
+            
+            synchronized (this) {
+                atuais = blocos;
+                if (indice >= atuais.length) {
+                    atuais = Arrays.copyOf(atuais, Math.max(atuais.length * 2, indice + 1));
+                }
+                if (atuais[indice] == null) {
+                    atuais[indice] = new Bloco();
+                }
+                blocos = atuais;
+                return atuais[indice];
+            }
+        }
+        
+        /**
+         * Avança as entradas publicadas enquanto a seguinte estiver pronta. Quem
+         * termina por último uma sequência de entradas a publica inteira, então
+         * nenhuma gravação espera pelas anteriores.
+         */
+        void publicar() {
+            long atual = publicadas;
+            while (atual < proxima.get()) {
+                Bloco bloco = bloco((int) (atual >>> BITS_BLOCO));
+                if (bloco.prontas.get((int) (atual & MASCARA_BLOCO)) == 0) {
+                    return;
+                }
+                PUBLICADAS.compareAndSet(this, atual, atual + 1);
+                atual = publicadas;
+            }
+        }
+    }
+    
+    /**
+     * Totais por chave distribuídos entre partições, cada uma com a sua trava.
+     * Cada chave fica em uma única partição, então os maiores totais são os
+     * maiores entre os maiores de cada partição.
+     */
+    private static final class TotaisParticionados {
+        private final TravasParticionadas travas =
+            new TravasParticionadas(Runtime.getRuntime().availableProcessors() * 2);
+        private final AcumuladorInteiro[] particoes;
+        
+        TotaisParticionados() {
+            particoes = new AcumuladorInteiro[travas.getQuantidade()];
+            for (int p = 0; p < particoes.length; p++) {
+                particoes[p] = new AcumuladorInteiro();
+            }
+        }
+        
+        void somar(int chave, long primeiro, long segundo) {
+            int p = travas.particaoDe(chave);
+            ReentrantLock trava = travas.travaDaParticao(p);
+            trava.lock();
+            try {
+                particoes[p].somar(chave, primeiro, segundo);
+            } finally {
+                trava.unlock();
+            }
+        }
+        
+        long[][] maiores(int limite, boolean peloSegundo) {
+            int campo = peloSegundo ? 2 : 1;
+            long[][] candidatos = new long[0][];
+            for (int p = 0; p < particoes.length; p++) {
+                long[][] daParticao;
+                ReentrantLock trava = travas.travaDaParticao(p);
+                trava.lock();
+                try {
+                    daParticao = particoes[p].maiores(limite, peloSegundo);
+                } finally {
+                    trava.unlock();
+                }
+                if (daParticao.length > 0) {
+                    int anteriores = candidatos.length;
+                    candidatos = Arrays.copyOf(candidatos, anteriores + daParticao.length);
+                    System.arraycopy(daParticao, 0, candidatos, anteriores, daParticao.length);
+                }
+            }
+            
+            Arrays.sort(candidatos, (a, b) -> Long.compare(b[campo], a[campo]));
+            return Arrays.copyOf(candidatos, Math.min(limite, candidatos.length));
+        }
+    }
+    
+    /**
+     * Bloco de entradas do registro, com um vetor primitivo por campo
+     */
+    private static final class Bloco {
+        final long[] instantes = new long[TAMANHO_BLOCO];
+        final int[] produtos = new int[TAMANHO_BLOCO];
+        final int[] vendedores = new int[TAMANHO_BLOCO];
+        final int[] clientes = new int[TAMANHO_BLOCO];
+        final int[] quantidades = new int[TAMANHO_BLOCO];
+        final int[] precosCentavos = new int[TAMANHO_BLOCO];
+        // 1 quando a entrada foi preenchida e pode ser publicada
+        final AtomicIntegerArray prontas = new AtomicIntegerArray(TAMANHO_BLOCO);
+    }
+}
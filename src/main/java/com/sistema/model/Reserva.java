@@ -0,0 +1,23 @@
+package com.sistema.model;
+
+/**
+ * Reserva temporária de unidades de um produto, vista pelo carrinho de compras.
+ * As reservas são criadas e alteradas apenas pelo CanalCompras que as emitiu.
+ */
+public interface Reserva {
+    
+    /**
+     * @return Produto reservado
+     */
+    Produto getProduto();
+    
+    /**
+     * @return Quantidade reservada
+     */
+    int getQuantidade();
+    
+    /**
+     * @return true se a reserva já foi liberada, tomada por uma compra ou expirou
+     */
+    boolean isEncerrada();
+}
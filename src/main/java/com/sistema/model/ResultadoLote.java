@@ -0,0 +1,64 @@
+package com.sistema.model;
+
+/**
+ * Resultado de uma venda em lote, com a situação de cada linha do pedido.
+ * O lote é tudo ou nada: ou todas as linhas são vendidas, ou nenhuma é.
+ */
+public class ResultadoLote {
+    private final StatusItemVenda[] status;
+    private final double[] precosUnitarios;
+    private final boolean sucesso;
+    private final double valorTotal;
+    
+    /**
+     * Construtor com parâmetros
+     * 
+     * @param status Situação de cada linha, na ordem do pedido
+     * @param precosUnitarios Preço unitário de cada linha (zero se o produto não existir)
+     * @param sucesso Indica se o lote foi vendido
+     * @param valorTotal Valor total vendido (zero se o lote falhou)
+     */
+    public ResultadoLote(StatusItemVenda[] status, double[] precosUnitarios, boolean sucesso, double valorTotal) {
+        this.status = status;
+        this.precosUnitarios = precosUnitarios;
+        this.sucesso = sucesso;
+        this.valorTotal = valorTotal;
+    }
+    
+    /**
+     * Obtém a situação de uma linha do pedido
+     * 
+     * @param linha Índice da linha, na ordem do pedido
+     * @return Situação da linha
+     */
+    public StatusItemVenda getStatus(int linha) {
+        return status[linha];
+    }
+    
+    /**
+     * Obtém o preço unitário cobrado em uma linha do pedido
+     * 
+     * @param linha Índice da linha, na ordem do pedido
+     * @return Preço unitário (zero se o produto não existir)
+     */
+    public double getPrecoUnitario(int linha) {
+        return precosUnitarios[linha];
+    }
+    
+    public int getQuantidadeLinhas() {
+        return status.length;
+    }
+    
+    public boolean isSucesso() {
+        return sucesso;
+    }
+    
+    public double getValorTotal() {
+        return valorTotal;
+    }
+    
+    @Override
+    public String toString() {
+        return "ResultadoLote [linhas=" + status.length + ", sucesso=" + sucesso + ", valorTotal=" + valorTotal + "]";
+    }
+}
@@ -0,0 +1,81 @@
+package com.sistema.model;
+
+/**
+ * Resumo calculado a partir do registro de vendas: totais gerais,
+ * produtos mais vendidos (por unidades) e vendedores com maior receita.
+ */
+public class ResumoVendas {
+    private final long totalVendas;
+    private final long totalUnidades;
+    private final double receita;
+    // Cada linha guarda {id, unidades, receita em centavos}, em ordem decrescente
+    private final long[][] produtosMaisVendidos;
+    private final long[][] melhoresVendedores;
+    
+    /**
+     * Construtor com parâmetros
+     * 
+     * @param totalVendas Quantidade de vendas registradas
+     * @param totalUnidades Quantidade de unidades vendidas
+     * @param receita Valor total das vendas
+     * @param produtosMaisVendidos Linhas {id, unidades, centavos} dos produtos mais vendidos
+     * @param melhoresVendedores Linhas {id, unidades, centavos} dos vendedores com maior receita
+     */
+    ResumoVendas(long totalVendas, long totalUnidades, double receita,
+                 long[][] produtosMaisVendidos, long[][] melhoresVendedores) {
+        this.totalVendas = totalVendas;
+        this.totalUnidades = totalUnidades;
+        this.receita = receita;
+        this.produtosMaisVendidos = produtosMaisVendidos;
+        this.melhoresVendedores = melhoresVendedores;
+    }
+    
+    public long getTotalVendas() {
+        return totalVendas;
+    }
+    
+    public long getTotalUnidades() {
+        return totalUnidades;
+    }
+    
+    public double getReceita() {
+        return receita;
+    }
+    
+    public int getQuantidadeProdutos() {
+        return produtosMaisVendidos.length;
+    }
+    
+    public int getIdProduto(int posicao) {
+        return (int) produtosMaisVendidos[posicao][0];
+    }
+    
+    public long getUnidadesProduto(int posicao) {
+        return produtosMaisVendidos[posicao][1];
+    }
+    
+    public double getReceitaProduto(int posicao) {
+        return produtosMaisVendidos[posicao][2] / 100.0;
+    }
+    
+    public int getQuantidadeVendedores() {
+        return melhoresVendedores.length;
+    }
+    
+    public int getIdVendedor(int posicao) {
+        return (int) melhoresVendedores[posicao][0];
+    }
+    
+    public long getUnidadesVendedor(int posicao) {
+        return melhoresVendedores[posicao][1];
+    }
+    
+    public double getReceitaVendedor(int posicao) {
+        return melhoresVendedores[posicao][2] / 100.0;
+    }
+    
+    @Override
+    public String toString() {
+        return "ResumoVendas [totalVendas=" + totalVendas + ", totalUnidades=" + totalUnidades + ", receita=" + receita + "]";
+    }
+}
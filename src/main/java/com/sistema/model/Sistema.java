@@ -2,23 +2,39 @@ package com.sistema.model;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.sistema.util.FiltroBloom;
 
 /**
  * Classe que representa o sistema principal da aplicação.
  * Gerencia usuários, produtos e operações do sistema.
+ * Os produtos ficam no Catalogo compartilhado com o Estoque. É thread-safe:
+ * o índice de emails permite login concorrente sem bloqueio.
  */
 public class Sistema {
-    private static Sistema instancia;
-    private List<Usuario> usuarios;
-    private List<Produto> produtos;
-    private Usuario usuarioLogado;
+    private static final int CAPACIDADE_MINIMA_FILTRO = 1024;
+    private static final double TAXA_FALSOS_POSITIVOS_FILTRO = 0.01;
+    
+    private static volatile Sistema instancia;
+    private final ArrayList<Usuario> usuarios;
+    private final Map<String, Usuario> usuariosPorEmail;
+    // Filtro de Bloom dos emails cadastrados, alterado apenas com a trava de usuarios
+    private volatile FiltroBloom filtroEmails;
+    private long capacidadeFiltro;
+    private final Catalogo catalogo;
+    private volatile Usuario usuarioLogado;
     
     /**
      * Construtor privado para implementar o padrão Singleton
      */
     private Sistema() {
         this.usuarios = new ArrayList<>();
-        this.produtos = new ArrayList<>();
+        this.usuariosPorEmail = new ConcurrentHashMap<>();
+        reiniciarFiltroEmails(CAPACIDADE_MINIMA_FILTRO);
+        this.catalogo = Catalogo.getInstancia();
         this.usuarioLogado = null;
     }
     
@@ -27,10 +43,17 @@ public class Sistema {
      * @return Instância única do sistema
      */
     public static Sistema getInstancia() {
-        if (instancia == null) {
-            instancia = new Sistema();
+        Sistema local = instancia;
+        if (local == null) {
+            synchronized (Sistema.class) {
+                local = instancia;
+                if (local == null) {
+                    local = new Sistema();
+                    instancia = local;
+                }
+            }
         }
-        return instancia;
+        return local;
     }
     
     /**
@@ -40,13 +63,32 @@ public class Sistema {
      * @return true se o login for bem-sucedido, false caso contrário
      */
     public boolean login(String email, String senha) {
-        for (Usuario usuario : usuarios) {
-            if (usuario.getEmail().equals(email) && usuario.getSenha().equals(senha) && usuario.isAtivo()) {
-                this.usuarioLogado = usuario;
-                return true;
-            }
+        Usuario usuario = autenticar(email, senha);
+        if (usuario == null) {
+            return false;
         }
-        return false;
+        
+        this.usuarioLogado = usuario;
+        return true;
+    }
+    
+    /**
+     * Confere as credenciais de um usuário sem alterar o usuário logado.
+     * Usado pelas sessões, que permitem vários usuários conectados ao mesmo tempo.
+     * @param email Email do usuário
+     * @param senha Senha do usuário
+     * @return Usuário autenticado, ou null se as credenciais forem inválidas ou o usuário estiver inativo
+     */
+    public Usuario autenticar(String email, String senha) {
+        if (email == null || senha == null) {
+            return null;
+        }
+        
+        Usuario usuario = usuariosPorEmail.get(normalizarEmail(email));
+        if (usuario == null || !usuario.getSenha().equals(senha) || !usuario.isAtivo()) {
+            return null;
+        }
+        return usuario;
     }
     
     /**
@@ -62,13 +104,69 @@ public class Sistema {
      * @return true se o cadastro for bem-sucedido, false caso contrário
      */
     public boolean cadastrarUsuario(Usuario usuario) {
-        // Verifica se já existe um usuário com o mesmo email
-        for (Usuario u : usuarios) {
-            if (u.getEmail().equals(usuario.getEmail())) {
+        if (usuario == null || usuario.getEmail() == null) {
+            return false;
+        }
+        
+        // Verifica se já existe um usuário com o mesmo email (sem diferenciar maiúsculas)
+        String chave = normalizarEmail(usuario.getEmail());
+        synchronized (usuarios) {
+            if (usuariosPorEmail.putIfAbsent(chave, usuario) != null) {
                 return false;
             }
+            adicionarAoFiltro(chave);
+            return usuarios.add(usuario);
         }
-        return usuarios.add(usuario);
+    }
+    
+    /**
+     * Método para cadastrar vários usuários obtendo a trava uma única vez.
+     * Usuários nulos, sem email ou com email já cadastrado (no sistema ou antes
+     * no próprio vetor) são rejeitados e substituídos por null no vetor, de modo
+     * que ao final ele contém apenas os usuários cadastrados.
+     * @param novos Vetor de usuários a cadastrar
+     * @param quantidade Quantidade de posições do vetor a considerar
+     * @return Quantidade de usuários cadastrados
+     */
+    public int cadastrarUsuarios(Usuario[] novos, int quantidade) {
+        int cadastrados = 0;
+        
+        synchronized (usuarios) {
+            usuarios.ensureCapacity(usuarios.size() + quantidade);
+            for (int i = 0; i < quantidade; i++) {
+                Usuario usuario = novos[i];
+                String chave = usuario == null || usuario.getEmail() == null ? null : normalizarEmail(usuario.getEmail());
+                if (chave == null || usuariosPorEmail.putIfAbsent(chave, usuario) != null) {
+                    novos[i] = null;
+                    continue;
+                }
+                adicionarAoFiltro(chave);
+                usuarios.add(usuario);
+                cadastrados++;
+            }
+        }
+        return cadastrados;
+    }
+    
+    /**
+     * Verifica se já existe um usuário com o email informado (sem diferenciar maiúsculas)
+     * @param email Email a verificar
+     * @return true se o email já estiver cadastrado, false caso contrário
+     */
+    public boolean existeEmail(String email) {
+        return email != null && usuariosPorEmail.containsKey(normalizarEmail(email));
+    }
+    
+    /**
+     * Consulta rápida, pelo filtro de Bloom dos emails cadastrados, que descarta a
+     * maioria dos emails novos sem acessar o índice. Um resultado true deve ser
+     * confirmado com existeEmail(); emails removidos continuam no filtro até
+     * a próxima reconstrução, o que apenas gera falsos positivos.
+     * @param hashEmail Hash de FiltroBloom.hash() sobre o email normalizado
+     * @return false se o email certamente não está cadastrado, true se talvez esteja
+     */
+    public boolean talvezExistaEmail(long hashEmail) {
+        return filtroEmails.talvezContenha(hashEmail);
     }
     
     /**
@@ -77,28 +175,38 @@ public class Sistema {
      * @return true se a remoção for bem-sucedida, false caso contrário
      */
     public boolean removerUsuario(int id) {
-        for (int i = 0; i < usuarios.size(); i++) {
-            if (usuarios.get(i).getId() == id) {
-                usuarios.remove(i);
-                return true;
+        synchronized (usuarios) {
+            for (int i = 0; i < usuarios.size(); i++) {
+                if (usuarios.get(i).getId() == id) {
+                    Usuario removido = usuarios.remove(i);
+                    usuariosPorEmail.remove(normalizarEmail(removido.getEmail()), removido);
+                    return true;
+                }
             }
         }
         return false;
     }
     
+    /**
+     * Método para remover todos os usuários do sistema e encerrar a sessão atual
+     */
+    public void limparUsuarios() {
+        synchronized (usuarios) {
+            usuarios.clear();
+            usuariosPorEmail.clear();
+            reiniciarFiltroEmails(CAPACIDADE_MINIMA_FILTRO);
+        }
+        usuarioLogado = null;
+    }
+    
     /**
      * Método para cadastrar um novo produto no sistema
      * @param produto Produto a ser cadastrado
      * @return true se o cadastro for bem-sucedido, false caso contrário
      */
     public boolean cadastrarProduto(Produto produto) {
-        // Verifica se já existe um produto com o mesmo ID
-        for (Produto p : produtos) {
-            if (p.getId() == produto.getId()) {
-                return false;
-            }
-        }
-        return produtos.add(produto);
+        // O catálogo rejeita produtos com ID já cadastrado
+        return catalogo.adicionar(produto);
     }
     
     /**
@@ -107,13 +215,7 @@ public class Sistema {
      * @return true se a remoção for bem-sucedida, false caso contrário
      */
     public boolean removerProduto(int id) {
-        for (int i = 0; i < produtos.size(); i++) {
-            if (produtos.get(i).getId() == id) {
-                produtos.remove(i);
-                return true;
-            }
-        }
-        return false;
+        return catalogo.remover(id) != null;
     }
     
     /**
@@ -122,12 +224,7 @@ public class Sistema {
      * @return Produto encontrado ou null se não existir
      */
     public Produto buscarProdutoPorId(int id) {
-        for (Produto produto : produtos) {
-            if (produto.getId() == id) {
-                return produto;
-            }
-        }
-        return null;
+        return catalogo.buscar(id);
     }
     
     /**
@@ -136,21 +233,59 @@ public class Sistema {
      * @return Usuário encontrado ou null se não existir
      */
     public Usuario buscarUsuarioPorId(int id) {
-        for (Usuario usuario : usuarios) {
-            if (usuario.getId() == id) {
-                return usuario;
+        synchronized (usuarios) {
+            for (Usuario usuario : usuarios) {
+                if (usuario.getId() == id) {
+                    return usuario;
+                }
             }
         }
         return null;
     }
     
+    /**
+     * Normaliza o email usado como chave do índice de usuários
+     * @param email Email informado
+     * @return Email sem espaços nas extremidades e em minúsculas
+     */
+    public static String normalizarEmail(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    /**
+     * Adiciona um email ao filtro, reconstruindo-o com o dobro da capacidade quando
+     * a quantidade de emails a ultrapassa. Deve ser chamado com a trava de usuarios.
+     */
+    private void adicionarAoFiltro(String chave) {
+        if (usuariosPorEmail.size() > capacidadeFiltro) {
+            reiniciarFiltroEmails(capacidadeFiltro * 2);
+            return;
+        }
+        filtroEmails.adicionar(FiltroBloom.hash(chave));
+    }
+    
+    private void reiniciarFiltroEmails(long capacidade) {
+        FiltroBloom novo = new FiltroBloom(capacidade, TAXA_FALSOS_POSITIVOS_FILTRO);
+        for (String chave : usuariosPorEmail.keySet()) {
+            novo.adicionar(FiltroBloom.hash(chave));
+        }
+        capacidadeFiltro = capacidade;
+        filtroEmails = novo;
+    }
+    
     // Getters e Setters
     public List<Usuario> getUsuarios() {
-        return new ArrayList<>(usuarios);
+        synchronized (usuarios) {
+            return new ArrayList<>(usuarios);
+        }
+    }
+    
+    public int getQuantidadeUsuarios() {
+        return usuariosPorEmail.size();
     }
     
     public List<Produto> getProdutos() {
-        return new ArrayList<>(produtos);
+        return catalogo.listar();
     }
     
     public Usuario getUsuarioLogado() {
@@ -0,0 +1,17 @@
+package com.sistema.model;
+
+/**
+ * Situação de cada linha de uma venda em lote.
+ */
+public enum StatusItemVenda {
+    /** A linha foi vendida e o estoque baixado */
+    VENDIDO,
+    /** O produto da linha não existe no catálogo */
+    PRODUTO_INEXISTENTE,
+    /** A quantidade da linha é zero ou negativa */
+    QUANTIDADE_INVALIDA,
+    /** Não há estoque suficiente para o total pedido do produto */
+    ESTOQUE_INSUFICIENTE,
+    /** A linha era válida, mas o lote foi cancelado por falha em outra linha */
+    CANCELADO
+}
@@ -1,12 +1,22 @@
 package com.sistema.model;
 
+import java.util.concurrent.atomic.LongAdder;
+
 /**
  * Classe que representa um Vendedor no sistema.
  * Herda da classe abstrata Usuario e implementa funcionalidades específicas de vendedor.
+ * 
+ * A quantidade de vendas, a receita e a comissão acumuladas são LongAdder, de modo
+ * que vendas simultâneas do mesmo vendedor não perdem atualizações nem disputam
+ * uma trava. Cada venda também é somada ao PlacarVendedores do dia.
+ * As vendas são feitas por Controlador.realizarVenda(Vendedor, ...), que as
+ * contabiliza aqui com registrarVenda.
  */
 public class Vendedor extends Usuario {
     private double comissao;
-    private int totalVendas;
+    private final LongAdder totalVendas;
+    private final LongAdder receitaCentavos;
+    private final LongAdder comissaoCentavos;
     
     /**
      * Construtor padrão
@@ -14,7 +24,9 @@ public class Vendedor extends Usuario {
     public Vendedor() {
         super();
         this.comissao = 0.0;
-        this.totalVendas = 0;
+        this.totalVendas = new LongAdder();
+        this.receitaCentavos = new LongAdder();
+        this.comissaoCentavos = new LongAdder();
     }
     
     /**
@@ -29,27 +41,40 @@ public class Vendedor extends Usuario {
     public Vendedor(int id, String nome, String email, String senha, double comissao) {
         super(id, nome, email, senha);
         this.comissao = comissao;
-        this.totalVendas = 0;
+        this.totalVendas = new LongAdder();
+        this.receitaCentavos = new LongAdder();
+        this.comissaoCentavos = new LongAdder();
+    }
+    
+    /**
+     * Contabiliza uma venda já realizada: quantidade de vendas, receita, comissão
+     * (calculada por calcularComissao) e receita do dia no placar de vendedores
+     * 
+     * @param quantidade Quantidade vendida
+     * @param precoUnitario Preço unitário praticado na venda
+     */
+    public void registrarVenda(int quantidade, double precoUnitario) {
+        PlacarVendedores.getInstancia().registrar(getId(), contabilizar(quantidade, precoUnitario));
     }
     
     /**
-     * Realiza uma venda de produto
+     * Contabiliza uma venda recuperada do registro de vendas. A receita só entra
+     * no placar de vendedores se a venda tiver sido feita no dia atual.
      * 
-     * @param produto Produto a ser vendido
-     * @param quantidade Quantidade a ser vendida
-     * @return true se a venda for bem-sucedida, false caso contrário
+     * @param instante Instante da venda em milissegundos
+     * @param quantidade Quantidade vendida
+     * @param precoUnitario Preço unitário praticado na venda
      */
-    public boolean realizarVenda(Produto produto, int quantidade) {
-        if (produto == null || quantidade <= 0 || produto.getQuantidadeEstoque() < quantidade) {
-            return false;
-        }
-        
-        if (produto.reduzirEstoque(quantidade)) {
-            this.totalVendas++;
-            return true;
-        }
-        
-        return false;
+    public void restaurarVenda(long instante, int quantidade, double precoUnitario) {
+        PlacarVendedores.getInstancia().registrar(getId(), contabilizar(quantidade, precoUnitario), instante);
+    }
+    
+    private long contabilizar(int quantidade, double precoUnitario) {
+        long valorCentavos = Math.round(precoUnitario * 100.0) * quantidade;
+        totalVendas.increment();
+        receitaCentavos.add(valorCentavos);
+        comissaoCentavos.add(Math.round(calcularComissao(valorCentavos / 100.0) * 100.0));
+        return valorCentavos;
     }
     
     /**
@@ -77,16 +102,25 @@ public class Vendedor extends Usuario {
     }
     
     public int getTotalVendas() {
-        return totalVendas;
+        return (int) totalVendas.sum();
     }
     
     public void setTotalVendas(int totalVendas) {
-        this.totalVendas = totalVendas;
+        this.totalVendas.reset();
+        this.totalVendas.add(totalVendas);
+    }
+    
+    public double getReceitaVendas() {
+        return receitaCentavos.sum() / 100.0;
+    }
+    
+    public double getComissaoAcumulada() {
+        return comissaoCentavos.sum() / 100.0;
     }
     
     @Override
     public String toString() {
         return "Vendedor [id=" + getId() + ", nome=" + getNome() + ", email=" + getEmail() 
-               + ", comissao=" + comissao + "%, totalVendas=" + totalVendas + "]";
+               + ", comissao=" + comissao + "%, totalVendas=" + getTotalVendas() + "]";
     }
 }
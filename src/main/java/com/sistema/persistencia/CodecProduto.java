@@ -0,0 +1,404 @@
+package com.sistema.persistencia;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.sistema.model.Esterco;
+import com.sistema.model.Humus;
+import com.sistema.model.Muda;
+import com.sistema.model.Produto;
+
+/**
+ * Codificação binária compacta dos produtos (Muda, Humus e Esterco), lida e
+ * escrita diretamente em ByteBuffers.
+ * 
+ * Cada produto começa com um byte de marcação: versão do formato nos 3 bits
+ * mais altos, tipo do produto nos 2 mais baixos e indicadores de campos nos
+ * demais. Inteiros são gravados como varints em zigue-zague; preços e pesos
+ * exatos em centavos e gramas também, com double bruto apenas quando não são.
+ * 
+ * Textos curtos são codificados por dicionário: a primeira ocorrência é
+ * gravada por extenso e as seguintes como referência ao seu número. O
+ * dicionário pertence à instância, portanto um fluxo deve ser lido por um
+ * codec novo (ou reiniciado), na mesma ordem em que foi escrito. Sem
+ * dicionário cada produto é independente dos demais.
+ * 
+ * Esta classe não é thread-safe.
+ */
+public final class CodecProduto {
+    /** Versão do formato gravada em cada produto */
+    public static final int VERSAO = 1;
+    
+    private static final int MUDA = 1;
+    private static final int HUMUS = 2;
+    private static final int ESTERCO = 3;
+    private static final int MASCARA_TIPO = 0x03;
+    private static final int PRECO_BRUTO = 0x04;
+    private static final int PESO_BRUTO = 0x08;
+    private static final int PROCESSADO = 0x10;
+    private static final int DESLOCAMENTO_VERSAO = 5;
+    
+    // Códigos de texto: 0 = nulo, 1 = texto por extenso, n >= 2 = entrada n - 2 do dicionário
+    private static final int TEXTO_NULO = 0;
+    private static final int TEXTO_LITERAL = 1;
+    private static final int PRIMEIRA_REFERENCIA = 2;
+    private static final int TAMANHO_MAXIMO_ENTRADA = 64;
+    private static final int LIMITE_DICIONARIO = 1 << 16;
+    
+    private final boolean usarDicionario;
+    private final Map<String, Integer> codigos;
+    private final List<String> textos;
+    private char[] caracteres;
+    
+    /**
+     * Construtor padrão, com dicionário de textos
+     */
+    public CodecProduto() {
+        this(true);
+    }
+    
+    /**
+     * Construtor que permite desativar o dicionário de textos
+     * @param usarDicionario true para codificar textos repetidos por referência
+     */
+    public CodecProduto(boolean usarDicionario) {
+        this.usarDicionario = usarDicionario;
+        this.codigos = new HashMap<>();
+        this.textos = new ArrayList<>();
+        this.caracteres = new char[64];
+    }
+    
+    /**
+     * Esvazia o dicionário para começar um novo fluxo
+     */
+    public void reiniciarDicionario() {
+        codigos.clear();
+        textos.clear();
+    }
+    
+    /**
+     * Calcula um limite superior do tamanho codificado de um produto.
+     * Garantir esse espaço no destino evita estouro no meio da codificação.
+     * @param produto Produto a ser codificado
+     * @return Quantidade máxima de bytes
+     * @throws IllegalArgumentException Se o tipo de produto não for suportado
+     */
+    public static int tamanhoMaximo(Produto produto) {
+        // Marcação, ID, preço, quantidade e o maior campo específico (peso em varint)
+        int tamanho = 1 + 5 + 10 + 5 + 10;
+        tamanho += tamanhoMaximoTexto(produto.getNome()) + tamanhoMaximoTexto(produto.getDescricao());
+        
+        if (produto instanceof Muda) {
+            Muda muda = (Muda) produto;
+            tamanho += tamanhoMaximoTexto(muda.getEspecie()) + tamanhoMaximoTexto(muda.getTipoSolo());
+        } else if (produto instanceof Humus) {
+            Humus humus = (Humus) produto;
+            tamanho += tamanhoMaximoTexto(humus.getOrigem()) + tamanhoMaximoTexto(humus.getComposicaoNutricional());
+        } else if (produto instanceof Esterco) {
+            Esterco esterco = (Esterco) produto;
+            tamanho += tamanhoMaximoTexto(esterco.getTipoAnimal()) + tamanhoMaximoTexto(esterco.getNivelAcidez());
+        } else {
+            throw new IllegalArgumentException("Tipo de produto não suportado: " + produto.getClass().getName());
+        }
+        return tamanho;
+    }
+    
+    /**
+     * Codifica um produto a partir da posição atual do destino
+     * @param produto Produto a ser codificado
+     * @param destino Buffer com espaço para tamanhoMaximo(produto) bytes
+     * @throws IllegalArgumentException Se o tipo de produto não for suportado
+     */
+    public void codificar(Produto produto, ByteBuffer destino) {
+        codificar(produto, produto.getQuantidadeEstoque(), destino);
+    }
+    
+    /**
+     * Codifica um produto com a quantidade em estoque informada no lugar da atual
+     * @param produto Produto a ser codificado
+     * @param quantidadeEstoque Quantidade em estoque gravada
+     * @param destino Buffer com espaço para tamanhoMaximo(produto) bytes
+     * @throws IllegalArgumentException Se o tipo de produto não for suportado
+     */
+    public void codificar(Produto produto, int quantidadeEstoque, ByteBuffer destino) {
+        int tipo;
+        double peso = 0;
+        
+        if (produto instanceof Muda) {
+            tipo = MUDA;
+        } else if (produto instanceof Humus) {
+            tipo = HUMUS;
+            peso = ((Humus) produto).getPesoEmbalagem();
+        } else if (produto instanceof Esterco) {
+            tipo = ESTERCO;
+            peso = ((Esterco) produto).getPesoEmbalagem();
+        } else {
+            throw new IllegalArgumentException("Tipo de produto não suportado: " + produto.getClass().getName());
+        }
+        
+        double preco = produto.getPreco();
+        long precoCentavos = Math.round(preco * 100.0);
+        long pesoGramas = Math.round(peso * 1000.0);
+        int marcacao = (VERSAO << DESLOCAMENTO_VERSAO) | tipo;
+        
+        if (precoCentavos / 100.0 != preco) {
+            marcacao |= PRECO_BRUTO;
+        }
+        if (pesoGramas / 1000.0 != peso) {
+            marcacao |= PESO_BRUTO;
+        }
+        if (tipo == ESTERCO && ((Esterco) produto).isProcessado()) {
+            marcacao |= PROCESSADO;
+        }
+        
+        destino.put((byte) marcacao);
+        escreverInt(destino, produto.getId());
+        escreverValor(destino, (marcacao & PRECO_BRUTO) != 0, precoCentavos, preco);
+        escreverInt(destino, quantidadeEstoque);
+        escreverTexto(destino, produto.getNome());
+        escreverTexto(destino, produto.getDescricao());
+        
+        switch (tipo) {
+            case MUDA:
+                Muda muda = (Muda) produto;
+                escreverTexto(destino, muda.getEspecie());
+                escreverTexto(destino, muda.getTipoSolo());
+                escreverInt(destino, muda.getTempoMaturacao());
+                break;
+            case HUMUS:
+                Humus humus = (Humus) produto;
+                escreverTexto(destino, humus.getOrigem());
+                escreverTexto(destino, humus.getComposicaoNutricional());
+                escreverValor(destino, (marcacao & PESO_BRUTO) != 0, pesoGramas, peso);
+                break;
+            default:
+                Esterco esterco = (Esterco) produto;
+                escreverTexto(destino, esterco.getTipoAnimal());
+                escreverTexto(destino, esterco.getNivelAcidez());
+                escreverValor(destino, (marcacao & PESO_BRUTO) != 0, pesoGramas, peso);
+                break;
+        }
+    }
+    
+    /**
+     * Decodifica um produto a partir da posição atual da origem
+     * @param origem Buffer posicionado no início do produto
+     * @return Produto decodificado
+     * @throws IllegalStateException Se a versão ou o tipo forem desconhecidos
+     */
+    public Produto decodificar(ByteBuffer origem) {
+        int marcacao = origem.get() & 0xFF;
+        int versao = marcacao >>> DESLOCAMENTO_VERSAO;
+        if (versao != VERSAO) {
+            throw new IllegalStateException("Versão de produto não suportada: " + versao);
+        }
+        
+        int id = lerInt(origem);
+        double preco = lerValor(origem, (marcacao & PRECO_BRUTO) != 0, 100.0);
+        int quantidade = lerInt(origem);
+        String nome = lerTexto(origem);
+        String descricao = lerTexto(origem);
+        String texto1 = lerTexto(origem);
+        String texto2 = lerTexto(origem);
+        
+        switch (marcacao & MASCARA_TIPO) {
+            case MUDA:
+                return new Muda(id, nome, descricao, preco, quantidade, texto1, lerInt(origem), texto2);
+            case HUMUS:
+                return new Humus(id, nome, descricao, preco, quantidade, texto1,
+                                 lerValor(origem, (marcacao & PESO_BRUTO) != 0, 1000.0), texto2);
+            case ESTERCO:
+                return new Esterco(id, nome, descricao, preco, quantidade, texto1,
+                                   lerValor(origem, (marcacao & PESO_BRUTO) != 0, 1000.0),
+                                   (marcacao & PROCESSADO) != 0, texto2);
+            default:
+                throw new IllegalStateException("Tipo de produto desconhecido: " + (marcacao & MASCARA_TIPO));
+        }
+    }
+    
+    /**
+     * Obtém a quantidade de textos no dicionário
+     * @return Tamanho do dicionário
+     */
+    public int getTamanhoDicionario() {
+        return textos.size();
+    }
+    
+    private static void escreverInt(ByteBuffer destino, int valor) {
+        escreverVarint(destino, ((valor << 1) ^ (valor >> 31)) & 0xFFFFFFFFL);
+    }
+    
+    private static int lerInt(ByteBuffer origem) {
+        int valor = (int) lerVarint(origem);
+        return (valor >>> 1) ^ -(valor & 1);
+    }
+    
+    /**
+     * Grava um valor decimal como inteiro escalado (varint) ou, se não for exato, como double bruto
+     */
+    private static void escreverValor(ByteBuffer destino, boolean bruto, long escalado, double valor) {
+        if (bruto) {
+            destino.putDouble(valor);
+        } else {
+            escreverVarint(destino, (escalado << 1) ^ (escalado >> 63));
+        }
+    }
+    
+    private static double lerValor(ByteBuffer origem, boolean bruto, double escala) {
+        if (bruto) {
+            return origem.getDouble();
+        }
+        long valor = lerVarint(origem);
+        return ((valor >>> 1) ^ -(valor & 1)) / escala;
+    }
+    
+    private static void escreverVarint(ByteBuffer destino, long valor) {
+        while ((valor & ~0x7FL) != 0) {
+            destino.put((byte) ((valor & 0x7F) | 0x80));
+            valor >>>= 7;
+        }
+        destino.put((byte) valor);
+    }
+    
+    private static long lerVarint(ByteBuffer origem) {
+        long valor = 0;
+        for (int deslocamento = 0; deslocamento < 64; deslocamento += 7) {
+            byte b = origem.get();
+            valor |= (long) (b & 0x7F) << deslocamento;
+            if (b >= 0) {
+                return valor;
+            }
+        }
+        throw new IllegalStateException("Varint inválido");
+    }
+    
+    private void escreverTexto(ByteBuffer destino, String texto) {
+        if (texto == null) {
+            destino.put((byte) TEXTO_NULO);
+            return;
+        }
+        
+        if (usarDicionario) {
+            Integer codigo = codigos.get(texto);
+            if (codigo != null) {
+                escreverVarint(destino, codigo);
+                return;
+            }
+        }
+        
+        int bytes = tamanhoUtf8(texto);
+        destino.put((byte) TEXTO_LITERAL);
+        escreverVarint(destino, bytes);
+        escreverUtf8(destino, texto);
+        
+        if (entraNoDicionario(bytes)) {
+            codigos.put(texto, PRIMEIRA_REFERENCIA + textos.size());
+            textos.add(texto);
+        }
+    }
+    
+    private String lerTexto(ByteBuffer origem) {
+        int codigo = (int) lerVarint(origem);
+        if (codigo == TEXTO_NULO) {
+            return null;
+        }
+        if (codigo >= PRIMEIRA_REFERENCIA) {
+            return textos.get(codigo - PRIMEIRA_REFERENCIA);
+        }
+        
+        int bytes = (int) lerVarint(origem);
+        String texto = lerUtf8(origem, bytes);
+        if (entraNoDicionario(bytes)) {
+            textos.add(texto);
+        }
+        return texto;
+    }
+    
+    /**
+     * Textos longos (como descrições) raramente se repetem e não entram no dicionário.
+     * A decisão depende apenas do tamanho, igual na escrita e na leitura.
+     */
+    private boolean entraNoDicionario(int bytes) {
+        return usarDicionario && bytes <= TAMANHO_MAXIMO_ENTRADA && textos.size() < LIMITE_DICIONARIO;
+    }
+    
+    private static int tamanhoMaximoTexto(String texto) {
+        return texto == null ? 1 : 3 + 5 + texto.length() * 3;
+    }
+    
+    private static int tamanhoUtf8(String texto) {
+        int bytes = 0;
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c < 0x80) {
+                bytes += 1;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < texto.length()
+                       && Character.isLowSurrogate(texto.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+    
+    /**
+     * Escreve o texto em UTF-8 direto no buffer, sem vetor de bytes intermediário
+     */
+    private static void escreverUtf8(ByteBuffer destino, String texto) {
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c < 0x80) {
+                destino.put((byte) c);
+            } else if (c < 0x800) {
+                destino.put((byte) (0xC0 | (c >> 6)));
+                destino.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < texto.length()
+                       && Character.isLowSurrogate(texto.charAt(i + 1))) {
+                int codigo = Character.toCodePoint(c, texto.charAt(++i));
+                destino.put((byte) (0xF0 | (codigo >> 18)));
+                destino.put((byte) (0x80 | ((codigo >> 12) & 0x3F)));
+                destino.put((byte) (0x80 | ((codigo >> 6) & 0x3F)));
+                destino.put((byte) (0x80 | (codigo & 0x3F)));
+            } else {
+                destino.put((byte) (0xE0 | (c >> 12)));
+                destino.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                destino.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+    
+    /**
+     * Lê um texto UTF-8 do buffer usando um vetor de caracteres reaproveitado
+     */
+    private String lerUtf8(ByteBuffer origem, int bytes) {
+        if (caracteres.length < bytes) {
+            caracteres = new char[Math.max(bytes, caracteres.length * 2)];
+        }
+        
+        int fim = origem.position() + bytes;
+        int n = 0;
+        while (origem.position() < fim) {
+            int b = origem.get() & 0xFF;
+            if (b < 0x80) {
+                caracteres[n++] = (char) b;
+            } else if (b < 0xE0) {
+                caracteres[n++] = (char) (((b & 0x1F) << 6) | (origem.get() & 0x3F));
+            } else if (b < 0xF0) {
+                caracteres[n++] = (char) (((b & 0x0F) << 12) | ((origem.get() & 0x3F) << 6) | (origem.get() & 0x3F));
+            } else {
+                int codigo = ((b & 0x07) << 18) | ((origem.get() & 0x3F) << 12)
+                             | ((origem.get() & 0x3F) << 6) | (origem.get() & 0x3F);
+                caracteres[n++] = Character.highSurrogate(codigo);
+                caracteres[n++] = Character.lowSurrogate(codigo);
+            }
+        }
+        return new String(caracteres, 0, n);
+    }
+}
@@ -0,0 +1,136 @@
+package com.sistema.persistencia;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import com.sistema.model.Administrador;
+import com.sistema.model.Cliente;
+import com.sistema.model.Usuario;
+import com.sistema.model.Vendedor;
+
+/**
+ * Formato binário dos usuários gravados no log e nos instantâneos: um byte com
+ * o tipo, os campos comuns de Usuario e os campos específicos de cada subclasse.
+ * Textos são gravados como tamanho (int) seguido dos bytes em UTF-8 (-1 para nulo).
+ * Os totais de vendas do Vendedor não são gravados: a recuperação os reconstrói
+ * a partir do registro de vendas.
+ */
+final class FormatoUsuario {
+    private static final byte ADMINISTRADOR = 1;
+    private static final byte VENDEDOR = 2;
+    private static final byte CLIENTE = 3;
+    
+    private FormatoUsuario() {
+    }
+    
+    /**
+     * Codifica um usuário em um vetor de bytes
+     * @param usuario Usuário a ser codificado
+     * @return Bytes do usuário
+     */
+    static byte[] codificar(Usuario usuario) {
+        byte[] nome = bytes(usuario.getNome());
+        byte[] email = bytes(usuario.getEmail());
+        byte[] senha = bytes(usuario.getSenha());
+        int tamanho = 1 + 4 + 1 + tamanhoTexto(nome) + tamanhoTexto(email) + tamanhoTexto(senha);
+        byte tipo;
+        byte[][] textos;
+        
+        if (usuario instanceof Administrador) {
+            Administrador administrador = (Administrador) usuario;
+            tipo = ADMINISTRADOR;
+            textos = new byte[][] {bytes(administrador.getNivelAcesso()), bytes(administrador.getDepartamento())};
+        } else if (usuario instanceof Vendedor) {
+            tipo = VENDEDOR;
+            textos = new byte[0][];
+            tamanho += 8;
+        } else if (usuario instanceof Cliente) {
+            Cliente cliente = (Cliente) usuario;
+            tipo = CLIENTE;
+            textos = new byte[][] {bytes(cliente.getCpf()), bytes(cliente.getEndereco()), bytes(cliente.getTelefone())};
+        } else {
+            throw new IllegalArgumentException("Tipo de usuário não suportado: " + usuario.getClass().getName());
+        }
+        
+        for (byte[] texto : textos) {
+            tamanho += tamanhoTexto(texto);
+        }
+        ByteBuffer destino = ByteBuffer.allocate(tamanho);
+        
+        destino.put(tipo);
+        destino.putInt(usuario.getId());
+        destino.put(usuario.isAtivo() ? (byte) 1 : (byte) 0);
+        escreverTexto(destino, nome);
+        escreverTexto(destino, email);
+        escreverTexto(destino, senha);
+        for (byte[] texto : textos) {
+            escreverTexto(destino, texto);
+        }
+        
+        if (tipo == VENDEDOR) {
+            Vendedor vendedor = (Vendedor) usuario;
+            destino.putDouble(vendedor.getComissao());
+        }
+        
+        return destino.array();
+    }
+    
+    /**
+     * Decodifica um usuário a partir da posição atual do buffer
+     * @param origem Buffer posicionado no início do usuário
+     * @return Usuário decodificado
+     */
+    static Usuario decodificar(ByteBuffer origem) {
+        byte tipo = origem.get();
+        int id = origem.getInt();
+        boolean ativo = origem.get() != 0;
+        String nome = lerTexto(origem);
+        String email = lerTexto(origem);
+        String senha = lerTexto(origem);
+        Usuario usuario;
+        
+        switch (tipo) {
+            case ADMINISTRADOR:
+                usuario = new Administrador(id, nome, email, senha, lerTexto(origem), lerTexto(origem));
+                break;
+            case VENDEDOR:
+                usuario = new Vendedor(id, nome, email, senha, origem.getDouble());
+                break;
+            case CLIENTE:
+                usuario = new Cliente(id, nome, email, senha, lerTexto(origem), lerTexto(origem), lerTexto(origem));
+                break;
+            default:
+                throw new IllegalStateException("Tipo de usuário desconhecido: " + tipo);
+        }
+        
+        usuario.setAtivo(ativo);
+        return usuario;
+    }
+    
+    private static byte[] bytes(String texto) {
+        return texto == null ? null : texto.getBytes(StandardCharsets.UTF_8);
+    }
+    
+    private static int tamanhoTexto(byte[] texto) {
+        return 4 + (texto == null ? 0 : texto.length);
+    }
+    
+    private static void escreverTexto(ByteBuffer destino, byte[] texto) {
+        if (texto == null) {
+            destino.putInt(-1);
+        } else {
+            destino.putInt(texto.length);
+            destino.put(texto);
+        }
+    }
+    
+    private static String lerTexto(ByteBuffer origem) {
+        int tamanho = origem.getInt();
+        if (tamanho < 0) {
+            return null;
+        }
+        byte[] texto = new byte[tamanho];
+        origem.get(texto);
+        return new String(texto, StandardCharsets.UTF_8);
+    }
+}
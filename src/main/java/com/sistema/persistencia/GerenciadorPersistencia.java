@@ -0,0 +1,392 @@
+package com.sistema.persistencia;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import com.sistema.model.Catalogo;
+import com.sistema.model.PlacarVendedores;
+import com.sistema.model.Produto;
+import com.sistema.model.RegistroVendas;
+import com.sistema.model.Sistema;
+import com.sistema.model.Usuario;
+import com.sistema.model.Vendedor;
+import com.sistema.service.Controlador;
+import com.sistema.util.GeradorIds;
+
+/**
+ * Classe responsável por persistir e recuperar o estado do sistema em um diretório.
+ * 
+ * O diretório contém instantâneos do estado completo e o log de escrita
+ * antecipada dividido em segmentos. A cada instantâneo um novo segmento é
+ * iniciado, de modo que a recuperação carrega o instantâneo mais recente e
+ * reaplica apenas os segmentos gravados depois dele. Segmentos e instantâneos
+ * antigos são descartados.
+ * 
+ * Arquivos: instantaneo-&lt;LSN&gt;.dat (estado até o LSN) e log-&lt;LSN&gt;.wal
+ * (segmento cujo primeiro registro tem o LSN indicado).
+ */
+public class GerenciadorPersistencia implements Closeable {
+    private static final String PREFIXO_INSTANTANEO = "instantaneo-";
+    private static final String SUFIXO_INSTANTANEO = ".dat";
+    private static final String PREFIXO_SEGMENTO = "log-";
+    private static final String SUFIXO_SEGMENTO = ".wal";
+    private static final int INSTANTANEOS_MANTIDOS = 2;
+    
+    private final Path diretorio;
+    private final long janelaMicros;
+    private final Controlador controlador;
+    private final Sistema sistema;
+    private final Catalogo catalogo;
+    private final RegistroVendas registroVendas;
+    private final ReentrantLock travaInstantaneo;
+    
+    private LogEscrita log;
+    private long primeiroLsnSegmento;
+    private ScheduledExecutorService agendador;
+    private long lsnInstantaneoCarregado;
+    private long registrosReaplicados;
+    private long tempoRecuperacaoNanos;
+    
+    private GerenciadorPersistencia(Path diretorio, long janelaMicros) {
+        this.diretorio = diretorio;
+        this.janelaMicros = janelaMicros;
+        this.controlador = Controlador.getInstancia();
+        this.sistema = Sistema.getInstancia();
+        this.catalogo = Catalogo.getInstancia();
+        this.registroVendas = RegistroVendas.getInstancia();
+        this.travaInstantaneo = new ReentrantLock();
+    }
+    
+    /**
+     * Recupera o estado gravado no diretório e passa a registrar as alterações do Controlador.
+     * O estado em memória (usuários, produtos, vendas e o placar de vendedores do dia) é substituído pelo recuperado.
+     * 
+     * @param diretorio Diretório dos instantâneos e do log (criado se não existir)
+     * @param janelaAgrupamentoMicros Janela de agrupamento do log de escrita
+     * @return Gerenciador aberto
+     * @throws IOException Se ocorrer erro de leitura ou escrita
+     */
+    public static GerenciadorPersistencia abrir(Path diretorio, long janelaAgrupamentoMicros) throws IOException {
+        Files.createDirectories(diretorio);
+        GerenciadorPersistencia gerenciador = new GerenciadorPersistencia(diretorio, janelaAgrupamentoMicros);
+        gerenciador.recuperar();
+        return gerenciador;
+    }
+    
+    /**
+     * Grava um instantâneo consistente do estado atual e inicia um novo segmento do log.
+     * As alterações ficam pausadas apenas enquanto usuários e produtos são copiados
+     * para memória; a escrita do arquivo acontece com o sistema em funcionamento.
+     * 
+     * @return LSN até o qual o instantâneo está atualizado
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    public long gravarInstantaneo() throws IOException {
+        travaInstantaneo.lock();
+        try {
+            Instantaneo instantaneo;
+            
+            controlador.pausarAlteracoes();
+            try {
+                long lsn = log.getUltimoLsn();
+                instantaneo = Instantaneo.capturar(lsn, sistema, catalogo, registroVendas);
+                
+                if (primeiroLsnSegmento <= lsn) {
+                    // Fecha o segmento atual (gravando o que estiver pendente) e inicia o próximo
+                    log.close();
+                    abrirSegmento(lsn);
+                }
+            } finally {
+                controlador.retomarAlteracoes();
+            }
+            
+            instantaneo.gravar(caminhoInstantaneo(instantaneo.getLsn()), registroVendas);
+            descartarAntigos();
+            return instantaneo.getLsn();
+        } finally {
+            travaInstantaneo.unlock();
+        }
+    }
+    
+    /**
+     * Grava instantâneos periodicamente em segundo plano
+     * @param intervalo Intervalo entre instantâneos
+     * @param unidade Unidade do intervalo
+     */
+    public synchronized void iniciarInstantaneosPeriodicos(long intervalo, TimeUnit unidade) {
+        if (agendador != null) {
+            agendador.shutdownNow();
+        }
+        
+        agendador = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "instantaneos-" + diretorio.getFileName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        agendador.scheduleWithFixedDelay(() -> {
+            try {
+                gravarInstantaneo();
+            } catch (IOException e) {
+                System.err.println("Falha ao gravar instantâneo em " + diretorio + ": " + e.getMessage());
+            }
+        }, intervalo, intervalo, unidade);
+    }
+    
+    /**
+     * Encerra os instantâneos periódicos, desliga o log do Controlador e fecha o segmento atual
+     * @throws IOException Se ocorrer erro ao fechar o log
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (agendador != null) {
+                agendador.shutdownNow();
+                agendador = null;
+            }
+        }
+        
+        travaInstantaneo.lock();
+        try {
+            controlador.pausarAlteracoes();
+            try {
+                controlador.setLogEscrita(null);
+            } finally {
+                controlador.retomarAlteracoes();
+            }
+            log.close();
+        } finally {
+            travaInstantaneo.unlock();
+        }
+    }
+    
+    /**
+     * Obtém o LSN do instantâneo carregado na recuperação
+     * @return LSN do instantâneo, ou 0 se nenhum foi encontrado
+     */
+    public long getLsnInstantaneoCarregado() {
+        return lsnInstantaneoCarregado;
+    }
+    
+    /**
+     * Obtém a quantidade de registros do log reaplicados na recuperação
+     * @return Quantidade de registros reaplicados
+     */
+    public long getRegistrosReaplicados() {
+        return registrosReaplicados;
+    }
+    
+    /**
+     * Obtém o tempo gasto na recuperação
+     * @return Tempo de recuperação em milissegundos
+     */
+    public long getTempoRecuperacaoMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(tempoRecuperacaoNanos);
+    }
+    
+    public Path getDiretorio() {
+        return diretorio;
+    }
+    
+    /**
+     * Carrega o instantâneo válido mais recente, reaplica os segmentos posteriores
+     * e abre o último segmento para novas gravações
+     */
+    private void recuperar() throws IOException {
+        long inicio = System.nanoTime();
+        
+        controlador.setLogEscrita(null);
+        limparEstado();
+        
+        List<Long> instantaneos = listar(PREFIXO_INSTANTANEO, SUFIXO_INSTANTANEO);
+        boolean carregado = false;
+        for (int i = instantaneos.size() - 1; i >= 0 && !carregado; i--) {
+            try {
+                lsnInstantaneoCarregado = Instantaneo.carregar(caminhoInstantaneo(instantaneos.get(i)),
+                                                               sistema, catalogo, registroVendas);
+                carregado = true;
+            } catch (IOException e) {
+                // Instantâneo incompleto ou corrompido: tenta o anterior
+                limparEstado();
+            }
+        }
+        
+        List<Long> segmentos = listar(PREFIXO_SEGMENTO, SUFIXO_SEGMENTO);
+        Reaplicador reaplicador = new Reaplicador();
+        long ultimoLsn = lsnInstantaneoCarregado;
+        
+        for (int i = 0; i < segmentos.size(); i++) {
+            boolean coberto = i + 1 < segmentos.size() && segmentos.get(i + 1) <= lsnInstantaneoCarregado + 1;
+            if (!coberto) {
+                long fim = LogEscrita.percorrer(caminhoSegmento(segmentos.get(i)), lsnInstantaneoCarregado, reaplicador);
+                ultimoLsn = Math.max(ultimoLsn, fim);
+            }
+        }
+        registrosReaplicados = reaplicador.registros;
+        avancarGeradorIds();
+        restaurarVendasDosVendedores();
+        
+        if (segmentos.isEmpty()) {
+            abrirSegmento(ultimoLsn);
+        } else {
+            primeiroLsnSegmento = segmentos.get(segmentos.size() - 1);
+            log = new LogEscrita(caminhoSegmento(primeiroLsnSegmento), janelaMicros, ultimoLsn);
+        }
+        controlador.setLogEscrita(log);
+        
+        tempoRecuperacaoNanos = System.nanoTime() - inicio;
+    }
+    
+    /**
+     * Impede que o gerador de IDs repita os IDs dos usuários e produtos recuperados
+     */
+    private void avancarGeradorIds() {
+        int maiorId = 0;
+        for (Usuario usuario : sistema.getUsuarios()) {
+            maiorId = Math.max(maiorId, usuario.getId());
+        }
+        for (Produto produto : sistema.getProdutos()) {
+            maiorId = Math.max(maiorId, produto.getId());
+        }
+        GeradorIds.getInstancia().avancarPara(maiorId);
+    }
+    
+    /**
+     * Reconstrói os totais dos vendedores e o placar do dia a partir do registro de
+     * vendas recuperado, que é a única cópia persistida dessas informações
+     */
+    private void restaurarVendasDosVendedores() {
+        registroVendas.paraCada(registroVendas.getTotalVendas(),
+            (instante, idProduto, idVendedor, idCliente, quantidade, preco) -> {
+                if (idVendedor == RegistroVendas.SEM_IDENTIFICACAO) {
+                    return;
+                }
+                Usuario usuario = sistema.buscarUsuarioPorId(idVendedor);
+                if (usuario instanceof Vendedor) {
+                    ((Vendedor) usuario).restaurarVenda(instante, quantidade, preco);
+                }
+            });
+    }
+    
+    private void limparEstado() {
+        sistema.limparUsuarios();
+        catalogo.limpar();
+        registroVendas.limpar();
+        PlacarVendedores.getInstancia().limpar();
+    }
+    
+    private void abrirSegmento(long lsnBase) throws IOException {
+        primeiroLsnSegmento = lsnBase + 1;
+        log = new LogEscrita(caminhoSegmento(primeiroLsnSegmento), janelaMicros, lsnBase);
+        controlador.setLogEscrita(log);
+    }
+    
+    /**
+     * Mantém os instantâneos mais recentes e apaga os segmentos já cobertos pelo mais antigo deles
+     */
+    private void descartarAntigos() throws IOException {
+        List<Long> instantaneos = listar(PREFIXO_INSTANTANEO, SUFIXO_INSTANTANEO);
+        if (instantaneos.size() <= INSTANTANEOS_MANTIDOS) {
+            return;
+        }
+        
+        int primeiroMantido = instantaneos.size() - INSTANTANEOS_MANTIDOS;
+        for (int i = 0; i < primeiroMantido; i++) {
+            Files.deleteIfExists(caminhoInstantaneo(instantaneos.get(i)));
+        }
+        
+        long lsnMaisAntigo = instantaneos.get(primeiroMantido);
+        List<Long> segmentos = listar(PREFIXO_SEGMENTO, SUFIXO_SEGMENTO);
+        for (int i = 0; i + 1 < segmentos.size() && segmentos.get(i + 1) <= lsnMaisAntigo + 1; i++) {
+            Files.deleteIfExists(caminhoSegmento(segmentos.get(i)));
+        }
+    }
+    
+    /**
+     * Lista os números (LSN) dos arquivos com o prefixo e sufixo informados, em ordem crescente
+     */
+    private List<Long> listar(String prefixo, String sufixo) throws IOException {
+        List<Long> numeros = new ArrayList<>();
+        
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            arquivos.forEach(arquivo -> {
+                String nome = arquivo.getFileName().toString();
+                if (nome.startsWith(prefixo) && nome.endsWith(sufixo)) {
+                    try {
+                        numeros.add(Long.parseLong(nome.substring(prefixo.length(), nome.length() - sufixo.length())));
+                    } catch (NumberFormatException e) {
+                        // Ignora arquivos que não seguem o padrão de nomes
+                    }
+                }
+            });
+        }
+        
+        Collections.sort(numeros);
+        return numeros;
+    }
+    
+    private Path caminhoInstantaneo(long lsn) {
+        return diretorio.resolve(String.format("%s%020d%s", PREFIXO_INSTANTANEO, lsn, SUFIXO_INSTANTANEO));
+    }
+    
+    private Path caminhoSegmento(long primeiroLsn) {
+        return diretorio.resolve(String.format("%s%020d%s", PREFIXO_SEGMENTO, primeiroLsn, SUFIXO_SEGMENTO));
+    }
+    
+    /**
+     * Reaplica os registros do log sobre o estado em memória.
+     * As variações de estoque são aplicadas sem verificar disponibilidade, pois a
+     * ordem dos registros no log pode diferir da ordem em que foram aplicadas.
+     */
+    private class Reaplicador implements VisitanteLog {
+        private long registros;
+        
+        @Override
+        public void produtoCadastrado(long lsn, Produto produto) {
+            catalogo.adicionar(produto);
+            registros++;
+        }
+        
+        @Override
+        public void produtoRemovido(long lsn, int idProduto) {
+            catalogo.remover(idProduto);
+            registros++;
+        }
+        
+        @Override
+        public void estoqueAjustado(long lsn, int idProduto, int delta) {
+            aplicarVariacao(idProduto, delta);
+            registros++;
+        }
+        
+        @Override
+        public void vendaRealizada(long lsn, long instante, int idProduto, int idVendedor, int idCliente,
+                                   int quantidade, double precoUnitario) {
+            aplicarVariacao(idProduto, -quantidade);
+            registroVendas.registrar(instante, idProduto, idVendedor, idCliente, quantidade, precoUnitario);
+            registros++;
+        }
+        
+        @Override
+        public void usuarioCadastrado(long lsn, Usuario usuario) {
+            sistema.cadastrarUsuario(usuario);
+            registros++;
+        }
+        
+        private void aplicarVariacao(int idProduto, int delta) {
+            Produto produto = catalogo.buscar(idProduto);
+            if (produto != null) {
+                produto.alterarQuantidadeEstoque(produto.getQuantidadeEstoque() + delta);
+            }
+        }
+    }
+}
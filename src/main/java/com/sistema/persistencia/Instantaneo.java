@@ -0,0 +1,222 @@
+package com.sistema.persistencia;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+import com.sistema.model.Catalogo;
+import com.sistema.model.RegistroVendas;
+import com.sistema.model.Sistema;
+import com.sistema.model.Usuario;
+
+/**
+ * Instantâneo binário do estado completo: usuários, produtos (com a quantidade
+ * em estoque) e registro de vendas, associado ao LSN do log até o qual o
+ * estado está atualizado.
+ * 
+ * A captura copia usuários e produtos para memória enquanto as alterações
+ * estão pausadas; as vendas, que nunca mudam depois de registradas, são
+ * copiadas direto do RegistroVendas durante a gravação do arquivo.
+ * 
+ * Formato: mágico (int), versão (int), LSN (long), quantidades de usuários
+ * (int), produtos (int) e vendas (long), a seção de usuários (cada item com
+ * tamanho int e bytes), a seção de produtos (em sequência no CodecProduto,
+ * com um único dicionário de textos), as vendas em campos fixos e o CRC32
+ * de todo o conteúdo anterior.
+ */
+final class Instantaneo {
+    private static final int MAGICO = 0x53564953;
+    private static final int VERSAO = 3;
+    private static final int CABECALHO = 4 + 4 + 8 + 4 + 4 + 8;
+    private static final int TAMANHO_VENDA = 8 + 4 + 4 + 4 + 4 + 8;
+    
+    private final long lsn;
+    private final byte[] usuarios;
+    private final int quantidadeUsuarios;
+    private final byte[] produtos;
+    private final int quantidadeProdutos;
+    private final long quantidadeVendas;
+    
+    private Instantaneo(long lsn, byte[] usuarios, int quantidadeUsuarios, byte[] produtos,
+                        int quantidadeProdutos, long quantidadeVendas) {
+        this.lsn = lsn;
+        this.usuarios = usuarios;
+        this.quantidadeUsuarios = quantidadeUsuarios;
+        this.produtos = produtos;
+        this.quantidadeProdutos = quantidadeProdutos;
+        this.quantidadeVendas = quantidadeVendas;
+    }
+    
+    /**
+     * Copia o estado atual para memória (chamado com as alterações pausadas)
+     * @param lsn Último LSN refletido no estado
+     * @return Instantâneo pronto para ser gravado
+     */
+    static Instantaneo capturar(long lsn, Sistema sistema, Catalogo catalogo, RegistroVendas registroVendas) {
+        ByteArrayOutputStream usuarios = new ByteArrayOutputStream();
+        DataOutputStream saidaUsuarios = new DataOutputStream(usuarios);
+        int quantidadeUsuarios = 0;
+        
+        try {
+            for (Usuario usuario : sistema.getUsuarios()) {
+                escreverItem(saidaUsuarios, FormatoUsuario.codificar(usuario));
+                quantidadeUsuarios++;
+            }
+        } catch (IOException e) {
+            // ByteArrayOutputStream não lança IOException
+            throw new UncheckedIOException(e);
+        }
+        
+        CodecProduto codec = new CodecProduto();
+        ByteBuffer[] produtos = {ByteBuffer.allocate(Math.max(catalogo.tamanho() * 64, 1024))};
+        int[] quantidadeProdutos = new int[1];
+        catalogo.paraCada(produto -> {
+            int necessario = CodecProduto.tamanhoMaximo(produto);
+            if (produtos[0].remaining() < necessario) {
+                ByteBuffer maior = ByteBuffer.allocate(Math.max(produtos[0].capacity() * 2,
+                                                                produtos[0].position() + necessario));
+                produtos[0].flip();
+                produtos[0] = maior.put(produtos[0]);
+            }
+            codec.codificar(produto, produtos[0]);
+            quantidadeProdutos[0]++;
+        });
+        
+        return new Instantaneo(lsn, usuarios.toByteArray(), quantidadeUsuarios,
+                               Arrays.copyOf(produtos[0].array(), produtos[0].position()),
+                               quantidadeProdutos[0], registroVendas.getTotalVendas());
+    }
+    
+    /**
+     * Grava o instantâneo em um arquivo temporário e o move para o destino,
+     * de modo que o destino nunca fique com um instantâneo incompleto
+     * @param destino Caminho final do arquivo
+     * @param registroVendas Registro de onde as vendas são copiadas
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    void gravar(Path destino, RegistroVendas registroVendas) throws IOException {
+        Path temporario = destino.resolveSibling(destino.getFileName() + ".tmp");
+        
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                                                  StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            CRC32 crc = new CRC32();
+            DataOutputStream saida = new DataOutputStream(new CheckedOutputStream(
+                new BufferedOutputStream(Channels.newOutputStream(canal), 1 << 16), crc));
+            
+            saida.writeInt(MAGICO);
+            saida.writeInt(VERSAO);
+            saida.writeLong(lsn);
+            saida.writeInt(quantidadeUsuarios);
+            saida.writeInt(quantidadeProdutos);
+            saida.writeLong(quantidadeVendas);
+            saida.write(usuarios);
+            saida.write(produtos);
+            
+            try {
+                registroVendas.paraCada(quantidadeVendas, (instante, idProduto, idVendedor, idCliente, quantidade, preco) -> {
+                    try {
+                        saida.writeLong(instante);
+                        saida.writeInt(idProduto);
+                        saida.writeInt(idVendedor);
+                        saida.writeInt(idCliente);
+                        saida.writeInt(quantidade);
+                        saida.writeDouble(preco);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            
+            // O CRC não inclui a si mesmo
+            int valorCrc = (int) crc.getValue();
+            saida.writeInt(valorCrc);
+            saida.flush();
+            canal.force(true);
+        }
+        
+        Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    /**
+     * Carrega um instantâneo no estado em memória (que deve estar vazio)
+     * @param arquivo Caminho do instantâneo
+     * @return LSN do log até o qual o instantâneo está atualizado
+     * @throws IOException Se o arquivo não puder ser lido ou estiver corrompido
+     */
+    static long carregar(Path arquivo, Sistema sistema, Catalogo catalogo, RegistroVendas registroVendas)
+            throws IOException {
+        MappedByteBuffer conteudo;
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            if (canal.size() < CABECALHO + 4 || canal.size() > Integer.MAX_VALUE) {
+                throw new IOException("Tamanho de instantâneo inválido: " + arquivo);
+            }
+            conteudo = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+        }
+        
+        int fimDados = conteudo.limit() - 4;
+        CRC32 crc = new CRC32();
+        crc.update(conteudo.duplicate().limit(fimDados));
+        if ((int) crc.getValue() != conteudo.getInt(fimDados) || conteudo.getInt() != MAGICO) {
+            throw new IOException("Instantâneo corrompido: " + arquivo);
+        }
+        if (conteudo.getInt() != VERSAO) {
+            throw new IOException("Versão de instantâneo não suportada: " + arquivo);
+        }
+        
+        long lsn = conteudo.getLong();
+        int quantidadeUsuarios = conteudo.getInt();
+        int quantidadeProdutos = conteudo.getInt();
+        long quantidadeVendas = conteudo.getLong();
+        
+        for (int i = 0; i < quantidadeUsuarios; i++) {
+            sistema.cadastrarUsuario(FormatoUsuario.decodificar(proximoItem(conteudo)));
+        }
+        CodecProduto codec = new CodecProduto();
+        for (int i = 0; i < quantidadeProdutos; i++) {
+            catalogo.adicionar(codec.decodificar(conteudo));
+        }
+        if (conteudo.position() + quantidadeVendas * TAMANHO_VENDA != fimDados) {
+            throw new IOException("Instantâneo corrompido: " + arquivo);
+        }
+        for (long i = 0; i < quantidadeVendas; i++) {
+            registroVendas.registrar(conteudo.getLong(), conteudo.getInt(), conteudo.getInt(), conteudo.getInt(),
+                                     conteudo.getInt(), conteudo.getDouble());
+        }
+        
+        return lsn;
+    }
+    
+    long getLsn() {
+        return lsn;
+    }
+    
+    private static void escreverItem(DataOutputStream saida, byte[] item) throws IOException {
+        saida.writeInt(item.length);
+        saida.write(item);
+    }
+    
+    /**
+     * Devolve uma fatia com o próximo item e avança o buffer para depois dele
+     */
+    private static ByteBuffer proximoItem(ByteBuffer conteudo) {
+        int tamanho = conteudo.getInt();
+        ByteBuffer item = conteudo.slice().limit(tamanho);
+        conteudo.position(conteudo.position() + tamanho);
+        return item;
+    }
+}
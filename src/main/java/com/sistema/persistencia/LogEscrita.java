@@ -0,0 +1,588 @@
+package com.sistema.persistencia;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+import com.sistema.model.Produto;
+import com.sistema.model.Usuario;
+
+/**
+ * Log de escrita antecipada (write-ahead log) das alterações de estoque.
+ * 
+ * Cada registro recebe um número de sequência (LSN) e é acumulado em memória;
+ * uma thread gravadora escreve os registros acumulados no arquivo e chama
+ * fsync uma única vez por grupo (group commit). Quem registra uma alteração
+ * espera apenas até que o seu LSN esteja durável, de modo que muitas vendas
+ * concorrentes compartilham o mesmo fsync.
+ * 
+ * Formato de cada registro: tamanho (int), LSN (long), tipo (byte), dados e
+ * CRC32 (int) de LSN, tipo e dados. Um final de arquivo truncado ou corrompido
+ * é descartado na abertura.
+ */
+public class LogEscrita implements Closeable {
+    static final byte CADASTRO_PRODUTO = 1;
+    static final byte REMOCAO_PRODUTO = 2;
+    static final byte AJUSTE_ESTOQUE = 3;
+    static final byte VENDA = 4;
+    static final byte CADASTRO_USUARIO = 5;
+    
+    private static final int CABECALHO = 4 + 8 + 1;
+    private static final int RODAPE = 4;
+    private static final int TAMANHO_VENDA = 8 + 4 + 4 + 4 + 4 + 8;
+    private static final int CAPACIDADE_INICIAL = 64 * 1024;
+    private static final int TAMANHO_JANELA_LEITURA = 1024 * 1024;
+    
+    private final Path arquivo;
+    private final FileChannel canal;
+    private final long janelaNanos;
+    private final ReentrantLock trava;
+    private final Condition dadosPendentes;
+    private final Condition gravado;
+    private final CRC32 crc;
+    private final CodecProduto codec;
+    private final Thread gravadora;
+    
+    private ByteBuffer pendente;
+    private ByteBuffer emGravacao;
+    private long ultimoLsn;
+    private volatile long lsnDuravel;
+    private boolean fechado;
+    private IOException falha;
+    
+    /**
+     * Abre (ou cria) o log, continuando a numeração a partir do último registro válido
+     * 
+     * @param arquivo Caminho do arquivo de log
+     * @param janelaAgrupamentoMicros Tempo que a gravadora espera para juntar mais
+     *        registros no mesmo fsync (0 grava assim que houver dados)
+     * @throws IOException Se o arquivo não puder ser aberto
+     */
+    public LogEscrita(Path arquivo, long janelaAgrupamentoMicros) throws IOException {
+        this(arquivo, janelaAgrupamentoMicros, 0);
+    }
+    
+    /**
+     * Abre (ou cria) um segmento do log que continua a numeração de um segmento anterior
+     * 
+     * @param arquivo Caminho do arquivo de log
+     * @param janelaAgrupamentoMicros Tempo que a gravadora espera para juntar mais
+     *        registros no mesmo fsync (0 grava assim que houver dados)
+     * @param lsnBase Último LSN dos segmentos anteriores; o primeiro registro novo
+     *        recebe um LSN maior que este
+     * @throws IOException Se o arquivo não puder ser aberto
+     */
+    public LogEscrita(Path arquivo, long janelaAgrupamentoMicros, long lsnBase) throws IOException {
+        this.arquivo = arquivo;
+        this.janelaNanos = TimeUnit.MICROSECONDS.toNanos(janelaAgrupamentoMicros);
+        this.trava = new ReentrantLock();
+        this.dadosPendentes = trava.newCondition();
+        this.gravado = trava.newCondition();
+        this.crc = new CRC32();
+        // Sem dicionário: cada registro precisa ser legível isoladamente
+        this.codec = new CodecProduto(false);
+        this.pendente = ByteBuffer.allocate(CAPACIDADE_INICIAL);
+        this.emGravacao = ByteBuffer.allocate(CAPACIDADE_INICIAL);
+        
+        this.canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                      StandardOpenOption.WRITE);
+        long[] fim = percorrer(canal, 0, null);
+        // Descarta um final incompleto ou corrompido deixado por uma queda durante a gravação
+        if (fim[0] < canal.size()) {
+            canal.truncate(fim[0]);
+        }
+        canal.position(fim[0]);
+        this.ultimoLsn = Math.max(fim[1], lsnBase);
+        this.lsnDuravel = ultimoLsn;
+        
+        this.gravadora = new Thread(this::gravarContinuamente, "log-escrita-" + arquivo.getFileName());
+        this.gravadora.setDaemon(true);
+        this.gravadora.start();
+    }
+    
+    /**
+     * Registra o cadastro de um produto
+     * @param produto Produto cadastrado
+     * @return LSN do registro
+     */
+    public long registrarCadastroProduto(Produto produto) {
+        return registrarCadastroProduto(produto, produto.getQuantidadeEstoque());
+    }
+    
+    /**
+     * Registra o cadastro de um produto com a quantidade em estoque do momento do cadastro.
+     * Vendas concorrentes podem baixar o estoque do produto já publicado antes da
+     * codificação; gravar a quantidade inicial evita descontá-las duas vezes na reaplicação.
+     * @param produto Produto cadastrado
+     * @param quantidadeEstoque Quantidade em estoque com que o produto foi cadastrado
+     * @return LSN do registro
+     */
+    public long registrarCadastroProduto(Produto produto, int quantidadeEstoque) {
+        // Rejeita tipos não suportados antes de reservar o registro
+        int tamanhoMaximo = CodecProduto.tamanhoMaximo(produto);
+        
+        trava.lock();
+        try {
+            // O produto é codificado direto no buffer pendente
+            int inicio = iniciarRegistro(CADASTRO_PRODUTO, tamanhoMaximo);
+            try {
+                codec.codificar(produto, quantidadeEstoque, pendente);
+            } catch (RuntimeException e) {
+                descartarRegistro(inicio);
+                throw e;
+            }
+            return concluirRegistro(inicio);
+        } finally {
+            trava.unlock();
+        }
+    }
+    
+    /**
+     * Registra o cadastro de um usuário
+     * @param usuario Usuário cadastrado
+     * @return LSN do registro
+     */
+    public long registrarCadastroUsuario(Usuario usuario) {
+        byte[] dados = FormatoUsuario.codificar(usuario);
+        
+        trava.lock();
+        try {
+            int inicio = iniciarRegistro(CADASTRO_USUARIO, dados.length);
+            pendente.put(dados);
+            return concluirRegistro(inicio);
+        } finally {
+            trava.unlock();
+        }
+    }
+    
+    /**
+     * Registra a remoção de um produto
+     * @param idProduto ID do produto removido
+     * @return LSN do registro
+     */
+    public long registrarRemocaoProduto(int idProduto) {
+        trava.lock();
+        try {
+            int inicio = iniciarRegistro(REMOCAO_PRODUTO, 4);
+            pendente.putInt(idProduto);
+            return concluirRegistro(inicio);
+        } finally {
+            trava.unlock();
+        }
+    }
+    
+    /**
+     * Registra um ajuste da quantidade em estoque.
+     * O ajuste é gravado como variação, de modo que a ordem relativa entre
+     * ajustes e vendas concorrentes não altera o resultado da reaplicação.
+     * @param idProduto ID do produto ajustado
+     * @param delta Variação aplicada à quantidade
+     * @return LSN do registro
+     */
+    public long registrarAjusteEstoque(int idProduto, int delta) {
+        trava.lock();
+        try {
+            int inicio = iniciarRegistro(AJUSTE_ESTOQUE, 8);
+            pendente.putInt(idProduto);
+            pendente.putInt(delta);
+            return concluirRegistro(inicio);
+        } finally {
+            trava.unlock();
+        }
+    }
+    
+    /**
+     * Registra uma venda
+     * @param instante Instante da venda em milissegundos desde a época
+     * @param idProduto ID do produto vendido
+     * @param idVendedor ID do vendedor
+     * @param idCliente ID do cliente
+     * @param quantidade Quantidade vendida
+     * @param precoUnitario Preço unitário praticado
+     * @return LSN do registro
+     */
+    public long registrarVenda(long instante, int idProduto, int idVendedor, int idCliente,
+                               int quantidade, double precoUnitario) {
+        trava.lock();
+        try {
+            int inicio = iniciarRegistro(VENDA, TAMANHO_VENDA);
+            pendente.putLong(instante);
+            pendente.putInt(idProduto);
+            pendente.putInt(idVendedor);
+            pendente.putInt(idCliente);
+            pendente.putInt(quantidade);
+            pendente.putDouble(precoUnitario);
+            return concluirRegistro(inicio);
+        } finally {
+            trava.unlock();
+        }
+    }
+    
+    /**
+     * Registra as linhas de um pedido com uma única aquisição da trava.
+     * O log é verificado uma vez antes da primeira linha, então as linhas são
+     * aceitas todas juntas ou nenhuma é aceita.
+     * @param instante Instante da venda em milissegundos desde a época
+     * @param idsProdutos ID do produto de cada linha
+     * @param idVendedor ID do vendedor
+     * @param idCliente ID do cliente
+     * @param quantidades Quantidade de cada linha
+     * @param precosUnitarios Preço unitário praticado em cada linha
+     * @return LSN do registro da última linha
+     */
+    public long registrarVendas(long instante, int[] idsProdutos, int idVendedor, int idCliente,
+                                int[] quantidades, double[] precosUnitarios) {
+        trava.lock();
+        try {
+            for (int i = 0; i < idsProdutos.length; i++) {
+                int inicio = iniciarRegistro(VENDA, TAMANHO_VENDA);
+                pendente.putLong(instante);
+                pendente.putInt(idsProdutos[i]);
+                pendente.putInt(idVendedor);
+                pendente.putInt(idCliente);
+                pendente.putInt(quantidades[i]);
+                pendente.putDouble(precosUnitarios[i]);
+                concluirRegistro(inicio);
+            }
+            return ultimoLsn;
+        } finally {
+            trava.unlock();
+        }
+    }
+    
+    /**
+     * Espera até que o registro informado (e todos os anteriores) estejam gravados em disco
+     * @param lsn LSN retornado por um dos métodos de registro
+     * @throws UncheckedIOException Se a gravação do log falhou
+     */
+    public void aguardarDurabilidade(long lsn) {
+        if (lsnDuravel >= lsn) {
+            return;
+        }
+        
+        trava.lock();
+        try {
+            while (lsnDuravel < lsn) {
+                if (falha != null) {
+                    throw new UncheckedIOException("Falha ao gravar o log " + arquivo, falha);
+                }
+                gravado.awaitUninterruptibly();
+            }
+        } finally {
+            trava.unlock();
+        }
+    }
+    
+    /**
+     * Obtém o LSN do último registro aceito, gravado em disco ou não
+     * @return Último LSN atribuído
+     */
+    public long getUltimoLsn() {
+        trava.lock();
+        try {
+            return ultimoLsn;
+        } finally {
+            trava.unlock();
+        }
+    }
+    
+    /**
+     * Obtém o LSN do último registro gravado em disco
+     * @return LSN durável
+     */
+    public long getLsnDuravel() {
+        return lsnDuravel;
+    }
+    
+    public Path getArquivo() {
+        return arquivo;
+    }
+    
+    /**
+     * Grava os registros pendentes e fecha o log
+     * @throws IOException Se ocorrer erro ao fechar o arquivo
+     */
+    @Override
+    public void close() throws IOException {
+        trava.lock();
+        try {
+            fechado = true;
+            dadosPendentes.signal();
+        } finally {
+            trava.unlock();
+        }
+        
+        try {
+            gravadora.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        canal.close();
+    }
+    
+    /**
+     * Percorre os registros de um arquivo de log
+     * @param arquivo Caminho do arquivo de log
+     * @param aPartirDeLsn Entrega apenas registros com LSN maior que este valor
+     * @param visitante Recebe os registros lidos
+     * @return LSN do último registro válido do arquivo (0 se vazio)
+     * @throws IOException Se ocorrer erro de leitura
+     */
+    public static long percorrer(Path arquivo, long aPartirDeLsn, VisitanteLog visitante) throws IOException {
+        try (FileChannel leitura = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            return percorrer(leitura, aPartirDeLsn, visitante)[1];
+        }
+    }
+    
+    /**
+     * Lê os registros válidos do canal e devolve {posição final válida, último LSN}.
+     * O arquivo é lido em janelas de tamanho fixo, com posições long, de modo que
+     * o tamanho do segmento não é limitado pelo tamanho de um buffer. A leitura
+     * só para em um registro com tamanho ou CRC inválido, ou incompleto no final.
+     */
+    private static long[] percorrer(FileChannel leitura, long aPartirDeLsn, VisitanteLog visitante) throws IOException {
+        JanelaLeitura janela = new JanelaLeitura(leitura);
+        CRC32 verificador = new CRC32();
+        CodecProduto leitor = new CodecProduto(false);
+        long ultimoLsn = 0;
+        long posicaoValida = 0;
+        
+        while (janela.garantir(4)) {
+            ByteBuffer conteudo = janela.buffer;
+            int tamanho = conteudo.getInt(conteudo.position());
+            if (tamanho < CABECALHO - 4 + RODAPE || tamanho > janela.restanteNoArquivo() - 4
+                || !janela.garantir(4 + tamanho)) {
+                break;
+            }
+            
+            // garantir() pode ter deslocado o conteúdo da janela
+            conteudo = janela.buffer;
+            int inicio = conteudo.position();
+            verificador.reset();
+            verificador.update(conteudo.array(), inicio + 4, tamanho - RODAPE);
+            int crcGravado = conteudo.getInt(inicio + 4 + tamanho - RODAPE);
+            if ((int) verificador.getValue() != crcGravado) {
+                break;
+            }
+            
+            conteudo.position(inicio + 4);
+            long lsn = conteudo.getLong();
+            byte tipo = conteudo.get();
+            if (visitante != null && lsn > aPartirDeLsn) {
+                entregar(conteudo, lsn, tipo, leitor, visitante);
+            }
+            
+            conteudo.position(inicio + 4 + tamanho);
+            ultimoLsn = lsn;
+            posicaoValida = janela.posicaoNoArquivo();
+        }
+        
+        return new long[] {posicaoValida, ultimoLsn};
+    }
+    
+    /**
+     * Janela deslizante sobre o arquivo de log. O buffer guarda os bytes a partir
+     * de inicioJanela; a posição do buffer é o próximo byte a ser interpretado.
+     */
+    private static final class JanelaLeitura {
+        private final FileChannel canal;
+        private final long tamanhoArquivo;
+        private ByteBuffer buffer;
+        private long inicioJanela;
+        
+        JanelaLeitura(FileChannel canal) throws IOException {
+            this.canal = canal;
+            this.tamanhoArquivo = canal.size();
+            this.buffer = ByteBuffer.allocate((int) Math.min(TAMANHO_JANELA_LEITURA, Math.max(tamanhoArquivo, 4)));
+            this.buffer.limit(0);
+        }
+        
+        long posicaoNoArquivo() {
+            return inicioJanela + buffer.position();
+        }
+        
+        long restanteNoArquivo() {
+            return tamanhoArquivo - posicaoNoArquivo();
+        }
+        
+        /**
+         * Garante que os próximos necessario bytes estejam no buffer, descartando os
+         * já interpretados e lendo mais do arquivo (aumentando o buffer para um registro maior)
+         * @return false se o arquivo terminar antes
+         */
+        boolean garantir(int necessario) throws IOException {
+            if (buffer.remaining() >= necessario) {
+                return true;
+            }
+            if (restanteNoArquivo() < necessario) {
+                return false;
+            }
+            
+            inicioJanela += buffer.position();
+            if (buffer.capacity() < necessario) {
+                ByteBuffer maior = ByteBuffer.allocate(necessario);
+                maior.put(buffer);
+                buffer = maior;
+            } else {
+                buffer.compact();
+            }
+            
+            while (buffer.hasRemaining()) {
+                int lidos = canal.read(buffer, inicioJanela + buffer.position());
+                if (lidos < 0) {
+                    break;
+                }
+            }
+            buffer.flip();
+            return buffer.remaining() >= necessario;
+        }
+    }
+    
+    private static void entregar(ByteBuffer dados, long lsn, byte tipo, CodecProduto leitor, VisitanteLog visitante) {
+        switch (tipo) {
+            case CADASTRO_PRODUTO:
+                visitante.produtoCadastrado(lsn, leitor.decodificar(dados));
+                break;
+            case REMOCAO_PRODUTO:
+                visitante.produtoRemovido(lsn, dados.getInt());
+                break;
+            case AJUSTE_ESTOQUE:
+                visitante.estoqueAjustado(lsn, dados.getInt(), dados.getInt());
+                break;
+            case VENDA:
+                visitante.vendaRealizada(lsn, dados.getLong(), dados.getInt(), dados.getInt(), dados.getInt(),
+                                         dados.getInt(), dados.getDouble());
+                break;
+            case CADASTRO_USUARIO:
+                visitante.usuarioCadastrado(lsn, FormatoUsuario.decodificar(dados));
+                break;
+            default:
+                throw new IllegalStateException("Tipo de registro desconhecido no log: " + tipo);
+        }
+    }
+    
+    /**
+     * Reserva espaço e escreve o cabeçalho de um registro (chamado com a trava obtida).
+     * O tamanho definitivo é preenchido em concluirRegistro.
+     * @param tamanhoDados Tamanho máximo dos dados do registro
+     * @return Posição do início do registro no buffer pendente
+     */
+    private int iniciarRegistro(byte tipo, int tamanhoDados) {
+        if (falha != null) {
+            throw new UncheckedIOException("Falha ao gravar o log " + arquivo, falha);
+        }
+        if (fechado) {
+            throw new IllegalStateException("O log " + arquivo + " está fechado");
+        }
+        
+        int necessario = CABECALHO + tamanhoDados + RODAPE;
+        if (pendente.remaining() < necessario) {
+            ByteBuffer maior = ByteBuffer.allocate(Math.max(pendente.capacity() * 2, pendente.position() + necessario));
+            pendente.flip();
+            maior.put(pendente);
+            pendente = maior;
+        }
+        
+        int inicio = pendente.position();
+        pendente.putInt(0);
+        pendente.putLong(++ultimoLsn);
+        pendente.put(tipo);
+        return inicio;
+    }
+    
+    /**
+     * Desfaz um registro iniciado e não concluído (chamado com a trava obtida).
+     * Um cabeçalho sem tamanho deixado no buffer faria a leitura parar nele,
+     * descartando todos os registros gravados depois.
+     * @param inicio Posição do início do registro no buffer pendente
+     */
+    private void descartarRegistro(int inicio) {
+        pendente.position(inicio);
+        ultimoLsn--;
+    }
+    
+    /**
+     * Escreve o CRC do registro e acorda a gravadora (chamado com a trava obtida)
+     * @return LSN do registro
+     */
+    private long concluirRegistro(int inicio) {
+        pendente.putInt(inicio, pendente.position() - inicio - 4 + RODAPE);
+        crc.reset();
+        crc.update(pendente.array(), inicio + 4, pendente.position() - inicio - 4);
+        pendente.putInt((int) crc.getValue());
+        dadosPendentes.signal();
+        return ultimoLsn;
+    }
+    
+    /**
+     * Laço da thread gravadora: junta os registros pendentes e grava cada grupo com um fsync
+     */
+    private void gravarContinuamente() {
+        while (true) {
+            trava.lock();
+            try {
+                while (pendente.position() == 0 && !fechado) {
+                    dadosPendentes.awaitUninterruptibly();
+                }
+                if (pendente.position() == 0) {
+                    return;
+                }
+            } finally {
+                trava.unlock();
+            }
+            
+            if (janelaNanos > 0) {
+                // Dá tempo para que outras threads entrem no mesmo grupo
+                LockSupport.parkNanos(janelaNanos);
+            }
+            
+            long lsnDoGrupo;
+            trava.lock();
+            try {
+                ByteBuffer troca = pendente;
+                pendente = emGravacao;
+                emGravacao = troca;
+                lsnDoGrupo = ultimoLsn;
+            } finally {
+                trava.unlock();
+            }
+            
+            IOException erro = null;
+            try {
+                emGravacao.flip();
+                while (emGravacao.hasRemaining()) {
+                    canal.write(emGravacao);
+                }
+                canal.force(false);
+            } catch (IOException e) {
+                erro = e;
+            } finally {
+                emGravacao.clear();
+            }
+            
+            trava.lock();
+            try {
+                if (erro != null) {
+                    falha = erro;
+                } else {
+                    lsnDuravel = lsnDoGrupo;
+                }
+                gravado.signalAll();
+                if (erro != null) {
+                    return;
+                }
+            } finally {
+                trava.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.sistema.persistencia;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Armazena blocos antigos do histórico de compras dos clientes em arquivos de
+ * segmento somente de acréscimo, fora do heap.
+ *
+ * Cada bloco é gravado como [tamanho][CRC32][bytes] no segmento atual; um novo
+ * segmento é iniciado quando o atual atinge o tamanho máximo. A gravação devolve
+ * um localizador (número do segmento nos bits altos e posição nos 40 bits baixos).
+ * A leitura mapeia o segmento em memória apenas na primeira vez que um bloco dele
+ * é pedido, de modo que o sistema operacional carrega as páginas sob demanda.
+ *
+ * Arquivos: historico-&lt;segmento&gt;.seg
+ */
+public class SegmentosHistorico implements Closeable {
+    public static final long TAMANHO_SEGMENTO_PADRAO = 64L * 1024 * 1024;
+
+    private static final String PREFIXO_SEGMENTO = "historico-";
+    private static final String SUFIXO_SEGMENTO = ".seg";
+    private static final int CABECALHO_BLOCO = 8;
+    private static final int BITS_POSICAO = 40;
+    private static final long MASCARA_POSICAO = (1L << BITS_POSICAO) - 1;
+
+    private static volatile SegmentosHistorico instancia;
+
+    private final Path diretorio;
+    private final long tamanhoSegmento;
+    private final List<MappedByteBuffer> mapeamentos;
+    private final CRC32 crc;
+    private final boolean temporario;
+    private FileChannel canalAtual;
+    private int segmentoAtual;
+    private long posicaoAtual;
+    private long bytesGravados;
+
+    /**
+     * Construtor com parâmetros
+     *
+     * @param diretorio Diretório dos segmentos (criado se não existir)
+     * @param tamanhoSegmento Tamanho a partir do qual um novo segmento é iniciado
+     * @throws IOException Se o diretório não puder ser criado
+     */
+    public SegmentosHistorico(Path diretorio, long tamanhoSegmento) throws IOException {
+        this(diretorio, tamanhoSegmento, false);
+    }
+
+    private SegmentosHistorico(Path diretorio, long tamanhoSegmento, boolean temporario) throws IOException {
+        if (tamanhoSegmento <= CABECALHO_BLOCO || tamanhoSegmento > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Tamanho de segmento inválido: " + tamanhoSegmento);
+        }
+        Files.createDirectories(diretorio);
+        this.diretorio = diretorio;
+        this.tamanhoSegmento = tamanhoSegmento;
+        this.mapeamentos = new ArrayList<>();
+        this.crc = new CRC32();
+        this.temporario = temporario;
+        this.segmentoAtual = -1;
+    }
+
+    /**
+     * Obtém a instância compartilhada, gravada em um diretório temporário que é
+     * apagado ao final do processo
+     * @return Instância compartilhada dos segmentos de histórico
+     */
+    public static SegmentosHistorico getInstancia() {
+        SegmentosHistorico local = instancia;
+        if (local == null) {
+            synchronized (SegmentosHistorico.class) {
+                local = instancia;
+                if (local == null) {
+                    try {
+                        Path diretorio = Files.createTempDirectory("historico-compras");
+                        diretorio.toFile().deleteOnExit();
+                        local = new SegmentosHistorico(diretorio, TAMANHO_SEGMENTO_PADRAO, true);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    instancia = local;
+                }
+            }
+        }
+        return local;
+    }
+
+    /**
+     * Acrescenta um bloco ao segmento atual
+     * @param bloco Conteúdo do bloco (da posição ao limite)
+     * @return Localizador do bloco, para uso em ler()
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    public synchronized long gravar(ByteBuffer bloco) throws IOException {
+        int tamanho = bloco.remaining();
+        // Um bloco maior que o segmento ocupa sozinho um segmento próprio
+        if (canalAtual == null || (posicaoAtual > 0 && posicaoAtual + CABECALHO_BLOCO + tamanho > tamanhoSegmento)) {
+            iniciarSegmento();
+        }
+
+        crc.reset();
+        crc.update(bloco.duplicate());
+        ByteBuffer cabecalho = ByteBuffer.allocate(CABECALHO_BLOCO);
+        cabecalho.putInt(tamanho).putInt((int) crc.getValue()).flip();
+
+        long posicao = posicaoAtual;
+        ByteBuffer[] partes = {cabecalho, bloco};
+        while (cabecalho.hasRemaining() || bloco.hasRemaining()) {
+            canalAtual.write(partes);
+        }
+        posicaoAtual += CABECALHO_BLOCO + tamanho;
+        bytesGravados += CABECALHO_BLOCO + tamanho;
+        return ((long) segmentoAtual << BITS_POSICAO) | posicao;
+    }
+
+    /**
+     * Lê um bloco gravado, mapeando o seu segmento em memória se necessário
+     * @param localizador Localizador devolvido por gravar()
+     * @return Fatia somente leitura com o conteúdo do bloco
+     * @throws IOException Se o segmento não puder ser lido ou o bloco estiver corrompido
+     */
+    public ByteBuffer ler(long localizador) throws IOException {
+        int segmento = (int) (localizador >>> BITS_POSICAO);
+        int posicao = (int) (localizador & MASCARA_POSICAO);
+
+        ByteBuffer mapa = mapear(segmento, posicao + CABECALHO_BLOCO);
+        int tamanho = mapa.getInt(posicao);
+        if (tamanho < 0 || (long) posicao + CABECALHO_BLOCO + tamanho > mapa.capacity()) {
+            mapa = mapear(segmento, (long) posicao + CABECALHO_BLOCO + Math.max(tamanho, 0));
+            if (tamanho < 0 || (long) posicao + CABECALHO_BLOCO + tamanho > mapa.capacity()) {
+                throw new IOException("Bloco de histórico inválido no segmento " + segmento);
+            }
+        }
+
+        ByteBuffer bloco = mapa.duplicate();
+        bloco.position(posicao + CABECALHO_BLOCO).limit(posicao + CABECALHO_BLOCO + tamanho);
+        bloco = bloco.slice();
+        CRC32 verificacao = new CRC32();
+        verificacao.update(bloco.duplicate());
+        if ((int) verificacao.getValue() != mapa.getInt(posicao + 4)) {
+            throw new IOException("Bloco de histórico corrompido no segmento " + segmento);
+        }
+        return bloco;
+    }
+
+    public synchronized int getQuantidadeSegmentos() {
+        return segmentoAtual + 1;
+    }
+
+    public synchronized long getBytesGravados() {
+        return bytesGravados;
+    }
+
+    public Path getDiretorio() {
+        return diretorio;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (canalAtual != null) {
+            canalAtual.close();
+            canalAtual = null;
+        }
+        mapeamentos.clear();
+    }
+
+    /**
+     * Obtém o mapeamento de um segmento que cubra ao menos o tamanho pedido.
+     * O segmento atual ainda cresce, então o mapeamento é refeito quando não cobre o bloco.
+     */
+    private synchronized ByteBuffer mapear(int segmento, long tamanhoMinimo) throws IOException {
+        if (segmento < 0 || segmento > segmentoAtual) {
+            throw new IOException("Segmento de histórico inexistente: " + segmento);
+        }
+        while (mapeamentos.size() <= segmento) {
+            mapeamentos.add(null);
+        }
+
+        MappedByteBuffer mapa = mapeamentos.get(segmento);
+        if (mapa == null || mapa.capacity() < tamanhoMinimo) {
+            try (FileChannel canal = FileChannel.open(caminhoSegmento(segmento), StandardOpenOption.READ)) {
+                mapa = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            }
+            mapeamentos.set(segmento, mapa);
+        }
+        return mapa;
+    }
+
+    private void iniciarSegmento() throws IOException {
+        if (canalAtual != null) {
+            canalAtual.close();
+        }
+        int proximo = segmentoAtual + 1;
+        Path caminho = caminhoSegmento(proximo);
+        canalAtual = FileChannel.open(caminho, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                                      StandardOpenOption.WRITE);
+        if (temporario) {
+            caminho.toFile().deleteOnExit();
+        }
+        segmentoAtual = proximo;
+        posicaoAtual = 0;
+    }
+
+    private Path caminhoSegmento(int segmento) {
+        return diretorio.resolve(PREFIXO_SEGMENTO + segmento + SUFIXO_SEGMENTO);
+    }
+}
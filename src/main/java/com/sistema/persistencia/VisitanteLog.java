@@ -0,0 +1,53 @@
+package com.sistema.persistencia;
+
+import com.sistema.model.Produto;
+import com.sistema.model.Usuario;
+
+/**
+ * Interface que recebe os registros lidos do log de escrita antecipada,
+ * na ordem em que foram gravados.
+ */
+public interface VisitanteLog {
+    
+    /**
+     * Um produto foi cadastrado
+     * @param lsn Número de sequência do registro
+     * @param produto Produto cadastrado, com a quantidade inicial em estoque
+     */
+    void produtoCadastrado(long lsn, Produto produto);
+    
+    /**
+     * Um produto foi removido
+     * @param lsn Número de sequência do registro
+     * @param idProduto ID do produto removido
+     */
+    void produtoRemovido(long lsn, int idProduto);
+    
+    /**
+     * A quantidade em estoque de um produto foi ajustada
+     * @param lsn Número de sequência do registro
+     * @param idProduto ID do produto ajustado
+     * @param delta Variação aplicada à quantidade
+     */
+    void estoqueAjustado(long lsn, int idProduto, int delta);
+    
+    /**
+     * Uma venda foi realizada (baixa de estoque e entrada no registro de vendas)
+     * @param lsn Número de sequência do registro
+     * @param instante Instante da venda em milissegundos desde a época
+     * @param idProduto ID do produto vendido
+     * @param idVendedor ID do vendedor
+     * @param idCliente ID do cliente
+     * @param quantidade Quantidade vendida
+     * @param precoUnitario Preço unitário praticado
+     */
+    void vendaRealizada(long lsn, long instante, int idProduto, int idVendedor, int idCliente,
+                        int quantidade, double precoUnitario);
+    
+    /**
+     * Um usuário foi cadastrado
+     * @param lsn Número de sequência do registro
+     * @param usuario Usuário cadastrado
+     */
+    void usuarioCadastrado(long lsn, Usuario usuario);
+}
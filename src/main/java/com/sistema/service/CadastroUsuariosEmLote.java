@@ -0,0 +1,191 @@
+package com.sistema.service;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.sistema.model.Cliente;
+import com.sistema.model.Sistema;
+import com.sistema.model.Usuario;
+import com.sistema.util.FiltroBloom;
+import com.sistema.util.Util;
+
+/**
+ * Classe responsável pelo cadastro em massa de usuários (clientes, vendedores e administradores).
+ * 
+ * O cadastro acontece em três etapas:
+ * <ol>
+ * <li>Validação em paralelo, em um ForkJoinPool, do email de cada linha e do CPF dos clientes,
+ *     já calculando o email normalizado e o seu hash;</li>
+ * <li>Detecção de emails repetidos, no próprio lote e em relação aos usuários existentes,
+ *     por filtros de Bloom; apenas os emails apontados pelos filtros (repetidos de fato
+ *     ou falsos positivos) passam pela verificação exata;</li>
+ * <li>Cadastro de todas as linhas aceitas de uma vez pelo Controlador, com uma única
+ *     trava no Sistema e, se houver log, um único fsync.</li>
+ * </ol>
+ * O resultado informa a situação de cada linha.
+ */
+public class CadastroUsuariosEmLote {
+    private static final int LINHAS_POR_TAREFA = 4096;
+    private static final double TAXA_FALSOS_POSITIVOS = 0.01;
+    
+    private final Controlador controlador;
+    private final Sistema sistema;
+    private final ForkJoinPool pool;
+    
+    /**
+     * Construtor padrão, que usa o pool comum do ForkJoin
+     */
+    public CadastroUsuariosEmLote() {
+        this(ForkJoinPool.commonPool());
+    }
+    
+    /**
+     * Construtor com parâmetros
+     * 
+     * @param pool Pool em que as linhas são validadas
+     */
+    public CadastroUsuariosEmLote(ForkJoinPool pool) {
+        this.controlador = Controlador.getInstancia();
+        this.sistema = Sistema.getInstancia();
+        this.pool = pool;
+    }
+    
+    /**
+     * Valida e cadastra um lote de usuários
+     * @param usuarios Usuários a cadastrar, um por linha (posições null são rejeitadas)
+     * @return Resultado com a situação de cada linha
+     */
+    public ResultadoCadastroUsuarios cadastrar(List<? extends Usuario> usuarios) {
+        long inicio = System.nanoTime();
+        int quantidade = usuarios.size();
+        Usuario[] linhas = usuarios.toArray(new Usuario[0]);
+        StatusCadastroUsuario[] status = new StatusCadastroUsuario[quantidade];
+        String[] chaves = new String[quantidade];
+        long[] hashes = new long[quantidade];
+        
+        pool.invoke(new TarefaValidacao(linhas, status, chaves, hashes, 0, quantidade));
+        marcarRepetidos(status, chaves, hashes);
+        
+        // Cadastra as linhas aceitas, guardando a linha de origem de cada uma
+        Usuario[] aceitos = new Usuario[quantidade];
+        int[] origem = new int[quantidade];
+        int quantidadeAceitos = 0;
+        for (int i = 0; i < quantidade; i++) {
+            if (status[i] == null) {
+                aceitos[quantidadeAceitos] = linhas[i];
+                origem[quantidadeAceitos++] = i;
+            }
+        }
+        
+        int cadastrados = controlador.cadastrarUsuarios(aceitos, quantidadeAceitos);
+        for (int i = 0; i < quantidadeAceitos; i++) {
+            // Um cadastro concorrente pode ter usado o email depois da verificação
+            status[origem[i]] = aceitos[i] != null ? StatusCadastroUsuario.CADASTRADO
+                                                   : StatusCadastroUsuario.EMAIL_JA_CADASTRADO;
+        }
+        
+        String[] emails = new String[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            emails[i] = linhas[i] != null ? linhas[i].getEmail() : null;
+        }
+        return new ResultadoCadastroUsuarios(status, emails, cadastrados, System.nanoTime() - inicio);
+    }
+    
+    /**
+     * Marca as linhas cujo email já existe no sistema ou aparece antes no lote.
+     * O filtro de Bloom mantido pelo Sistema descarta a maioria dos emails novos
+     * sem consultar o índice de usuários. Um segundo filtro recebe os emails do
+     * lote, em ordem; uma linha que ele não reconhece certamente não repete uma
+     * anterior. As demais formam um conjunto pequeno de candidatos, conferidos
+     * exatamente em uma segunda passada.
+     */
+    private void marcarRepetidos(StatusCadastroUsuario[] status, String[] chaves, long[] hashes) {
+        int validas = 0;
+        for (StatusCadastroUsuario s : status) {
+            if (s == null) {
+                validas++;
+            }
+        }
+        if (validas == 0) {
+            return;
+        }
+        
+        FiltroBloom filtroLote = new FiltroBloom(validas, TAXA_FALSOS_POSITIVOS);
+        Set<String> candidatos = new HashSet<>();
+        for (int i = 0; i < status.length; i++) {
+            if (status[i] != null) {
+                continue;
+            }
+            if (sistema.talvezExistaEmail(hashes[i]) && sistema.existeEmail(chaves[i])) {
+                status[i] = StatusCadastroUsuario.EMAIL_JA_CADASTRADO;
+            } else if (filtroLote.talvezContenha(hashes[i])) {
+                candidatos.add(chaves[i]);
+            } else {
+                filtroLote.adicionar(hashes[i]);
+            }
+        }
+        if (candidatos.isEmpty()) {
+            return;
+        }
+        
+        // A primeira ocorrência de um candidato no lote também precisa ser vista para detectar as repetições
+        Set<String> vistos = new HashSet<>();
+        for (int i = 0; i < status.length; i++) {
+            if (status[i] == null && candidatos.contains(chaves[i]) && !vistos.add(chaves[i])) {
+                status[i] = StatusCadastroUsuario.EMAIL_DUPLICADO_NO_LOTE;
+            }
+        }
+    }
+    
+    /**
+     * Valida uma faixa de linhas, dividindo-a enquanto for maior que LINHAS_POR_TAREFA.
+     * Linhas válidas ficam com situação null e recebem o email normalizado e o seu hash.
+     */
+    private static final class TarefaValidacao extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        
+        private final Usuario[] linhas;
+        private final StatusCadastroUsuario[] status;
+        private final String[] chaves;
+        private final long[] hashes;
+        private final int inicio;
+        private final int fim;
+        
+        TarefaValidacao(Usuario[] linhas, StatusCadastroUsuario[] status, String[] chaves, long[] hashes,
+                        int inicio, int fim) {
+            this.linhas = linhas;
+            this.status = status;
+            this.chaves = chaves;
+            this.hashes = hashes;
+            this.inicio = inicio;
+            this.fim = fim;
+        }
+        
+        @Override
+        protected void compute() {
+            if (fim - inicio > LINHAS_POR_TAREFA) {
+                int meio = (inicio + fim) >>> 1;
+                invokeAll(new TarefaValidacao(linhas, status, chaves, hashes, inicio, meio),
+                          new TarefaValidacao(linhas, status, chaves, hashes, meio, fim));
+                return;
+            }
+            
+            for (int i = inicio; i < fim; i++) {
+                Usuario usuario = linhas[i];
+                if (usuario == null) {
+                    status[i] = StatusCadastroUsuario.USUARIO_AUSENTE;
+                } else if (!Util.validarEmail(usuario.getEmail())) {
+                    status[i] = StatusCadastroUsuario.EMAIL_INVALIDO;
+                } else if (usuario instanceof Cliente && !Util.validarCPF(((Cliente) usuario).getCpf())) {
+                    status[i] = StatusCadastroUsuario.CPF_INVALIDO;
+                } else {
+                    chaves[i] = Sistema.normalizarEmail(usuario.getEmail());
+                    hashes[i] = FiltroBloom.hash(chaves[i]);
+                }
+            }
+        }
+    }
+}
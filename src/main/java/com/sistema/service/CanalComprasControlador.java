@@ -0,0 +1,66 @@
+package com.sistema.service;
+
+import com.sistema.model.CanalCompras;
+import com.sistema.model.Produto;
+import com.sistema.model.Reserva;
+import com.sistema.model.ResultadoLote;
+
+/**
+ * Canal de compras dos carrinhos dos clientes: as reservas vêm do GerenciadorReservas
+ * do Controlador e os pedidos são vendidos por Controlador.realizarVendasEmLote,
+ * sem vendedor a creditar.
+ */
+final class CanalComprasControlador implements CanalCompras {
+    private final Controlador controlador;
+    private final GerenciadorReservas reservas;
+    
+    /**
+     * Construtor com parâmetros
+     *
+     * @param controlador Controlador que realiza as vendas
+     * @param reservas Gerenciador que emite as reservas
+     */
+    CanalComprasControlador(Controlador controlador, GerenciadorReservas reservas) {
+        this.controlador = controlador;
+        this.reservas = reservas;
+    }
+    
+    @Override
+    public Reserva reservar(Produto produto, int quantidade) {
+        return reservas.reservar(produto, quantidade);
+    }
+    
+    @Override
+    public boolean ajustar(Reserva reserva, int quantidade) {
+        return reservas.ajustar(emitida(reserva), quantidade);
+    }
+    
+    @Override
+    public int liberar(Reserva reserva) {
+        return reservas.liberar(emitida(reserva));
+    }
+    
+    @Override
+    public int tomar(Reserva reserva) {
+        return reservas.tomar(emitida(reserva));
+    }
+    
+    @Override
+    public boolean devolver(Reserva reserva, int quantidadeTomada) {
+        return reservas.devolver(emitida(reserva), quantidadeTomada);
+    }
+    
+    @Override
+    public ResultadoLote venderPedido(int[] idsProdutos, int[] quantidades, int[] reservadas,
+                                      double[] precosUnitarios, int idCliente) {
+        // A compra feita pelo próprio cliente não tem vendedor a creditar
+        return controlador.realizarVendasEmLote(null, idsProdutos, quantidades, reservadas, precosUnitarios, idCliente);
+    }
+    
+    /**
+     * Toda reserva recebida foi emitida por reservar(), portanto é uma ReservaEstoque
+     */
+    private static ReservaEstoque emitida(Reserva reserva) {
+        return (ReservaEstoque) reserva;
+    }
+}
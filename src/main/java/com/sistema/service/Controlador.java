@@ -1,20 +1,48 @@
 package com.sistema.service;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
 
+import com.sistema.model.CanalCompras;
 import com.sistema.model.Produto;
+import com.sistema.model.RegistroVendas;
+import com.sistema.model.ResultadoLote;
 import com.sistema.model.Sistema;
+import com.sistema.model.StatusItemVenda;
 import com.sistema.model.Usuario;
+import com.sistema.model.Vendedor;
+import com.sistema.persistencia.LogEscrita;
+import com.sistema.util.Formatador;
+import com.sistema.util.TravasParticionadas;
 
 /**
  * Classe responsável pelo controle das operações do sistema.
  * Implementa o padrão Singleton e gerencia as operações entre o Sistema e o Estoque.
+ * As operações podem ser chamadas concorrentemente por várias threads.
  */
 public class Controlador {
-    private static Controlador instancia;
-    private Sistema sistema;
-    private Estoque estoque;
+    private static final int TAMANHO_BLOCO_RELATORIO = 1024;
+    
+    private static volatile Controlador instancia;
+    private final Sistema sistema;
+    private final Estoque estoque;
+    private final RegistroVendas registroVendas;
+    private volatile LogEscrita logEscrita;
+    // Com log definido, cada alteração obtém a trava da partição da sua thread; o instantâneo obtém todas
+    private final TravasParticionadas travasAlteracoes;
+    private final MetricasControlador metricas;
+    private final GerenciadorSessoes sessoes;
+    private final GerenciadorReservas reservas;
+    private final CanalCompras canalCompras;
     
     /**
      * Construtor privado para implementar o padrão Singleton
@@ -22,6 +50,12 @@ public class Controlador {
     private Controlador() {
         this.sistema = Sistema.getInstancia();
         this.estoque = Estoque.getInstancia();
+        this.registroVendas = RegistroVendas.getInstancia();
+        this.travasAlteracoes = new TravasParticionadas();
+        this.metricas = new MetricasControlador();
+        this.sessoes = new GerenciadorSessoes();
+        this.reservas = new GerenciadorReservas();
+        this.canalCompras = new CanalComprasControlador(this, reservas);
     }
     
     /**
@@ -29,10 +63,125 @@ public class Controlador {
      * @return Instância única do controlador
      */
     public static Controlador getInstancia() {
-        if (instancia == null) {
-            instancia = new Controlador();
+        Controlador local = instancia;
+        if (local == null) {
+            synchronized (Controlador.class) {
+                local = instancia;
+                if (local == null) {
+                    local = new Controlador();
+                    instancia = local;
+                }
+            }
+        }
+        return local;
+    }
+    
+    /**
+     * Define o log de escrita antecipada das alterações de estoque.
+     * Com o log definido, cada operação só retorna depois que o seu registro
+     * estiver gravado em disco; sem log (null) o estado fica apenas em memória.
+     * O log deve ser definido antes de as operações concorrentes começarem: as
+     * alterações iniciadas sem log não são registradas nem aguardadas pelas pausas.
+     * @param logEscrita Log a ser usado, ou null para desativar
+     */
+    public void setLogEscrita(LogEscrita logEscrita) {
+        this.logEscrita = logEscrita;
+    }
+    
+    public LogEscrita getLogEscrita() {
+        return logEscrita;
+    }
+    
+    /**
+     * Obtém as métricas de latência, vazão e falhas das operações do controlador
+     * @return Métricas do controlador
+     */
+    public MetricasControlador getMetricas() {
+        return metricas;
+    }
+    
+    /**
+     * Obtém o armazenamento das sessões abertas por iniciarSessao()
+     * @return Gerenciador de sessões do controlador
+     */
+    public GerenciadorSessoes getSessoes() {
+        return sessoes;
+    }
+    
+    /**
+     * Obtém o controle das reservas de estoque feitas pelos carrinhos de compras
+     * @return Gerenciador de reservas do controlador
+     */
+    public GerenciadorReservas getReservas() {
+        return reservas;
+    }
+    
+    /**
+     * Obtém o canal pelo qual os carrinhos dos clientes reservam estoque e finalizam compras
+     * @return Canal de compras ligado às reservas e às vendas deste controlador
+     */
+    public CanalCompras getCanalCompras() {
+        return canalCompras;
+    }
+    
+    /**
+     * Suspende as operações que alteram o estado até a chamada de retomarAlteracoes().
+     * Aguarda as alterações em andamento terminarem de ser aplicadas e registradas
+     * no log, de modo que o estado em memória corresponda exatamente ao último LSN
+     * do log. Usado para gravar instantâneos consistentes; por isso toda alteração
+     * do estado persistido passa pelo Controlador. Só as alterações feitas com um
+     * log definido são suspensas: sem log não há instantâneo a proteger.
+     */
+    public void pausarAlteracoes() {
+        // Em ordem crescente de partição, como exige TravasParticionadas
+        for (int p = 0; p < travasAlteracoes.getQuantidade(); p++) {
+            travasAlteracoes.travaDaParticao(p).lock();
+        }
+    }
+    
+    /**
+     * Retoma as operações suspensas por pausarAlteracoes()
+     */
+    public void retomarAlteracoes() {
+        for (int p = travasAlteracoes.getQuantidade() - 1; p >= 0; p--) {
+            travasAlteracoes.travaDaParticao(p).unlock();
+        }
+    }
+    
+    /**
+     * Obtém a trava de alterações da thread atual, se houver log definido.
+     * As threads ficam espalhadas pelas partições, de modo que as alterações
+     * concorrentes não disputam uma mesma trava; só a pausa obtém todas.
+     * @return Trava obtida, ou null se não houver log (a alteração não é registrada)
+     */
+    private ReentrantLock travarAlteracao() {
+        if (logEscrita == null) {
+            return null;
+        }
+        ReentrantLock trava = travasAlteracoes.travaDe((int) Thread.currentThread().getId());
+        trava.lock();
+        return trava;
+    }
+    
+    private static void liberarAlteracao(ReentrantLock trava) {
+        if (trava != null) {
+            trava.unlock();
+        }
+    }
+    
+    /**
+     * Recalcula o valor total do estoque com as alterações suspensas, para que nenhuma
+     * venda concorrente altere os produtos durante a leitura. Sem log de escrita as
+     * vendas não são suspensas, e as que estiverem em andamento podem deixar no valor
+     * recalculado um desvio do tamanho delas, corrigido pelo recálculo seguinte.
+     */
+    public void recalcularTotaisEstoque() {
+        pausarAlteracoes();
+        try {
+            estoque.recalcularTotais();
+        } finally {
+            retomarAlteracoes();
         }
-        return instancia;
     }
     
     /**
@@ -42,14 +191,55 @@ public class Controlador {
      * @return true se o login for bem-sucedido, false caso contrário
      */
     public boolean realizarLogin(String email, String senha) {
-        return sistema.login(email, senha);
+        long inicio = metricas.iniciar(Operacao.LOGIN);
+        boolean sucesso = sistema.login(email, senha);
+        metricas.concluir(Operacao.LOGIN, inicio, sucesso);
+        return sucesso;
+    }
+    
+    /**
+     * Inicia uma sessão para o usuário, sem alterar o usuário logado.
+     * Vários usuários podem ter sessões abertas ao mesmo tempo, cada um
+     * identificado pelo seu token nas operações seguintes.
+     * @param email Email do usuário
+     * @param senha Senha do usuário
+     * @return Token da sessão, ou null se as credenciais forem inválidas ou o limite de sessões tiver sido atingido
+     */
+    public String iniciarSessao(String email, String senha) {
+        long inicio = metricas.iniciar(Operacao.INICIAR_SESSAO);
+        String token = sessoes.abrir(sistema.autenticar(email, senha));
+        metricas.concluir(Operacao.INICIAR_SESSAO, inicio, token != null);
+        return token;
+    }
+    
+    /**
+     * Encerra uma sessão aberta por iniciarSessao()
+     * @param token Token da sessão
+     * @return true se a sessão existia e foi encerrada, false caso contrário
+     */
+    public boolean encerrarSessao(String token) {
+        long inicio = metricas.iniciar(Operacao.ENCERRAR_SESSAO);
+        boolean sucesso = sessoes.encerrar(token);
+        metricas.concluir(Operacao.ENCERRAR_SESSAO, inicio, sucesso);
+        return sucesso;
+    }
+    
+    /**
+     * Obtém o usuário de uma sessão, registrando o acesso
+     * @param token Token da sessão
+     * @return Usuário da sessão ativa, ou null se o token for inválido ou tiver expirado
+     */
+    public Usuario buscarUsuarioDaSessao(String token) {
+        return sessoes.buscarUsuario(token);
     }
     
     /**
      * Realiza o logout do usuário atual
      */
     public void realizarLogout() {
+        long inicio = metricas.iniciar(Operacao.LOGOUT);
         sistema.logout();
+        metricas.concluir(Operacao.LOGOUT, inicio, true);
     }
     
     /**
@@ -58,31 +248,225 @@ public class Controlador {
      * @return true se o cadastro for bem-sucedido, false caso contrário
      */
     public boolean cadastrarUsuario(Usuario usuario) {
-        return sistema.cadastrarUsuario(usuario);
+        long inicio = metricas.iniciar(Operacao.CADASTRAR_USUARIO);
+        boolean sucesso = false;
+        try {
+            sucesso = aplicarCadastroUsuario(usuario);
+            return sucesso;
+        } finally {
+            metricas.concluir(Operacao.CADASTRAR_USUARIO, inicio, sucesso);
+        }
+    }
+    
+    private boolean aplicarCadastroUsuario(Usuario usuario) {
+        LogEscrita log;
+        long lsn;
+        
+        ReentrantLock trava = travarAlteracao();
+        try {
+            if (!sistema.cadastrarUsuario(usuario)) {
+                return false;
+            }
+            // Sem a trava a alteração não é registrada, mesmo que um log tenha acabado de ser definido
+            log = trava == null ? null : logEscrita;
+            lsn = log == null ? 0 : log.registrarCadastroUsuario(usuario);
+        } finally {
+            liberarAlteracao(trava);
+        }
+        
+        if (log != null) {
+            log.aguardarDurabilidade(lsn);
+        }
+        return true;
+    }
+    
+    /**
+     * Cadastra um lote de usuários no sistema obtendo a trava uma única vez e, se houver
+     * log de escrita, com um único fsync para todos os usuários cadastrados.
+     * Os usuários rejeitados (nulos ou com email já existente) são substituídos por null no vetor.
+     * @param usuarios Vetor de usuários a cadastrar
+     * @param quantidade Quantidade de posições do vetor a considerar
+     * @return Quantidade de usuários cadastrados
+     */
+    public int cadastrarUsuarios(Usuario[] usuarios, int quantidade) {
+        long inicio = metricas.iniciar(Operacao.CADASTRAR_USUARIOS);
+        int cadastrados = -1;
+        try {
+            cadastrados = aplicarCadastroUsuarios(usuarios, quantidade);
+            return cadastrados;
+        } finally {
+            metricas.concluir(Operacao.CADASTRAR_USUARIOS, inicio, cadastrados >= 0);
+        }
+    }
+    
+    private int aplicarCadastroUsuarios(Usuario[] usuarios, int quantidade) {
+        LogEscrita log;
+        long ultimoLsn = 0;
+        int cadastrados;
+        
+        ReentrantLock trava = travarAlteracao();
+        try {
+            cadastrados = sistema.cadastrarUsuarios(usuarios, quantidade);
+            log = trava == null ? null : logEscrita;
+            if (log != null) {
+                for (int i = 0; i < quantidade; i++) {
+                    if (usuarios[i] != null) {
+                        ultimoLsn = log.registrarCadastroUsuario(usuarios[i]);
+                    }
+                }
+            }
+        } finally {
+            liberarAlteracao(trava);
+        }
+        
+        if (log != null && cadastrados > 0) {
+            log.aguardarDurabilidade(ultimoLsn);
+        }
+        return cadastrados;
     }
     
     /**
-     * Cadastra um novo produto no sistema e no estoque
+     * Cadastra um novo produto no catálogo compartilhado pelo sistema e pelo estoque
      * @param produto Produto a ser cadastrado
      * @return true se o cadastro for bem-sucedido, false caso contrário
      */
     public boolean cadastrarProduto(Produto produto) {
-        boolean cadastroSistema = sistema.cadastrarProduto(produto);
-        boolean cadastroEstoque = estoque.adicionarProduto(produto);
+        long inicio = metricas.iniciar(Operacao.CADASTRAR_PRODUTO);
+        boolean sucesso = false;
+        try {
+            sucesso = aplicarCadastroProduto(produto);
+            return sucesso;
+        } finally {
+            metricas.concluir(Operacao.CADASTRAR_PRODUTO, inicio, sucesso);
+        }
+    }
+    
+    private boolean aplicarCadastroProduto(Produto produto) {
+        LogEscrita log;
+        long lsn;
+        
+        ReentrantLock trava = travarAlteracao();
+        try {
+            // Lida antes da publicação: depois dela, vendas concorrentes já podem baixar o estoque
+            int quantidadeInicial = produto == null ? 0 : produto.getQuantidadeEstoque();
+            if (!estoque.adicionarProduto(produto)) {
+                return false;
+            }
+            log = trava == null ? null : logEscrita;
+            try {
+                lsn = log == null ? 0 : log.registrarCadastroProduto(produto, quantidadeInicial);
+            } catch (RuntimeException e) {
+                // Sem registro no log, o produto não sobreviveria a uma reinicialização
+                estoque.removerProduto(produto.getId());
+                throw e;
+            }
+        } finally {
+            liberarAlteracao(trava);
+        }
+        
+        if (log != null) {
+            log.aguardarDurabilidade(lsn);
+        }
+        return true;
+    }
+    
+    /**
+     * Cadastra um lote de produtos no catálogo compartilhado pelo sistema e pelo estoque.
+     * A verificação de duplicidade é feita uma vez para o lote inteiro e, se houver
+     * log de escrita, um único fsync cobre todos os produtos cadastrados.
+     * Os produtos rejeitados (nulos ou com ID já existente) são substituídos por null no vetor.
+     * @param produtos Vetor de produtos a cadastrar
+     * @param quantidade Quantidade de posições do vetor a considerar
+     * @return Quantidade de produtos cadastrados
+     */
+    public int cadastrarProdutos(Produto[] produtos, int quantidade) {
+        long inicio = metricas.iniciar(Operacao.CADASTRAR_PRODUTOS);
+        int cadastrados = -1;
+        try {
+            cadastrados = aplicarCadastroProdutos(produtos, quantidade);
+            return cadastrados;
+        } finally {
+            metricas.concluir(Operacao.CADASTRAR_PRODUTOS, inicio, cadastrados >= 0);
+        }
+    }
+    
+    private int aplicarCadastroProdutos(Produto[] produtos, int quantidade) {
+        LogEscrita log;
+        long ultimoLsn = 0;
+        int cadastrados;
+        
+        ReentrantLock trava = travarAlteracao();
+        try {
+            // Lidas antes da publicação: depois dela, vendas concorrentes já podem baixar o estoque
+            int[] quantidadesIniciais = new int[quantidade];
+            for (int i = 0; i < quantidade; i++) {
+                quantidadesIniciais[i] = produtos[i] == null ? 0 : produtos[i].getQuantidadeEstoque();
+            }
+            cadastrados = estoque.adicionarProdutos(produtos, quantidade);
+            log = trava == null ? null : logEscrita;
+            if (log != null) {
+                for (int i = 0; i < quantidade; i++) {
+                    if (produtos[i] == null) {
+                        continue;
+                    }
+                    try {
+                        ultimoLsn = log.registrarCadastroProduto(produtos[i], quantidadesIniciais[i]);
+                    } catch (RuntimeException e) {
+                        // Retira do catálogo os produtos do lote que não chegaram ao log
+                        for (int j = i; j < quantidade; j++) {
+                            if (produtos[j] != null) {
+                                estoque.removerProduto(produtos[j].getId());
+                            }
+                        }
+                        throw e;
+                    }
+                }
+            }
+        } finally {
+            liberarAlteracao(trava);
+        }
         
-        return cadastroSistema && cadastroEstoque;
+        if (log != null && cadastrados > 0) {
+            log.aguardarDurabilidade(ultimoLsn);
+        }
+        return cadastrados;
     }
     
     /**
-     * Remove um produto do sistema e do estoque
+     * Remove um produto do catálogo compartilhado pelo sistema e pelo estoque
      * @param idProduto ID do produto a ser removido
      * @return true se a remoção for bem-sucedida, false caso contrário
      */
     public boolean removerProduto(int idProduto) {
-        boolean remocaoSistema = sistema.removerProduto(idProduto);
-        boolean remocaoEstoque = estoque.removerProduto(idProduto);
+        long inicio = metricas.iniciar(Operacao.REMOVER_PRODUTO);
+        boolean sucesso = false;
+        try {
+            sucesso = aplicarRemocaoProduto(idProduto);
+            return sucesso;
+        } finally {
+            metricas.concluir(Operacao.REMOVER_PRODUTO, inicio, sucesso);
+        }
+    }
+    
+    private boolean aplicarRemocaoProduto(int idProduto) {
+        LogEscrita log;
+        long lsn;
         
-        return remocaoSistema && remocaoEstoque;
+        ReentrantLock trava = travarAlteracao();
+        try {
+            if (!estoque.removerProduto(idProduto)) {
+                return false;
+            }
+            log = trava == null ? null : logEscrita;
+            lsn = log == null ? 0 : log.registrarRemocaoProduto(idProduto);
+        } finally {
+            liberarAlteracao(trava);
+        }
+        
+        if (log != null) {
+            log.aguardarDurabilidade(lsn);
+        }
+        return true;
     }
     
     /**
@@ -92,31 +476,306 @@ public class Controlador {
      * @return true se a atualização for bem-sucedida, false caso contrário
      */
     public boolean atualizarEstoque(int idProduto, int novaQuantidade) {
-        Produto produto = sistema.buscarProdutoPorId(idProduto);
+        long inicio = metricas.iniciar(Operacao.ATUALIZAR_ESTOQUE);
+        boolean sucesso = false;
+        try {
+            sucesso = aplicarAtualizacaoEstoque(idProduto, novaQuantidade);
+            return sucesso;
+        } finally {
+            metricas.concluir(Operacao.ATUALIZAR_ESTOQUE, inicio, sucesso);
+        }
+    }
+    
+    private boolean aplicarAtualizacaoEstoque(int idProduto, int novaQuantidade) {
+        LogEscrita log;
+        long lsn;
         
-        if (produto == null) {
-            return false;
+        ReentrantLock trava = travarAlteracao();
+        try {
+            int anterior = estoque.substituirQuantidade(idProduto, novaQuantidade);
+            if (anterior < 0) {
+                return false;
+            }
+            log = trava == null ? null : logEscrita;
+            // Grava a variação, que independe da ordem em relação às vendas concorrentes
+            lsn = log == null ? 0 : log.registrarAjusteEstoque(idProduto, novaQuantidade - anterior);
+        } finally {
+            liberarAlteracao(trava);
         }
         
-        produto.setQuantidadeEstoque(novaQuantidade);
-        return estoque.atualizarQuantidade(idProduto, novaQuantidade);
+        if (log != null) {
+            log.aguardarDurabilidade(lsn);
+        }
+        return true;
     }
     
     /**
-     * Realiza uma venda de produto
+     * Realiza uma venda de produto sem cliente identificado
      * @param idProduto ID do produto a ser vendido
      * @param quantidade Quantidade a ser vendida
      * @return true se a venda for bem-sucedida, false caso contrário
      */
     public boolean realizarVenda(int idProduto, int quantidade) {
-        Produto produto = sistema.buscarProdutoPorId(idProduto);
-        
-        if (produto == null || !estoque.verificarDisponibilidade(idProduto, quantidade)) {
+        return realizarVenda(idProduto, quantidade, RegistroVendas.SEM_IDENTIFICACAO);
+    }
+    
+    /**
+     * Realiza uma venda de produto e a grava no registro de vendas.
+     * A verificação de disponibilidade e a baixa são feitas em um único passo
+     * atômico no produto, evitando vender mais do que o disponível sob concorrência.
+     * O vendedor registrado é o usuário logado, quando este for um Vendedor.
+     * Se houver log de escrita, a venda só é confirmada depois de gravada em disco.
+     * @param idProduto ID do produto a ser vendido
+     * @param quantidade Quantidade a ser vendida
+     * @param idCliente ID do cliente comprador
+     * @return true se a venda for bem-sucedida, false caso contrário
+     */
+    public boolean realizarVenda(int idProduto, int quantidade, int idCliente) {
+        long inicio = metricas.iniciar(Operacao.REALIZAR_VENDA);
+        StatusItemVenda status = StatusItemVenda.CANCELADO;
+        try {
+            status = aplicarVenda(idProduto, quantidade, idCliente, vendedorDe(sistema.getUsuarioLogado()));
+            return status == StatusItemVenda.VENDIDO;
+        } finally {
+            metricas.concluirVenda(Operacao.REALIZAR_VENDA, inicio, status);
+        }
+    }
+    
+    /**
+     * Realiza uma venda em nome do usuário de uma sessão.
+     * O vendedor registrado é o usuário da sessão, quando este for um Vendedor,
+     * o que permite a vários vendedores venderem ao mesmo tempo.
+     * @param token Token da sessão
+     * @param idProduto ID do produto a ser vendido
+     * @param quantidade Quantidade a ser vendida
+     * @param idCliente ID do cliente comprador
+     * @return true se a venda for bem-sucedida, false se a sessão for inválida ou a venda falhar
+     */
+    public boolean realizarVenda(String token, int idProduto, int quantidade, int idCliente) {
+        long inicio = metricas.iniciar(Operacao.REALIZAR_VENDA);
+        Usuario usuario = sessoes.buscarUsuario(token);
+        if (usuario == null) {
+            metricas.concluir(Operacao.REALIZAR_VENDA, inicio, false);
             return false;
         }
         
-        produto.reduzirEstoque(quantidade);
-        return estoque.atualizarQuantidade(idProduto, produto.getQuantidadeEstoque());
+        StatusItemVenda status = StatusItemVenda.CANCELADO;
+        try {
+            status = aplicarVenda(idProduto, quantidade, idCliente, vendedorDe(usuario));
+            return status == StatusItemVenda.VENDIDO;
+        } finally {
+            metricas.concluirVenda(Operacao.REALIZAR_VENDA, inicio, status);
+        }
+    }
+    
+    /**
+     * Realiza uma venda atribuída a um vendedor informado explicitamente,
+     * independentemente do usuário logado ou das sessões abertas
+     * @param vendedor Vendedor que realiza a venda (null para venda sem vendedor)
+     * @param idProduto ID do produto a ser vendido
+     * @param quantidade Quantidade a ser vendida
+     * @param idCliente ID do cliente comprador
+     * @return true se a venda for bem-sucedida, false caso contrário
+     */
+    public boolean realizarVenda(Vendedor vendedor, int idProduto, int quantidade, int idCliente) {
+        long inicio = metricas.iniciar(Operacao.REALIZAR_VENDA);
+        StatusItemVenda status = StatusItemVenda.CANCELADO;
+        try {
+            status = aplicarVenda(idProduto, quantidade, idCliente, vendedor);
+            return status == StatusItemVenda.VENDIDO;
+        } finally {
+            metricas.concluirVenda(Operacao.REALIZAR_VENDA, inicio, status);
+        }
+    }
+    
+    /**
+     * Aplica uma venda e informa o motivo em caso de rejeição
+     * @return Situação da venda
+     */
+    private StatusItemVenda aplicarVenda(int idProduto, int quantidade, int idCliente, Vendedor vendedor) {
+        Produto produto = estoque.buscarProduto(idProduto);
+        
+        if (produto == null) {
+            return StatusItemVenda.PRODUTO_INEXISTENTE;
+        }
+        
+        int idVendedor = vendedor == null ? RegistroVendas.SEM_IDENTIFICACAO : vendedor.getId();
+        long instante = System.currentTimeMillis();
+        LogEscrita log;
+        long lsn;
+        
+        ReentrantLock trava = travarAlteracao();
+        try {
+            if (!produto.reduzirEstoque(quantidade)) {
+                if (quantidade <= 0) {
+                    return StatusItemVenda.QUANTIDADE_INVALIDA;
+                }
+                // Reservas vencidas podem estar retendo o estoque: expira-as e tenta mais uma vez
+                reservas.atualizar();
+                if (!produto.reduzirEstoque(quantidade)) {
+                    return StatusItemVenda.ESTOQUE_INSUFICIENTE;
+                }
+            }
+            double preco = produto.getPreco();
+            log = trava == null ? null : logEscrita;
+            try {
+                lsn = log == null ? 0 : log.registrarVenda(instante, idProduto, idVendedor, idCliente, quantidade, preco);
+            } catch (RuntimeException e) {
+                // O log recusou a venda (falhou ou foi fechado): as unidades voltam ao estoque
+                produto.adicionarEstoque(quantidade);
+                throw e;
+            }
+            registroVendas.registrar(instante, idProduto, idVendedor, idCliente, quantidade, preco);
+            if (vendedor != null) {
+                vendedor.registrarVenda(quantidade, preco);
+            }
+        } finally {
+            liberarAlteracao(trava);
+        }
+        
+        if (log != null) {
+            log.aguardarDurabilidade(lsn);
+        }
+        return StatusItemVenda.VENDIDO;
+    }
+    
+    /**
+     * Realiza a venda de um pedido com várias linhas sem cliente nem vendedor identificados
+     * @param idsProdutos IDs dos produtos de cada linha do pedido
+     * @param quantidades Quantidade de cada linha do pedido
+     * @return Resultado com a situação de cada linha e o valor total vendido
+     */
+    public ResultadoLote realizarVendasEmLote(int[] idsProdutos, int[] quantidades) {
+        return realizarVendasEmLote(idsProdutos, quantidades, RegistroVendas.SEM_IDENTIFICACAO);
+    }
+    
+    /**
+     * Realiza a venda de um pedido com várias linhas em uma única operação.
+     * O pedido é tudo ou nada: se alguma linha não puder ser atendida, nenhuma é vendida.
+     * Cada linha vendida é gravada no registro de vendas, sem vendedor associado;
+     * para atribuir o pedido a um vendedor, informe-o ou use o token da sessão.
+     * @param idsProdutos IDs dos produtos de cada linha do pedido
+     * @param quantidades Quantidade de cada linha do pedido
+     * @param idCliente ID do cliente comprador
+     * @return Resultado com a situação de cada linha e o valor total vendido
+     */
+    public ResultadoLote realizarVendasEmLote(int[] idsProdutos, int[] quantidades, int idCliente) {
+        return realizarVendasEmLote(idsProdutos, quantidades, null, idCliente);
+    }
+    
+    /**
+     * Realiza a venda de um pedido com várias linhas consumindo reservas do comprador.
+     * A parte reservada de cada linha sai das reservas do produto; o restante precisa
+     * estar disponível. Se o pedido falhar, as reservas permanecem no produto.
+     * @param idsProdutos IDs dos produtos de cada linha do pedido
+     * @param quantidades Quantidade de cada linha do pedido
+     * @param reservadas Parte de cada linha já reservada pelo comprador (null se nenhuma)
+     * @param idCliente ID do cliente comprador
+     * @return Resultado com a situação de cada linha e o valor total vendido
+     */
+    public ResultadoLote realizarVendasEmLote(int[] idsProdutos, int[] quantidades, int[] reservadas, int idCliente) {
+        return realizarVendasEmLote(null, idsProdutos, quantidades, reservadas, null, idCliente);
+    }
+    
+    /**
+     * Realiza a venda de um pedido com várias linhas em nome do usuário de uma sessão.
+     * O vendedor registrado é o usuário da sessão, quando este for um Vendedor.
+     * @param token Token da sessão
+     * @param idsProdutos IDs dos produtos de cada linha do pedido
+     * @param quantidades Quantidade de cada linha do pedido
+     * @param idCliente ID do cliente comprador
+     * @return Resultado com a situação de cada linha e o valor total vendido, ou null se a sessão for inválida
+     */
+    public ResultadoLote realizarVendasEmLote(String token, int[] idsProdutos, int[] quantidades, int idCliente) {
+        Usuario usuario = sessoes.buscarUsuario(token);
+        if (usuario == null) {
+            long inicio = metricas.iniciar(Operacao.REALIZAR_VENDAS_EM_LOTE);
+            metricas.concluir(Operacao.REALIZAR_VENDAS_EM_LOTE, inicio, false);
+            return null;
+        }
+        return realizarVendasEmLote(vendedorDe(usuario), idsProdutos, quantidades, null, null, idCliente);
+    }
+    
+    /**
+     * Realiza a venda de um pedido com várias linhas atribuída a um vendedor informado
+     * explicitamente, consumindo reservas do comprador e cobrando os preços combinados
+     * com ele, como os fixados no carrinho de compras.
+     * Os preços informados são os gravados no registro de vendas e no log.
+     * Argumentos inválidos são rejeitados antes de qualquer baixa. Se o log recusar a
+     * venda (por ter falhado ou sido fechado), a baixa é desfeita e a exceção é propagada:
+     * as unidades voltam ao estoque disponível, mas as reservas consumidas não são restauradas.
+     * Uma falha ao aguardar a durabilidade ocorre com a venda já aplicada e registrada.
+     * @param vendedor Vendedor que realiza a venda (null para venda sem vendedor)
+     * @param idsProdutos IDs dos produtos de cada linha do pedido
+     * @param quantidades Quantidade de cada linha do pedido
+     * @param reservadas Parte de cada linha já reservada pelo comprador (null se nenhuma)
+     * @param precosUnitarios Preço unitário de cada linha (null para usar o preço atual do produto)
+     * @param idCliente ID do cliente comprador
+     * @return Resultado com a situação de cada linha e o valor total vendido
+     */
+    public ResultadoLote realizarVendasEmLote(Vendedor vendedor, int[] idsProdutos, int[] quantidades,
+                                              int[] reservadas, double[] precosUnitarios, int idCliente) {
+        long inicio = metricas.iniciar(Operacao.REALIZAR_VENDAS_EM_LOTE);
+        ResultadoLote resultado = null;
+        try {
+            resultado = aplicarVendasEmLote(vendedor, idsProdutos, quantidades, reservadas, precosUnitarios, idCliente);
+            return resultado;
+        } finally {
+            if (resultado != null) {
+                metricas.concluirLote(inicio, resultado);
+            } else {
+                metricas.concluir(Operacao.REALIZAR_VENDAS_EM_LOTE, inicio, false);
+            }
+        }
+    }
+    
+    private ResultadoLote aplicarVendasEmLote(Vendedor vendedor, int[] idsProdutos, int[] quantidades,
+                                              int[] reservadas, double[] precosUnitarios, int idCliente) {
+        int idVendedor = vendedor == null ? RegistroVendas.SEM_IDENTIFICACAO : vendedor.getId();
+        long instante = System.currentTimeMillis();
+        LogEscrita log;
+        long ultimoLsn = 0;
+        ResultadoLote resultado;
+        
+        ReentrantLock trava = travarAlteracao();
+        try {
+            resultado = estoque.baixarEstoqueEmLote(idsProdutos, quantidades, reservadas, precosUnitarios);
+            if (!resultado.isSucesso()) {
+                return resultado;
+            }
+            
+            // O log aceita todas as linhas ou nenhuma, antes do registro de vendas: uma
+            // recusa do log desfaz o pedido inteiro sem deixar linhas no registro
+            log = trava == null ? null : logEscrita;
+            if (log != null) {
+                double[] precos = new double[idsProdutos.length];
+                for (int i = 0; i < precos.length; i++) {
+                    precos[i] = resultado.getPrecoUnitario(i);
+                }
+                try {
+                    ultimoLsn = log.registrarVendas(instante, idsProdutos, idVendedor, idCliente, quantidades, precos);
+                } catch (RuntimeException e) {
+                    estoque.devolverEstoqueEmLote(idsProdutos, quantidades);
+                    throw e;
+                }
+            }
+            for (int i = 0; i < idsProdutos.length; i++) {
+                registroVendas.registrar(instante, idsProdutos[i], idVendedor, idCliente,
+                                         quantidades[i], resultado.getPrecoUnitario(i));
+                if (vendedor != null) {
+                    vendedor.registrarVenda(quantidades[i], resultado.getPrecoUnitario(i));
+                }
+            }
+        } finally {
+            liberarAlteracao(trava);
+        }
+        
+        // Um único fsync cobre todas as linhas do pedido
+        if (log != null) {
+            log.aguardarDurabilidade(ultimoLsn);
+        }
+        
+        return resultado;
     }
     
     /**
@@ -125,7 +784,22 @@ public class Controlador {
      * @return Produto encontrado ou null se não existir
      */
     public Produto buscarProduto(int idProduto) {
-        return sistema.buscarProdutoPorId(idProduto);
+        long inicio = metricas.iniciar(Operacao.BUSCAR_PRODUTO);
+        Produto produto = sistema.buscarProdutoPorId(idProduto);
+        metricas.concluir(Operacao.BUSCAR_PRODUTO, inicio, produto != null);
+        return produto;
+    }
+    
+    /**
+     * Busca um usuário pelo ID
+     * @param idUsuario ID do usuário a ser buscado
+     * @return Usuário encontrado ou null se não existir
+     */
+    public Usuario buscarUsuarioPorId(int idUsuario) {
+        long inicio = metricas.iniciar(Operacao.BUSCAR_USUARIO);
+        Usuario usuario = sistema.buscarUsuarioPorId(idUsuario);
+        metricas.concluir(Operacao.BUSCAR_USUARIO, inicio, usuario != null);
+        return usuario;
     }
     
     /**
@@ -133,7 +807,10 @@ public class Controlador {
      * @return Lista de produtos
      */
     public List<Produto> listarProdutos() {
-        return sistema.getProdutos();
+        long inicio = metricas.iniciar(Operacao.LISTAR_PRODUTOS);
+        List<Produto> produtos = sistema.getProdutos();
+        metricas.concluir(Operacao.LISTAR_PRODUTOS, inicio, true);
+        return produtos;
     }
     
     /**
@@ -141,7 +818,10 @@ public class Controlador {
      * @return Lista de produtos em estoque
      */
     public List<Produto> listarProdutosEmEstoque() {
-        return estoque.listarProdutos();
+        long inicio = metricas.iniciar(Operacao.LISTAR_PRODUTOS_EM_ESTOQUE);
+        List<Produto> produtos = estoque.listarProdutos();
+        metricas.concluir(Operacao.LISTAR_PRODUTOS_EM_ESTOQUE, inicio, true);
+        return produtos;
     }
     
     /**
@@ -149,7 +829,10 @@ public class Controlador {
      * @return Lista de usuários
      */
     public List<Usuario> listarUsuarios() {
-        return sistema.getUsuarios();
+        long inicio = metricas.iniciar(Operacao.LISTAR_USUARIOS);
+        List<Usuario> usuarios = sistema.getUsuarios();
+        metricas.concluir(Operacao.LISTAR_USUARIOS, inicio, true);
+        return usuarios;
     }
     
     /**
@@ -159,7 +842,11 @@ public class Controlador {
      * @return true se o produto estiver disponível na quantidade desejada, false caso contrário
      */
     public boolean verificarDisponibilidadeProduto(int idProduto, int quantidade) {
-        return estoque.verificarDisponibilidade(idProduto, quantidade);
+        long inicio = metricas.iniciar(Operacao.VERIFICAR_DISPONIBILIDADE);
+        reservas.atualizar();
+        boolean disponivel = estoque.verificarDisponibilidade(idProduto, quantidade);
+        metricas.concluir(Operacao.VERIFICAR_DISPONIBILIDADE, inicio, disponivel);
+        return disponivel;
     }
     
     /**
@@ -167,33 +854,106 @@ public class Controlador {
      * @return Relatório de estoque em formato de texto
      */
     public String gerarRelatorioEstoque() {
-        List<Produto> produtos = estoque.listarProdutos();
-        StringBuilder relatorio = new StringBuilder();
-        
-        relatorio.append("=== RELATÓRIO DE ESTOQUE ===\n");
-        relatorio.append("Total de produtos diferentes: ").append(estoque.getTotalProdutosDiferentes()).append("\n");
-        relatorio.append("Total de itens em estoque: ").append(estoque.getTotalItensEstoque()).append("\n\n");
-        relatorio.append("Detalhamento dos produtos:\n");
+        StringWriter relatorio = new StringWriter();
         
-        for (Produto produto : produtos) {
-            relatorio.append("- ").append(produto.toString()).append("\n");
-            relatorio.append("  Informações específicas: ").append(produto.getInformacoesEspecificas()).append("\n");
+        try {
+            gerarRelatorioEstoque(relatorio);
+        } catch (IOException e) {
+            // StringWriter não lança IOException
+            throw new UncheckedIOException(e);
         }
         
         return relatorio.toString();
     }
     
     /**
-     * Gera um relatório de vendas (simplificado para este exemplo)
+     * Gera o relatório de estoque diretamente em um arquivo
+     * @param arquivo Caminho do arquivo (criado ou sobrescrito)
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    public void gerarRelatorioEstoque(Path arquivo) throws IOException {
+        try (Writer destino = Files.newBufferedWriter(arquivo, StandardCharsets.UTF_8)) {
+            gerarRelatorioEstoque(destino);
+        }
+    }
+    
+    /**
+     * Gera o relatório de estoque em um fluxo de bytes codificado em UTF-8.
+     * O fluxo não é fechado.
+     * @param destino Fluxo de saída
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    public void gerarRelatorioEstoque(OutputStream destino) throws IOException {
+        Writer escritor = new OutputStreamWriter(destino, StandardCharsets.UTF_8);
+        gerarRelatorioEstoque(escritor);
+        escritor.flush();
+    }
+    
+    /**
+     * Gera o relatório de estoque em fluxo contínuo.
+     * Os produtos são lidos do estoque em blocos de tamanho fixo e cada bloco é
+     * escrito antes do próximo, de modo que a memória usada não depende do
+     * tamanho do catálogo. O escritor não é fechado.
+     * @param destino Escritor que recebe o relatório
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    public void gerarRelatorioEstoque(Writer destino) throws IOException {
+        long inicio = metricas.iniciar(Operacao.GERAR_RELATORIO_ESTOQUE);
+        boolean sucesso = false;
+        try {
+            escreverRelatorioEstoque(destino);
+            sucesso = true;
+        } finally {
+            metricas.concluir(Operacao.GERAR_RELATORIO_ESTOQUE, inicio, sucesso);
+        }
+    }
+    
+    private void escreverRelatorioEstoque(Writer destino) throws IOException {
+        StringBuilder bloco = new StringBuilder(TAMANHO_BLOCO_RELATORIO * 160);
+        
+        bloco.append("=== RELATÓRIO DE ESTOQUE ===\n");
+        bloco.append("Total de produtos diferentes: ").append(estoque.getTotalProdutosDiferentes()).append("\n");
+        bloco.append("Total de itens em estoque: ").append(estoque.getTotalItensEstoque()).append("\n");
+        Formatador.anexarValor(bloco.append("Valor total em estoque: "), estoque.getValorTotalEstoque()).append("\n\n");
+        bloco.append("Detalhamento dos produtos:\n");
+        
+        Produto[] produtos = new Produto[TAMANHO_BLOCO_RELATORIO];
+        int inicio = 0;
+        int copiados;
+        
+        while ((copiados = estoque.copiarFaixa(inicio, produtos)) > 0) {
+            for (int i = 0; i < copiados; i++) {
+                bloco.append("- ").append(produtos[i].toString()).append("\n");
+                bloco.append("  Informações específicas: ").append(produtos[i].getInformacoesEspecificas()).append("\n");
+                produtos[i] = null;
+            }
+            
+            destino.append(bloco);
+            bloco.setLength(0);
+            inicio += copiados;
+        }
+        
+        destino.append(bloco);
+        destino.flush();
+    }
+    
+    /**
+     * Gera o relatório de vendas a partir do registro de vendas
      * @return Relatório de vendas em formato de texto
      */
     public String gerarRelatorioVendas() {
-        return "=== RELATÓRIO DE VENDAS ===\n" +
-               "Este é um relatório simplificado para demonstração.\n" +
-               "Em uma implementação completa, este relatório incluiria:\n" +
-               "- Total de vendas realizadas\n" +
-               "- Valor total das vendas\n" +
-               "- Produtos mais vendidos\n" +
-               "- Vendedores com melhor desempenho\n";
+        long inicio = metricas.iniciar(Operacao.GERAR_RELATORIO_VENDAS);
+        String relatorio = registroVendas.gerarRelatorio();
+        metricas.concluir(Operacao.GERAR_RELATORIO_VENDAS, inicio, true);
+        return relatorio;
+    }
+    
+    /**
+     * Obtém o vendedor ao qual a venda é atribuída
+     * @param usuario Usuário logado ou da sessão (pode ser null)
+     * @return Vendedor ou null se o usuário não for um Vendedor
+     */
+    private static Vendedor vendedorDe(Usuario usuario) {
+        return usuario instanceof Vendedor ? (Vendedor) usuario : null;
     }
 }
@@ -1,22 +1,32 @@
 package com.sistema.service;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import com.sistema.model.Catalogo;
 import com.sistema.model.Produto;
+import com.sistema.model.ResultadoLote;
+import com.sistema.model.StatusItemVenda;
+import com.sistema.util.IndiceInteiro;
+import com.sistema.util.TravasParticionadas;
 
 /**
  * Classe responsável pelo controle de estoque do sistema.
  * Gerencia a adição, remoção e consulta de produtos no estoque.
+ * Os produtos ficam no Catalogo compartilhado com o Sistema. É thread-safe:
+ * as alterações de quantidade são atômicas no próprio Produto, sem travas, e as
+ * baixas de vários produtos são coordenadas por travas particionadas por produto.
  */
 public class Estoque {
-    private static Estoque instancia;
-    private List<Produto> produtosEmEstoque;
+    private static volatile Estoque instancia;
+    private final Catalogo catalogo;
+    private final TravasParticionadas travas;
     
     /**
      * Construtor privado para implementar o padrão Singleton
      */
     private Estoque() {
-        this.produtosEmEstoque = new ArrayList<>();
+        this.catalogo = Catalogo.getInstancia();
+        this.travas = new TravasParticionadas();
     }
     
     /**
@@ -24,10 +34,17 @@ public class Estoque {
      * @return Instância única do estoque
      */
     public static Estoque getInstancia() {
-        if (instancia == null) {
-            instancia = new Estoque();
+        Estoque local = instancia;
+        if (local == null) {
+            synchronized (Estoque.class) {
+                local = instancia;
+                if (local == null) {
+                    local = new Estoque();
+                    instancia = local;
+                }
+            }
         }
-        return instancia;
+        return local;
     }
     
     /**
@@ -36,18 +53,19 @@ public class Estoque {
      * @return true se a operação for bem-sucedida, false caso contrário
      */
     public boolean adicionarProduto(Produto produto) {
-        if (produto == null) {
-            return false;
-        }
-        
-        // Verifica se o produto já existe no estoque
-        for (Produto p : produtosEmEstoque) {
-            if (p.getId() == produto.getId()) {
-                return false;
-            }
-        }
-        
-        return produtosEmEstoque.add(produto);
+        // O catálogo rejeita produtos com ID já existente
+        return catalogo.adicionar(produto);
+    }
+    
+    /**
+     * Adiciona um lote de produtos ao estoque com uma única verificação de duplicidade.
+     * Os produtos rejeitados são substituídos por null no vetor.
+     * @param produtos Vetor de produtos a adicionar
+     * @param quantidade Quantidade de posições do vetor a considerar
+     * @return Quantidade de produtos adicionados
+     */
+    public int adicionarProdutos(Produto[] produtos, int quantidade) {
+        return catalogo.adicionarTodos(produtos, quantidade);
     }
     
     /**
@@ -57,18 +75,27 @@ public class Estoque {
      * @return true se a operação for bem-sucedida, false caso contrário
      */
     public boolean atualizarQuantidade(int idProduto, int novaQuantidade) {
+        return substituirQuantidade(idProduto, novaQuantidade) >= 0;
+    }
+    
+    /**
+     * Substitui a quantidade de um produto no estoque e informa a quantidade anterior
+     * @param idProduto ID do produto a ser atualizado
+     * @param novaQuantidade Nova quantidade do produto
+     * @return Quantidade anterior, ou -1 se o produto não existir ou a quantidade for negativa
+     */
+    public int substituirQuantidade(int idProduto, int novaQuantidade) {
         if (novaQuantidade < 0) {
-            return false;
+            return -1;
         }
         
-        for (Produto produto : produtosEmEstoque) {
-            if (produto.getId() == idProduto) {
-                produto.setQuantidadeEstoque(novaQuantidade);
-                return true;
-            }
+        Produto produto = buscarProduto(idProduto);
+        
+        if (produto == null) {
+            return -1;
         }
         
-        return false;
+        return produto.alterarQuantidadeEstoque(novaQuantidade);
     }
     
     /**
@@ -77,14 +104,7 @@ public class Estoque {
      * @return true se a operação for bem-sucedida, false caso contrário
      */
     public boolean removerProduto(int idProduto) {
-        for (int i = 0; i < produtosEmEstoque.size(); i++) {
-            if (produtosEmEstoque.get(i).getId() == idProduto) {
-                produtosEmEstoque.remove(i);
-                return true;
-            }
-        }
-        
-        return false;
+        return catalogo.remover(idProduto) != null;
     }
     
     /**
@@ -93,17 +113,12 @@ public class Estoque {
      * @return Produto encontrado ou null se não existir
      */
     public Produto buscarProduto(int idProduto) {
-        for (Produto produto : produtosEmEstoque) {
-            if (produto.getId() == idProduto) {
-                return produto;
-            }
-        }
-        
-        return null;
+        return catalogo.buscar(idProduto);
     }
     
     /**
-     * Verifica se um produto está disponível no estoque na quantidade desejada
+     * Verifica se um produto está disponível no estoque na quantidade desejada,
+     * descontadas as unidades reservadas em carrinhos
      * @param idProduto ID do produto a ser verificado
      * @param quantidade Quantidade desejada
      * @return true se o produto estiver disponível na quantidade desejada, false caso contrário
@@ -115,7 +130,221 @@ public class Estoque {
             return false;
         }
         
-        return produto.getQuantidadeEstoque() >= quantidade;
+        // Unidades reservadas em carrinhos não estão disponíveis para outros compradores
+        return produto.getQuantidadeDisponivel() >= quantidade;
+    }
+    
+    /**
+     * Baixa o estoque de um produto de forma atômica, verificando a disponibilidade
+     * e reduzindo a quantidade em um único compare-and-set
+     * @param idProduto ID do produto a ser vendido
+     * @param quantidade Quantidade a ser baixada
+     * @return true se havia quantidade suficiente e a baixa foi feita, false caso contrário
+     */
+    public boolean baixarEstoque(int idProduto, int quantidade) {
+        Produto produto = buscarProduto(idProduto);
+        
+        if (produto == null || quantidade <= 0) {
+            return false;
+        }
+        
+        return produto.reduzirEstoque(quantidade);
+    }
+    
+    /**
+     * Baixa o estoque de vários produtos com semântica tudo ou nada.
+     * Os produtos são resolvidos em uma única passada pelo catálogo e linhas
+     * repetidas do mesmo produto são somadas antes da verificação. A verificação
+     * e a baixa acontecem com as travas das partições dos produtos adquiridas em
+     * ordem crescente, de modo que pedidos concorrentes nunca entram em impasse e
+     * pedidos com produtos disjuntos avançam em paralelo.
+     * @param idsProdutos IDs dos produtos de cada linha
+     * @param quantidades Quantidade de cada linha
+     * @return Resultado com a situação de cada linha
+     */
+    public ResultadoLote baixarEstoqueEmLote(int[] idsProdutos, int[] quantidades) {
+        return baixarEstoqueEmLote(idsProdutos, quantidades, null);
+    }
+    
+    /**
+     * Baixa o estoque de vários produtos com semântica tudo ou nada, consumindo
+     * as reservas que o comprador já possui. Em cada linha, a parte reservada sai
+     * das reservas do produto e apenas o restante precisa estar disponível.
+     * Se o pedido falhar, as reservas permanecem intactas.
+     * @param idsProdutos IDs dos produtos de cada linha
+     * @param quantidades Quantidade de cada linha
+     * @param reservadas Parte de cada linha já reservada pelo comprador (null se nenhuma)
+     * @return Resultado com a situação de cada linha
+     */
+    public ResultadoLote baixarEstoqueEmLote(int[] idsProdutos, int[] quantidades, int[] reservadas) {
+        return baixarEstoqueEmLote(idsProdutos, quantidades, reservadas, null);
+    }
+    
+    /**
+     * Baixa o estoque de vários produtos com semântica tudo ou nada, consumindo
+     * as reservas do comprador e cobrando os preços combinados com ele (por exemplo,
+     * os preços fixados no carrinho) em vez dos preços atuais dos produtos.
+     * @param idsProdutos IDs dos produtos de cada linha
+     * @param quantidades Quantidade de cada linha
+     * @param reservadas Parte de cada linha já reservada pelo comprador (null se nenhuma)
+     * @param precosUnitarios Preço unitário de cada linha (null para usar o preço atual do produto)
+     * @return Resultado com a situação de cada linha
+     */
+    public ResultadoLote baixarEstoqueEmLote(int[] idsProdutos, int[] quantidades, int[] reservadas,
+                                             double[] precosUnitarios) {
+        if (idsProdutos == null || quantidades == null || idsProdutos.length != quantidades.length
+            || (reservadas != null && reservadas.length != quantidades.length)
+            || (precosUnitarios != null && precosUnitarios.length != quantidades.length)) {
+            throw new IllegalArgumentException("IDs e quantidades devem ter o mesmo tamanho");
+        }
+        
+        int linhas = idsProdutos.length;
+        StatusItemVenda[] status = new StatusItemVenda[linhas];
+        Produto[] produtos = catalogo.buscarVarios(idsProdutos);
+        
+        // Soma as quantidades por produto: cada entrada guarda {total, índice do produto distinto}
+        IndiceInteiro<int[]> totais = new IndiceInteiro<>(linhas);
+        Produto[] distintos = new Produto[linhas];
+        int[] quantidadesDistintos = new int[linhas];
+        int[] reservadasDistintos = new int[linhas];
+        int quantidadeDistintos = 0;
+        boolean valido = true;
+        
+        for (int i = 0; i < linhas; i++) {
+            if (produtos[i] == null) {
+                status[i] = StatusItemVenda.PRODUTO_INEXISTENTE;
+                valido = false;
+            } else if (quantidades[i] <= 0) {
+                status[i] = StatusItemVenda.QUANTIDADE_INVALIDA;
+                valido = false;
+            } else {
+                int[] total = totais.buscar(idsProdutos[i]);
+                if (total == null) {
+                    total = new int[] {0, quantidadeDistintos};
+                    totais.inserir(idsProdutos[i], total);
+                    distintos[quantidadeDistintos++] = produtos[i];
+                }
+                total[0] += quantidades[i];
+                quantidadesDistintos[total[1]] = total[0];
+                if (reservadas != null) {
+                    reservadasDistintos[total[1]] += Math.max(0, Math.min(reservadas[i], quantidades[i]));
+                }
+            }
+        }
+        
+        boolean[] emFalta = new boolean[quantidadeDistintos];
+        if (valido) {
+            valido = baixarComTravas(distintos, quantidadesDistintos, reservadasDistintos, quantidadeDistintos, emFalta);
+        } else {
+            // O pedido já foi rejeitado; a verificação serve apenas para informar as linhas em falta
+            for (int d = 0; d < quantidadeDistintos; d++) {
+                emFalta[d] = !podeBaixar(distintos[d], quantidadesDistintos[d], reservadasDistintos[d]);
+            }
+        }
+        
+        double valorTotal = 0.0;
+        double[] precos = new double[linhas];
+        for (int i = 0; i < linhas; i++) {
+            if (produtos[i] != null) {
+                precos[i] = precosUnitarios != null ? precosUnitarios[i] : produtos[i].getPreco();
+            }
+            if (status[i] != null) {
+                continue;
+            }
+            if (valido) {
+                status[i] = StatusItemVenda.VENDIDO;
+                valorTotal += precos[i] * quantidades[i];
+            } else if (emFalta[totais.buscar(idsProdutos[i])[1]]) {
+                status[i] = StatusItemVenda.ESTOQUE_INSUFICIENTE;
+            } else {
+                status[i] = StatusItemVenda.CANCELADO;
+            }
+        }
+        
+        return new ResultadoLote(status, precos, valido, valorTotal);
+    }
+    
+    /**
+     * Verifica e baixa o estoque dos produtos distintos de um pedido segurando as
+     * travas de suas partições. As travas são adquiridas em ordem crescente de
+     * partição (a ordem global dos IDs vista pelas travas), o que impede impasses
+     * entre pedidos que compartilham produtos.
+     * 
+     * As vendas unitárias continuam sem travas; se uma delas consumir o estoque
+     * entre a verificação e a baixa, as baixas já feitas são desfeitas antes de
+     * liberar as travas, e nenhum outro pedido chega a observar o estado parcial.
+     */
+    private boolean baixarComTravas(Produto[] distintos, int[] quantidadesDistintos, int[] reservadasDistintos,
+                                    int quantidade, boolean[] emFalta) {
+        int[] particoes = new int[quantidade];
+        for (int d = 0; d < quantidade; d++) {
+            particoes[d] = travas.particaoDe(distintos[d].getId());
+        }
+        Arrays.sort(particoes);
+        int distintas = 0;
+        for (int d = 0; d < quantidade; d++) {
+            if (distintas == 0 || particoes[distintas - 1] != particoes[d]) {
+                particoes[distintas++] = particoes[d];
+            }
+        }
+        
+        for (int p = 0; p < distintas; p++) {
+            travas.travaDaParticao(particoes[p]).lock();
+        }
+        try {
+            // Verifica a disponibilidade de todos os produtos antes de qualquer baixa
+            boolean valido = true;
+            for (int d = 0; d < quantidade; d++) {
+                if (!podeBaixar(distintos[d], quantidadesDistintos[d], reservadasDistintos[d])) {
+                    emFalta[d] = true;
+                    valido = false;
+                }
+            }
+            
+            // Baixa cada produto; uma falha aqui só ocorre por venda unitária concorrente
+            int baixados = 0;
+            while (valido && baixados < quantidade) {
+                if (distintos[baixados].reduzirEstoque(quantidadesDistintos[baixados], reservadasDistintos[baixados])) {
+                    baixados++;
+                } else {
+                    emFalta[baixados] = true;
+                    valido = false;
+                }
+            }
+            
+            if (!valido) {
+                for (int d = 0; d < baixados; d++) {
+                    distintos[d].devolverEstoque(quantidadesDistintos[d], reservadasDistintos[d]);
+                }
+            }
+            return valido;
+        } finally {
+            for (int p = distintas - 1; p >= 0; p--) {
+                travas.travaDaParticao(particoes[p]).unlock();
+            }
+        }
+    }
+    
+    /**
+     * Devolve ao estoque disponível as unidades de um pedido já baixado, por exemplo
+     * quando a venda não pôde ser registrada. As reservas consumidas na baixa não são
+     * restauradas: quem as tomou já as encerrou, e as unidades voltam a ficar livres.
+     * Produtos removidos do catálogo depois da baixa são ignorados.
+     * @param idsProdutos IDs dos produtos de cada linha
+     * @param quantidades Quantidade de cada linha
+     */
+    public void devolverEstoqueEmLote(int[] idsProdutos, int[] quantidades) {
+        Produto[] produtos = catalogo.buscarVarios(idsProdutos);
+        for (int i = 0; i < produtos.length; i++) {
+            if (produtos[i] != null) {
+                produtos[i].adicionarEstoque(quantidades[i]);
+            }
+        }
+    }
+    
+    private static boolean podeBaixar(Produto produto, int quantidade, int reservada) {
+        return produto.getQuantidadeReservada() >= reservada
+               && produto.getQuantidadeDisponivel() >= quantidade - reservada;
     }
     
     /**
@@ -123,7 +352,17 @@ public class Estoque {
      * @return Lista de produtos em estoque
      */
     public List<Produto> listarProdutos() {
-        return new ArrayList<>(produtosEmEstoque);
+        return catalogo.listar();
+    }
+    
+    /**
+     * Copia uma faixa de produtos do estoque para percorrê-lo em blocos
+     * @param inicio Posição do primeiro produto da faixa
+     * @param destino Vetor que recebe os produtos
+     * @return Quantidade de produtos copiados (zero ao fim do estoque)
+     */
+    public int copiarFaixa(int inicio, Produto[] destino) {
+        return catalogo.copiarFaixa(inicio, destino);
     }
     
     /**
@@ -131,20 +370,30 @@ public class Estoque {
      * @return Quantidade total de produtos diferentes
      */
     public int getTotalProdutosDiferentes() {
-        return produtosEmEstoque.size();
+        return catalogo.getTotalProdutosDiferentes();
     }
     
     /**
-     * Obtém a quantidade total de itens no estoque (soma de todas as quantidades)
+     * Obtém a quantidade total de itens no estoque (soma de todas as quantidades).
+     * O total é mantido incrementalmente pelo catálogo e lido em tempo constante.
      * @return Quantidade total de itens
      */
     public int getTotalItensEstoque() {
-        int total = 0;
-        
-        for (Produto produto : produtosEmEstoque) {
-            total += produto.getQuantidadeEstoque();
-        }
-        
-        return total;
+        return (int) catalogo.getTotalUnidades();
+    }
+    
+    /**
+     * Obtém o valor total do estoque (soma de preço unitário vezes quantidade)
+     * @return Valor total em estoque
+     */
+    public double getValorTotalEstoque() {
+        return catalogo.getValorTotal();
+    }
+    
+    /**
+     * Recalcula o valor total do estoque percorrendo todos os produtos
+     */
+    public void recalcularTotais() {
+        catalogo.recalcularTotais();
     }
 }
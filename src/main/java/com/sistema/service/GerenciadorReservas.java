@@ -0,0 +1,315 @@
+package com.sistema.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+import com.sistema.model.Produto;
+import com.sistema.util.RodaTemporal;
+
+/**
+ * Controla as reservas temporárias de estoque feitas pelos carrinhos de compras.
+ * 
+ * Cada reserva retira unidades da quantidade disponível do produto (sem tirá-las
+ * do estoque) e fica agendada em uma RodaTemporal pelo seu prazo. Renovar uma
+ * reserva só altera o prazo: quando o slot vence, a reserva é reagendada se o
+ * prazo foi adiado ou liberada se venceu. Assim milhões de reservas pendentes
+ * expiram sem um temporizador por reserva e sem varreduras. A roda avança durante
+ * as próprias chamadas (sem thread dedicada).
+ * 
+ * As reservas são distribuídas entre partições, cada uma com a sua roda e a sua
+ * trava. Uma reserva fica na partição sorteada ao ser criada, de modo que carrinhos
+ * diferentes raramente disputam a mesma trava.
+ */
+public class GerenciadorReservas {
+    public static final long TEMPO_RESERVA_PADRAO_MILLIS = 15 * 60 * 1000L;
+    
+    private static final long RESOLUCAO_RODA_MILLIS = 1000;
+    private static final int SLOTS_RODA = 4096;
+    
+    private final Particao[] particoes;
+    private final int mascara;
+    private final AtomicInteger quantidade;
+    private final LongSupplier relogio;
+    private final long tempoReservaMillis;
+    
+    /**
+     * Construtor padrão: reservas de 15 minutos
+     */
+    public GerenciadorReservas() {
+        this(TEMPO_RESERVA_PADRAO_MILLIS, System::currentTimeMillis);
+    }
+    
+    /**
+     * Construtor com parâmetros
+     * 
+     * @param tempoReservaMillis Tempo desde a última alteração após o qual a reserva expira
+     * @param relogio Fonte do instante atual em milissegundos
+     */
+    public GerenciadorReservas(long tempoReservaMillis, LongSupplier relogio) {
+        this(tempoReservaMillis, relogio, Runtime.getRuntime().availableProcessors() * 2);
+    }
+    
+    /**
+     * Construtor com quantidade de partições
+     * 
+     * @param tempoReservaMillis Tempo desde a última alteração após o qual a reserva expira
+     * @param relogio Fonte do instante atual em milissegundos
+     * @param quantidadeParticoes Quantidade mínima de partições (arredondada para potência de 2)
+     */
+    public GerenciadorReservas(long tempoReservaMillis, LongSupplier relogio, int quantidadeParticoes) {
+        int total = Integer.highestOneBit(Math.max(quantidadeParticoes, 2) - 1) << 1;
+        long agora = relogio.getAsLong();
+        this.particoes = new Particao[total];
+        for (int i = 0; i < total; i++) {
+            particoes[i] = new Particao(agora);
+        }
+        this.mascara = total - 1;
+        this.quantidade = new AtomicInteger();
+        this.relogio = relogio;
+        this.tempoReservaMillis = tempoReservaMillis;
+    }
+    
+    /**
+     * Reserva unidades disponíveis de um produto
+     * @param produto Produto a reservar
+     * @param quantidadeReservada Quantidade a reservar
+     * @return Reserva criada, ou null se o produto for null, a quantidade for inválida
+     *         ou não houver quantidade disponível
+     */
+    public ReservaEstoque reservar(Produto produto, int quantidadeReservada) {
+        if (produto == null || quantidadeReservada <= 0) {
+            return null;
+        }
+        
+        long agora = relogio.getAsLong();
+        expirarSePreciso(agora);
+        if (!produto.reservar(quantidadeReservada)) {
+            return null;
+        }
+        
+        int particao = ThreadLocalRandom.current().nextInt() & mascara;
+        ReservaEstoque reserva = new ReservaEstoque(produto, quantidadeReservada, agora + tempoReservaMillis, particao);
+        RodaTemporal<ReservaEstoque> roda = particoes[particao].roda;
+        synchronized (roda) {
+            reserva.agendamento = roda.agendar(reserva, reserva.getPrazo());
+        }
+        quantidade.incrementAndGet();
+        return reserva;
+    }
+    
+    /**
+     * Ajusta uma reserva para a quantidade desejada. Aumentar a reserva renova o seu
+     * prazo e, se ela já tiver expirado, a reabre com a quantidade desejada; reduzir
+     * apenas libera a diferença. Reduzir a zero encerra a reserva.
+     * @param reserva Reserva a ajustar
+     * @param desejada Quantidade total que deve ficar reservada
+     * @return true se a reserva foi ajustada, false se não houver quantidade disponível
+     */
+    public boolean ajustar(ReservaEstoque reserva, int desejada) {
+        if (reserva == null || desejada < 0) {
+            return false;
+        }
+        
+        long agora = relogio.getAsLong();
+        expirarSePreciso(agora);
+        synchronized (rodaDe(reserva)) {
+            int atual = reserva.isEncerrada() ? 0 : reserva.getQuantidade();
+            if (desejada <= atual) {
+                reserva.getProduto().liberarReserva(atual - desejada);
+                reserva.setQuantidade(desejada);
+                if (desejada == 0 && !reserva.isEncerrada()) {
+                    encerrar(reserva);
+                }
+                return true;
+            }
+            
+            if (!reserva.getProduto().reservar(desejada - atual)) {
+                return false;
+            }
+            reserva.setQuantidade(desejada);
+            reserva.setPrazo(agora + tempoReservaMillis);
+            if (reserva.isEncerrada()) {
+                reabrir(reserva);
+            }
+            return true;
+        }
+    }
+    
+    /**
+     * Libera todas as unidades de uma reserva e a encerra
+     * @param reserva Reserva a liberar
+     * @return Quantidade liberada (zero se a reserva já estava encerrada)
+     */
+    public int liberar(ReservaEstoque reserva) {
+        if (reserva == null) {
+            return 0;
+        }
+        
+        synchronized (rodaDe(reserva)) {
+            if (reserva.isEncerrada()) {
+                return 0;
+            }
+            int liberada = reserva.getQuantidade();
+            reserva.getProduto().liberarReserva(liberada);
+            reserva.setQuantidade(0);
+            encerrar(reserva);
+            return liberada;
+        }
+    }
+    
+    /**
+     * Encerra uma reserva para uma compra, sem liberar as unidades no produto.
+     * Quem toma a reserva passa a responder pelas unidades: deve consumi-las na
+     * baixa do estoque ou devolvê-las com devolver().
+     * @param reserva Reserva a tomar
+     * @return Quantidade reservada tomada (zero se a reserva já estava encerrada)
+     */
+    public int tomar(ReservaEstoque reserva) {
+        if (reserva == null) {
+            return 0;
+        }
+        
+        synchronized (rodaDe(reserva)) {
+            if (reserva.isEncerrada()) {
+                return 0;
+            }
+            int tomada = reserva.getQuantidade();
+            reserva.setQuantidade(0);
+            encerrar(reserva);
+            return tomada;
+        }
+    }
+    
+    /**
+     * Reabre uma reserva tomada cuja compra não foi concluída, mantendo o prazo original
+     * @param reserva Reserva tomada
+     * @param quantidadeTomada Quantidade devolvida por tomar()
+     * @return true se a reserva foi reaberta, false se a reserva não estava encerrada ou a quantidade for inválida
+     */
+    public boolean devolver(ReservaEstoque reserva, int quantidadeTomada) {
+        if (reserva == null || quantidadeTomada <= 0) {
+            return false;
+        }
+        
+        synchronized (rodaDe(reserva)) {
+            if (!reserva.isEncerrada()) {
+                return false;
+            }
+            reserva.setQuantidade(quantidadeTomada);
+            reabrir(reserva);
+            return true;
+        }
+    }
+    
+    /**
+     * Expira as reservas vencidas se um tick da roda tiver passado. Não espera
+     * se outra thread já estiver expirando.
+     */
+    public void atualizar() {
+        expirarSePreciso(relogio.getAsLong());
+    }
+    
+    /**
+     * Expira as reservas vencidas até o instante atual
+     * @return Quantidade de reservas liberadas por expiração
+     */
+    public int expirar() {
+        long agora = relogio.getAsLong();
+        int[] liberadas = new int[1];
+        for (Particao particao : particoes) {
+            particao.travaExpiracao.lock();
+            try {
+                synchronized (particao.roda) {
+                    particao.roda.avancar(agora, reserva -> {
+                        if (verificarExpiracao(particao.roda, reserva, agora)) {
+                            liberadas[0]++;
+                        }
+                    });
+                }
+            } finally {
+                particao.travaExpiracao.unlock();
+            }
+        }
+        return liberadas[0];
+    }
+    
+    public int getQuantidadeReservas() {
+        return quantidade.get();
+    }
+    
+    public long getTempoReservaMillis() {
+        return tempoReservaMillis;
+    }
+    
+    private void expirarSePreciso(long agora) {
+        for (Particao particao : particoes) {
+            if (particao.roda.precisaAvancar(agora) && particao.travaExpiracao.tryLock()) {
+                try {
+                    synchronized (particao.roda) {
+                        particao.roda.avancar(agora, reserva -> verificarExpiracao(particao.roda, reserva, agora));
+                    }
+                } finally {
+                    particao.travaExpiracao.unlock();
+                }
+            }
+        }
+    }
+    
+    private RodaTemporal<ReservaEstoque> rodaDe(ReservaEstoque reserva) {
+        return particoes[reserva.particao].roda;
+    }
+    
+    /**
+     * Libera a reserva vencida ou a reagenda pelo prazo renovado. Chamado com a trava da roda.
+     * @return true se a reserva foi liberada por expiração
+     */
+    private boolean verificarExpiracao(RodaTemporal<ReservaEstoque> roda, ReservaEstoque reserva, long agora) {
+        reserva.agendamento = RodaTemporal.SEM_AGENDAMENTO;
+        if (reserva.isEncerrada()) {
+            return false;
+        }
+        
+        if (reserva.getPrazo() > agora) {
+            reserva.agendamento = roda.agendar(reserva, reserva.getPrazo());
+            return false;
+        }
+        reserva.getProduto().liberarReserva(reserva.getQuantidade());
+        reserva.setQuantidade(0);
+        encerrar(reserva);
+        return true;
+    }
+    
+    /**
+     * Marca a reserva como encerrada e a retira da roda. Chamado com a trava da roda.
+     */
+    private void encerrar(ReservaEstoque reserva) {
+        reserva.setEncerrada(true);
+        rodaDe(reserva).cancelar(reserva.agendamento);
+        reserva.agendamento = RodaTemporal.SEM_AGENDAMENTO;
+        quantidade.decrementAndGet();
+    }
+    
+    /**
+     * Reabre uma reserva encerrada e a agenda pelo seu prazo. Chamado com a trava da roda.
+     */
+    private void reabrir(ReservaEstoque reserva) {
+        reserva.setEncerrada(false);
+        reserva.agendamento = rodaDe(reserva).agendar(reserva, reserva.getPrazo());
+        quantidade.incrementAndGet();
+    }
+    
+    /**
+     * Roda temporal de uma partição e a trava que impede duas threads de avançá-la ao mesmo tempo
+     */
+    private static final class Particao {
+        final RodaTemporal<ReservaEstoque> roda;
+        final ReentrantLock travaExpiracao;
+        
+        Particao(long agora) {
+            this.roda = new RodaTemporal<>(RESOLUCAO_RODA_MILLIS, SLOTS_RODA, agora);
+            this.travaExpiracao = new ReentrantLock();
+        }
+    }
+}
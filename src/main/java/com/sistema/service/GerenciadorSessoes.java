@@ -0,0 +1,225 @@
+package com.sistema.service;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+import com.sistema.model.Usuario;
+import com.sistema.util.RodaTemporal;
+
+/**
+ * Armazena as sessões de vários usuários conectados ao mesmo tempo.
+ * 
+ * Cada login recebe um token aleatório de 128 bits, resolvido em O(1) por um
+ * ConcurrentHashMap a partir de qualquer thread. As sessões expiram após um
+ * tempo de inatividade: cada sessão fica agendada em uma RodaTemporal e, quando
+ * o seu slot vence, é encerrada se continuou ociosa ou reagendada a partir do
+ * último acesso. Assim o uso do token custa apenas uma escrita volátil, sem
+ * mexer na roda. A roda avança durante as próprias chamadas (sem thread
+ * dedicada), e a quantidade de sessões é limitada para manter a memória sob controle.
+ */
+public class GerenciadorSessoes {
+    public static final long TEMPO_OCIOSO_PADRAO_MILLIS = 30 * 60 * 1000L;
+    public static final int MAXIMO_SESSOES_PADRAO = 500_000;
+    
+    private static final long RESOLUCAO_RODA_MILLIS = 1000;
+    private static final int SLOTS_RODA = 4096;
+    private static final int BYTES_TOKEN = 16;
+    
+    private final ConcurrentHashMap<String, Sessao> sessoes;
+    private final RodaTemporal<Sessao> roda;
+    private final ReentrantLock travaExpiracao;
+    private final AtomicInteger quantidade;
+    private final SecureRandom aleatorio;
+    private final LongSupplier relogio;
+    private final long tempoOciosoMillis;
+    private final int maximoSessoes;
+    
+    /**
+     * Construtor padrão: 30 minutos de inatividade e até 500 mil sessões
+     */
+    public GerenciadorSessoes() {
+        this(TEMPO_OCIOSO_PADRAO_MILLIS, MAXIMO_SESSOES_PADRAO, System::currentTimeMillis);
+    }
+    
+    /**
+     * Construtor com parâmetros
+     * 
+     * @param tempoOciosoMillis Tempo sem uso após o qual a sessão expira
+     * @param maximoSessoes Quantidade máxima de sessões abertas
+     * @param relogio Fonte do instante atual em milissegundos
+     */
+    public GerenciadorSessoes(long tempoOciosoMillis, int maximoSessoes, LongSupplier relogio) {
+        this.sessoes = new ConcurrentHashMap<>();
+        this.roda = new RodaTemporal<>(RESOLUCAO_RODA_MILLIS, SLOTS_RODA, relogio.getAsLong());
+        this.travaExpiracao = new ReentrantLock();
+        this.quantidade = new AtomicInteger();
+        this.aleatorio = new SecureRandom();
+        this.relogio = relogio;
+        this.tempoOciosoMillis = tempoOciosoMillis;
+        this.maximoSessoes = maximoSessoes;
+    }
+    
+    /**
+     * Abre uma sessão para um usuário já autenticado
+     * @param usuario Usuário autenticado
+     * @return Token da sessão, ou null se o usuário for null ou o limite de sessões tiver sido atingido
+     */
+    public String abrir(Usuario usuario) {
+        if (usuario == null) {
+            return null;
+        }
+        
+        long agora = relogio.getAsLong();
+        expirarSePreciso(agora);
+        if (quantidade.incrementAndGet() > maximoSessoes) {
+            quantidade.decrementAndGet();
+            return null;
+        }
+        
+        Sessao sessao;
+        do {
+            sessao = new Sessao(gerarToken(), usuario, agora);
+        } while (sessoes.putIfAbsent(sessao.getToken(), sessao) != null);
+        
+        synchronized (roda) {
+            // Um encerramento concorrente logo após o putIfAbsent dispensa o agendamento
+            if (!sessao.isEncerrada()) {
+                sessao.agendamento = roda.agendar(sessao, agora + tempoOciosoMillis);
+            }
+        }
+        return sessao.getToken();
+    }
+    
+    /**
+     * Obtém a sessão de um token, registrando o acesso
+     * @param token Token da sessão
+     * @return Sessão ativa, ou null se o token não existir, tiver expirado ou o usuário estiver inativo
+     */
+    public Sessao buscar(String token) {
+        if (token == null) {
+            return null;
+        }
+        
+        long agora = relogio.getAsLong();
+        expirarSePreciso(agora);
+        Sessao sessao = sessoes.get(token);
+        if (sessao == null) {
+            return null;
+        }
+        // A roda pode ainda não ter chegado ao prazo: a inatividade é conferida aqui também
+        if (agora - sessao.getUltimoAcesso() >= tempoOciosoMillis || !sessao.getUsuario().isAtivo()) {
+            remover(sessao);
+            return null;
+        }
+        
+        sessao.setUltimoAcesso(agora);
+        return sessao;
+    }
+    
+    /**
+     * Obtém o usuário de um token, registrando o acesso
+     * @param token Token da sessão
+     * @return Usuário da sessão ativa, ou null se não houver
+     */
+    public Usuario buscarUsuario(String token) {
+        Sessao sessao = buscar(token);
+        return sessao == null ? null : sessao.getUsuario();
+    }
+    
+    /**
+     * Encerra a sessão de um token
+     * @param token Token da sessão
+     * @return true se a sessão existia e foi encerrada, false caso contrário
+     */
+    public boolean encerrar(String token) {
+        Sessao sessao = token == null ? null : sessoes.get(token);
+        return sessao != null && remover(sessao);
+    }
+    
+    /**
+     * Expira as sessões ociosas até o instante atual
+     * @return Quantidade de sessões encerradas por inatividade
+     */
+    public int expirar() {
+        long agora = relogio.getAsLong();
+        int[] encerradas = new int[1];
+        travaExpiracao.lock();
+        try {
+            synchronized (roda) {
+                roda.avancar(agora, sessao -> {
+                    if (verificarExpiracao(sessao, agora)) {
+                        encerradas[0]++;
+                    }
+                });
+            }
+        } finally {
+            travaExpiracao.unlock();
+        }
+        return encerradas[0];
+    }
+    
+    public int getQuantidadeSessoes() {
+        return quantidade.get();
+    }
+    
+    public long getTempoOciosoMillis() {
+        return tempoOciosoMillis;
+    }
+    
+    /**
+     * Avança a roda quando um tick tiver passado. Só uma thread por vez faz o
+     * trabalho; as demais seguem sem esperar.
+     */
+    private void expirarSePreciso(long agora) {
+        if (roda.precisaAvancar(agora) && travaExpiracao.tryLock()) {
+            try {
+                synchronized (roda) {
+                    roda.avancar(agora, sessao -> verificarExpiracao(sessao, agora));
+                }
+            } finally {
+                travaExpiracao.unlock();
+            }
+        }
+    }
+    
+    /**
+     * Encerra a sessão vencida ou a reagenda a partir do último acesso. Chamado com a trava da roda.
+     * @return true se a sessão foi encerrada por inatividade
+     */
+    private boolean verificarExpiracao(Sessao sessao, long agora) {
+        sessao.agendamento = RodaTemporal.SEM_AGENDAMENTO;
+        if (sessao.isEncerrada()) {
+            return false;
+        }
+        
+        long prazo = sessao.getUltimoAcesso() + tempoOciosoMillis;
+        if (prazo <= agora) {
+            return remover(sessao);
+        }
+        sessao.agendamento = roda.agendar(sessao, prazo);
+        return false;
+    }
+    
+    private boolean remover(Sessao sessao) {
+        if (!sessoes.remove(sessao.getToken(), sessao)) {
+            return false;
+        }
+        sessao.encerrar();
+        quantidade.decrementAndGet();
+        synchronized (roda) {
+            roda.cancelar(sessao.agendamento);
+            sessao.agendamento = RodaTemporal.SEM_AGENDAMENTO;
+        }
+        return true;
+    }
+    
+    private String gerarToken() {
+        byte[] bytes = new byte[BYTES_TOKEN];
+        aleatorio.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -0,0 +1,400 @@
+package com.sistema.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.sistema.model.Esterco;
+import com.sistema.model.Humus;
+import com.sistema.model.Muda;
+import com.sistema.model.Produto;
+
+/**
+ * Classe responsável pela importação em massa de catálogos de fornecedores.
+ * 
+ * O arquivo é mapeado em memória e dividido em pedaços terminados em fim de
+ * linha, interpretados em paralelo em um ForkJoinPool. Cada pedaço monta os
+ * produtos e os cadastra em lotes pelo Controlador, com uma única verificação
+ * de duplicidade (e um único fsync, se houver log) por lote.
+ * 
+ * Formato (UTF-8, campos separados por ';', cabeçalho opcional iniciado por "tipo"):
+ * <pre>
+ * MUDA;id;nome;descricao;preco;quantidade;especie;tempoMaturacao;tipoSolo
+ * HUMUS;id;nome;descricao;preco;quantidade;origem;pesoEmbalagem;composicaoNutricional
+ * ESTERCO;id;nome;descricao;preco;quantidade;tipoAnimal;pesoEmbalagem;processado;nivelAcidez
+ * </pre>
+ * Números decimais aceitam ponto ou vírgula. Linhas malformadas são rejeitadas
+ * e informadas no resultado, sem interromper a importação.
+ */
+public class ImportadorCatalogo {
+    private static final int TAMANHO_MINIMO_PEDACO = 256 * 1024;
+    private static final int PEDACOS_POR_THREAD = 4;
+    private static final int TAMANHO_LOTE = 4096;
+    private static final int LIMITE_ERROS = 100;
+    private static final int MAXIMO_CAMPOS = 10;
+    
+    private final Controlador controlador;
+    private final ForkJoinPool pool;
+    private final int tamanhoPedaco;
+    
+    /**
+     * Construtor padrão, que usa o pool comum do ForkJoin
+     */
+    public ImportadorCatalogo() {
+        this(ForkJoinPool.commonPool(), 0);
+    }
+    
+    /**
+     * Construtor com parâmetros
+     * 
+     * @param pool Pool em que os pedaços do arquivo são interpretados
+     * @param tamanhoPedaco Tamanho aproximado de cada pedaço em bytes (0 para calcular
+     *        a partir do tamanho do arquivo e do paralelismo do pool)
+     */
+    public ImportadorCatalogo(ForkJoinPool pool, int tamanhoPedaco) {
+        this.controlador = Controlador.getInstancia();
+        this.pool = pool;
+        this.tamanhoPedaco = tamanhoPedaco;
+    }
+    
+    /**
+     * Importa um arquivo de catálogo
+     * @param arquivo Caminho do arquivo CSV
+     * @return Resultado com as quantidades importadas, as rejeições e a vazão
+     * @throws IOException Se o arquivo não puder ser lido ou tiver mais de 2 GB
+     */
+    public ResultadoImportacao importar(Path arquivo) throws IOException {
+        long inicio = System.nanoTime();
+        MappedByteBuffer conteudo;
+        
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            if (canal.size() > Integer.MAX_VALUE) {
+                throw new IOException("Arquivo muito grande para importação: " + arquivo);
+            }
+            conteudo = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+        }
+        
+        int[] limites = dividir(conteudo);
+        Pedaco[] pedacos = new Pedaco[limites.length - 1];
+        for (int i = 0; i < pedacos.length; i++) {
+            pedacos[i] = new Pedaco(conteudo, limites[i], limites[i + 1], i == 0);
+        }
+        pool.invoke(new TarefaImportacao(pedacos, 0, pedacos.length));
+        
+        // Junta os resultados, convertendo os números de linha locais de cada pedaço
+        long lidas = 0;
+        long importados = 0;
+        long duplicados = 0;
+        long rejeitadas = 0;
+        long linhasAnteriores = 0;
+        List<String> erros = new ArrayList<>();
+        
+        for (Pedaco pedaco : pedacos) {
+            lidas += pedaco.lidas;
+            importados += pedaco.importados;
+            duplicados += pedaco.duplicados;
+            rejeitadas += pedaco.rejeitadas;
+            for (int i = 0; i < pedaco.linhasComErro.size() && erros.size() < LIMITE_ERROS; i++) {
+                erros.add("Linha " + (linhasAnteriores + pedaco.linhasComErro.get(i)) + ": " + pedaco.erros.get(i));
+            }
+            linhasAnteriores += pedaco.linhas;
+        }
+        
+        return new ResultadoImportacao(lidas, importados, duplicados, rejeitadas, erros, System.nanoTime() - inicio);
+    }
+    
+    /**
+     * Divide o conteúdo em pedaços que começam e terminam em limites de linha
+     * @return Posições de início de cada pedaço seguidas do fim do conteúdo
+     */
+    private int[] dividir(ByteBuffer conteudo) {
+        int tamanho = conteudo.limit();
+        int alvo = tamanhoPedaco > 0 ? tamanhoPedaco
+                   : Math.max(TAMANHO_MINIMO_PEDACO, tamanho / (pool.getParallelism() * PEDACOS_POR_THREAD));
+        List<Integer> limites = new ArrayList<>();
+        int posicao = 0;
+        
+        limites.add(0);
+        while (posicao < tamanho) {
+            posicao = (int) Math.min(tamanho, (long) posicao + alvo);
+            while (posicao < tamanho && conteudo.get(posicao - 1) != '\n') {
+                posicao++;
+            }
+            limites.add(posicao);
+        }
+        
+        int[] resultado = new int[limites.size()];
+        for (int i = 0; i < resultado.length; i++) {
+            resultado[i] = limites.get(i);
+        }
+        return resultado;
+    }
+    
+    /**
+     * Divide recursivamente a lista de pedaços entre as threads do pool
+     */
+    private static final class TarefaImportacao extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        
+        private final Pedaco[] pedacos;
+        private final int inicio;
+        private final int fim;
+        
+        TarefaImportacao(Pedaco[] pedacos, int inicio, int fim) {
+            this.pedacos = pedacos;
+            this.inicio = inicio;
+            this.fim = fim;
+        }
+        
+        @Override
+        protected void compute() {
+            if (fim - inicio <= 1) {
+                if (fim > inicio) {
+                    pedacos[inicio].processar();
+                }
+                return;
+            }
+            int meio = (inicio + fim) >>> 1;
+            invokeAll(new TarefaImportacao(pedacos, inicio, meio), new TarefaImportacao(pedacos, meio, fim));
+        }
+    }
+    
+    /**
+     * Trecho do arquivo interpretado por uma única thread
+     */
+    private final class Pedaco {
+        private final ByteBuffer conteudo;
+        private final int inicio;
+        private final int fim;
+        private final boolean primeiro;
+        private final Produto[] lote;
+        private final int[] campos;
+        private byte[] linha;
+        private int quantidadeLote;
+        
+        private long linhas;
+        private long lidas;
+        private long importados;
+        private long duplicados;
+        private long rejeitadas;
+        private final List<Long> linhasComErro;
+        private final List<String> erros;
+        
+        Pedaco(ByteBuffer conteudo, int inicio, int fim, boolean primeiro) {
+            this.conteudo = conteudo.duplicate();
+            this.inicio = inicio;
+            this.fim = fim;
+            this.primeiro = primeiro;
+            this.lote = new Produto[TAMANHO_LOTE];
+            this.campos = new int[MAXIMO_CAMPOS + 1];
+            this.linha = new byte[256];
+            this.linhasComErro = new ArrayList<>();
+            this.erros = new ArrayList<>();
+        }
+        
+        void processar() {
+            int posicao = inicio;
+            
+            while (posicao < fim) {
+                int fimLinha = posicao;
+                while (fimLinha < fim && conteudo.get(fimLinha) != '\n') {
+                    fimLinha++;
+                }
+                int tamanho = fimLinha - posicao;
+                if (tamanho > 0 && conteudo.get(fimLinha - 1) == '\r') {
+                    tamanho--;
+                }
+                
+                if (linha.length < tamanho) {
+                    linha = new byte[Math.max(tamanho, linha.length * 2)];
+                }
+                conteudo.get(posicao, linha, 0, tamanho);
+                posicao = fimLinha + 1;
+                linhas++;
+                
+                if (tamanho == 0 || (primeiro && linhas == 1 && isCabecalho(tamanho))) {
+                    continue;
+                }
+                
+                lidas++;
+                try {
+                    Produto produto = interpretar(tamanho);
+                    lote[quantidadeLote++] = produto;
+                    if (quantidadeLote == TAMANHO_LOTE) {
+                        cadastrarLote();
+                    }
+                } catch (IllegalArgumentException e) {
+                    rejeitadas++;
+                    if (erros.size() < LIMITE_ERROS) {
+                        linhasComErro.add(linhas);
+                        erros.add(e.getMessage());
+                    }
+                }
+            }
+            
+            cadastrarLote();
+        }
+        
+        private void cadastrarLote() {
+            if (quantidadeLote > 0) {
+                int cadastrados = controlador.cadastrarProdutos(lote, quantidadeLote);
+                importados += cadastrados;
+                duplicados += quantidadeLote - cadastrados;
+                Arrays.fill(lote, 0, quantidadeLote, null);
+                quantidadeLote = 0;
+            }
+        }
+        
+        private boolean isCabecalho(int tamanho) {
+            return tamanho >= 4 && texto(0, 4).equalsIgnoreCase("tipo");
+        }
+        
+        /**
+         * Interpreta a linha atual e monta o produto correspondente
+         * @throws IllegalArgumentException Se a linha estiver malformada
+         */
+        private Produto interpretar(int tamanho) {
+            int quantidadeCampos = separar(tamanho);
+            String tipo = campo(0).toUpperCase(Locale.ROOT);
+            int esperados = tipo.equals("ESTERCO") ? 10 : 9;
+            
+            if (!tipo.equals("MUDA") && !tipo.equals("HUMUS") && !tipo.equals("HÚMUS") && !tipo.equals("ESTERCO")) {
+                throw new IllegalArgumentException("tipo de produto desconhecido: " + campo(0));
+            }
+            if (quantidadeCampos != esperados) {
+                throw new IllegalArgumentException("esperados " + esperados + " campos, encontrados " + quantidadeCampos);
+            }
+            
+            int id = inteiro(1, "id");
+            String nome = campo(2);
+            String descricao = campo(3);
+            double preco = decimal(4, "preco");
+            int quantidade = inteiro(5, "quantidade");
+            if (id <= 0 || preco < 0 || quantidade < 0) {
+                throw new IllegalArgumentException("id, preço e quantidade devem ser positivos");
+            }
+            
+            switch (tipo) {
+                case "MUDA":
+                    return new Muda(id, nome, descricao, preco, quantidade, campo(6),
+                                    inteiro(7, "tempoMaturacao"), campo(8));
+                case "ESTERCO":
+                    return new Esterco(id, nome, descricao, preco, quantidade, campo(6),
+                                       decimal(7, "pesoEmbalagem"), logico(8, "processado"), campo(9));
+                default:
+                    return new Humus(id, nome, descricao, preco, quantidade, campo(6),
+                                     decimal(7, "pesoEmbalagem"), campo(8));
+            }
+        }
+        
+        /**
+         * Localiza os separadores da linha; o campo i vai de campos[i] até campos[i + 1] - 1
+         * @return Quantidade de campos (MAXIMO_CAMPOS + 1 se houver campos a mais)
+         */
+        private int separar(int tamanho) {
+            int quantidade = 0;
+            campos[0] = 0;
+            for (int i = 0; i < tamanho; i++) {
+                if (linha[i] == ';') {
+                    if (++quantidade == MAXIMO_CAMPOS) {
+                        return MAXIMO_CAMPOS + 1;
+                    }
+                    campos[quantidade] = i + 1;
+                }
+            }
+            campos[++quantidade] = tamanho + 1;
+            return quantidade;
+        }
+        
+        private String campo(int indice) {
+            return texto(campos[indice], campos[indice + 1] - 1);
+        }
+        
+        private String texto(int inicio, int fim) {
+            return new String(linha, inicio, fim - inicio, StandardCharsets.UTF_8);
+        }
+        
+        private int inteiro(int indice, String nome) {
+            int inicio = campos[indice];
+            int fim = campos[indice + 1] - 1;
+            boolean negativo = inicio < fim && linha[inicio] == '-';
+            long valor = 0;
+            
+            for (int i = negativo ? inicio + 1 : inicio; i < fim; i++) {
+                int digito = linha[i] - '0';
+                if (digito < 0 || digito > 9 || valor > Integer.MAX_VALUE) {
+                    throw campoInvalido(indice, nome);
+                }
+                valor = valor * 10 + digito;
+            }
+            if (fim == (negativo ? inicio + 1 : inicio) || valor > Integer.MAX_VALUE) {
+                throw campoInvalido(indice, nome);
+            }
+            return (int) (negativo ? -valor : valor);
+        }
+        
+        /**
+         * Lê um decimal sem expoente, com ponto ou vírgula, sem criar texto intermediário
+         */
+        private double decimal(int indice, String nome) {
+            int inicio = campos[indice];
+            int fim = campos[indice + 1] - 1;
+            boolean negativo = inicio < fim && linha[inicio] == '-';
+            long mantissa = 0;
+            int casas = -1;
+            int digitos = 0;
+            
+            for (int i = negativo ? inicio + 1 : inicio; i < fim; i++) {
+                byte b = linha[i];
+                if ((b == '.' || b == ',') && casas < 0) {
+                    casas = 0;
+                } else if (b >= '0' && b <= '9' && digitos < 18) {
+                    mantissa = mantissa * 10 + (b - '0');
+                    digitos++;
+                    if (casas >= 0) {
+                        casas++;
+                    }
+                } else {
+                    throw campoInvalido(indice, nome);
+                }
+            }
+            if (digitos == 0) {
+                throw campoInvalido(indice, nome);
+            }
+            
+            double valor = casas > 0 ? mantissa / Math.pow(10, casas) : mantissa;
+            return negativo ? -valor : valor;
+        }
+        
+        private boolean logico(int indice, String nome) {
+            String valor = campo(indice).toLowerCase(Locale.ROOT);
+            switch (valor) {
+                case "true":
+                case "sim":
+                case "1":
+                    return true;
+                case "false":
+                case "não":
+                case "nao":
+                case "0":
+                    return false;
+                default:
+                    throw campoInvalido(indice, nome);
+            }
+        }
+        
+        private IllegalArgumentException campoInvalido(int indice, String nome) {
+            return new IllegalArgumentException("campo " + nome + " inválido: '" + campo(indice) + "'");
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.sistema.service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.sistema.model.ResultadoLote;
+import com.sistema.model.StatusItemVenda;
+import com.sistema.util.HistogramaLatencia;
+
+/**
+ * Métricas das operações do Controlador: contadores de sucesso e falha,
+ * histogramas de latência e motivos de rejeição das vendas.
+ * 
+ * Todos os contadores são LongAdder e os histogramas não usam travas, de modo
+ * que várias threads registram sem disputar a mesma linha de cache. Como cada
+ * leitura do relógio custa dezenas de nanossegundos, as operações frequentes
+ * (ver Operacao.isFrequente()) têm a latência medida em apenas uma a cada N
+ * chamadas, escolhidas ao acaso; os contadores sempre contam todas as chamadas.
+ */
+public class MetricasControlador {
+    private static final int INTERVALO_AMOSTRAGEM_PADRAO = 16;
+    // Valores sentinela devolvidos por iniciar() no lugar do instante de início
+    private static final long SEM_MEDICAO = Long.MIN_VALUE;
+    private static final long SEM_AMOSTRA = Long.MIN_VALUE + 1;
+    
+    private static final Operacao[] OPERACOES = Operacao.values();
+    private static final StatusItemVenda[] STATUS = StatusItemVenda.values();
+    
+    private final HistogramaLatencia[] latencias;
+    private final LongAdder[] sucessos;
+    private final LongAdder[] falhas;
+    private final LongAdder[] rejeicoesVenda;
+    private volatile boolean ativo;
+    private volatile int mascaraAmostragem;
+    private volatile long inicioNanos;
+    
+    /**
+     * Construtor padrão, com as métricas ativas
+     */
+    public MetricasControlador() {
+        this.latencias = new HistogramaLatencia[OPERACOES.length];
+        this.sucessos = new LongAdder[OPERACOES.length];
+        this.falhas = new LongAdder[OPERACOES.length];
+        for (int i = 0; i < OPERACOES.length; i++) {
+            latencias[i] = new HistogramaLatencia();
+            sucessos[i] = new LongAdder();
+            falhas[i] = new LongAdder();
+        }
+        
+        this.rejeicoesVenda = new LongAdder[STATUS.length];
+        for (int i = 0; i < STATUS.length; i++) {
+            rejeicoesVenda[i] = new LongAdder();
+        }
+        
+        this.ativo = true;
+        this.mascaraAmostragem = INTERVALO_AMOSTRAGEM_PADRAO - 1;
+        this.inicioNanos = System.nanoTime();
+    }
+    
+    /**
+     * Marca o início de uma operação
+     * @param operacao Operação iniciada
+     * @return Valor a ser repassado para concluir()
+     */
+    long iniciar(Operacao operacao) {
+        if (!ativo) {
+            return SEM_MEDICAO;
+        }
+        if (operacao.isFrequente() && (ThreadLocalRandom.current().nextInt() & mascaraAmostragem) != 0) {
+            return SEM_AMOSTRA;
+        }
+        return System.nanoTime();
+    }
+    
+    /**
+     * Registra o término de uma operação
+     * @param operacao Operação concluída
+     * @param inicio Valor devolvido por iniciar()
+     * @param sucesso Indica se a operação foi bem-sucedida
+     */
+    void concluir(Operacao operacao, long inicio, boolean sucesso) {
+        if (inicio == SEM_MEDICAO) {
+            return;
+        }
+        
+        int indice = operacao.ordinal();
+        if (inicio != SEM_AMOSTRA) {
+            latencias[indice].registrar(System.nanoTime() - inicio);
+        }
+        (sucesso ? sucessos : falhas)[indice].increment();
+    }
+    
+    /**
+     * Registra o término de uma venda, contabilizando o motivo em caso de rejeição
+     * @param operacao Operação de venda concluída
+     * @param inicio Valor devolvido por iniciar()
+     * @param status Situação da venda
+     */
+    void concluirVenda(Operacao operacao, long inicio, StatusItemVenda status) {
+        if (inicio == SEM_MEDICAO) {
+            return;
+        }
+        
+        concluir(operacao, inicio, status == StatusItemVenda.VENDIDO);
+        // CANCELADO indica que a venda foi interrompida por uma exceção, sem motivo de negócio
+        if (status != StatusItemVenda.VENDIDO && status != StatusItemVenda.CANCELADO) {
+            rejeicoesVenda[status.ordinal()].increment();
+        }
+    }
+    
+    /**
+     * Registra o término de uma venda em lote, contabilizando o motivo de cada linha rejeitada
+     * @param inicio Valor devolvido por iniciar()
+     * @param resultado Resultado do lote
+     */
+    void concluirLote(long inicio, ResultadoLote resultado) {
+        if (inicio == SEM_MEDICAO) {
+            return;
+        }
+        
+        concluir(Operacao.REALIZAR_VENDAS_EM_LOTE, inicio, resultado.isSucesso());
+        if (!resultado.isSucesso()) {
+            for (int i = 0; i < resultado.getQuantidadeLinhas(); i++) {
+                StatusItemVenda status = resultado.getStatus(i);
+                if (status != StatusItemVenda.VENDIDO && status != StatusItemVenda.CANCELADO) {
+                    rejeicoesVenda[status.ordinal()].increment();
+                }
+            }
+        }
+    }
+    
+    /**
+     * Gera um resumo das métricas acumuladas desde a criação ou a última chamada a reiniciar().
+     * Os valores são lidos sem interromper as operações em andamento, portanto
+     * registros concorrentes podem aparecer em parte dos contadores.
+     * @return Resumo imutável das métricas
+     */
+    public ResumoMetricas resumir() {
+        long duracaoNanos = System.nanoTime() - inicioNanos;
+        double segundos = Math.max(duracaoNanos, 1) / 1_000_000_000.0;
+        
+        Map<Operacao, ResumoOperacao> operacoes = new EnumMap<>(Operacao.class);
+        for (Operacao operacao : OPERACOES) {
+            int i = operacao.ordinal();
+            HistogramaLatencia latencia = latencias[i];
+            long totalSucessos = sucessos[i].sum();
+            long totalFalhas = falhas[i].sum();
+            operacoes.put(operacao, new ResumoOperacao(operacao, totalSucessos, totalFalhas,
+                    latencia.getContagem(), latencia.percentil(50), latencia.percentil(99),
+                    latencia.percentil(99.9), latencia.getMaximo(), latencia.getMedia(),
+                    (totalSucessos + totalFalhas) / segundos));
+        }
+        
+        Map<StatusItemVenda, Long> rejeicoes = new EnumMap<>(StatusItemVenda.class);
+        for (StatusItemVenda status : STATUS) {
+            long total = rejeicoesVenda[status.ordinal()].sum();
+            if (total > 0) {
+                rejeicoes.put(status, total);
+            }
+        }
+        
+        return new ResumoMetricas(duracaoNanos, operacoes, rejeicoes);
+    }
+    
+    /**
+     * Zera todas as métricas e reinicia a contagem do tempo usado nas vazões
+     */
+    public void reiniciar() {
+        for (int i = 0; i < OPERACOES.length; i++) {
+            latencias[i].limpar();
+            sucessos[i].reset();
+            falhas[i].reset();
+        }
+        for (LongAdder rejeicoes : rejeicoesVenda) {
+            rejeicoes.reset();
+        }
+        inicioNanos = System.nanoTime();
+    }
+    
+    // Getters e Setters
+    
+    public boolean isAtivo() {
+        return ativo;
+    }
+    
+    public void setAtivo(boolean ativo) {
+        this.ativo = ativo;
+    }
+    
+    public int getIntervaloAmostragem() {
+        return mascaraAmostragem + 1;
+    }
+    
+    /**
+     * Define de quantas em quantas chamadas as operações frequentes têm a latência medida
+     * @param intervalo Potência de dois maior ou igual a 1 (1 mede todas as chamadas)
+     * @return true se o intervalo foi aceito, false caso contrário
+     */
+    public boolean setIntervaloAmostragem(int intervalo) {
+        if (intervalo < 1 || Integer.bitCount(intervalo) != 1) {
+            return false;
+        }
+        this.mascaraAmostragem = intervalo - 1;
+        return true;
+    }
+}
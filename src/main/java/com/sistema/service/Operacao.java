@@ -0,0 +1,39 @@
+package com.sistema.service;
+
+/**
+ * Operações públicas do Controlador acompanhadas pelas métricas.
+ * As operações frequentes têm a latência amostrada, para que a medição
+ * do tempo não pese no caminho crítico; as demais são sempre medidas.
+ */
+public enum Operacao {
+    LOGIN(true),
+    LOGOUT(true),
+    INICIAR_SESSAO(true),
+    ENCERRAR_SESSAO(true),
+    CADASTRAR_USUARIO(false),
+    CADASTRAR_USUARIOS(false),
+    CADASTRAR_PRODUTO(false),
+    CADASTRAR_PRODUTOS(false),
+    REMOVER_PRODUTO(false),
+    ATUALIZAR_ESTOQUE(true),
+    REALIZAR_VENDA(true),
+    REALIZAR_VENDAS_EM_LOTE(true),
+    BUSCAR_PRODUTO(true),
+    BUSCAR_USUARIO(true),
+    LISTAR_PRODUTOS(false),
+    LISTAR_PRODUTOS_EM_ESTOQUE(false),
+    LISTAR_USUARIOS(false),
+    VERIFICAR_DISPONIBILIDADE(true),
+    GERAR_RELATORIO_ESTOQUE(false),
+    GERAR_RELATORIO_VENDAS(false);
+    
+    private final boolean frequente;
+    
+    Operacao(boolean frequente) {
+        this.frequente = frequente;
+    }
+    
+    public boolean isFrequente() {
+        return frequente;
+    }
+}
@@ -0,0 +1,79 @@
+package com.sistema.service;
+
+import com.sistema.model.Produto;
+import com.sistema.model.Reserva;
+import com.sistema.util.RodaTemporal;
+
+/**
+ * Reserva temporária de unidades de um produto, feita ao colocá-lo em um carrinho.
+ * As unidades reservadas continuam no estoque, mas deixam de estar disponíveis
+ * para outros compradores até a compra, a liberação ou o fim do prazo.
+ * 
+ * Os campos são alterados apenas pelo GerenciadorReservas, com a trava da roda temporal
+ * da partição da reserva.
+ */
+public class ReservaEstoque implements Reserva {
+    private final Produto produto;
+    // Partição do GerenciadorReservas que agenda a reserva
+    final int particao;
+    private volatile int quantidade;
+    private volatile long prazo;
+    private volatile boolean encerrada;
+    // Agendamento atual na roda temporal, alterado apenas com a trava da roda
+    long agendamento;
+    
+    /**
+     * Construtor com parâmetros
+     * 
+     * @param produto Produto reservado
+     * @param quantidade Quantidade reservada
+     * @param prazo Instante de expiração em milissegundos
+     * @param particao Partição do GerenciadorReservas que agenda a reserva
+     */
+    ReservaEstoque(Produto produto, int quantidade, long prazo, int particao) {
+        this.produto = produto;
+        this.particao = particao;
+        this.quantidade = quantidade;
+        this.prazo = prazo;
+        this.agendamento = RodaTemporal.SEM_AGENDAMENTO;
+    }
+    
+    // Getters e Setters
+    
+    @Override
+    public Produto getProduto() {
+        return produto;
+    }
+    
+    @Override
+    public int getQuantidade() {
+        return quantidade;
+    }
+    
+    void setQuantidade(int quantidade) {
+        this.quantidade = quantidade;
+    }
+    
+    public long getPrazo() {
+        return prazo;
+    }
+    
+    void setPrazo(long prazo) {
+        this.prazo = prazo;
+    }
+    
+    @Override
+    public boolean isEncerrada() {
+        return encerrada;
+    }
+    
+    void setEncerrada(boolean encerrada) {
+        this.encerrada = encerrada;
+    }
+    
+    @Override
+    public String toString() {
+        return "ReservaEstoque [produto=" + produto.getId() + ", quantidade=" + quantidade + ", prazo=" + prazo
+               + ", encerrada=" + encerrada + "]";
+    }
+}
@@ -0,0 +1,103 @@
+package com.sistema.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resultado de um cadastro de usuários em lote, com a situação de cada linha.
+ * Ao contrário da venda em lote, as linhas válidas são cadastradas mesmo que outras falhem.
+ */
+public class ResultadoCadastroUsuarios {
+    private final StatusCadastroUsuario[] status;
+    private final String[] emails;
+    private final int cadastrados;
+    private final long duracaoNanos;
+    
+    /**
+     * Construtor com parâmetros
+     * 
+     * @param status Situação de cada linha, na ordem do lote
+     * @param emails Email informado em cada linha (null se ausente)
+     * @param cadastrados Quantidade de usuários cadastrados
+     * @param duracaoNanos Duração do cadastro em nanossegundos
+     */
+    public ResultadoCadastroUsuarios(StatusCadastroUsuario[] status, String[] emails, int cadastrados, long duracaoNanos) {
+        this.status = status;
+        this.emails = emails;
+        this.cadastrados = cadastrados;
+        this.duracaoNanos = duracaoNanos;
+    }
+    
+    /**
+     * Obtém a situação de uma linha do lote
+     * 
+     * @param linha Índice da linha, na ordem do lote
+     * @return Situação da linha
+     */
+    public StatusCadastroUsuario getStatus(int linha) {
+        return status[linha];
+    }
+    
+    /**
+     * Conta as linhas com uma determinada situação
+     * 
+     * @param situacao Situação procurada
+     * @return Quantidade de linhas
+     */
+    public int contar(StatusCadastroUsuario situacao) {
+        int total = 0;
+        for (StatusCadastroUsuario s : status) {
+            if (s == situacao) {
+                total++;
+            }
+        }
+        return total;
+    }
+    
+    /**
+     * Gera o relatório das linhas rejeitadas, uma entrada por linha no formato
+     * "Linha N: motivo (email)", com as linhas numeradas a partir de 1
+     * 
+     * @return Lista com as linhas rejeitadas, na ordem do lote
+     */
+    public List<String> getErros() {
+        List<String> erros = new ArrayList<>(status.length - cadastrados);
+        for (int i = 0; i < status.length; i++) {
+            if (status[i] != StatusCadastroUsuario.CADASTRADO) {
+                erros.add("Linha " + (i + 1) + ": " + status[i].getDescricao()
+                          + (emails[i] != null ? " (" + emails[i] + ")" : ""));
+            }
+        }
+        return erros;
+    }
+    
+    /**
+     * Calcula a vazão do cadastro
+     * @return Linhas processadas por segundo
+     */
+    public double getLinhasPorSegundo() {
+        return duracaoNanos == 0 ? 0 : status.length * 1_000_000_000.0 / duracaoNanos;
+    }
+    
+    public int getQuantidadeLinhas() {
+        return status.length;
+    }
+    
+    public int getCadastrados() {
+        return cadastrados;
+    }
+    
+    public int getRejeitados() {
+        return status.length - cadastrados;
+    }
+    
+    public long getDuracaoNanos() {
+        return duracaoNanos;
+    }
+    
+    @Override
+    public String toString() {
+        return "ResultadoCadastroUsuarios [linhas=" + status.length + ", cadastrados=" + cadastrados
+               + ", rejeitados=" + getRejeitados() + "]";
+    }
+}
@@ -0,0 +1,78 @@
+package com.sistema.service;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resultado da importação de um catálogo de produtos.
+ * Linhas malformadas são rejeitadas individualmente, sem interromper a importação.
+ */
+public class ResultadoImportacao {
+    private final long linhasLidas;
+    private final long produtosImportados;
+    private final long produtosDuplicados;
+    private final long linhasRejeitadas;
+    private final List<String> erros;
+    private final long duracaoNanos;
+    
+    /**
+     * Construtor com parâmetros
+     * 
+     * @param linhasLidas Quantidade de linhas de dados lidas (sem cabeçalho e linhas vazias)
+     * @param produtosImportados Quantidade de produtos cadastrados
+     * @param produtosDuplicados Quantidade de produtos ignorados por ID já existente
+     * @param linhasRejeitadas Quantidade de linhas malformadas
+     * @param erros Descrição das primeiras linhas rejeitadas, com o número da linha
+     * @param duracaoNanos Duração da importação em nanossegundos
+     */
+    public ResultadoImportacao(long linhasLidas, long produtosImportados, long produtosDuplicados,
+                               long linhasRejeitadas, List<String> erros, long duracaoNanos) {
+        this.linhasLidas = linhasLidas;
+        this.produtosImportados = produtosImportados;
+        this.produtosDuplicados = produtosDuplicados;
+        this.linhasRejeitadas = linhasRejeitadas;
+        this.erros = Collections.unmodifiableList(erros);
+        this.duracaoNanos = duracaoNanos;
+    }
+    
+    /**
+     * Calcula a vazão da importação
+     * @return Linhas lidas por segundo
+     */
+    public double getLinhasPorSegundo() {
+        return duracaoNanos == 0 ? 0 : linhasLidas * 1_000_000_000.0 / duracaoNanos;
+    }
+    
+    // Getters
+    
+    public long getLinhasLidas() {
+        return linhasLidas;
+    }
+    
+    public long getProdutosImportados() {
+        return produtosImportados;
+    }
+    
+    public long getProdutosDuplicados() {
+        return produtosDuplicados;
+    }
+    
+    public long getLinhasRejeitadas() {
+        return linhasRejeitadas;
+    }
+    
+    public List<String> getErros() {
+        return erros;
+    }
+    
+    public long getDuracaoNanos() {
+        return duracaoNanos;
+    }
+    
+    @Override
+    public String toString() {
+        return "ResultadoImportacao [linhasLidas=" + linhasLidas + ", produtosImportados=" + produtosImportados
+               + ", produtosDuplicados=" + produtosDuplicados + ", linhasRejeitadas=" + linhasRejeitadas
+               + ", linhasPorSegundo=" + String.format("%.0f", getLinhasPorSegundo()) + "]";
+    }
+}
@@ -0,0 +1,82 @@
+package com.sistema.service;
+
+import java.util.Collections;
+import java.util.Map;
+
+import com.sistema.model.StatusItemVenda;
+
+/**
+ * Fotografia imutável das métricas do Controlador em um instante.
+ */
+public class ResumoMetricas {
+    private final long duracaoNanos;
+    private final Map<Operacao, ResumoOperacao> operacoes;
+    private final Map<StatusItemVenda, Long> rejeicoesVenda;
+    
+    /**
+     * Construtor com parâmetros
+     * 
+     * @param duracaoNanos Duração do período medido
+     * @param operacoes Resumo de cada operação
+     * @param rejeicoesVenda Linhas de venda rejeitadas por motivo
+     */
+    public ResumoMetricas(long duracaoNanos, Map<Operacao, ResumoOperacao> operacoes,
+                          Map<StatusItemVenda, Long> rejeicoesVenda) {
+        this.duracaoNanos = duracaoNanos;
+        this.operacoes = Collections.unmodifiableMap(operacoes);
+        this.rejeicoesVenda = Collections.unmodifiableMap(rejeicoesVenda);
+    }
+    
+    /**
+     * Obtém o resumo de uma operação
+     * @param operacao Operação desejada
+     * @return Resumo da operação
+     */
+    public ResumoOperacao getOperacao(Operacao operacao) {
+        return operacoes.get(operacao);
+    }
+    
+    /**
+     * Obtém quantas linhas de venda foram rejeitadas por um motivo
+     * @param motivo Situação da linha rejeitada
+     * @return Quantidade de rejeições
+     */
+    public long getRejeicoesVenda(StatusItemVenda motivo) {
+        Long total = rejeicoesVenda.get(motivo);
+        return total == null ? 0 : total;
+    }
+    
+    public long getDuracaoNanos() {
+        return duracaoNanos;
+    }
+    
+    public Map<Operacao, ResumoOperacao> getOperacoes() {
+        return operacoes;
+    }
+    
+    /**
+     * Gera um relatório com as operações chamadas no período
+     * @return Relatório de métricas em formato de texto
+     */
+    @Override
+    public String toString() {
+        StringBuilder relatorio = new StringBuilder();
+        relatorio.append("=== MÉTRICAS DO CONTROLADOR ===\n");
+        relatorio.append(String.format("Período: %.1f s%n", duracaoNanos / 1_000_000_000.0));
+        
+        for (ResumoOperacao resumo : operacoes.values()) {
+            if (resumo.getChamadas() > 0) {
+                relatorio.append(resumo).append("\n");
+            }
+        }
+        
+        if (!rejeicoesVenda.isEmpty()) {
+            relatorio.append("Vendas rejeitadas:\n");
+            for (Map.Entry<StatusItemVenda, Long> entrada : rejeicoesVenda.entrySet()) {
+                relatorio.append("- ").append(entrada.getKey()).append(": ").append(entrada.getValue()).append("\n");
+            }
+        }
+        
+        return relatorio.toString();
+    }
+}
@@ -0,0 +1,107 @@
+package com.sistema.service;
+
+/**
+ * Resumo imutável das métricas de uma operação do Controlador.
+ * As latências são em nanossegundos e calculadas sobre as chamadas amostradas.
+ */
+public class ResumoOperacao {
+    private final Operacao operacao;
+    private final long sucessos;
+    private final long falhas;
+    private final long amostras;
+    private final long p50;
+    private final long p99;
+    private final long p999;
+    private final long maximo;
+    private final double media;
+    private final double chamadasPorSegundo;
+    
+    /**
+     * Construtor com parâmetros
+     * 
+     * @param operacao Operação resumida
+     * @param sucessos Chamadas bem-sucedidas
+     * @param falhas Chamadas que falharam
+     * @param amostras Chamadas com latência medida
+     * @param p50 Mediana da latência em nanossegundos
+     * @param p99 Percentil 99 da latência em nanossegundos
+     * @param p999 Percentil 99,9 da latência em nanossegundos
+     * @param maximo Maior latência medida em nanossegundos
+     * @param media Latência média em nanossegundos
+     * @param chamadasPorSegundo Vazão de chamadas no período
+     */
+    public ResumoOperacao(Operacao operacao, long sucessos, long falhas, long amostras, long p50, long p99,
+                          long p999, long maximo, double media, double chamadasPorSegundo) {
+        this.operacao = operacao;
+        this.sucessos = sucessos;
+        this.falhas = falhas;
+        this.amostras = amostras;
+        this.p50 = p50;
+        this.p99 = p99;
+        this.p999 = p999;
+        this.maximo = maximo;
+        this.media = media;
+        this.chamadasPorSegundo = chamadasPorSegundo;
+    }
+    
+    public long getChamadas() {
+        return sucessos + falhas;
+    }
+    
+    /**
+     * Calcula a fração de chamadas que falharam
+     * @return Valor entre 0 e 1, ou 0 se não houve chamadas
+     */
+    public double getTaxaFalhas() {
+        long chamadas = getChamadas();
+        return chamadas == 0 ? 0 : (double) falhas / chamadas;
+    }
+    
+    // Getters
+    
+    public Operacao getOperacao() {
+        return operacao;
+    }
+    
+    public long getSucessos() {
+        return sucessos;
+    }
+    
+    public long getFalhas() {
+        return falhas;
+    }
+    
+    public long getAmostras() {
+        return amostras;
+    }
+    
+    public long getP50() {
+        return p50;
+    }
+    
+    public long getP99() {
+        return p99;
+    }
+    
+    public long getP999() {
+        return p999;
+    }
+    
+    public long getMaximo() {
+        return maximo;
+    }
+    
+    public double getMedia() {
+        return media;
+    }
+    
+    public double getChamadasPorSegundo() {
+        return chamadasPorSegundo;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%-26s chamadas=%d falhas=%d vazao=%.1f/s p50=%dns p99=%dns p999=%dns max=%dns",
+                operacao, getChamadas(), falhas, chamadasPorSegundo, p50, p99, p999, maximo);
+    }
+}
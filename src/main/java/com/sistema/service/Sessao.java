@@ -0,0 +1,68 @@
+package com.sistema.service;
+
+import com.sistema.model.Usuario;
+import com.sistema.util.RodaTemporal;
+
+/**
+ * Sessão de um usuário conectado, identificada por um token opaco.
+ * O instante do último acesso é atualizado a cada uso do token e define a expiração por inatividade.
+ */
+public class Sessao {
+    private final String token;
+    private final Usuario usuario;
+    private final long criadaEm;
+    private volatile long ultimoAcesso;
+    private volatile boolean encerrada;
+    // Agendamento atual na roda temporal, alterado apenas com a trava da roda
+    long agendamento;
+    
+    /**
+     * Construtor com parâmetros
+     * 
+     * @param token Token que identifica a sessão
+     * @param usuario Usuário autenticado
+     * @param criadaEm Instante de criação em milissegundos
+     */
+    Sessao(String token, Usuario usuario, long criadaEm) {
+        this.token = token;
+        this.usuario = usuario;
+        this.criadaEm = criadaEm;
+        this.ultimoAcesso = criadaEm;
+        this.agendamento = RodaTemporal.SEM_AGENDAMENTO;
+    }
+    
+    // Getters e Setters
+    
+    public String getToken() {
+        return token;
+    }
+    
+    public Usuario getUsuario() {
+        return usuario;
+    }
+    
+    public long getCriadaEm() {
+        return criadaEm;
+    }
+    
+    public long getUltimoAcesso() {
+        return ultimoAcesso;
+    }
+    
+    void setUltimoAcesso(long ultimoAcesso) {
+        this.ultimoAcesso = ultimoAcesso;
+    }
+    
+    public boolean isEncerrada() {
+        return encerrada;
+    }
+    
+    void encerrar() {
+        this.encerrada = true;
+    }
+    
+    @Override
+    public String toString() {
+        return "Sessao [usuario=" + usuario.getEmail() + ", criadaEm=" + criadaEm + ", ultimoAcesso=" + ultimoAcesso + "]";
+    }
+}
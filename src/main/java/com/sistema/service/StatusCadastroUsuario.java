@@ -0,0 +1,29 @@
+package com.sistema.service;
+
+/**
+ * Situação de cada linha de um cadastro de usuários em lote.
+ */
+public enum StatusCadastroUsuario {
+    /** O usuário foi cadastrado */
+    CADASTRADO("Cadastrado"),
+    /** A linha não contém usuário */
+    USUARIO_AUSENTE("Usuário ausente"),
+    /** O email está vazio ou malformado */
+    EMAIL_INVALIDO("Email inválido"),
+    /** O CPF do cliente não tem 11 dígitos ou os dígitos verificadores não conferem */
+    CPF_INVALIDO("CPF inválido"),
+    /** O email já aparece em uma linha anterior do mesmo lote */
+    EMAIL_DUPLICADO_NO_LOTE("Email repetido no lote"),
+    /** O email já pertence a um usuário cadastrado */
+    EMAIL_JA_CADASTRADO("Email já cadastrado");
+    
+    private final String descricao;
+    
+    StatusCadastroUsuario(String descricao) {
+        this.descricao = descricao;
+    }
+    
+    public String getDescricao() {
+        return descricao;
+    }
+}
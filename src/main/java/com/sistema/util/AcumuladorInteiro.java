@@ -0,0 +1,137 @@
+package com.sistema.util;
+
+import java.util.Arrays;
+
+/**
+ * Mapa de endereçamento aberto de chave int para dois totais long
+ * (por exemplo, quantidade e valor), sem objetos por entrada.
+ * Usado para agregações; não suporta remoção de chaves individuais.
+ *
+ * Esta classe não é thread-safe; a sincronização fica a cargo de quem a utiliza.
+ */
+public class AcumuladorInteiro {
+    private static final int CAPACIDADE_INICIAL = 64;
+
+    private int[] chaves;
+    private long[] primeiros;
+    private long[] segundos;
+    private boolean[] ocupados;
+    private int mascara;
+    private int tamanho;
+
+    /**
+     * Construtor padrão
+     */
+    public AcumuladorInteiro() {
+        criar(CAPACIDADE_INICIAL);
+    }
+
+    /**
+     * Soma valores aos totais de uma chave, criando-a se necessário
+     *
+     * @param chave Chave agregada
+     * @param primeiro Valor somado ao primeiro total
+     * @param segundo Valor somado ao segundo total
+     */
+    public void somar(int chave, long primeiro, long segundo) {
+        int slot = indiceSlot(chave);
+        while (ocupados[slot]) {
+            if (chaves[slot] == chave) {
+                primeiros[slot] += primeiro;
+                segundos[slot] += segundo;
+                return;
+            }
+            slot = (slot + 1) & mascara;
+        }
+
+        ocupados[slot] = true;
+        chaves[slot] = chave;
+        primeiros[slot] = primeiro;
+        segundos[slot] = segundo;
+        if (++tamanho * 2 > chaves.length) {
+            crescer();
+        }
+    }
+
+    /**
+     * Seleciona as chaves com os maiores totais, em ordem decrescente
+     *
+     * @param limite Quantidade máxima de chaves retornadas
+     * @param peloSegundo true para ordenar pelo segundo total, false pelo primeiro
+     * @return Linhas {chave, primeiro total, segundo total}
+     */
+    public long[][] maiores(int limite, boolean peloSegundo) {
+        long[][] melhores = new long[Math.min(limite, tamanho)][];
+        int campo = peloSegundo ? 2 : 1;
+        int preenchidos = 0;
+
+        for (int slot = 0; slot < chaves.length; slot++) {
+            if (!ocupados[slot]) {
+                continue;
+            }
+            long valor = peloSegundo ? segundos[slot] : primeiros[slot];
+            if (preenchidos < melhores.length) {
+                preenchidos++;
+            } else if (melhores.length == 0 || valor <= melhores[preenchidos - 1][campo]) {
+                continue;
+            }
+
+            // Inserção ordenada em um vetor pequeno
+            int i = preenchidos - 1;
+            while (i > 0 && melhores[i - 1][campo] < valor) {
+                melhores[i] = melhores[i - 1];
+                i--;
+            }
+            melhores[i] = new long[] {chaves[slot], primeiros[slot], segundos[slot]};
+        }
+
+        return melhores;
+    }
+
+    /**
+     * Remove todas as chaves
+     */
+    public void limpar() {
+        criar(CAPACIDADE_INICIAL);
+    }
+
+    public int tamanho() {
+        return tamanho;
+    }
+
+    private int indiceSlot(int chave) {
+        int h = chave * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mascara;
+    }
+
+    private void crescer() {
+        int[] chavesAntigas = chaves;
+        long[] primeirosAntigos = primeiros;
+        long[] segundosAntigos = segundos;
+        boolean[] ocupadosAntigos = ocupados;
+
+        criar(chavesAntigas.length * 2);
+        for (int i = 0; i < chavesAntigas.length; i++) {
+            if (ocupadosAntigos[i]) {
+                int slot = indiceSlot(chavesAntigas[i]);
+                while (ocupados[slot]) {
+                    slot = (slot + 1) & mascara;
+                }
+                ocupados[slot] = true;
+                chaves[slot] = chavesAntigas[i];
+                primeiros[slot] = primeirosAntigos[i];
+                segundos[slot] = segundosAntigos[i];
+                tamanho++;
+            }
+        }
+    }
+
+    private void criar(int capacidade) {
+        chaves = new int[capacidade];
+        primeiros = new long[capacidade];
+        segundos = new long[capacidade];
+        ocupados = new boolean[capacidade];
+        mascara = capacidade - 1;
+        tamanho = 0;
+    }
+}
@@ -0,0 +1,137 @@
+package com.sistema.util;
+
+/**
+ * Filtro de Bloom sobre hashes de 64 bits.
+ * 
+ * Responde se um elemento talvez já tenha sido adicionado: a resposta "não"
+ * é sempre correta, enquanto "talvez" pode ser um falso positivo, com taxa
+ * próxima da escolhida na construção. Serve para descartar rapidamente a
+ * maioria das consultas antes de uma verificação exata mais cara.
+ * 
+ * O filtro é dividido em blocos de 512 bits (uma linha de cache): a parte alta
+ * do hash escolhe o bloco e os k bits do elemento ficam todos dentro dele,
+ * derivados da parte baixa por hashing duplo. Assim cada adição ou consulta
+ * custa um único acesso à memória, em troca de uma taxa de falsos positivos
+ * um pouco maior que a de um filtro clássico do mesmo tamanho.
+ * Esta classe não é thread-safe para adições; consultas concorrentes sem
+ * adições simultâneas são seguras.
+ */
+public class FiltroBloom {
+    private static final int MAXIMO_FUNCOES = 16;
+    private static final int BITS_POR_BLOCO = 512;
+    private static final int PALAVRAS_POR_BLOCO = BITS_POR_BLOCO / 64;
+    
+    private final long[] bits;
+    private final int mascaraBlocos;
+    private final int funcoes;
+    
+    /**
+     * Construtor com parâmetros
+     * 
+     * @param elementosEsperados Quantidade de elementos que serão adicionados
+     * @param taxaFalsosPositivos Taxa de falsos positivos desejada (entre 0 e 1)
+     */
+    public FiltroBloom(long elementosEsperados, double taxaFalsosPositivos) {
+        long elementos = Math.max(elementosEsperados, 1);
+        double taxa = Math.min(Math.max(taxaFalsosPositivos, 1e-9), 0.5);
+        
+        // m = -n ln p / (ln 2)^2, arredondado para potência de dois para usar máscara no lugar de resto
+        double ideal = -elementos * Math.log(taxa) / (Math.log(2) * Math.log(2));
+        long quantidadeBits = Long.highestOneBit(Math.max((long) Math.ceil(ideal), BITS_POR_BLOCO) - 1) << 1;
+        if (quantidadeBits > (1L << 36)) {
+            throw new IllegalArgumentException("Filtro grande demais para " + elementosEsperados + " elementos");
+        }
+        
+        this.bits = new long[(int) (quantidadeBits >>> 6)];
+        this.mascaraBlocos = (int) (quantidadeBits / BITS_POR_BLOCO) - 1;
+        this.funcoes = (int) Math.min(MAXIMO_FUNCOES,
+                Math.max(1, Math.round((double) quantidadeBits / elementos * Math.log(2))));
+    }
+    
+    /**
+     * Adiciona um elemento ao filtro
+     * @param hash Hash de 64 bits do elemento (por exemplo, de hash(CharSequence))
+     */
+    public void adicionar(long hash) {
+        int base = bloco(hash);
+        int h1 = (int) hash;
+        int h2 = segundoHash(hash);
+        for (int i = 0; i < funcoes; i++) {
+            int indice = (h1 + i * h2) & (BITS_POR_BLOCO - 1);
+            bits[base + (indice >>> 6)] |= 1L << indice;
+        }
+    }
+    
+    /**
+     * Verifica se um elemento talvez tenha sido adicionado
+     * @param hash Hash de 64 bits do elemento
+     * @return false se o elemento certamente não foi adicionado, true se talvez tenha sido
+     */
+    public boolean talvezContenha(long hash) {
+        int base = bloco(hash);
+        int h1 = (int) hash;
+        int h2 = segundoHash(hash);
+        for (int i = 0; i < funcoes; i++) {
+            int indice = (h1 + i * h2) & (BITS_POR_BLOCO - 1);
+            if ((bits[base + (indice >>> 6)] & (1L << indice)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Adiciona um texto ao filtro
+     * @param texto Texto a adicionar
+     */
+    public void adicionar(CharSequence texto) {
+        adicionar(hash(texto));
+    }
+    
+    /**
+     * Verifica se um texto talvez tenha sido adicionado
+     * @param texto Texto a verificar
+     * @return false se o texto certamente não foi adicionado, true se talvez tenha sido
+     */
+    public boolean talvezContenha(CharSequence texto) {
+        return talvezContenha(hash(texto));
+    }
+    
+    /**
+     * Calcula um hash de 64 bits bem distribuído para um texto (FNV-1a seguido de mistura final)
+     * @param texto Texto de entrada
+     * @return Hash de 64 bits
+     */
+    public static long hash(CharSequence texto) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < texto.length(); i++) {
+            h ^= texto.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+    
+    public long getQuantidadeBits() {
+        return (long) bits.length * 64;
+    }
+    
+    public int getFuncoes() {
+        return funcoes;
+    }
+    
+    /**
+     * Posição da primeira palavra do bloco escolhido pelos 32 bits altos do hash
+     */
+    private int bloco(long hash) {
+        return ((int) (hash >>> 32) & mascaraBlocos) * PALAVRAS_POR_BLOCO;
+    }
+    
+    private static int segundoHash(long hash) {
+        // Ímpar, para que os índices percorram todo o bloco
+        return (int) (Long.rotateLeft(hash * 0x9E3779B97F4A7C15L, 32) >>> 16) | 1;
+    }
+}
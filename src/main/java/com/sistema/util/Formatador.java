@@ -0,0 +1,253 @@
+package com.sistema.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+
+/**
+ * Formatação de datas (dd/MM/yyyy) e valores em reais (R$ 1.234,56) sem objetos temporários.
+ * 
+ * Os métodos escrevem direto em um StringBuilder ou ByteBuffer fornecido por
+ * quem chama e não guardam estado mutável compartilhado, podendo ser usados
+ * por várias threads. As datas usam o fuso padrão da JVM na carga da classe;
+ * o texto do último dia formatado fica em cache, de modo que datas do mesmo
+ * dia (o caso comum em relatórios) não repetem a conversão de calendário.
+ * Só os valores muito próximos do meio de um centavo passam pelo texto
+ * decimal do número para serem arredondados como em String.format.
+ */
+public final class Formatador {
+    private static final long MILIS_POR_DIA = 86_400_000L;
+    // Acima deste valor em reais os centavos não cabem com folga em um long
+    private static final double LIMITE_VALOR_EXATO = 1e15;
+    private static final long[] POTENCIAS_DEZ = new long[19];
+    private static final ZoneRules REGRAS_FUSO = ZoneId.systemDefault().getRules();
+    
+    private static volatile DiaFormatado ultimoDia = new DiaFormatado(Long.MIN_VALUE, Long.MIN_VALUE, new byte[0]);
+    
+    static {
+        POTENCIAS_DEZ[0] = 1;
+        for (int i = 1; i < POTENCIAS_DEZ.length; i++) {
+            POTENCIAS_DEZ[i] = POTENCIAS_DEZ[i - 1] * 10;
+        }
+    }
+    
+    private Formatador() {
+    }
+    
+    /**
+     * Escreve um valor monetário no padrão brasileiro, como "R$ 1.234,56" ou "-R$ 0,50"
+     * 
+     * @param destino StringBuilder que recebe o texto
+     * @param valor Valor a ser formatado, arredondado para centavos
+     * @return O próprio destino
+     */
+    public static StringBuilder anexarValor(StringBuilder destino, double valor) {
+        if (!(Math.abs(valor) < LIMITE_VALOR_EXATO)) {
+            return destino.append(formatarValorGrande(valor));
+        }
+        
+        long centavos = arredondarCentavos(valor);
+        if (centavos < 0) {
+            destino.append('-');
+            centavos = -centavos;
+        }
+        destino.append("R$ ");
+        
+        long reais = centavos / 100;
+        int digitos = contarDigitos(reais);
+        for (int i = digitos - 1; i >= 0; i--) {
+            destino.append(digito(reais, i));
+            if (i > 0 && i % 3 == 0) {
+                destino.append('.');
+            }
+        }
+        
+        int resto = (int) (centavos % 100);
+        return destino.append(',').append((char) ('0' + resto / 10)).append((char) ('0' + resto % 10));
+    }
+    
+    /**
+     * Escreve um valor monetário no padrão brasileiro em bytes UTF-8
+     * 
+     * @param destino Buffer que recebe o texto, a partir da posição atual
+     * @param valor Valor a ser formatado, arredondado para centavos
+     * @return O próprio destino
+     * @throws java.nio.BufferOverflowException Se não houver espaço no buffer
+     */
+    public static ByteBuffer anexarValor(ByteBuffer destino, double valor) {
+        if (!(Math.abs(valor) < LIMITE_VALOR_EXATO)) {
+            return destino.put(formatarValorGrande(valor).getBytes(StandardCharsets.UTF_8));
+        }
+        
+        long centavos = arredondarCentavos(valor);
+        if (centavos < 0) {
+            destino.put((byte) '-');
+            centavos = -centavos;
+        }
+        destino.put((byte) 'R').put((byte) '$').put((byte) ' ');
+        
+        long reais = centavos / 100;
+        int digitos = contarDigitos(reais);
+        for (int i = digitos - 1; i >= 0; i--) {
+            destino.put((byte) digito(reais, i));
+            if (i > 0 && i % 3 == 0) {
+                destino.put((byte) '.');
+            }
+        }
+        
+        int resto = (int) (centavos % 100);
+        return destino.put((byte) ',').put((byte) ('0' + resto / 10)).put((byte) ('0' + resto % 10));
+    }
+    
+    /**
+     * Escreve uma data no padrão dd/MM/yyyy
+     * 
+     * @param destino StringBuilder que recebe o texto
+     * @param instanteMillis Instante em milissegundos desde a época Unix
+     * @return O próprio destino
+     */
+    public static StringBuilder anexarData(StringBuilder destino, long instanteMillis) {
+        byte[] texto = diaDe(instanteMillis).texto;
+        for (byte caractere : texto) {
+            destino.append((char) caractere);
+        }
+        return destino;
+    }
+    
+    /**
+     * Escreve uma data no padrão dd/MM/yyyy em bytes UTF-8
+     * 
+     * @param destino Buffer que recebe o texto, a partir da posição atual
+     * @param instanteMillis Instante em milissegundos desde a época Unix
+     * @return O próprio destino
+     * @throws java.nio.BufferOverflowException Se não houver espaço no buffer
+     */
+    public static ByteBuffer anexarData(ByteBuffer destino, long instanteMillis) {
+        return destino.put(diaDe(instanteMillis).texto);
+    }
+    
+    private static DiaFormatado diaDe(long instanteMillis) {
+        DiaFormatado dia = ultimoDia;
+        if (instanteMillis < dia.inicio || instanteMillis >= dia.fim) {
+            dia = calcularDia(instanteMillis);
+            ultimoDia = dia;
+        }
+        return dia;
+    }
+    
+    /**
+     * Converte o instante para a data local e calcula o intervalo em que essa data vale
+     */
+    private static DiaFormatado calcularDia(long instanteMillis) {
+        Instant instante = Instant.ofEpochMilli(instanteMillis);
+        long deslocamento = REGRAS_FUSO.getOffset(instante).getTotalSeconds() * 1000L;
+        long diaLocal = Math.floorDiv(instanteMillis + deslocamento, MILIS_POR_DIA);
+        
+        long inicio = diaLocal * MILIS_POR_DIA - deslocamento;
+        long fim = inicio + MILIS_POR_DIA;
+        // Uma mudança de horário de verão dentro do dia encurta o intervalo válido
+        ZoneOffsetTransition transicao = REGRAS_FUSO.nextTransition(instante);
+        if (transicao != null) {
+            fim = Math.min(fim, transicao.toEpochSecond() * 1000L);
+        }
+        ZoneOffsetTransition anterior = REGRAS_FUSO.previousTransition(Instant.ofEpochMilli(instanteMillis + 1));
+        if (anterior != null) {
+            inicio = Math.max(inicio, anterior.toEpochSecond() * 1000L);
+        }
+        
+        // Conversão de dias desde 1970-01-01 para ano, mês e dia (calendário gregoriano proléptico)
+        long z = diaLocal + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        long diaDaEra = z - era * 146_097;
+        long anoDaEra = (diaDaEra - diaDaEra / 1460 + diaDaEra / 36_524 - diaDaEra / 146_096) / 365;
+        long diaDoAno = diaDaEra - (365 * anoDaEra + anoDaEra / 4 - anoDaEra / 100);
+        long mesDeslocado = (5 * diaDoAno + 2) / 153;
+        int dia = (int) (diaDoAno - (153 * mesDeslocado + 2) / 5 + 1);
+        int mes = (int) (mesDeslocado < 10 ? mesDeslocado + 3 : mesDeslocado - 9);
+        long ano = anoDaEra + era * 400 + (mes <= 2 ? 1 : 0);
+        
+        byte[] texto = new byte[10];
+        texto[0] = (byte) ('0' + dia / 10);
+        texto[1] = (byte) ('0' + dia % 10);
+        texto[2] = '/';
+        texto[3] = (byte) ('0' + mes / 10);
+        texto[4] = (byte) ('0' + mes % 10);
+        texto[5] = '/';
+        long anoAbsoluto = Math.abs(ano) % 10_000;
+        for (int i = 9; i >= 6; i--) {
+            texto[i] = (byte) ('0' + anoAbsoluto % 10);
+            anoAbsoluto /= 10;
+        }
+        return new DiaFormatado(inicio, fim, texto);
+    }
+    
+    /**
+     * Arredonda para centavos com meio para longe do zero, como String.format.
+     * O arredondamento vale para a representação decimal mais curta do valor
+     * (a de Double.toString), e não para o valor binário exato: 544.555 vira
+     * 544,56, embora o double esteja um pouco abaixo de 544,555. Longe do meio
+     * do centavo as duas coincidem e basta Math.round; perto dele, o texto
+     * decimal decide.
+     */
+    private static long arredondarCentavos(double valor) {
+        double absoluto = Math.abs(valor);
+        double escalado = absoluto * 100;
+        double fracao = escalado - Math.floor(escalado);
+        long centavos;
+        if (Math.abs(fracao - 0.5) > 4 * Math.ulp(escalado)) {
+            centavos = Math.round(escalado);
+        } else {
+            centavos = new BigDecimal(Double.toString(absoluto)).setScale(2, RoundingMode.HALF_UP)
+                                                                 .unscaledValue().longValue();
+        }
+        return valor < 0 ? -centavos : centavos;
+    }
+    
+    private static int contarDigitos(long valor) {
+        int digitos = 1;
+        while (digitos < POTENCIAS_DEZ.length && valor >= POTENCIAS_DEZ[digitos]) {
+            digitos++;
+        }
+        return digitos;
+    }
+    
+    private static char digito(long valor, int posicao) {
+        return (char) ('0' + (valor / POTENCIAS_DEZ[posicao]) % 10);
+    }
+    
+    /**
+     * Caminho raro (valores enormes, infinitos ou NaN), que aloca um DecimalFormat
+     */
+    private static String formatarValorGrande(double valor) {
+        DecimalFormatSymbols simbolos = new DecimalFormatSymbols();
+        simbolos.setGroupingSeparator('.');
+        simbolos.setDecimalSeparator(',');
+        simbolos.setMinusSign('-');
+        DecimalFormat formato = new DecimalFormat("R$ #,##0.00", simbolos);
+        formato.setNegativePrefix("-R$ ");
+        formato.setRoundingMode(RoundingMode.HALF_UP);
+        return formato.format(valor);
+    }
+    
+    /**
+     * Texto de uma data local e o intervalo de instantes (em UTC) em que ele vale
+     */
+    private static final class DiaFormatado {
+        private final long inicio;
+        private final long fim;
+        private final byte[] texto;
+        
+        private DiaFormatado(long inicio, long fim, byte[] texto) {
+            this.inicio = inicio;
+            this.fim = fim;
+            this.texto = texto;
+        }
+    }
+}
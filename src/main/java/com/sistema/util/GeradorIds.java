@@ -0,0 +1,102 @@
+package com.sistema.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gerador de IDs únicos para usuários e produtos, sem travas.
+ * 
+ * Cada thread reserva um bloco de IDs consecutivos com um único incremento
+ * atômico no contador global e depois distribui os IDs do bloco sem nenhuma
+ * sincronização. Assim o contador compartilhado é tocado apenas uma vez a cada
+ * TAMANHO_BLOCO IDs e duas threads nunca recebem o mesmo ID. Os IDs são
+ * positivos e únicos, mas não seguem a ordem de geração entre threads diferentes.
+ */
+public class GeradorIds {
+    private static final int TAMANHO_BLOCO = 1024;
+    
+    private static volatile GeradorIds instancia;
+    
+    // Início do próximo bloco livre (o ID 0 nunca é gerado)
+    private final AtomicInteger proximoBloco;
+    // Incrementada por avancarPara() para invalidar os blocos já reservados
+    private volatile int geracao;
+    private final ThreadLocal<Bloco> blocos;
+    
+    /**
+     * Construtor privado para implementar o padrão Singleton
+     */
+    private GeradorIds() {
+        this.proximoBloco = new AtomicInteger(1);
+        this.blocos = ThreadLocal.withInitial(Bloco::new);
+    }
+    
+    /**
+     * Método para obter a instância única do gerador (Singleton)
+     * @return Instância única do gerador
+     */
+    public static GeradorIds getInstancia() {
+        GeradorIds local = instancia;
+        if (local == null) {
+            synchronized (GeradorIds.class) {
+                local = instancia;
+                if (local == null) {
+                    local = new GeradorIds();
+                    instancia = local;
+                }
+            }
+        }
+        return local;
+    }
+    
+    /**
+     * Gera um novo ID
+     * @return ID positivo que nunca foi gerado antes por este gerador
+     * @throws IllegalStateException Se todos os IDs positivos de int já foram usados
+     */
+    public int proximoId() {
+        Bloco bloco = blocos.get();
+        if (bloco.proximo == bloco.limite || bloco.geracao != geracao) {
+            reservar(bloco);
+        }
+        return bloco.proximo++;
+    }
+    
+    /**
+     * Garante que os próximos IDs gerados sejam maiores que um ID já existente.
+     * Usado depois de carregar dados gravados, cujos IDs vieram de execuções anteriores.
+     * Os blocos já reservados pelas threads são descartados.
+     * @param maiorIdExistente Maior ID em uso
+     */
+    public synchronized void avancarPara(int maiorIdExistente) {
+        int atual;
+        do {
+            atual = proximoBloco.get();
+            if (atual > maiorIdExistente) {
+                break;
+            }
+        } while (!proximoBloco.compareAndSet(atual, maiorIdExistente + 1));
+        geracao++;
+    }
+    
+    private void reservar(Bloco bloco) {
+        // Lê a geração antes de reservar: uma chamada concorrente a avancarPara() força nova reserva
+        bloco.geracao = geracao;
+        int inicio = proximoBloco.getAndAdd(TAMANHO_BLOCO);
+        if (inicio <= 0 || inicio > Integer.MAX_VALUE - TAMANHO_BLOCO) {
+            // Devolve o contador ao limite para que novas chamadas também falhem
+            proximoBloco.set(Integer.MIN_VALUE);
+            throw new IllegalStateException("IDs esgotados");
+        }
+        bloco.proximo = inicio;
+        bloco.limite = inicio + TAMANHO_BLOCO;
+    }
+    
+    /**
+     * Faixa de IDs reservada por uma thread
+     */
+    private static final class Bloco {
+        private int proximo;
+        private int limite;
+        private int geracao = -1;
+    }
+}
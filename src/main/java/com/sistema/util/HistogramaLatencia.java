@@ -0,0 +1,130 @@
+package com.sistema.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latências sem travas, com faixas log-lineares (no estilo do HdrHistogram).
+ * 
+ * Valores menores que 64 têm faixa própria; acima disso cada potência de dois
+ * é dividida em 32 faixas, o que mantém o erro relativo abaixo de ~3% em
+ * qualquer ordem de grandeza, com memória fixa. A gravação é um incremento
+ * atômico em um vetor, sem alocação, e pode ser feita por várias threads.
+ */
+public class HistogramaLatencia {
+    private static final int BITS_SUBFAIXA = 5;
+    private static final int SUBFAIXAS = 1 << BITS_SUBFAIXA;
+    private static final int LIMITE_LINEAR = SUBFAIXAS * 2;
+    private static final int FAIXAS = (64 - BITS_SUBFAIXA) * SUBFAIXAS;
+    
+    private final AtomicLongArray contagens;
+    private final LongAdder contagem;
+    private final LongAdder soma;
+    private final AtomicLong maximo;
+    
+    /**
+     * Construtor padrão
+     */
+    public HistogramaLatencia() {
+        this.contagens = new AtomicLongArray(FAIXAS);
+        this.contagem = new LongAdder();
+        this.soma = new LongAdder();
+        this.maximo = new AtomicLong();
+    }
+    
+    /**
+     * Registra um valor (por exemplo, uma latência em nanossegundos)
+     * @param valor Valor registrado; negativos são tratados como zero
+     */
+    public void registrar(long valor) {
+        if (valor < 0) {
+            valor = 0;
+        }
+        
+        contagens.incrementAndGet(indice(valor));
+        contagem.increment();
+        soma.add(valor);
+        
+        // Só tenta atualizar o máximo quando o valor é maior, evitando escrita compartilhada
+        long atual = maximo.get();
+        while (valor > atual && !maximo.compareAndSet(atual, valor)) {
+            atual = maximo.get();
+        }
+    }
+    
+    /**
+     * Calcula um percentil aproximado dos valores registrados
+     * @param percentil Percentil entre 0 e 100 (por exemplo, 99.9)
+     * @return Maior valor da faixa que contém o percentil, ou 0 se vazio
+     */
+    public long percentil(double percentil) {
+        long[] copia = new long[FAIXAS];
+        long total = 0;
+        for (int i = 0; i < FAIXAS; i++) {
+            copia[i] = contagens.get(i);
+            total += copia[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        
+        long alvo = Math.max(1, (long) Math.ceil(total * Math.min(percentil, 100.0) / 100.0));
+        long acumulado = 0;
+        for (int i = 0; i < FAIXAS; i++) {
+            acumulado += copia[i];
+            if (acumulado >= alvo) {
+                return Math.min(limiteSuperior(i), maximo.get());
+            }
+        }
+        return maximo.get();
+    }
+    
+    /**
+     * Remove todos os valores registrados
+     */
+    public void limpar() {
+        for (int i = 0; i < FAIXAS; i++) {
+            contagens.set(i, 0);
+        }
+        contagem.reset();
+        soma.reset();
+        maximo.set(0);
+    }
+    
+    public long getContagem() {
+        return contagem.sum();
+    }
+    
+    public long getMaximo() {
+        return maximo.get();
+    }
+    
+    /**
+     * Calcula a média dos valores registrados
+     * @return Média, ou 0 se vazio
+     */
+    public double getMedia() {
+        long quantidade = contagem.sum();
+        return quantidade == 0 ? 0 : (double) soma.sum() / quantidade;
+    }
+    
+    private static int indice(long valor) {
+        if (valor < LIMITE_LINEAR) {
+            return (int) valor;
+        }
+        int deslocamento = 63 - Long.numberOfLeadingZeros(valor) - BITS_SUBFAIXA;
+        int mantissa = (int) (valor >>> deslocamento);
+        return (deslocamento + 1) * SUBFAIXAS + (mantissa - SUBFAIXAS);
+    }
+    
+    private static long limiteSuperior(int indice) {
+        if (indice < LIMITE_LINEAR) {
+            return indice;
+        }
+        int deslocamento = indice / SUBFAIXAS - 1;
+        long mantissa = indice % SUBFAIXAS + SUBFAIXAS;
+        long limite = ((mantissa + 1) << deslocamento) - 1;
+        return limite < 0 ? Long.MAX_VALUE : limite;
+    }
+}
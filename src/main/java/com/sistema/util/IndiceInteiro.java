@@ -0,0 +1,296 @@
+package com.sistema.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Índice de endereçamento aberto com chaves int primitivas.
+ * Evita o boxing de Integer e oferece busca, inserção e remoção em O(1) esperado.
+ *
+ * Os valores ficam em um vetor denso (na ordem de inserção) e a tabela de
+ * dispersão guarda apenas a posição de cada chave nesse vetor. Na remoção o
+ * último elemento ocupa a posição liberada, mantendo o vetor sem lacunas.
+ *
+ * Esta classe não é thread-safe; a sincronização fica a cargo de quem a utiliza.
+ *
+ * @param <V> Tipo dos valores indexados
+ */
+public class IndiceInteiro<V> {
+    private static final int CAPACIDADE_INICIAL = 16;
+
+    private int[] tabela;
+    private int mascara;
+    private int[] chaves;
+    private Object[] valores;
+    private int tamanho;
+
+    /**
+     * Construtor padrão
+     */
+    public IndiceInteiro() {
+        this(CAPACIDADE_INICIAL);
+    }
+
+    /**
+     * Construtor com capacidade esperada
+     *
+     * @param capacidadeEsperada Quantidade de elementos esperada
+     */
+    public IndiceInteiro(int capacidadeEsperada) {
+        int capacidade = Math.max(capacidadeEsperada, CAPACIDADE_INICIAL);
+        this.chaves = new int[capacidade];
+        this.valores = new Object[capacidade];
+        criarTabela(capacidade);
+    }
+
+    /**
+     * Busca o valor associado a uma chave
+     *
+     * @param chave Chave a ser buscada
+     * @return Valor encontrado ou null se não existir
+     */
+    @SuppressWarnings("unchecked")
+    public V buscar(int chave) {
+        int posicao = posicaoDensa(chave);
+        return posicao < 0 ? null : (V) valores[posicao];
+    }
+
+    /**
+     * Verifica se uma chave está presente no índice
+     *
+     * @param chave Chave a ser verificada
+     * @return true se a chave existir, false caso contrário
+     */
+    public boolean contem(int chave) {
+        return posicaoDensa(chave) >= 0;
+    }
+
+    /**
+     * Insere um valor caso a chave ainda não exista
+     *
+     * @param chave Chave do valor
+     * @param valor Valor a ser inserido
+     * @return true se o valor foi inserido, false se a chave já existia
+     */
+    public boolean inserir(int chave, V valor) {
+        if (valor == null) {
+            return false;
+        }
+
+        int anterior = tamanho;
+        int posicao = inserirChave(chave);
+        if (tamanho == anterior) {
+            return false;
+        }
+        valores[posicao] = valor;
+        return true;
+    }
+
+    /**
+     * Insere uma chave sem valor associado, caso ainda não exista.
+     * Serve a quem guarda os dados em colunas próprias alinhadas ao vetor denso:
+     * a coluna segue a posição devolvida aqui e, na remoção, acompanha a mudança
+     * do último elemento para a posição liberada.
+     *
+     * @param chave Chave a ser inserida
+     * @return Posição da chave no vetor denso (a nova ou a já existente)
+     */
+    public int inserirChave(int chave) {
+        int slot = indiceSlot(chave);
+        while (tabela[slot] != 0) {
+            if (chaves[tabela[slot] - 1] == chave) {
+                return tabela[slot] - 1;
+            }
+            slot = (slot + 1) & mascara;
+        }
+
+        if (tamanho == chaves.length) {
+            crescer();
+            return inserirNovo(chave);
+        }
+
+        chaves[tamanho] = chave;
+        tamanho++;
+        tabela[slot] = tamanho;
+        return tamanho - 1;
+    }
+
+    /**
+     * Obtém a posição de uma chave no vetor denso
+     *
+     * @param chave Chave a ser buscada
+     * @return Posição entre 0 e tamanho() - 1, ou -1 se a chave não existir
+     */
+    public int posicaoDe(int chave) {
+        return posicaoDensa(chave);
+    }
+
+    /**
+     * Remove a chave do índice
+     *
+     * @param chave Chave a ser removida
+     * @return Valor removido ou null se a chave não existir
+     */
+    @SuppressWarnings("unchecked")
+    public V remover(int chave) {
+        int slot = indiceSlot(chave);
+        while (tabela[slot] != 0) {
+            int posicao = tabela[slot] - 1;
+            if (chaves[posicao] == chave) {
+                V removido = (V) valores[posicao];
+                liberarSlot(slot);
+                moverUltimoPara(posicao);
+                return removido;
+            }
+            slot = (slot + 1) & mascara;
+        }
+        return null;
+    }
+
+    /**
+     * Remove todos os elementos do índice
+     */
+    public void limpar() {
+        for (int i = 0; i < tamanho; i++) {
+            valores[i] = null;
+        }
+        tamanho = 0;
+        Arrays.fill(tabela, 0);
+    }
+
+    /**
+     * Obtém o valor armazenado em uma posição do vetor denso
+     *
+     * @param posicao Posição entre 0 e tamanho() - 1
+     * @return Valor na posição informada
+     */
+    @SuppressWarnings("unchecked")
+    public V valorNaPosicao(int posicao) {
+        if (posicao < 0 || posicao >= tamanho) {
+            throw new IndexOutOfBoundsException("Posição inválida: " + posicao);
+        }
+        return (V) valores[posicao];
+    }
+
+    /**
+     * Obtém a chave armazenada em uma posição do vetor denso
+     *
+     * @param posicao Posição entre 0 e tamanho() - 1
+     * @return Chave na posição informada
+     */
+    public int chaveNaPosicao(int posicao) {
+        if (posicao < 0 || posicao >= tamanho) {
+            throw new IndexOutOfBoundsException("Posição inválida: " + posicao);
+        }
+        return chaves[posicao];
+    }
+
+    /**
+     * Copia os valores para uma nova lista, na ordem do vetor denso
+     *
+     * @return Lista com os valores indexados
+     */
+    @SuppressWarnings("unchecked")
+    public List<V> listarValores() {
+        List<V> lista = new ArrayList<>(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            lista.add((V) valores[i]);
+        }
+        return lista;
+    }
+
+    public int tamanho() {
+        return tamanho;
+    }
+
+    public boolean isVazio() {
+        return tamanho == 0;
+    }
+
+    private int posicaoDensa(int chave) {
+        int slot = indiceSlot(chave);
+        int entrada;
+        while ((entrada = tabela[slot]) != 0) {
+            if (chaves[entrada - 1] == chave) {
+                return entrada - 1;
+            }
+            slot = (slot + 1) & mascara;
+        }
+        return -1;
+    }
+
+    private int indiceSlot(int chave) {
+        // Mistura os bits para que IDs sequenciais não formem agrupamentos
+        int h = chave * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mascara;
+    }
+
+    private int inserirNovo(int chave) {
+        chaves[tamanho] = chave;
+        tamanho++;
+        int slot = indiceSlot(chave);
+        while (tabela[slot] != 0) {
+            slot = (slot + 1) & mascara;
+        }
+        tabela[slot] = tamanho;
+        return tamanho - 1;
+    }
+
+    /**
+     * Libera um slot usando deslocamento para trás, sem marcadores de remoção
+     */
+    private void liberarSlot(int slot) {
+        int livre = slot;
+        int atual = (slot + 1) & mascara;
+        while (tabela[atual] != 0) {
+            int ideal = indiceSlot(chaves[tabela[atual] - 1]);
+            // Move a entrada se o slot livre estiver no caminho entre o ideal e o atual
+            if (((atual - ideal) & mascara) >= ((atual - livre) & mascara)) {
+                tabela[livre] = tabela[atual];
+                livre = atual;
+            }
+            atual = (atual + 1) & mascara;
+        }
+        tabela[livre] = 0;
+    }
+
+    private void moverUltimoPara(int posicao) {
+        int ultima = tamanho - 1;
+        if (posicao != ultima) {
+            int chaveUltima = chaves[ultima];
+            chaves[posicao] = chaveUltima;
+            valores[posicao] = valores[ultima];
+
+            int slot = indiceSlot(chaveUltima);
+            while (tabela[slot] != ultima + 1) {
+                slot = (slot + 1) & mascara;
+            }
+            tabela[slot] = posicao + 1;
+        }
+        valores[ultima] = null;
+        tamanho = ultima;
+    }
+
+    private void crescer() {
+        int novaCapacidade = chaves.length * 2;
+        chaves = Arrays.copyOf(chaves, novaCapacidade);
+        valores = Arrays.copyOf(valores, novaCapacidade);
+        criarTabela(novaCapacidade);
+
+        for (int i = 0; i < tamanho; i++) {
+            int slot = indiceSlot(chaves[i]);
+            while (tabela[slot] != 0) {
+                slot = (slot + 1) & mascara;
+            }
+            tabela[slot] = i + 1;
+        }
+    }
+
+    private void criarTabela(int capacidade) {
+        // Tabela com o dobro da capacidade mantém o fator de carga abaixo de 0,5
+        int slots = Integer.highestOneBit(capacidade - 1) << 2;
+        this.tabela = new int[slots];
+        this.mascara = slots - 1;
+    }
+}
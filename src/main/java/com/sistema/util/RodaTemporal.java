@@ -0,0 +1,219 @@
+package com.sistema.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Roda temporal com dispersão (hashed timing wheel) para expirar grandes
+ * quantidades de itens sem um temporizador por item e sem varrer todos eles.
+ * 
+ * O tempo é dividido em ticks de tamanho fixo e cada item entra na lista do
+ * slot (tick do prazo módulo a quantidade de slots). Ao avançar, apenas os
+ * slots dos ticks decorridos são visitados; prazos mais distantes que uma
+ * volta da roda permanecem no slot até a volta correta. Agendar e cancelar
+ * custam O(1).
+ * 
+ * As entradas ficam em vetores paralelos de primitivos, reaproveitados por
+ * uma lista de posições livres, de modo que milhões de itens pendentes não
+ * criam um objeto por item além do próprio item. Os métodos são sincronizados.
+ * 
+ * @param <T> Tipo dos itens agendados
+ */
+public class RodaTemporal<T> {
+    /** Identificador devolvido quando não há agendamento */
+    public static final long SEM_AGENDAMENTO = -1L;
+    
+    private static final int CAPACIDADE_INICIAL = 1024;
+    private static final int NENHUMA = -1;
+    
+    private final long resolucaoMillis;
+    private final int mascara;
+    private final int[] cabecas;
+    
+    private Object[] itens;
+    private long[] ticks;
+    private int[] proximas;
+    private int[] anteriores;
+    private int[] geracoes;
+    private int livre;
+    private int usadas;
+    private int tamanho;
+    private volatile long ultimoTick;
+    private final ArrayList<T> expirados;
+    
+    /**
+     * Construtor com parâmetros
+     * 
+     * @param resolucaoMillis Duração de cada tick em milissegundos
+     * @param quantidadeSlots Quantidade de slots (arredondada para potência de dois)
+     * @param agoraMillis Instante atual no relógio usado pelas chamadas seguintes
+     */
+    public RodaTemporal(long resolucaoMillis, int quantidadeSlots, long agoraMillis) {
+        if (resolucaoMillis <= 0 || quantidadeSlots <= 0) {
+            throw new IllegalArgumentException("Resolução e quantidade de slots devem ser positivas");
+        }
+        int slots = Integer.highestOneBit(Math.max(quantidadeSlots - 1, 1)) << 1;
+        this.resolucaoMillis = resolucaoMillis;
+        this.mascara = slots - 1;
+        this.cabecas = new int[slots];
+        Arrays.fill(cabecas, NENHUMA);
+        
+        this.itens = new Object[CAPACIDADE_INICIAL];
+        this.ticks = new long[CAPACIDADE_INICIAL];
+        this.proximas = new int[CAPACIDADE_INICIAL];
+        this.anteriores = new int[CAPACIDADE_INICIAL];
+        this.geracoes = new int[CAPACIDADE_INICIAL];
+        this.livre = NENHUMA;
+        this.ultimoTick = Math.floorDiv(agoraMillis, resolucaoMillis);
+        this.expirados = new ArrayList<>();
+    }
+    
+    /**
+     * Agenda a expiração de um item
+     * @param item Item a expirar
+     * @param prazoMillis Instante de expiração; prazos já vencidos expiram no próximo tick
+     * @return Identificador do agendamento, para uso em cancelar(), ou SEM_AGENDAMENTO se o item for null
+     */
+    public synchronized long agendar(T item, long prazoMillis) {
+        if (item == null) {
+            return SEM_AGENDAMENTO;
+        }
+        
+        int entrada = alocarEntrada();
+        long tick = Math.max(Math.floorDiv(prazoMillis, resolucaoMillis), ultimoTick + 1);
+        int slot = (int) (tick & mascara);
+        
+        itens[entrada] = item;
+        ticks[entrada] = tick;
+        anteriores[entrada] = NENHUMA;
+        proximas[entrada] = cabecas[slot];
+        if (cabecas[slot] != NENHUMA) {
+            anteriores[cabecas[slot]] = entrada;
+        }
+        cabecas[slot] = entrada;
+        tamanho++;
+        
+        return ((long) geracoes[entrada] << 32) | entrada;
+    }
+    
+    /**
+     * Cancela um agendamento que ainda não expirou
+     * @param agendamento Identificador devolvido por agendar()
+     * @return true se o agendamento foi cancelado, false se já tinha expirado ou sido cancelado
+     */
+    public synchronized boolean cancelar(long agendamento) {
+        if (agendamento < 0) {
+            return false;
+        }
+        int entrada = (int) agendamento;
+        int geracao = (int) (agendamento >>> 32);
+        if (entrada >= usadas || geracoes[entrada] != geracao || itens[entrada] == null) {
+            return false;
+        }
+        
+        desligar(entrada);
+        liberarEntrada(entrada);
+        return true;
+    }
+    
+    /**
+     * Verifica, sem sincronização, se já passou algum tick desde o último avanço
+     * @param agoraMillis Instante atual
+     * @return true se avancar() tem slots a visitar
+     */
+    public boolean precisaAvancar(long agoraMillis) {
+        return Math.floorDiv(agoraMillis, resolucaoMillis) > ultimoTick;
+    }
+    
+    /**
+     * Avança a roda até o instante informado, expirando os itens com prazo vencido.
+     * A função é chamada depois que os itens saíram da roda e pode agendar novos itens.
+     * @param agoraMillis Instante atual
+     * @param aoExpirar Função chamada para cada item expirado
+     * @return Quantidade de itens expirados
+     */
+    public synchronized int avancar(long agoraMillis, Consumer<? super T> aoExpirar) {
+        long alvo = Math.floorDiv(agoraMillis, resolucaoMillis);
+        long inicio = ultimoTick;
+        if (alvo <= inicio) {
+            return 0;
+        }
+        
+        // Depois de uma volta completa todos os slots foram visitados
+        long passos = Math.min(alvo - inicio, mascara + 1L);
+        for (long passo = 1; passo <= passos; passo++) {
+            int slot = (int) ((inicio + passo) & mascara);
+            int entrada = cabecas[slot];
+            while (entrada != NENHUMA) {
+                int seguinte = proximas[entrada];
+                if (ticks[entrada] <= alvo) {
+                    @SuppressWarnings("unchecked")
+                    T item = (T) itens[entrada];
+                    expirados.add(item);
+                    desligar(entrada);
+                    liberarEntrada(entrada);
+                }
+                entrada = seguinte;
+            }
+        }
+        ultimoTick = alvo;
+        
+        int quantidade = expirados.size();
+        try {
+            for (int i = 0; i < quantidade; i++) {
+                aoExpirar.accept(expirados.get(i));
+            }
+        } finally {
+            expirados.clear();
+        }
+        return quantidade;
+    }
+    
+    public synchronized int getTamanho() {
+        return tamanho;
+    }
+    
+    public long getResolucaoMillis() {
+        return resolucaoMillis;
+    }
+    
+    private void desligar(int entrada) {
+        int anterior = anteriores[entrada];
+        int seguinte = proximas[entrada];
+        if (anterior == NENHUMA) {
+            cabecas[(int) (ticks[entrada] & mascara)] = seguinte;
+        } else {
+            proximas[anterior] = seguinte;
+        }
+        if (seguinte != NENHUMA) {
+            anteriores[seguinte] = anterior;
+        }
+    }
+    
+    private int alocarEntrada() {
+        if (livre != NENHUMA) {
+            int entrada = livre;
+            livre = proximas[entrada];
+            return entrada;
+        }
+        if (usadas == itens.length) {
+            int capacidade = itens.length * 2;
+            itens = Arrays.copyOf(itens, capacidade);
+            ticks = Arrays.copyOf(ticks, capacidade);
+            proximas = Arrays.copyOf(proximas, capacidade);
+            anteriores = Arrays.copyOf(anteriores, capacidade);
+            geracoes = Arrays.copyOf(geracoes, capacidade);
+        }
+        return usadas++;
+    }
+    
+    private void liberarEntrada(int entrada) {
+        itens[entrada] = null;
+        // A nova geração invalida identificadores antigos desta posição
+        geracoes[entrada] = (geracoes[entrada] + 1) & Integer.MAX_VALUE;
+        proximas[entrada] = livre;
+        livre = entrada;
+        tamanho--;
+    }
+}
@@ -0,0 +1,71 @@
+package com.sistema.util;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Conjunto fixo de travas particionadas (lock striping) indexadas por chave int.
+ * Chaves diferentes tendem a cair em travas diferentes, permitindo que operações
+ * sobre produtos distintos avancem em paralelo sem uma trava global.
+ */
+public class TravasParticionadas {
+    private final ReentrantLock[] travas;
+    private final int mascara;
+    
+    /**
+     * Construtor padrão, dimensionado pelo número de processadores disponíveis
+     */
+    public TravasParticionadas() {
+        this(Runtime.getRuntime().availableProcessors() * 16);
+    }
+    
+    /**
+     * Construtor com quantidade mínima de partições
+     * 
+     * @param particoes Quantidade mínima de travas (arredondada para potência de 2)
+     */
+    public TravasParticionadas(int particoes) {
+        int quantidade = Integer.highestOneBit(Math.max(particoes, 2) - 1) << 1;
+        this.travas = new ReentrantLock[quantidade];
+        this.mascara = quantidade - 1;
+        
+        for (int i = 0; i < quantidade; i++) {
+            travas[i] = new ReentrantLock();
+        }
+    }
+    
+    /**
+     * Obtém a trava responsável por uma chave
+     * 
+     * @param chave Chave protegida (por exemplo, o ID do produto)
+     * @return Trava da partição da chave
+     */
+    public ReentrantLock travaDe(int chave) {
+        return travas[particaoDe(chave)];
+    }
+    
+    /**
+     * Obtém a trava de uma partição. Para adquirir várias travas sem risco de
+     * impasse, adquira-as em ordem crescente de partição.
+     * 
+     * @param particao Índice da partição entre 0 e getQuantidade() - 1
+     * @return Trava da partição
+     */
+    public ReentrantLock travaDaParticao(int particao) {
+        return travas[particao];
+    }
+    
+    /**
+     * Calcula a partição de uma chave
+     * 
+     * @param chave Chave protegida
+     * @return Índice da partição entre 0 e getQuantidade() - 1
+     */
+    public int particaoDe(int chave) {
+        int h = chave * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mascara;
+    }
+    
+    public int getQuantidade() {
+        return travas.length;
+    }
+}
@@ -1,6 +1,5 @@
 package com.sistema.util;
 
-import java.text.SimpleDateFormat;
 import java.util.Date;
 
 /**
@@ -13,40 +12,36 @@ public class Util {
      * 
      * @param data Data a ser formatada
      * @return String com a data formatada
+     * @see Formatador#anexarData(StringBuilder, long)
      */
     public static String formatarData(Date data) {
         if (data == null) {
             return "";
         }
         
-        SimpleDateFormat sdf = new SimpleDateFormat("dd/MM/yyyy");
-        return sdf.format(data);
+        return Formatador.anexarData(new StringBuilder(10), data.getTime()).toString();
     }
     
     /**
-     * Formata um valor monetário no padrão brasileiro
+     * Formata um valor monetário no padrão brasileiro, como "R$ 1.234,56"
      * 
      * @param valor Valor a ser formatado
      * @return String com o valor formatado
+     * @see Formatador#anexarValor(StringBuilder, double)
      */
     public static String formatarValor(double valor) {
-        return String.format("R$ %.2f", valor);
+        return Formatador.anexarValor(new StringBuilder(24), valor).toString();
     }
     
     /**
-     * Valida se um CPF é válido (implementação simplificada)
+     * Valida um CPF de 11 dígitos, incluindo os dígitos verificadores
      * 
      * @param cpf CPF a ser validado
      * @return true se o CPF for válido, false caso contrário
+     * @see ValidadorCPF
      */
     public static boolean validarCPF(String cpf) {
-        if (cpf == null || cpf.length() != 11) {
-            return false;
-        }
-        
-        // Implementação simplificada - apenas verifica se tem 11 dígitos
-        // Em uma implementação real, deveria verificar os dígitos verificadores
-        return cpf.matches("\\d{11}");
+        return ValidadorCPF.validar(cpf);
     }
     
     /**
@@ -65,11 +60,12 @@ public class Util {
     }
     
     /**
-     * Gera um ID único baseado no timestamp atual
+     * Gera um ID único, mesmo para chamadas no mesmo milissegundo ou em threads diferentes
      * 
      * @return ID único
+     * @see GeradorIds
      */
     public static int gerarId() {
-        return (int) (System.currentTimeMillis() % Integer.MAX_VALUE);
+        return GeradorIds.getInstancia().proximoId();
     }
 }
@@ -0,0 +1,131 @@
+package com.sistema.util;
+
+import java.util.BitSet;
+
+/**
+ * Validação de CPF com verificação dos dois dígitos verificadores (módulo 11).
+ * 
+ * O CPF deve ter exatamente 11 dígitos, sem pontuação. Os dígitos são somados
+ * em um único laço sem tabelas nem expressões regulares, e os caracteres fora
+ * de '0'..'9' são detectados pelo bit de sinal acumulado, sem um desvio por
+ * caractere. CPFs com todos os dígitos iguais (como 111.111.111-11) passam no
+ * módulo 11, mas são rejeitados por não serem emitidos.
+ * 
+ * Todos os métodos são estáticos e seguros para uso por várias threads.
+ */
+public final class ValidadorCPF {
+    public static final int TAMANHO = 11;
+    
+    private ValidadorCPF() {
+    }
+    
+    /**
+     * Valida um CPF
+     * @param cpf Texto com os 11 dígitos
+     * @return true se o CPF for válido, false caso contrário (inclusive se null)
+     */
+    public static boolean validar(CharSequence cpf) {
+        if (cpf == null || cpf.length() != TAMANHO) {
+            return false;
+        }
+        return validarDigitos(i -> cpf.charAt(i) - '0');
+    }
+    
+    /**
+     * Valida um CPF guardado em um vetor de caracteres
+     * @param cpf Vetor com os dígitos
+     * @param inicio Posição do primeiro dígito
+     * @return true se os 11 caracteres a partir de inicio formarem um CPF válido
+     */
+    public static boolean validar(char[] cpf, int inicio) {
+        if (cpf == null || inicio < 0 || inicio > cpf.length - TAMANHO) {
+            return false;
+        }
+        return validarDigitos(i -> cpf[inicio + i] - '0');
+    }
+    
+    /**
+     * Valida um CPF em uma faixa de bytes ASCII (por exemplo, um campo de um arquivo lido em memória)
+     * @param dados Vetor de bytes
+     * @param inicio Posição do primeiro byte do campo
+     * @param fim Posição seguinte ao último byte do campo
+     * @return true se o campo tiver 11 dígitos e formar um CPF válido
+     */
+    public static boolean validar(byte[] dados, int inicio, int fim) {
+        if (dados == null || inicio < 0 || fim > dados.length || fim - inicio != TAMANHO) {
+            return false;
+        }
+        return validarDigitos(i -> dados[inicio + i] - '0');
+    }
+    
+    /**
+     * Valida uma coluna inteira de CPFs
+     * @param cpfs CPFs a validar (posições null são inválidas)
+     * @return Conjunto com os índices dos CPFs inválidos
+     */
+    public static BitSet validarColuna(CharSequence[] cpfs) {
+        BitSet invalidos = new BitSet(cpfs.length);
+        for (int i = 0; i < cpfs.length; i++) {
+            if (!validar(cpfs[i])) {
+                invalidos.set(i);
+            }
+        }
+        return invalidos;
+    }
+    
+    /**
+     * Valida uma coluna de CPFs guardados em um único vetor de bytes, um campo por linha
+     * @param dados Vetor de bytes com os campos
+     * @param inicios Posição inicial do campo de cada linha
+     * @param fins Posição seguinte ao fim do campo de cada linha
+     * @param quantidade Quantidade de linhas
+     * @return Conjunto com os índices das linhas com CPF inválido
+     */
+    public static BitSet validarColuna(byte[] dados, int[] inicios, int[] fins, int quantidade) {
+        BitSet invalidos = new BitSet(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            if (!validar(dados, inicios[i], fins[i])) {
+                invalidos.set(i);
+            }
+        }
+        return invalidos;
+    }
+    
+    /**
+     * Soma os nove primeiros dígitos e confere os dois dígitos verificadores.
+     * Rotina comum aos formatos aceitos, que diferem apenas no acesso aos dígitos.
+     */
+    private static boolean validarDigitos(Digitos cpf) {
+        int invalido = 0;
+        int diferentes = 0;
+        int soma1 = 0;
+        int soma2 = 0;
+        int primeiro = cpf.digito(0);
+        for (int i = 0; i < 9; i++) {
+            int d = cpf.digito(i);
+            invalido |= d | (9 - d);
+            diferentes |= d ^ primeiro;
+            soma1 += d * (10 - i);
+            soma2 += d * (11 - i);
+        }
+        
+        int dv1 = cpf.digito(9);
+        int dv2 = cpf.digito(10);
+        invalido |= dv1 | (9 - dv1) | dv2 | (9 - dv2);
+        int esperado1 = soma1 * 10 % 11 % 10;
+        int esperado2 = (soma2 + dv1 * 2) * 10 % 11 % 10;
+        // Um caractere fora de '0'..'9' deixa negativo d ou 9 - d, ligando o bit de sinal
+        return invalido >= 0 && diferentes != 0 && ((dv1 ^ esperado1) | (dv2 ^ esperado2)) == 0;
+    }
+    
+    /**
+     * Acesso ao valor de cada um dos 11 dígitos de um CPF, independentemente de onde ele está guardado
+     */
+    private interface Digitos {
+        /**
+         * @param posicao Posição do dígito no CPF (0 a 10)
+         * @return Caractere da posição menos '0'; negativo ou maior que 9 se não for um dígito
+         */
+        int digito(int posicao);
+    }
+}
@@ -0,0 +1,124 @@
+package com.sistema.test;
+
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.sistema.model.Administrador;
+import com.sistema.model.Cliente;
+import com.sistema.model.Sistema;
+import com.sistema.model.Usuario;
+import com.sistema.model.Vendedor;
+import com.sistema.service.CadastroUsuariosEmLote;
+import com.sistema.service.ResultadoCadastroUsuarios;
+import com.sistema.service.StatusCadastroUsuario;
+import com.sistema.util.FiltroBloom;
+
+/**
+ * Classe de teste para as classes CadastroUsuariosEmLote e FiltroBloom
+ */
+public class CadastroUsuariosEmLoteTest {
+    
+    private Sistema sistema;
+    private CadastroUsuariosEmLote cadastro;
+    
+    @Before
+    public void setUp() {
+        sistema = Sistema.getInstancia();
+        cadastro = new CadastroUsuariosEmLote();
+        limpar();
+        sistema.cadastrarUsuario(new Vendedor(9300, "Existente", "existente@lote.com", "s", 5.0));
+    }
+    
+    @After
+    public void tearDown() {
+        limpar();
+    }
+    
+    @Test
+    public void testSituacaoDeCadaLinha() {
+        List<Usuario> lote = Arrays.asList(
+            new Cliente(9301, "Ana", "ana@lote.com", "s", "12345678909", "Rua A", "1"),
+            new Cliente(9302, "Bia", "bia@lote.com", "s", "12345678901", "Rua B", "2"),
+            new Vendedor(9303, "Caio", "caio-sem-arroba", "s", 3.0),
+            null,
+            new Vendedor(9304, "Duda", " EXISTENTE@lote.com", "s", 3.0),
+            new Administrador(9305, "Eva", "eva@lote.com", "s", "Total", "TI"),
+            new Vendedor(9306, "Eva 2", "Eva@Lote.com", "s", 3.0)
+        );
+        
+        ResultadoCadastroUsuarios resultado = cadastro.cadastrar(lote);
+        
+        assertEquals(StatusCadastroUsuario.CADASTRADO, resultado.getStatus(0));
+        assertEquals(StatusCadastroUsuario.CPF_INVALIDO, resultado.getStatus(1));
+        assertEquals(StatusCadastroUsuario.EMAIL_INVALIDO, resultado.getStatus(2));
+        assertEquals(StatusCadastroUsuario.USUARIO_AUSENTE, resultado.getStatus(3));
+        assertEquals(StatusCadastroUsuario.EMAIL_JA_CADASTRADO, resultado.getStatus(4));
+        assertEquals(StatusCadastroUsuario.CADASTRADO, resultado.getStatus(5));
+        assertEquals(StatusCadastroUsuario.EMAIL_DUPLICADO_NO_LOTE, resultado.getStatus(6));
+        
+        assertEquals(2, resultado.getCadastrados());
+        assertEquals(5, resultado.getRejeitados());
+        assertEquals(5, resultado.getErros().size());
+        assertEquals("Linha 2: CPF inválido (bia@lote.com)", resultado.getErros().get(0));
+        assertEquals("Linha 4: Usuário ausente", resultado.getErros().get(2));
+        
+        assertTrue(sistema.existeEmail("ana@lote.com"));
+        assertTrue(sistema.login("eva@lote.com", "s"));
+        assertFalse(sistema.existeEmail("bia@lote.com"));
+        sistema.logout();
+    }
+    
+    @Test
+    public void testLoteGrandeEmParalelo() {
+        List<Usuario> lote = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            lote.add(new Vendedor(100_000 + i, "Vendedor " + i, "v" + (i % 40_000) + "@lote.com", "s", 1.0));
+        }
+        
+        ResultadoCadastroUsuarios resultado = cadastro.cadastrar(lote);
+        
+        assertEquals(40_000, resultado.getCadastrados());
+        assertEquals(10_000, resultado.contar(StatusCadastroUsuario.EMAIL_DUPLICADO_NO_LOTE));
+        assertEquals(StatusCadastroUsuario.CADASTRADO, resultado.getStatus(39_999));
+        assertEquals(StatusCadastroUsuario.EMAIL_DUPLICADO_NO_LOTE, resultado.getStatus(40_000));
+        
+        // Um segundo lote com os mesmos emails é totalmente rejeitado
+        ResultadoCadastroUsuarios repetido = cadastro.cadastrar(lote.subList(0, 1000));
+        assertEquals(0, repetido.getCadastrados());
+        assertEquals(1000, repetido.contar(StatusCadastroUsuario.EMAIL_JA_CADASTRADO));
+    }
+    
+    @Test
+    public void testFiltroBloomSemFalsosNegativos() {
+        FiltroBloom filtro = new FiltroBloom(100_000, 0.01);
+        for (int i = 0; i < 100_000; i++) {
+            filtro.adicionar("presente" + i);
+        }
+        for (int i = 0; i < 100_000; i++) {
+            assertTrue(filtro.talvezContenha("presente" + i));
+        }
+        
+        int falsosPositivos = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filtro.talvezContenha("ausente" + i)) {
+                falsosPositivos++;
+            }
+        }
+        // O arredondamento do tamanho para potência de dois só diminui a taxa
+        assertTrue("Falsos positivos: " + falsosPositivos, falsosPositivos < 1_500);
+    }
+    
+    private void limpar() {
+        for (Usuario usuario : sistema.getUsuarios()) {
+            if (usuario.getEmail() != null && usuario.getEmail().toLowerCase().endsWith("@lote.com")) {
+                sistema.removerUsuario(usuario.getId());
+            }
+        }
+    }
+}
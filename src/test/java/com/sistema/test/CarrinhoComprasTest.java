@@ -0,0 +1,307 @@
+package com.sistema.test;
+
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import com.sistema.model.CanalCompras;
+import com.sistema.model.CarrinhoCompras;
+import com.sistema.model.Cliente;
+import com.sistema.model.Humus;
+import com.sistema.model.Muda;
+import com.sistema.model.Produto;
+import com.sistema.model.ResultadoLote;
+import com.sistema.model.StatusItemVenda;
+import com.sistema.persistencia.LogEscrita;
+import com.sistema.service.Controlador;
+
+/**
+ * Classe de teste para o carrinho de compras do Cliente
+ */
+public class CarrinhoComprasTest {
+
+    private static final int ID_MUDA = 9501;
+    private static final int ID_HUMUS = 9502;
+    private static final int ID_ESTERCO = 9503;
+
+    private Controlador controlador;
+    private CanalCompras canal;
+    private Cliente cliente;
+    private Muda muda;
+    private Humus humus;
+
+    @Before
+    public void setUp() {
+        controlador = Controlador.getInstancia();
+        canal = controlador.getCanalCompras();
+        tearDown();
+
+        cliente = new Cliente(3, "Pedro Santos", "pedro@email.com", "cliente789", "12345678909", "Rua A, 123", "11987654321");
+        muda = new Muda(ID_MUDA, "Muda de Tomate", "Muda de tomate orgânico", 5.10, 100,
+                        "Solanum lycopersicum", 60, "Argiloso");
+        humus = new Humus(ID_HUMUS, "Húmus Premium", "Húmus de minhoca de alta qualidade", 15.0, 50,
+                          "Minhoca Californiana", 2.5, "Rico em nitrogênio e fósforo");
+        controlador.cadastrarProduto(muda);
+        controlador.cadastrarProduto(humus);
+    }
+
+    @After
+    public void tearDown() {
+        controlador.removerProduto(ID_MUDA);
+        controlador.removerProduto(ID_HUMUS);
+        controlador.removerProduto(ID_ESTERCO);
+    }
+
+    @Test
+    public void testQuantidadeConsiderada() {
+        // A quantidade informada entra no total e inclusões repetidas somam à mesma linha
+        assertTrue(cliente.adicionarAoCarrinho(canal, muda, 3));
+        assertTrue(cliente.adicionarAoCarrinho(canal, humus, 2));
+        assertTrue(cliente.adicionarAoCarrinho(canal, muda, 2));
+
+        assertEquals(5, cliente.getQuantidadeNoCarrinho(ID_MUDA));
+        assertEquals(2, cliente.getQuantidadeNoCarrinho(ID_HUMUS));
+        assertEquals(2, cliente.getCarrinhoCompras().size());
+        assertEquals(5 * 5.10 + 2 * 15.0, cliente.calcularTotalCarrinho(), 0.001);
+    }
+
+    @Test
+    public void testEstoqueInsuficiente() {
+        // O estoque precisa cobrir a quantidade acumulada no carrinho
+        assertFalse(cliente.adicionarAoCarrinho(canal, humus, 51));
+        assertTrue(cliente.adicionarAoCarrinho(canal, humus, 40));
+        assertFalse(cliente.adicionarAoCarrinho(canal, humus, 11));
+        assertTrue(cliente.adicionarAoCarrinho(canal, humus, 10));
+        assertFalse(cliente.adicionarAoCarrinho(canal, humus, 0));
+        assertFalse(cliente.adicionarAoCarrinho(canal, null, 1));
+        assertEquals(50, cliente.getQuantidadeNoCarrinho(ID_HUMUS));
+    }
+
+    @Test
+    public void testRemover() {
+        cliente.adicionarAoCarrinho(canal, muda, 4);
+        cliente.adicionarAoCarrinho(canal, humus, 1);
+
+        // Remoção parcial
+        assertTrue(cliente.removerDoCarrinho(canal, ID_MUDA, 3));
+        assertEquals(1, cliente.getQuantidadeNoCarrinho(ID_MUDA));
+        assertFalse(cliente.removerDoCarrinho(canal, ID_MUDA, 2));
+        assertEquals(5.10 + 15.0, cliente.calcularTotalCarrinho(), 0.001);
+
+        // Remoção da linha inteira
+        assertTrue(cliente.removerDoCarrinho(canal, ID_HUMUS));
+        assertFalse(cliente.removerDoCarrinho(canal, ID_HUMUS));
+        assertEquals(5.10, cliente.calcularTotalCarrinho(), 0.001);
+
+        // Remover a última unidade remove a linha
+        assertTrue(cliente.removerDoCarrinho(canal, ID_MUDA, 1));
+        assertTrue(cliente.getCarrinhoCompras().isEmpty());
+        assertEquals(0.0, cliente.calcularTotalCarrinho(), 0.0);
+    }
+
+    @Test
+    public void testFinalizarCompra() {
+        assertFalse(cliente.finalizarCompra(canal));
+
+        cliente.adicionarAoCarrinho(canal, muda, 2);
+        cliente.adicionarAoCarrinho(canal, humus, 1);
+        assertTrue(cliente.finalizarCompra(canal));
+
+        // O estoque de todas as linhas foi baixado e o carrinho foi esvaziado
+        assertEquals(98, muda.getQuantidadeEstoque());
+        assertEquals(49, humus.getQuantidadeEstoque());
+        assertTrue(cliente.getCarrinhoCompras().isEmpty());
+        assertEquals(0.0, cliente.calcularTotalCarrinho(), 0.0);
+        assertEquals(2, cliente.getHistoricoCompras().size());
+    }
+
+    @Test
+    public void testFinalizarCompraCobraPrecoDoCarrinho() {
+        cliente.adicionarAoCarrinho(canal, muda, 2);
+        cliente.adicionarAoCarrinho(canal, humus, 1);
+        double totalCarrinho = cliente.calcularTotalCarrinho();
+
+        // O preço muda depois da inclusão; a compra cobra o preço mostrado no carrinho
+        muda.setPreco(7.25);
+        ResultadoLote resultado = cliente.finalizarCompraDetalhada(canal);
+        assertTrue(resultado.isSucesso());
+        assertEquals(totalCarrinho, resultado.getValorTotal(), 0.001);
+        assertEquals(5.10, resultado.getPrecoUnitario(0), 0.001);
+        assertEquals(5.10, cliente.getHistoricoCompras().get(0).getPrecoUnitario(), 0.001);
+    }
+
+    @Test
+    public void testFalhaNoLogDevolveEstoque() throws Exception {
+        cliente.adicionarAoCarrinho(canal, muda, 2);
+        cliente.adicionarAoCarrinho(canal, humus, 1);
+
+        // Um log fechado recusa a venda, que é gravada depois da baixa do estoque
+        Path arquivo = Files.createTempFile("carrinho", ".wal");
+        LogEscrita anterior = controlador.getLogEscrita();
+        LogEscrita fechado = new LogEscrita(arquivo, 0);
+        fechado.close();
+        controlador.setLogEscrita(fechado);
+        try {
+            cliente.finalizarCompraDetalhada(canal);
+            fail("A falha na gravação do log deveria ser propagada");
+        } catch (IllegalStateException e) {
+            // esperado
+        } finally {
+            controlador.setLogEscrita(anterior);
+            Files.deleteIfExists(arquivo);
+        }
+
+        // A baixa é desfeita: as unidades voltam livres, pois as reservas consumidas não voltam a valer
+        assertEquals(100, muda.getQuantidadeEstoque());
+        assertEquals(0, muda.getQuantidadeReservada());
+        assertEquals(0, humus.getQuantidadeReservada());
+        assertEquals(50, humus.getQuantidadeDisponivel());
+        assertTrue(cliente.getCarrinhoCompras().isEmpty());
+        assertTrue(cliente.getHistoricoCompras().isEmpty());
+    }
+
+    @Test
+    public void testFinalizarCompraDesfeita() {
+        cliente.adicionarAoCarrinho(canal, muda, 2);
+        cliente.adicionarAoCarrinho(canal, humus, 10);
+
+        // O estoque do húmus cai depois da inclusão no carrinho
+        assertTrue(controlador.atualizarEstoque(ID_HUMUS, 5));
+
+        ResultadoLote resultado = cliente.finalizarCompraDetalhada(canal);
+        assertFalse(resultado.isSucesso());
+        assertEquals(StatusItemVenda.CANCELADO, resultado.getStatus(0));
+        assertEquals(StatusItemVenda.ESTOQUE_INSUFICIENTE, resultado.getStatus(1));
+
+        // Nenhuma linha foi baixada e o carrinho continua intacto
+        assertEquals(100, muda.getQuantidadeEstoque());
+        assertEquals(5, humus.getQuantidadeEstoque());
+        assertEquals(2, cliente.getQuantidadeNoCarrinho(ID_MUDA));
+        assertTrue(cliente.getHistoricoCompras().isEmpty());
+    }
+
+    @Test
+    public void testCompensacaoConcorrenteSemImpasse() throws Exception {
+        // Clientes compram os mesmos produtos em ordens opostas; nenhum pode travar e o saldo deve fechar
+        final int threads = 8;
+        final int compras = 300;
+        Produto esterco = new Muda(ID_ESTERCO, "Muda de Alecrim", "Muda", 4.0, 2000, "Salvia rosmarinus", 30, "Arenoso");
+        controlador.cadastrarProduto(esterco);
+        controlador.atualizarEstoque(ID_MUDA, 2000);
+        controlador.atualizarEstoque(ID_HUMUS, 2000);
+        final Produto[] produtos = {muda, humus, esterco};
+        final AtomicIntegerArray vendidas = new AtomicIntegerArray(3);
+        final CountDownLatch largada = new CountDownLatch(1);
+        List<Thread> lista = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            final int semente = t;
+            Thread thread = new Thread(() -> {
+                Cliente comprador = new Cliente(9600 + semente, "Comprador", "c" + semente + "@carrinho.com",
+                                                "s", "12345678909", "Rua", "11900000000");
+                Random random = new Random(semente);
+                try {
+                    largada.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < compras; i++) {
+                    // Ordem de inclusão alternada entre as threads
+                    for (int k = 0; k < 3; k++) {
+                        int p = semente % 2 == 0 ? k : 2 - k;
+                        comprador.adicionarAoCarrinho(canal, produtos[p], 1 + random.nextInt(3));
+                    }
+                    int[] quantidades = new int[3];
+                    for (int p = 0; p < 3; p++) {
+                        quantidades[p] = comprador.getQuantidadeNoCarrinho(produtos[p].getId());
+                    }
+                    if (comprador.finalizarCompra(canal)) {
+                        for (int p = 0; p < 3; p++) {
+                            vendidas.addAndGet(p, quantidades[p]);
+                        }
+                    } else {
+                        for (int p = 0; p < 3; p++) {
+                            comprador.removerDoCarrinho(canal, produtos[p].getId());
+                        }
+                    }
+                }
+            });
+            lista.add(thread);
+            thread.start();
+        }
+
+        largada.countDown();
+        for (Thread thread : lista) {
+            thread.join(60_000);
+            assertFalse("Possível impasse no checkout", thread.isAlive());
+        }
+
+        for (int p = 0; p < 3; p++) {
+            assertTrue(produtos[p].getQuantidadeEstoque() >= 0);
+            assertEquals(2000 - vendidas.get(p), produtos[p].getQuantidadeEstoque());
+        }
+    }
+
+    @Test
+    public void testTotalIncremental() {
+        // Compara o total mantido pelo carrinho com um mapa de referência após operações aleatórias
+        CarrinhoCompras carrinho = new CarrinhoCompras();
+        Map<Integer, Integer> referencia = new HashMap<>();
+        Produto[] produtos = new Produto[500];
+        for (int i = 0; i < produtos.length; i++) {
+            produtos[i] = new Muda(i * 7 + 1, "Muda " + i, "Muda", 0.01 * (i + 1), 1000, "Espécie", 30, "Arenoso");
+        }
+
+        Random random = new Random(21);
+        for (int i = 0; i < 20000; i++) {
+            Produto produto = produtos[random.nextInt(produtos.length)];
+            int id = produto.getId();
+            int atual = referencia.getOrDefault(id, 0);
+
+            if (random.nextInt(3) > 0) {
+                int quantidade = 1 + random.nextInt(5);
+                assertTrue(carrinho.adicionar(produto, quantidade));
+                referencia.put(id, atual + quantidade);
+            } else if (random.nextBoolean()) {
+                assertEquals(atual, carrinho.remover(id));
+                referencia.remove(id);
+            } else {
+                int quantidade = 1 + random.nextInt(3);
+                assertEquals(quantidade <= atual, carrinho.remover(id, quantidade));
+                if (quantidade < atual) {
+                    referencia.put(id, atual - quantidade);
+                } else if (quantidade == atual) {
+                    referencia.remove(id);
+                }
+            }
+        }
+
+        long esperado = 0;
+        long itens = 0;
+        for (Map.Entry<Integer, Integer> entrada : referencia.entrySet()) {
+            assertEquals((int) entrada.getValue(), carrinho.quantidadeDe(entrada.getKey()));
+            esperado += Math.round(produtos[(entrada.getKey() - 1) / 7].getPreco() * 100.0) * entrada.getValue();
+            itens += entrada.getValue();
+        }
+        assertEquals(referencia.size(), carrinho.getQuantidadeLinhas());
+        assertEquals(esperado, carrinho.getTotalCentavos());
+        assertEquals(itens, carrinho.getQuantidadeItens());
+
+        carrinho.limpar();
+        assertTrue(carrinho.isVazio());
+        assertEquals(0, carrinho.getTotalCentavos());
+        assertEquals(0, carrinho.quantidadeDe(1));
+    }
+}
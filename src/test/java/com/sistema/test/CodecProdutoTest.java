@@ -0,0 +1,151 @@
+package com.sistema.test;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sistema.model.Esterco;
+import com.sistema.model.Humus;
+import com.sistema.model.Muda;
+import com.sistema.model.Produto;
+import com.sistema.persistencia.CodecProduto;
+
+/**
+ * Classe de teste para a classe CodecProduto
+ */
+public class CodecProdutoTest {
+    
+    private Muda muda;
+    private Humus humus;
+    private Esterco esterco;
+    
+    @Before
+    public void setUp() {
+        // Inicializa os objetos para os testes
+        muda = new Muda(1, "Muda de Tomate", "Muda de tomate orgânico", 5.0, 100,
+                        "Solanum lycopersicum", 60, "Argiloso");
+        humus = new Humus(2, "Húmus Premium", "Húmus de minhoca", 15.99, 50,
+                          "Minhoca Californiana", 2.5, "Rico em nitrogênio");
+        esterco = new Esterco(3, "Esterco Bovino", "Esterco bovino processado", 12.0, 30,
+                              "Bovino", 5.0, true, "Neutro");
+    }
+    
+    @Test
+    public void testIdaEVolta() {
+        CodecProduto escrita = new CodecProduto();
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        escrita.codificar(muda, buffer);
+        escrita.codificar(humus, buffer);
+        escrita.codificar(esterco, buffer);
+        buffer.flip();
+        
+        CodecProduto leitura = new CodecProduto();
+        Muda mudaLida = (Muda) leitura.decodificar(buffer);
+        Humus humusLido = (Humus) leitura.decodificar(buffer);
+        Esterco estercoLido = (Esterco) leitura.decodificar(buffer);
+        assertFalse(buffer.hasRemaining());
+        
+        verificarComuns(muda, mudaLida);
+        assertEquals("Solanum lycopersicum", mudaLida.getEspecie());
+        assertEquals(60, mudaLida.getTempoMaturacao());
+        assertEquals("Argiloso", mudaLida.getTipoSolo());
+        
+        verificarComuns(humus, humusLido);
+        assertEquals("Minhoca Californiana", humusLido.getOrigem());
+        assertEquals(2.5, humusLido.getPesoEmbalagem(), 0.0);
+        assertEquals("Rico em nitrogênio", humusLido.getComposicaoNutricional());
+        
+        verificarComuns(esterco, estercoLido);
+        assertEquals("Bovino", estercoLido.getTipoAnimal());
+        assertEquals(5.0, estercoLido.getPesoEmbalagem(), 0.0);
+        assertTrue(estercoLido.isProcessado());
+        assertEquals("Neutro", estercoLido.getNivelAcidez());
+    }
+    
+    @Test
+    public void testValoresExtremos() {
+        // Preço e peso sem representação exata, IDs negativos, textos nulos e fora do ASCII
+        Humus extremo = new Humus(Integer.MIN_VALUE, "Húmus 🌱 ç", null, 1.0 / 3.0, Integer.MAX_VALUE,
+                                  null, 0.0001234, "日本語");
+        Esterco negativo = new Esterco(-7, "", "", -2.5, -1, "Ovino", 1e300, false, null);
+        
+        CodecProduto codec = new CodecProduto();
+        ByteBuffer buffer = ByteBuffer.allocate(CodecProduto.tamanhoMaximo(extremo) + CodecProduto.tamanhoMaximo(negativo));
+        codec.codificar(extremo, buffer);
+        codec.codificar(negativo, buffer);
+        buffer.flip();
+        
+        CodecProduto leitura = new CodecProduto();
+        Humus humusLido = (Humus) leitura.decodificar(buffer);
+        verificarComuns(extremo, humusLido);
+        assertNull(humusLido.getOrigem());
+        assertEquals(0.0001234, humusLido.getPesoEmbalagem(), 0.0);
+        assertEquals("日本語", humusLido.getComposicaoNutricional());
+        
+        Esterco estercoLido = (Esterco) leitura.decodificar(buffer);
+        verificarComuns(negativo, estercoLido);
+        assertEquals(1e300, estercoLido.getPesoEmbalagem(), 0.0);
+        assertFalse(estercoLido.isProcessado());
+        assertNull(estercoLido.getNivelAcidez());
+    }
+    
+    @Test
+    public void testDicionarioReduzTamanho() {
+        // Produtos com os mesmos textos ocupam menos depois da primeira ocorrência
+        CodecProduto comDicionario = new CodecProduto();
+        CodecProduto semDicionario = new CodecProduto(false);
+        ByteBuffer com = ByteBuffer.allocate(64 * 1024);
+        ByteBuffer sem = ByteBuffer.allocate(64 * 1024);
+        
+        for (int i = 0; i < 100; i++) {
+            Muda copia = new Muda(i, "Muda de Tomate", "Muda de tomate orgânico", 5.0, 100,
+                                  "Solanum lycopersicum", 60, "Argiloso");
+            comDicionario.codificar(copia, com);
+            semDicionario.codificar(copia, sem);
+        }
+        
+        assertEquals(4, comDicionario.getTamanhoDicionario());
+        assertEquals(0, semDicionario.getTamanhoDicionario());
+        assertTrue(com.position() * 3 < sem.position());
+        
+        com.flip();
+        CodecProduto leitura = new CodecProduto();
+        for (int i = 0; i < 100; i++) {
+            Produto lido = leitura.decodificar(com);
+            assertEquals(i, lido.getId());
+            assertEquals("Muda de Tomate", lido.getNome());
+        }
+    }
+    
+    @Test
+    public void testTamanhoCompacto() {
+        // Campos inteiros e preços exatos ocupam poucos bytes
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        new CodecProduto(false).codificar(muda, buffer);
+        int textos = ("Muda de Tomate" + "Muda de tomate orgânico" + "Solanum lycopersicum" + "Argiloso")
+                     .getBytes(StandardCharsets.UTF_8).length;
+        assertTrue(buffer.position() <= textos + 8 + 8);
+    }
+    
+    @Test(expected = IllegalStateException.class)
+    public void testVersaoDesconhecida() {
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        new CodecProduto().codificar(muda, buffer);
+        buffer.put(0, (byte) ((buffer.get(0) & 0x1F) | (7 << 5)));
+        buffer.flip();
+        new CodecProduto().decodificar(buffer);
+    }
+    
+    private void verificarComuns(Produto esperado, Produto lido) {
+        assertEquals(esperado.getClass(), lido.getClass());
+        assertEquals(esperado.getId(), lido.getId());
+        assertEquals(esperado.getNome(), lido.getNome());
+        assertEquals(esperado.getDescricao(), lido.getDescricao());
+        assertEquals(esperado.getPreco(), lido.getPreco(), 0.0);
+        assertEquals(esperado.getQuantidadeEstoque(), lido.getQuantidadeEstoque());
+    }
+}
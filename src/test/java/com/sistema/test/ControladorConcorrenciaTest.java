@@ -0,0 +1,188 @@
+package com.sistema.test;
+
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sistema.service.Controlador;
+import com.sistema.model.Catalogo;
+import com.sistema.model.Humus;
+import com.sistema.model.Muda;
+import com.sistema.model.Produto;
+
+/**
+ * Classe de teste de concorrência para as vendas do Controlador
+ */
+public class ControladorConcorrenciaTest {
+    
+    private static final int THREADS = 16;
+    private static final int ID_MUDA = 9001;
+    private static final int ID_HUMUS = 9002;
+    
+    private Controlador controlador;
+    
+    @Before
+    public void setUp() {
+        controlador = Controlador.getInstancia();
+        controlador.removerProduto(ID_MUDA);
+        controlador.removerProduto(ID_HUMUS);
+        
+        controlador.cadastrarProduto(new Muda(ID_MUDA, "Muda de Alface", "Muda de alface", 3.0, 10000,
+                                              "Lactuca sativa", 45, "Arenoso"));
+        controlador.cadastrarProduto(new Humus(ID_HUMUS, "Húmus", "Húmus de minhoca", 15.0, 5000,
+                                               "Minhoca Californiana", 2.5, "Rico em nitrogênio"));
+    }
+    
+    @After
+    public void tearDown() {
+        controlador.removerProduto(ID_MUDA);
+        controlador.removerProduto(ID_HUMUS);
+    }
+    
+    @Test
+    public void testVendasConcorrentesNaoExcedemEstoque() throws Exception {
+        // Cada thread tenta vender muito mais do que o estoque comporta
+        final AtomicInteger vendidasMuda = new AtomicInteger();
+        final AtomicInteger vendidasHumus = new AtomicInteger();
+        final CountDownLatch largada = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        
+        for (int t = 0; t < THREADS; t++) {
+            final boolean muda = t % 2 == 0;
+            Thread thread = new Thread(() -> {
+                try {
+                    largada.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < 5000; i++) {
+                    if (muda && controlador.realizarVenda(ID_MUDA, 3)) {
+                        vendidasMuda.addAndGet(3);
+                    } else if (!muda && controlador.realizarVenda(ID_HUMUS, 2)) {
+                        vendidasHumus.addAndGet(2);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        
+        largada.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        
+        // Nenhuma unidade foi vendida além do estoque e o saldo fecha com as vendas
+        assertEquals(9999, vendidasMuda.get());
+        assertEquals(1, controlador.buscarProduto(ID_MUDA).getQuantidadeEstoque());
+        assertEquals(5000, vendidasHumus.get());
+        assertEquals(0, controlador.buscarProduto(ID_HUMUS).getQuantidadeEstoque());
+    }
+    
+    @Test
+    public void testVendasEAtualizacoesConcorrentes() throws Exception {
+        // Reposições concorrentes nunca deixam o estoque negativo
+        final AtomicInteger leiturasNegativas = new AtomicInteger();
+        final CountDownLatch largada = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        
+        for (int t = 0; t < THREADS; t++) {
+            final boolean repositor = t == 0;
+            Thread thread = new Thread(() -> {
+                try {
+                    largada.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < 2000; i++) {
+                    if (repositor) {
+                        controlador.atualizarEstoque(ID_MUDA, 50);
+                    } else {
+                        controlador.realizarVenda(ID_MUDA, 7);
+                    }
+                    if (controlador.buscarProduto(ID_MUDA).getQuantidadeEstoque() < 0) {
+                        leiturasNegativas.incrementAndGet();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        
+        largada.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        
+        assertEquals(0, leiturasNegativas.get());
+        assertTrue(controlador.buscarProduto(ID_MUDA).getQuantidadeEstoque() >= 0);
+    }
+    
+    @Test
+    public void testRecalculoDeTotaisDuranteVendas() throws Exception {
+        // O recálculo concorrente com vendas não pode perder as baixas feitas durante ele
+        final CountDownLatch largada = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        
+        for (int t = 0; t < 4; t++) {
+            final boolean recalculo = t == 0;
+            Thread thread = new Thread(() -> {
+                try {
+                    largada.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < 2000; i++) {
+                    if (recalculo) {
+                        controlador.recalcularTotaisEstoque();
+                    } else {
+                        controlador.realizarVenda(i % 2 == 0 ? ID_MUDA : ID_HUMUS, 1);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        
+        largada.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        
+        long unidades = 0;
+        for (Produto produto : Catalogo.getInstancia().listar()) {
+            unidades += produto.getQuantidadeEstoque();
+        }
+        assertEquals(unidades, Catalogo.getInstancia().getTotalUnidades());
+    }
+    
+    @Test
+    public void testSingletonConcorrente() throws Exception {
+        // Todas as threads devem obter a mesma instância
+        final Controlador[] instancias = new Controlador[THREADS];
+        List<Thread> threads = new ArrayList<>();
+        
+        for (int t = 0; t < THREADS; t++) {
+            final int indice = t;
+            Thread thread = new Thread(() -> instancias[indice] = Controlador.getInstancia());
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        
+        for (Controlador instancia : instancias) {
+            assertSame(controlador, instancia);
+        }
+    }
+}
@@ -4,12 +4,22 @@ import static org.junit.Assert.*;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.sistema.persistencia.LogEscrita;
 import com.sistema.service.Controlador;
+import com.sistema.model.ResultadoLote;
+import com.sistema.model.StatusItemVenda;
 import com.sistema.model.Produto;
 import com.sistema.model.Muda;
+import com.sistema.model.Humus;
 import com.sistema.model.Usuario;
 import com.sistema.model.Vendedor;
 import com.sistema.model.Cliente;
+import com.sistema.model.RegistroVendas;
 
 /**
  * Classe de teste para a classe Controlador
@@ -130,4 +140,86 @@ public class ControladorTest {
         assertNotNull(relatorioVendas);
         assertTrue(relatorioVendas.contains("RELATÓRIO DE VENDAS"));
     }
+    
+    @Test
+    public void testRealizarVendasEmLote() {
+        // Cadastra um segundo produto para o pedido
+        Humus humus = new Humus(4, "Húmus Premium", "Húmus de minhoca", 15.0, 50,
+                                "Minhoca Californiana", 2.5, "Rico em nitrogênio");
+        controlador.cadastrarProduto(humus);
+        
+        // Testa um pedido válido, com o mesmo produto em duas linhas
+        ResultadoLote resultado = controlador.realizarVendasEmLote(new int[] {1, 4, 1}, new int[] {10, 5, 20});
+        assertTrue(resultado.isSucesso());
+        assertEquals(3, resultado.getQuantidadeLinhas());
+        assertEquals(StatusItemVenda.VENDIDO, resultado.getStatus(2));
+        assertEquals(225.0, resultado.getValorTotal(), 0.001);
+        assertEquals(70, controlador.buscarProduto(1).getQuantidadeEstoque());
+        assertEquals(45, controlador.buscarProduto(4).getQuantidadeEstoque());
+        
+        // Testa que o pedido é tudo ou nada quando uma linha falha
+        resultado = controlador.realizarVendasEmLote(new int[] {1, 4, 99, 4}, new int[] {10, 40, 1, 10});
+        assertFalse(resultado.isSucesso());
+        assertEquals(StatusItemVenda.CANCELADO, resultado.getStatus(0));
+        assertEquals(StatusItemVenda.ESTOQUE_INSUFICIENTE, resultado.getStatus(1));
+        assertEquals(StatusItemVenda.PRODUTO_INEXISTENTE, resultado.getStatus(2));
+        assertEquals(StatusItemVenda.ESTOQUE_INSUFICIENTE, resultado.getStatus(3));
+        assertEquals(0.0, resultado.getValorTotal(), 0.001);
+        assertEquals(70, controlador.buscarProduto(1).getQuantidadeEstoque());
+        assertEquals(45, controlador.buscarProduto(4).getQuantidadeEstoque());
+        
+        controlador.removerProduto(4);
+    }
+    
+    @Test
+    public void testRelatorioEstoqueEmFluxo() throws Exception {
+        // Cadastra produtos suficientes para ocupar vários blocos do relatório
+        for (int id = 100; id < 2600; id++) {
+            controlador.cadastrarProduto(new Muda(id, "Muda " + id, "Muda", 1.0, 1, "Espécie", 10, "Solo"));
+        }
+        
+        // Testa que o relatório em fluxo é idêntico ao relatório em texto
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        controlador.gerarRelatorioEstoque(saida);
+        String relatorio = controlador.gerarRelatorioEstoque();
+        assertEquals(relatorio, new String(saida.toByteArray(), StandardCharsets.UTF_8));
+        assertTrue(relatorio.contains("Muda 2599"));
+        
+        for (int id = 100; id < 2600; id++) {
+            controlador.removerProduto(id);
+        }
+    }
+    
+    @Test
+    public void testVendaRecusadaPeloLogDevolveEstoque() throws Exception {
+        // Um log fechado recusa as vendas, que são gravadas depois da baixa do estoque
+        Path arquivo = Files.createTempFile("controlador", ".wal");
+        LogEscrita anterior = controlador.getLogEscrita();
+        LogEscrita fechado = new LogEscrita(arquivo, 0);
+        fechado.close();
+        long vendasAntes = RegistroVendas.getInstancia().getTotalVendas();
+        controlador.setLogEscrita(fechado);
+        try {
+            try {
+                controlador.realizarVenda(vendedor, 1, 10, 2);
+                fail("A recusa do log deveria ser propagada");
+            } catch (IllegalStateException e) {
+                // esperado
+            }
+            try {
+                controlador.realizarVendasEmLote(new int[] {1, 1}, new int[] {5, 7});
+                fail("A recusa do log deveria ser propagada");
+            } catch (IllegalStateException e) {
+                // esperado
+            }
+        } finally {
+            controlador.setLogEscrita(anterior);
+            Files.deleteIfExists(arquivo);
+        }
+        
+        // Nenhuma unidade some do estoque sem a venda correspondente
+        assertEquals(100, controlador.buscarProduto(1).getQuantidadeEstoque());
+        assertEquals(vendasAntes, RegistroVendas.getInstancia().getTotalVendas());
+        assertEquals(0, vendedor.getTotalVendas());
+    }
 }
@@ -146,4 +146,27 @@ public class EstoqueTest {
         assertEquals(2, estoque.getTotalProdutosDiferentes());
         assertEquals(80, estoque.getTotalItensEstoque());
     }
+    
+    @Test
+    public void testTotaisIncrementais() {
+        // Adiciona produtos para o teste
+        estoque.adicionarProduto(muda); // 100 unidades a 5,00
+        estoque.adicionarProduto(humus); // 50 unidades a 15,00
+        assertEquals(150, estoque.getTotalItensEstoque());
+        assertEquals(1250.0, estoque.getValorTotalEstoque(), 0.001);
+        
+        // Testa que vendas, reposições e alterações de preço atualizam os totais
+        assertTrue(estoque.baixarEstoque(1, 40));
+        assertTrue(humus.adicionarAoEstoque(10));
+        assertTrue(estoque.atualizarQuantidade(1, 80));
+        humus.setPreco(20.0);
+        assertEquals(140, estoque.getTotalItensEstoque());
+        assertEquals(1600.0, estoque.getValorTotalEstoque(), 0.001);
+        
+        // Testa que produtos removidos deixam de ser contabilizados
+        estoque.removerProduto(2);
+        assertTrue(humus.adicionarAoEstoque(10));
+        assertEquals(80, estoque.getTotalItensEstoque());
+        assertEquals(400.0, estoque.getValorTotalEstoque(), 0.001);
+    }
 }
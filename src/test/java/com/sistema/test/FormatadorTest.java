@@ -0,0 +1,87 @@
+package com.sistema.test;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+
+import com.sistema.util.Formatador;
+import com.sistema.util.Util;
+
+/**
+ * Classe de teste para a classe Formatador
+ */
+public class FormatadorTest {
+    
+    @Test
+    public void testValoresComSeparadores() {
+        assertEquals("R$ 0,00", Util.formatarValor(0));
+        assertEquals("R$ 5,00", Util.formatarValor(5.0));
+        assertEquals("R$ 999,99", Util.formatarValor(999.99));
+        assertEquals("R$ 1.234,56", Util.formatarValor(1234.56));
+        assertEquals("R$ 1.234.567,89", Util.formatarValor(1234567.891));
+        assertEquals("R$ 100.000,00", Util.formatarValor(100000));
+        assertEquals("-R$ 12,35", Util.formatarValor(-12.345));
+        assertEquals("R$ 0,00", Util.formatarValor(-0.001));
+        assertEquals("R$ 1.000.000.000.000.000,00", Util.formatarValor(1e15));
+    }
+    
+    @Test
+    public void testArredondamentoIgualAoStringFormat() {
+        // O double fica abaixo do meio centavo, mas o texto decimal está no meio
+        assertEquals("R$ 544,56", Util.formatarValor(544.555));
+        assertEquals("R$ 163,08", Util.formatarValor(163.075));
+        assertEquals("R$ 0,29", Util.formatarValor(0.285));
+        
+        Random aleatorio = new Random(20_171_017L);
+        for (int i = 0; i < 200_000; i++) {
+            // Metade dos valores com três casas decimais, onde os empates são comuns
+            double valor = i % 2 == 0
+                ? aleatorio.nextInt(100_000_000) / 1000.0
+                : aleatorio.nextDouble() * Math.pow(10, aleatorio.nextInt(12));
+            String referencia = String.format(Locale.ROOT, "%,.2f", valor)
+                .replace(',', '_').replace('.', ',').replace('_', '.');
+            assertEquals("Valor " + valor, "R$ " + referencia, Util.formatarValor(valor));
+        }
+    }
+    
+    @Test
+    public void testAnexarSemApagarConteudo() {
+        StringBuilder destino = new StringBuilder("Total: ");
+        Formatador.anexarValor(destino, 15.5).append(" em ");
+        Formatador.anexarData(destino, 0L);
+        
+        String esperado = "Total: R$ 15,50 em " + new SimpleDateFormat("dd/MM/yyyy").format(new Date(0L));
+        assertEquals(esperado, destino.toString());
+    }
+    
+    @Test
+    public void testByteBuffer() {
+        ByteBuffer destino = ByteBuffer.allocate(64);
+        Formatador.anexarValor(destino, 98765.4);
+        destino.put((byte) ' ');
+        Formatador.anexarData(destino, 1_700_000_000_000L);
+        destino.flip();
+        
+        String texto = StandardCharsets.UTF_8.decode(destino).toString();
+        String data = new SimpleDateFormat("dd/MM/yyyy").format(new Date(1_700_000_000_000L));
+        assertEquals("R$ 98.765,40 " + data, texto);
+    }
+    
+    @Test
+    public void testDatasIguaisAoSimpleDateFormat() {
+        SimpleDateFormat referencia = new SimpleDateFormat("dd/MM/yyyy");
+        
+        // Percorre de 1900 a 2100 em passos irregulares, cobrindo viradas de dia e horário de verão
+        long passo = 3_600_000L * 7 + 123_457L;
+        for (long instante = -2_208_988_800_000L; instante < 4_102_444_800_000L; instante += passo) {
+            assertEquals(referencia.format(new Date(instante)), Util.formatarData(new Date(instante)));
+        }
+        assertEquals("", Util.formatarData(null));
+    }
+}
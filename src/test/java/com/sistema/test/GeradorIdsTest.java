@@ -0,0 +1,83 @@
+package com.sistema.test;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.util.BitSet;
+import java.util.concurrent.CountDownLatch;
+
+import com.sistema.util.GeradorIds;
+import com.sistema.util.Util;
+
+/**
+ * Classe de teste para a classe GeradorIds
+ */
+public class GeradorIdsTest {
+    
+    @Test
+    public void testIdsDistintosNoMesmoMilissegundo() {
+        int primeiro = Util.gerarId();
+        int segundo = Util.gerarId();
+        int terceiro = Util.gerarId();
+        
+        assertTrue(primeiro > 0);
+        assertNotEquals(primeiro, segundo);
+        assertNotEquals(segundo, terceiro);
+        assertNotEquals(primeiro, terceiro);
+    }
+    
+    @Test
+    public void testUnicidadeSobConcorrencia() throws InterruptedException {
+        final int threads = 8;
+        final int idsPorThread = 250_000;
+        final int[][] gerados = new int[threads][idsPorThread];
+        final GeradorIds gerador = GeradorIds.getInstancia();
+        CountDownLatch largada = new CountDownLatch(1);
+        Thread[] trabalhadores = new Thread[threads];
+        
+        for (int t = 0; t < threads; t++) {
+            final int[] destino = gerados[t];
+            trabalhadores[t] = new Thread(() -> {
+                try {
+                    largada.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < destino.length; i++) {
+                    destino[i] = gerador.proximoId();
+                }
+            });
+            trabalhadores[t].start();
+        }
+        
+        largada.countDown();
+        for (Thread trabalhador : trabalhadores) {
+            trabalhador.join();
+        }
+        
+        BitSet vistos = new BitSet();
+        for (int[] ids : gerados) {
+            for (int id : ids) {
+                assertTrue("ID não positivo: " + id, id > 0);
+                assertFalse("ID repetido: " + id, vistos.get(id));
+                vistos.set(id);
+            }
+        }
+        assertEquals(threads * idsPorThread, vistos.cardinality());
+    }
+    
+    @Test
+    public void testAvancarParaDescartaBlocosReservados() {
+        GeradorIds gerador = GeradorIds.getInstancia();
+        int atual = gerador.proximoId();
+        
+        gerador.avancarPara(atual + 50_000);
+        assertTrue(gerador.proximoId() > atual + 50_000);
+        
+        // Avançar para um ID menor não faz o gerador voltar
+        int depois = gerador.proximoId();
+        gerador.avancarPara(1);
+        assertTrue(gerador.proximoId() > depois);
+    }
+}
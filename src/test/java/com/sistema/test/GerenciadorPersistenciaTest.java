@@ -0,0 +1,229 @@
+package com.sistema.test;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sistema.model.Catalogo;
+import com.sistema.model.Humus;
+import com.sistema.model.Muda;
+import com.sistema.model.PlacarVendedores;
+import com.sistema.model.RegistroVendas;
+import com.sistema.model.Vendedor;
+import com.sistema.persistencia.GerenciadorPersistencia;
+import com.sistema.service.Controlador;
+
+/**
+ * Classe de teste para a classe GerenciadorPersistencia
+ */
+public class GerenciadorPersistenciaTest {
+    
+    private Path diretorio;
+    private Controlador controlador;
+    private GerenciadorPersistencia gerenciador;
+    
+    @Before
+    public void setUp() throws IOException {
+        diretorio = Files.createTempDirectory("persistencia");
+        controlador = Controlador.getInstancia();
+        gerenciador = GerenciadorPersistencia.abrir(diretorio, 0);
+    }
+    
+    @After
+    public void tearDown() throws IOException {
+        gerenciador.close();
+        
+        // Não deixa estado recuperado para os demais testes
+        Catalogo.getInstancia().limpar();
+        RegistroVendas.getInstancia().limpar();
+        
+        try (Stream<Path> arquivos = Files.walk(diretorio)) {
+            arquivos.sorted(Comparator.reverseOrder()).forEach(arquivo -> arquivo.toFile().delete());
+        }
+    }
+    
+    @Test
+    public void testRecuperarSomenteDoLog() throws IOException {
+        cadastrarDados();
+        controlador.realizarVenda(501, 10, 3);
+        controlador.atualizarEstoque(502, 40);
+        
+        reabrir();
+        
+        assertEquals(0, gerenciador.getLsnInstantaneoCarregado());
+        assertEquals(7, gerenciador.getRegistrosReaplicados());
+        verificarEstado(90, 40, 1);
+    }
+    
+    @Test
+    public void testRecuperarInstantaneoMaisCauda() throws IOException {
+        cadastrarDados();
+        controlador.realizarVenda(501, 10, 3);
+        long lsn = gerenciador.gravarInstantaneo();
+        assertEquals(6, lsn);
+        
+        // Alterações posteriores ao instantâneo ficam apenas no novo segmento
+        controlador.atualizarEstoque(502, 40);
+        
+        reabrir();
+        
+        assertEquals(6, gerenciador.getLsnInstantaneoCarregado());
+        assertEquals(1, gerenciador.getRegistrosReaplicados());
+        verificarEstado(90, 40, 1);
+        
+        // A numeração continua depois da recuperação
+        controlador.realizarVenda(502, 5, 3);
+        reabrir();
+        verificarEstado(90, 35, 2);
+    }
+    
+    @Test
+    public void testVendaDoVendedorRecuperada() throws IOException {
+        cadastrarDados();
+        Vendedor vendedor = (Vendedor) controlador.buscarUsuarioPorId(3);
+        assertTrue(controlador.realizarVenda(vendedor, 501, 4, RegistroVendas.SEM_IDENTIFICACAO));
+        assertEquals(1, vendedor.getTotalVendas());
+        
+        // A venda feita pelo vendedor passa pelo log e sobrevive à reabertura
+        reabrir();
+        verificarEstado(96, 50, 1);
+    }
+    
+    @Test
+    public void testTotaisDoVendedorRecuperados() throws IOException {
+        cadastrarDados();
+        Vendedor vendedor = (Vendedor) controlador.buscarUsuarioPorId(3);
+        assertTrue(controlador.realizarVenda(vendedor, 501, 4, RegistroVendas.SEM_IDENTIFICACAO));
+        gerenciador.gravarInstantaneo();
+        
+        // Uma venda no instantâneo e outra na cauda do log
+        assertTrue(controlador.realizarVenda(vendedor, 502, 2, RegistroVendas.SEM_IDENTIFICACAO));
+        reabrir();
+        
+        Vendedor recuperado = (Vendedor) controlador.buscarUsuarioPorId(3);
+        assertNotSame(vendedor, recuperado);
+        assertEquals(2, recuperado.getTotalVendas());
+        assertEquals(110.0, recuperado.getReceitaVendas(), 0.001);
+        assertEquals(5.5, recuperado.getComissaoAcumulada(), 0.001);
+        assertEquals(11_000, PlacarVendedores.getInstancia().getReceitaDoDiaCentavos(3));
+        
+        // Uma segunda reabertura não conta as vendas duas vezes
+        reabrir();
+        recuperado = (Vendedor) controlador.buscarUsuarioPorId(3);
+        assertEquals(2, recuperado.getTotalVendas());
+        assertEquals(11_000, PlacarVendedores.getInstancia().getReceitaDoDiaCentavos(3));
+    }
+    
+    @Test
+    public void testInstantaneoDuranteVendas() throws Exception {
+        cadastrarDados();
+        controlador.atualizarEstoque(501, 100_000);
+        Vendedor vendedor = (Vendedor) controlador.buscarUsuarioPorId(3);
+        final AtomicBoolean vendendo = new AtomicBoolean(true);
+        List<Thread> threads = new ArrayList<>();
+        
+        // Vendas pelo controlador e pelo vendedor continuam enquanto os instantâneos são gravados
+        for (int t = 0; t < 4; t++) {
+            final boolean peloVendedor = t % 2 == 0;
+            Thread thread = new Thread(() -> {
+                while (vendendo.get()) {
+                    if (peloVendedor) {
+                        controlador.realizarVenda(vendedor, 501, 1, RegistroVendas.SEM_IDENTIFICACAO);
+                    } else {
+                        controlador.realizarVenda(501, 1, 3);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (int i = 0; i < 5; i++) {
+            gerenciador.gravarInstantaneo();
+            Thread.sleep(20);
+        }
+        vendendo.set(false);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        
+        int estoque = controlador.buscarProduto(501).getQuantidadeEstoque();
+        long vendas = RegistroVendas.getInstancia().getTotalVendas();
+        assertEquals(100_000 - vendas, estoque);
+        
+        // O instantâneo mais recente e a cauda do log reconstroem exatamente o mesmo estado
+        reabrir();
+        assertTrue(gerenciador.getLsnInstantaneoCarregado() > 0);
+        verificarEstado(estoque, 50, vendas);
+    }
+    
+    @Test
+    public void testDescartaArquivosAntigos() throws IOException {
+        cadastrarDados();
+        for (int i = 0; i < 4; i++) {
+            controlador.realizarVenda(501, 1, 3);
+            gerenciador.gravarInstantaneo();
+        }
+        
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            // Dois instantâneos e os segmentos posteriores ao mais antigo deles
+            assertEquals(4, arquivos.count());
+        }
+        
+        reabrir();
+        verificarEstado(96, 50, 4);
+    }
+    
+    @Test
+    public void testInstantaneoCorrompidoUsaAnterior() throws IOException {
+        cadastrarDados();
+        gerenciador.gravarInstantaneo();
+        controlador.realizarVenda(501, 10, 3);
+        long lsn = gerenciador.gravarInstantaneo();
+        gerenciador.close();
+        
+        // Corrompe o instantâneo mais recente
+        Path recente = diretorio.resolve(String.format("instantaneo-%020d.dat", lsn));
+        byte[] bytes = Files.readAllBytes(recente);
+        bytes[bytes.length / 2] ^= 0x55;
+        Files.write(recente, bytes);
+        
+        gerenciador = GerenciadorPersistencia.abrir(diretorio, 0);
+        assertEquals(5, gerenciador.getLsnInstantaneoCarregado());
+        verificarEstado(90, 50, 1);
+    }
+    
+    private void cadastrarDados() {
+        controlador.cadastrarUsuario(new Vendedor(3, "Carla", "carla@email.com", "senha", 5.0));
+        controlador.cadastrarProduto(new Muda(501, "Muda de Ipê", "Ipê amarelo", 20.0, 100, "Ipê", 90, "Argiloso"));
+        controlador.cadastrarProduto(new Humus(502, "Húmus", "Húmus de minhoca", 15.0, 50, "Minhoca", 2.5, "Nitrogênio"));
+        controlador.cadastrarProduto(new Humus(503, "Húmus Fino", "Peneirado", 18.0, 10, "Minhoca", 1.0, "Fósforo"));
+        controlador.removerProduto(503);
+    }
+    
+    private void reabrir() throws IOException {
+        gerenciador.close();
+        gerenciador = GerenciadorPersistencia.abrir(diretorio, 0);
+    }
+    
+    private void verificarEstado(int quantidadeMuda, int quantidadeHumus, long vendas) {
+        assertEquals(2, Catalogo.getInstancia().tamanho());
+        assertEquals(quantidadeMuda, controlador.buscarProduto(501).getQuantidadeEstoque());
+        assertEquals(quantidadeHumus, controlador.buscarProduto(502).getQuantidadeEstoque());
+        assertNull(controlador.buscarProduto(503));
+        assertEquals(quantidadeMuda + quantidadeHumus, Catalogo.getInstancia().getTotalUnidades());
+        assertTrue(controlador.realizarLogin("carla@email.com", "senha"));
+        controlador.realizarLogout();
+        assertEquals(vendas, RegistroVendas.getInstancia().getTotalVendas());
+    }
+}
@@ -0,0 +1,215 @@
+package com.sistema.test;
+
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.sistema.model.CanalCompras;
+import com.sistema.model.Cliente;
+import com.sistema.model.Humus;
+import com.sistema.model.Produto;
+import com.sistema.service.Controlador;
+import com.sistema.service.Estoque;
+import com.sistema.service.GerenciadorReservas;
+import com.sistema.service.ReservaEstoque;
+
+/**
+ * Classe de teste para as reservas de estoque dos carrinhos
+ */
+public class GerenciadorReservasTest {
+    
+    private static final int ID_HUMUS = 9701;
+    private static final long TEMPO_RESERVA = 60_000;
+    
+    private AtomicLong relogio;
+    private GerenciadorReservas reservas;
+    private Controlador controlador;
+    private Humus humus;
+    
+    @Before
+    public void setUp() {
+        relogio = new AtomicLong(1_000_000);
+        reservas = new GerenciadorReservas(TEMPO_RESERVA, relogio::get);
+        controlador = Controlador.getInstancia();
+        controlador.removerProduto(ID_HUMUS);
+        humus = new Humus(ID_HUMUS, "Húmus Promocional", "Húmus de minhoca", 15.0, 10,
+                          "Minhoca Californiana", 2.5, "Rico em nitrogênio");
+        controlador.cadastrarProduto(humus);
+    }
+    
+    @After
+    public void tearDown() {
+        controlador.removerProduto(ID_HUMUS);
+    }
+    
+    @Test
+    public void testReservaReduzDisponibilidade() {
+        ReservaEstoque reserva = reservas.reservar(humus, 7);
+        assertNotNull(reserva);
+        
+        // As unidades reservadas continuam no estoque, mas não estão disponíveis
+        assertEquals(10, humus.getQuantidadeEstoque());
+        assertEquals(7, humus.getQuantidadeReservada());
+        assertEquals(3, humus.getQuantidadeDisponivel());
+        assertFalse(Estoque.getInstancia().verificarDisponibilidade(ID_HUMUS, 4));
+        assertTrue(Estoque.getInstancia().verificarDisponibilidade(ID_HUMUS, 3));
+        assertNull(reservas.reservar(humus, 4));
+        
+        // Vendas comuns só consomem unidades não reservadas
+        assertFalse(controlador.realizarVenda(ID_HUMUS, 4));
+        assertTrue(controlador.realizarVenda(ID_HUMUS, 3));
+        
+        assertEquals(7, reservas.liberar(reserva));
+        assertEquals(0, reservas.liberar(reserva));
+        assertEquals(7, humus.getQuantidadeDisponivel());
+        assertEquals(0, reservas.getQuantidadeReservas());
+    }
+    
+    @Test
+    public void testExpiracaoERenovacao() {
+        ReservaEstoque reserva = reservas.reservar(humus, 4);
+        
+        // Aumentar a reserva renova o prazo
+        relogio.addAndGet(TEMPO_RESERVA - 5_000);
+        assertTrue(reservas.ajustar(reserva, 6));
+        relogio.addAndGet(10_000);
+        assertEquals(0, reservas.expirar());
+        assertEquals(6, humus.getQuantidadeReservada());
+        
+        // Sem novas alterações, a reserva vence e as unidades voltam a ficar disponíveis
+        relogio.addAndGet(TEMPO_RESERVA);
+        assertEquals(1, reservas.expirar());
+        assertTrue(reserva.isEncerrada());
+        assertEquals(0, humus.getQuantidadeReservada());
+        assertEquals(0, reservas.getQuantidadeReservas());
+        
+        // Ajustar uma reserva expirada a reabre com a quantidade desejada
+        assertTrue(reservas.ajustar(reserva, 2));
+        assertFalse(reserva.isEncerrada());
+        assertEquals(2, humus.getQuantidadeReservada());
+        assertEquals(1, reservas.getQuantidadeReservas());
+    }
+    
+    @Test
+    public void testTomarEDevolver() {
+        ReservaEstoque reserva = reservas.reservar(humus, 5);
+        
+        // A reserva tomada não expira e as unidades continuam reservadas no produto
+        assertEquals(5, reservas.tomar(reserva));
+        assertEquals(0, reservas.tomar(reserva));
+        relogio.addAndGet(2 * TEMPO_RESERVA);
+        assertEquals(0, reservas.expirar());
+        assertEquals(5, humus.getQuantidadeReservada());
+        
+        // Devolvida com o prazo original já vencido, expira no próximo avanço
+        assertTrue(reservas.devolver(reserva, 5));
+        assertFalse(reservas.devolver(reserva, 5));
+        relogio.addAndGet(1_000);
+        assertEquals(1, reservas.expirar());
+        assertEquals(0, humus.getQuantidadeReservada());
+    }
+    
+    @Test
+    public void testMuitasReservasExpiramJuntas() {
+        Produto produto = new Humus(1, "Húmus", "Húmus", 15.0, 1_000_000, "Minhoca", 2.5, "Nitrogênio");
+        for (int i = 0; i < 200_000; i++) {
+            assertNotNull(reservas.reservar(produto, 5));
+            // Espalha os prazos por 20 segundos
+            if (i % 10_000 == 0) {
+                relogio.addAndGet(1_000);
+            }
+        }
+        assertEquals(0, produto.getQuantidadeDisponivel());
+        assertNull(reservas.reservar(produto, 1));
+        
+        relogio.addAndGet(TEMPO_RESERVA);
+        assertEquals(200_000, reservas.expirar());
+        assertEquals(1_000_000, produto.getQuantidadeDisponivel());
+        assertEquals(0, reservas.getQuantidadeReservas());
+    }
+    
+    @Test
+    public void testReservasConcorrentesEmParticoes() throws Exception {
+        // Threads criam, ajustam, tomam e liberam reservas em partições diferentes
+        final GerenciadorReservas particionado = new GerenciadorReservas(TEMPO_RESERVA, relogio::get, 8);
+        final Produto produto = new Humus(2, "Húmus", "Húmus", 15.0, 1_000_000, "Minhoca", 2.5, "Nitrogênio");
+        final int threads = 8;
+        final CountDownLatch largada = new CountDownLatch(1);
+        final AtomicInteger mantidas = new AtomicInteger();
+        List<Thread> lista = new ArrayList<>();
+        
+        for (int t = 0; t < threads; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    largada.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < 5_000; i++) {
+                    ReservaEstoque reserva = particionado.reservar(produto, 2);
+                    particionado.ajustar(reserva, 3);
+                    if (i % 3 == 0) {
+                        particionado.liberar(reserva);
+                    } else if (i % 3 == 1) {
+                        int tomada = particionado.tomar(reserva);
+                        assertTrue(particionado.devolver(reserva, tomada));
+                        mantidas.addAndGet(3);
+                    } else {
+                        mantidas.addAndGet(3);
+                    }
+                }
+            });
+            lista.add(thread);
+            thread.start();
+        }
+        
+        largada.countDown();
+        for (Thread thread : lista) {
+            thread.join();
+        }
+        
+        assertEquals(mantidas.get(), produto.getQuantidadeReservada());
+        assertEquals(mantidas.get() / 3, particionado.getQuantidadeReservas());
+        
+        // As reservas de todas as partições expiram
+        relogio.addAndGet(TEMPO_RESERVA + 1_000);
+        assertEquals(mantidas.get() / 3, particionado.expirar());
+        assertEquals(0, produto.getQuantidadeReservada());
+        assertEquals(0, particionado.getQuantidadeReservas());
+    }
+    
+    @Test
+    public void testCarrinhoReservaEstoque() {
+        Cliente ana = new Cliente(9702, "Ana", "ana@reserva.com", "s", "12345678909", "Rua", "11900000000");
+        Cliente bia = new Cliente(9703, "Bia", "bia@reserva.com", "s", "12345678909", "Rua", "11900000000");
+        CanalCompras canal = controlador.getCanalCompras();
+        
+        // O carrinho de Ana reserva 8 das 10 unidades
+        assertTrue(ana.adicionarAoCarrinho(canal, humus, 8));
+        assertEquals(2, humus.getQuantidadeDisponivel());
+        assertFalse(bia.adicionarAoCarrinho(canal, humus, 3));
+        assertTrue(bia.adicionarAoCarrinho(canal, humus, 2));
+        
+        // Remover unidades do carrinho libera a reserva correspondente
+        assertTrue(ana.removerDoCarrinho(canal, ID_HUMUS, 3));
+        assertEquals(3, humus.getQuantidadeDisponivel());
+        
+        // A compra consome a própria reserva, mesmo sem unidades livres
+        assertTrue(controlador.realizarVenda(ID_HUMUS, 3));
+        assertTrue(ana.finalizarCompra(canal));
+        assertEquals(2, humus.getQuantidadeEstoque());
+        assertEquals(2, humus.getQuantidadeReservada());
+        
+        assertTrue(bia.removerDoCarrinho(canal, ID_HUMUS));
+        assertEquals(0, humus.getQuantidadeReservada());
+        assertEquals(2, humus.getQuantidadeDisponivel());
+    }
+}
@@ -0,0 +1,190 @@
+package com.sistema.test;
+
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.sistema.model.Humus;
+import com.sistema.model.RegistroVendas;
+import com.sistema.model.Sistema;
+import com.sistema.model.Vendedor;
+import com.sistema.service.Controlador;
+import com.sistema.service.GerenciadorSessoes;
+import com.sistema.service.Sessao;
+import com.sistema.util.RodaTemporal;
+
+/**
+ * Classe de teste para as classes GerenciadorSessoes e RodaTemporal
+ */
+public class GerenciadorSessoesTest {
+    
+    private AtomicLong relogio;
+    private GerenciadorSessoes sessoes;
+    private Vendedor ana;
+    private Vendedor bruno;
+    
+    @Before
+    public void setUp() {
+        relogio = new AtomicLong(1_000_000);
+        sessoes = new GerenciadorSessoes(60_000, 1000, relogio::get);
+        ana = new Vendedor(9401, "Ana", "ana@sessao.com", "a", 5.0);
+        bruno = new Vendedor(9402, "Bruno", "bruno@sessao.com", "b", 5.0);
+    }
+    
+    @After
+    public void tearDown() {
+        Sistema.getInstancia().removerUsuario(9401);
+        Sistema.getInstancia().removerUsuario(9402);
+        Controlador.getInstancia().removerProduto(9400);
+    }
+    
+    @Test
+    public void testSessoesSimultaneas() {
+        String tokenAna = sessoes.abrir(ana);
+        String tokenBruno = sessoes.abrir(bruno);
+        
+        assertNotNull(tokenAna);
+        assertNotEquals(tokenAna, tokenBruno);
+        assertSame(ana, sessoes.buscarUsuario(tokenAna));
+        assertSame(bruno, sessoes.buscarUsuario(tokenBruno));
+        assertNull(sessoes.buscarUsuario("token-inexistente"));
+        assertEquals(2, sessoes.getQuantidadeSessoes());
+        
+        assertTrue(sessoes.encerrar(tokenAna));
+        assertFalse(sessoes.encerrar(tokenAna));
+        assertNull(sessoes.buscarUsuario(tokenAna));
+        assertSame(bruno, sessoes.buscarUsuario(tokenBruno));
+        assertEquals(1, sessoes.getQuantidadeSessoes());
+    }
+    
+    @Test
+    public void testExpiracaoPorInatividade() {
+        String ociosa = sessoes.abrir(ana);
+        String ativa = sessoes.abrir(bruno);
+        
+        // A sessão usada a cada 40 s continua aberta; a outra expira após 60 s sem uso
+        for (int i = 0; i < 5; i++) {
+            relogio.addAndGet(40_000);
+            assertNotNull(sessoes.buscar(ativa));
+        }
+        
+        assertEquals(1, sessoes.getQuantidadeSessoes());
+        assertNull(sessoes.buscar(ociosa));
+        
+        relogio.addAndGet(61_000);
+        assertEquals(1, sessoes.expirar());
+        assertEquals(0, sessoes.getQuantidadeSessoes());
+        assertNull(sessoes.buscar(ativa));
+    }
+    
+    @Test
+    public void testLimiteDeSessoes() {
+        GerenciadorSessoes pequeno = new GerenciadorSessoes(60_000, 2, relogio::get);
+        String primeira = pequeno.abrir(ana);
+        assertNotNull(pequeno.abrir(bruno));
+        assertNull(pequeno.abrir(ana));
+        
+        pequeno.encerrar(primeira);
+        assertNotNull(pequeno.abrir(ana));
+        assertNull(pequeno.abrir(null));
+    }
+    
+    @Test
+    public void testVendasComVendedoresDiferentes() {
+        Controlador controlador = Controlador.getInstancia();
+        controlador.cadastrarUsuario(ana);
+        controlador.cadastrarUsuario(bruno);
+        controlador.cadastrarProduto(new Humus(9400, "Húmus Sessão", "Teste", 10.0, 100,
+                                               "Minhoca", 1.0, "Nitrogênio"));
+        
+        String tokenAna = controlador.iniciarSessao("ana@sessao.com", "a");
+        String tokenBruno = controlador.iniciarSessao("BRUNO@sessao.com", "b");
+        assertNull(controlador.iniciarSessao("ana@sessao.com", "errada"));
+        
+        long inicio = System.currentTimeMillis();
+        assertTrue(controlador.realizarVenda(tokenAna, 9400, 2, RegistroVendas.SEM_IDENTIFICACAO));
+        assertTrue(controlador.realizarVenda(tokenBruno, 9400, 3, RegistroVendas.SEM_IDENTIFICACAO));
+        assertFalse(controlador.realizarVenda("token-invalido", 9400, 1, RegistroVendas.SEM_IDENTIFICACAO));
+        
+        List<Integer> vendedores = new ArrayList<>();
+        RegistroVendas.getInstancia().paraCada(RegistroVendas.getInstancia().getTotalVendas(),
+            (instante, idProduto, idVendedor, idCliente, quantidade, preco) -> {
+                if (idProduto == 9400 && instante >= inicio) {
+                    vendedores.add(idVendedor);
+                }
+            });
+        assertEquals(2, vendedores.size());
+        assertTrue(vendedores.contains(9401));
+        assertTrue(vendedores.contains(9402));
+        
+        // Cada vendedor acumula apenas as próprias vendas
+        assertEquals(1, ana.getTotalVendas());
+        assertEquals(20.0, ana.getReceitaVendas(), 0.001);
+        assertEquals(1.0, ana.getComissaoAcumulada(), 0.001);
+        assertEquals(30.0, bruno.getReceitaVendas(), 0.001);
+        
+        assertSame(ana, controlador.buscarUsuarioDaSessao(tokenAna));
+        assertTrue(controlador.encerrarSessao(tokenAna));
+        assertTrue(controlador.encerrarSessao(tokenBruno));
+    }
+
+    @Test
+    public void testVendasEmLoteComVendedoresDiferentes() {
+        Controlador controlador = Controlador.getInstancia();
+        controlador.cadastrarUsuario(ana);
+        controlador.cadastrarUsuario(bruno);
+        controlador.cadastrarProduto(new Humus(9400, "Húmus Sessão", "Teste", 10.0, 100,
+                                               "Minhoca", 1.0, "Nitrogênio"));
+
+        // O pedido é creditado ao vendedor da sessão ou ao informado, nunca a um usuário global
+        String tokenAna = controlador.iniciarSessao("ana@sessao.com", "a");
+        assertTrue(controlador.realizarVendasEmLote(tokenAna, new int[] {9400, 9400}, new int[] {1, 2},
+                                                    RegistroVendas.SEM_IDENTIFICACAO).isSucesso());
+        assertTrue(controlador.realizarVendasEmLote(bruno, new int[] {9400}, new int[] {4}, null, null,
+                                                    RegistroVendas.SEM_IDENTIFICACAO).isSucesso());
+        assertNull(controlador.realizarVendasEmLote("token-invalido", new int[] {9400}, new int[] {1},
+                                                    RegistroVendas.SEM_IDENTIFICACAO));
+
+        assertEquals(2, ana.getTotalVendas());
+        assertEquals(30.0, ana.getReceitaVendas(), 0.001);
+        assertEquals(1, bruno.getTotalVendas());
+        assertEquals(40.0, bruno.getReceitaVendas(), 0.001);
+        assertEquals(93, controlador.buscarProduto(9400).getQuantidadeEstoque());
+        assertTrue(controlador.encerrarSessao(tokenAna));
+    }
+    
+    @Test
+    public void testRodaTemporalVoltasECancelamento() {
+        RodaTemporal<String> roda = new RodaTemporal<>(10, 8, 0);
+        List<String> expirados = new ArrayList<>();
+        
+        roda.agendar("curto", 25);
+        long cancelado = roda.agendar("cancelado", 30);
+        roda.agendar("longo", 500);
+        assertEquals(3, roda.getTamanho());
+        
+        assertTrue(roda.cancelar(cancelado));
+        assertFalse(roda.cancelar(cancelado));
+        
+        assertEquals(0, roda.avancar(19, expirados::add));
+        assertEquals(1, roda.avancar(40, expirados::add));
+        assertEquals("curto", expirados.get(0));
+        
+        // "longo" fica no mesmo slot por várias voltas até o seu tick
+        assertEquals(0, roda.avancar(499, expirados::add));
+        assertEquals(1, roda.avancar(10_000, expirados::add));
+        assertEquals("longo", expirados.get(1));
+        assertEquals(0, roda.getTamanho());
+        
+        // A posição reaproveitada não aceita o identificador antigo
+        long novo = roda.agendar("novo", 20_000);
+        assertFalse(roda.cancelar(cancelado));
+        assertTrue(roda.cancelar(novo));
+        assertEquals(RodaTemporal.SEM_AGENDAMENTO, roda.agendar(null, 0));
+    }
+}
@@ -0,0 +1,159 @@
+package com.sistema.test;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sistema.model.CanalCompras;
+import com.sistema.model.Cliente;
+import com.sistema.model.HistoricoCompras;
+import com.sistema.model.ItemCompra;
+import com.sistema.model.Muda;
+import com.sistema.persistencia.SegmentosHistorico;
+import com.sistema.service.Controlador;
+
+/**
+ * Classe de teste para o histórico de compras em camadas (heap e segmentos em disco)
+ */
+public class HistoricoComprasTest {
+
+    private static final int ID_MUDA = 9801;
+
+    private Path diretorio;
+    private SegmentosHistorico segmentos;
+
+    @Before
+    public void setUp() throws IOException {
+        diretorio = Files.createTempDirectory("historico");
+        segmentos = new SegmentosHistorico(diretorio, 4096);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        segmentos.close();
+        Controlador.getInstancia().removerProduto(ID_MUDA);
+
+        try (Stream<Path> arquivos = Files.walk(diretorio)) {
+            arquivos.sorted(Comparator.reverseOrder()).forEach(arquivo -> arquivo.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testSomenteHeap() {
+        HistoricoCompras historico = new HistoricoCompras(null, 16);
+        assertTrue(historico.isVazio());
+
+        for (int i = 0; i < 100; i++) {
+            historico.registrar(1_000L * i, i, i + 1, 2.5);
+        }
+
+        // Sem segmentos, nada é arquivado
+        assertEquals(100, historico.getQuantidade());
+        assertEquals(0, historico.getQuantidadeArquivada());
+        List<ItemCompra> itens = historico.listar();
+        assertEquals(42, itens.get(42).getIdProduto());
+        assertEquals(43, itens.get(42).getQuantidade());
+        assertEquals(2.5 * 43, itens.get(42).getValorTotal(), 0.001);
+    }
+
+    @Test
+    public void testArquivamentoEmSegmentos() {
+        HistoricoCompras historico = new HistoricoCompras(segmentos, 16);
+        long[] instantes = new long[2000];
+        int[] ids = new int[2000];
+        int[] quantidades = new int[2000];
+        double[] precos = new double[2000];
+
+        Random random = new Random(24);
+        long instante = 1_700_000_000_000L;
+        for (int i = 0; i < instantes.length; i++) {
+            instante += random.nextInt(86_400_000);
+            instantes[i] = instante;
+            ids[i] = random.nextInt(500);
+            quantidades[i] = 1 + random.nextInt(10);
+            precos[i] = random.nextInt(100_000) / 100.0;
+            historico.registrar(instantes[i], ids[i], quantidades[i], precos[i]);
+        }
+
+        // Apenas o último bloco incompleto fica no heap
+        assertEquals(2000, historico.getQuantidade());
+        assertEquals(1984, historico.getQuantidadeArquivada());
+        assertEquals(16, historico.getQuantidadeRecentes());
+        assertTrue(segmentos.getQuantidadeSegmentos() > 1);
+        // Menor que os 24 bytes por compra de um registro sem compressão
+        assertTrue(segmentos.getBytesGravados() < 1984L * 24);
+
+        List<ItemCompra> itens = historico.listar();
+        assertEquals(2000, itens.size());
+        for (int i = 0; i < itens.size(); i++) {
+            ItemCompra item = itens.get(i);
+            assertEquals(instantes[i], item.getInstante());
+            assertEquals(ids[i], item.getIdProduto());
+            assertEquals(quantidades[i], item.getQuantidade());
+            assertEquals(precos[i], item.getPrecoUnitario(), 0.001);
+        }
+    }
+
+    @Test
+    public void testBlocoCorrompido() throws IOException {
+        HistoricoCompras historico = new HistoricoCompras(segmentos, 8);
+        for (int i = 0; i < 9; i++) {
+            historico.registrar(i, i, 1, 1.0);
+        }
+        assertEquals(8, historico.getQuantidadeArquivada());
+
+        // Altera um byte do conteúdo do primeiro bloco
+        try (RandomAccessFile arquivo = new RandomAccessFile(diretorio.resolve("historico-0.seg").toFile(), "rw")) {
+            arquivo.seek(10);
+            int original = arquivo.read();
+            arquivo.seek(10);
+            arquivo.write(original ^ 0xFF);
+        }
+
+        // O segmento ainda não tinha sido mapeado, então a alteração é vista na leitura
+        try {
+            historico.listar();
+            fail("Bloco corrompido deveria ser rejeitado");
+        } catch (UncheckedIOException e) {
+            assertTrue(e.getCause().getMessage().contains("corrompido"));
+        }
+    }
+
+    @Test
+    public void testHistoricoDoCliente() {
+        Controlador controlador = Controlador.getInstancia();
+        Muda muda = new Muda(ID_MUDA, "Muda de Manjericão", "Muda", 4.5, 10_000, "Ocimum basilicum", 30, "Arenoso");
+        controlador.cadastrarProduto(muda);
+        Cliente cliente = new Cliente(9802, "Carla", "carla@historico.com", "s", "12345678909", "Rua", "11900000000");
+        CanalCompras canal = controlador.getCanalCompras();
+
+        // Mais compras do que cabem no bloco recente
+        for (int i = 0; i < 150; i++) {
+            assertTrue(cliente.adicionarAoCarrinho(canal, muda, 1 + i % 3));
+            assertTrue(cliente.finalizarCompra(canal));
+        }
+
+        assertEquals(150, cliente.getQuantidadeCompras());
+        List<ItemCompra> compras = cliente.getHistoricoCompras();
+        assertEquals(150, compras.size());
+        long[] unidades = new long[1];
+        cliente.percorrerHistoricoCompras((instante, idProduto, quantidade, precoUnitario) -> {
+            assertEquals(ID_MUDA, idProduto);
+            assertEquals(4.5, precoUnitario, 0.001);
+            unidades[0] += quantidade;
+        });
+        assertEquals(10_000 - unidades[0], muda.getQuantidadeEstoque());
+    }
+}
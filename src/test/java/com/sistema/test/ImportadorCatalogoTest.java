@@ -0,0 +1,131 @@
+package com.sistema.test;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sistema.model.Esterco;
+import com.sistema.model.Humus;
+import com.sistema.model.Muda;
+import com.sistema.service.Controlador;
+import com.sistema.service.ImportadorCatalogo;
+import com.sistema.service.ResultadoImportacao;
+
+/**
+ * Classe de teste para a classe ImportadorCatalogo
+ */
+public class ImportadorCatalogoTest {
+    
+    private Controlador controlador;
+    private Path arquivo;
+    
+    @Before
+    public void setUp() throws IOException {
+        controlador = Controlador.getInstancia();
+        arquivo = Files.createTempFile("catalogo", ".csv");
+    }
+    
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(arquivo);
+        for (int id = 7000; id < 9000; id++) {
+            controlador.removerProduto(id);
+        }
+    }
+    
+    @Test
+    public void testImportarTiposDeProduto() throws IOException {
+        escrever("tipo;id;nome;descricao;preco;quantidade;campo1;campo2;campo3;campo4\n"
+                 + "MUDA;7001;Muda de Ipê;Ipê amarelo;20,50;10;Handroanthus;120;Argiloso\n"
+                 + "Húmus;7002;Húmus Premium;Húmus de minhoca;15.99;50;Minhoca;2,5;Nitrogênio\r\n"
+                 + "\n"
+                 + "ESTERCO;7003;Esterco Bovino;Curtido;12;30;Bovino;5.0;sim;Neutro\n");
+        
+        ResultadoImportacao resultado = new ImportadorCatalogo().importar(arquivo);
+        
+        assertEquals(3, resultado.getLinhasLidas());
+        assertEquals(3, resultado.getProdutosImportados());
+        assertEquals(0, resultado.getLinhasRejeitadas());
+        
+        Muda muda = (Muda) controlador.buscarProduto(7001);
+        assertEquals("Muda de Ipê", muda.getNome());
+        assertEquals(20.5, muda.getPreco(), 0.0);
+        assertEquals(120, muda.getTempoMaturacao());
+        
+        Humus humus = (Humus) controlador.buscarProduto(7002);
+        assertEquals(15.99, humus.getPreco(), 0.0);
+        assertEquals(2.5, humus.getPesoEmbalagem(), 0.0);
+        assertEquals("Nitrogênio", humus.getComposicaoNutricional());
+        
+        Esterco esterco = (Esterco) controlador.buscarProduto(7003);
+        assertTrue(esterco.isProcessado());
+        assertEquals("Neutro", esterco.getNivelAcidez());
+    }
+    
+    @Test
+    public void testRejeitarLinhasMalformadas() throws IOException {
+        escrever("MUDA;7011;Muda;Desc;5.0;10;Espécie;60;Argiloso\n"
+                 + "MUDA;7012;Muda;Desc;cinco;10;Espécie;60;Argiloso\n"
+                 + "ADUBO;7013;Adubo;Desc;5.0;10;a;b;c\n"
+                 + "HUMUS;7014;Húmus;Desc;5.0;10;Minhoca\n"
+                 + "ESTERCO;7015;Esterco;Desc;5.0;10;Bovino;5.0;talvez;Neutro\n"
+                 + "MUDA;7011;Repetida;Desc;5.0;10;Espécie;60;Argiloso\n"
+                 + "HUMUS;7016;Húmus;Desc;5.0;10;Minhoca;1.0;Fósforo\n");
+        
+        ResultadoImportacao resultado = new ImportadorCatalogo().importar(arquivo);
+        
+        // As linhas válidas são importadas mesmo com erros no meio do arquivo
+        assertEquals(7, resultado.getLinhasLidas());
+        assertEquals(2, resultado.getProdutosImportados());
+        assertEquals(1, resultado.getProdutosDuplicados());
+        assertEquals(4, resultado.getLinhasRejeitadas());
+        assertEquals(4, resultado.getErros().size());
+        assertTrue(resultado.getErros().get(0).startsWith("Linha 2: campo preco"));
+        assertTrue(resultado.getErros().get(1).startsWith("Linha 3: tipo de produto desconhecido"));
+        assertTrue(resultado.getErros().get(2).startsWith("Linha 4:"));
+        assertTrue(resultado.getErros().get(3).startsWith("Linha 5: campo processado"));
+        
+        assertEquals("Muda", controlador.buscarProduto(7011).getNome());
+        assertNotNull(controlador.buscarProduto(7016));
+        assertNull(controlador.buscarProduto(7012));
+    }
+    
+    @Test
+    public void testImportarEmPedacosParalelos() throws IOException {
+        StringBuilder conteudo = new StringBuilder();
+        for (int id = 7100; id < 8100; id++) {
+            conteudo.append("HUMUS;").append(id).append(";Húmus ").append(id)
+                    .append(";Lote;10.00;3;Minhoca;2.5;Nitrogênio\n");
+        }
+        conteudo.append("HUMUS;8100;Inválido;Lote;10.00;-3;Minhoca;2.5;Nitrogênio\n");
+        escrever(conteudo.toString());
+        
+        // Pedaços pequenos forçam a divisão do arquivo entre várias tarefas
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ResultadoImportacao resultado = new ImportadorCatalogo(pool, 1024).importar(arquivo);
+            assertEquals(1001, resultado.getLinhasLidas());
+            assertEquals(1000, resultado.getProdutosImportados());
+            assertEquals(1, resultado.getLinhasRejeitadas());
+            assertTrue(resultado.getErros().get(0).startsWith("Linha 1001:"));
+        } finally {
+            pool.shutdown();
+        }
+        
+        for (int id = 7100; id < 8100; id++) {
+            assertEquals("Húmus " + id, controlador.buscarProduto(id).getNome());
+        }
+    }
+    
+    private void escrever(String conteudo) throws IOException {
+        Files.write(arquivo, conteudo.getBytes(StandardCharsets.UTF_8));
+    }
+}
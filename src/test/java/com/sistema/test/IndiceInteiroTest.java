@@ -0,0 +1,109 @@
+package com.sistema.test;
+
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import com.sistema.util.IndiceInteiro;
+
+/**
+ * Classe de teste para a classe IndiceInteiro
+ */
+public class IndiceInteiroTest {
+    
+    private IndiceInteiro<String> indice;
+    
+    @Before
+    public void setUp() {
+        indice = new IndiceInteiro<>();
+    }
+    
+    @Test
+    public void testInserirBuscar() {
+        // Testa a inserção e a busca de chaves
+        assertTrue(indice.inserir(1, "um"));
+        assertTrue(indice.inserir(2, "dois"));
+        assertEquals("um", indice.buscar(1));
+        assertEquals("dois", indice.buscar(2));
+        assertNull(indice.buscar(3));
+        
+        // Testa a inserção de chave duplicada (deve falhar)
+        assertFalse(indice.inserir(1, "outro"));
+        assertEquals("um", indice.buscar(1));
+        assertEquals(2, indice.tamanho());
+    }
+    
+    @Test
+    public void testRemover() {
+        // Testa a remoção mantendo as demais chaves acessíveis
+        for (int i = 0; i < 100; i++) {
+            indice.inserir(i, "v" + i);
+        }
+        
+        assertEquals("v10", indice.remover(10));
+        assertNull(indice.remover(10));
+        assertNull(indice.buscar(10));
+        assertEquals(99, indice.tamanho());
+        
+        for (int i = 0; i < 100; i++) {
+            if (i != 10) {
+                assertEquals("v" + i, indice.buscar(i));
+            }
+        }
+    }
+    
+    @Test
+    public void testPosicoesDensas() {
+        // Chaves sem valor seguem a mesma ordem densa das inseridas com valor
+        assertEquals(0, indice.inserirChave(5));
+        assertTrue(indice.inserir(6, "seis"));
+        assertEquals(2, indice.inserirChave(7));
+        assertEquals(0, indice.inserirChave(5));
+        assertTrue(indice.contem(5));
+        assertNull(indice.buscar(5));
+        assertFalse(indice.inserir(5, "cinco"));
+        
+        // Na remoção a última chave ocupa a posição liberada
+        indice.remover(5);
+        assertEquals(0, indice.posicaoDe(7));
+        assertEquals(1, indice.posicaoDe(6));
+        assertEquals(-1, indice.posicaoDe(5));
+        assertEquals("seis", indice.valorNaPosicao(1));
+        
+        // A posição continua válida depois do crescimento
+        for (int i = 100; i < 200; i++) {
+            assertEquals(indice.tamanho(), indice.inserirChave(i));
+        }
+        for (int i = 100; i < 200; i++) {
+            assertEquals(i, indice.chaveNaPosicao(indice.posicaoDe(i)));
+        }
+    }
+    
+    @Test
+    public void testOperacoesAleatorias() {
+        // Compara o índice com um HashMap em uma sequência aleatória de operações
+        Map<Integer, String> esperado = new HashMap<>();
+        Random random = new Random(42);
+        
+        for (int i = 0; i < 50000; i++) {
+            int chave = random.nextInt(2000) - 1000;
+            if (random.nextBoolean()) {
+                boolean inserido = indice.inserir(chave, "v" + chave);
+                assertEquals(!esperado.containsKey(chave), inserido);
+                esperado.putIfAbsent(chave, "v" + chave);
+            } else {
+                assertEquals(esperado.remove(chave), indice.remover(chave));
+            }
+        }
+        
+        assertEquals(esperado.size(), indice.tamanho());
+        for (Map.Entry<Integer, String> entrada : esperado.entrySet()) {
+            assertEquals(entrada.getValue(), indice.buscar(entrada.getKey()));
+        }
+        assertEquals(esperado.size(), indice.listarValores().size());
+    }
+}
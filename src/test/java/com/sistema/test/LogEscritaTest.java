@@ -0,0 +1,292 @@
+package com.sistema.test;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sistema.model.Esterco;
+import com.sistema.model.Muda;
+import com.sistema.model.Produto;
+import com.sistema.model.Usuario;
+import com.sistema.model.Vendedor;
+import com.sistema.persistencia.LogEscrita;
+import com.sistema.persistencia.VisitanteLog;
+
+/**
+ * Classe de teste para a classe LogEscrita
+ */
+public class LogEscritaTest {
+    
+    private Path arquivo;
+    
+    @Before
+    public void setUp() throws IOException {
+        arquivo = Files.createTempFile("log-escrita", ".wal");
+    }
+    
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(arquivo);
+    }
+    
+    @Test
+    public void testGravarELerRegistros() throws IOException {
+        Esterco esterco = new Esterco(7, "Esterco Bovino", "Curtido", 12.5, 30, "Bovino", 5.0, true, "Neutro");
+        
+        try (LogEscrita log = new LogEscrita(arquivo, 0)) {
+            assertEquals(1, log.registrarCadastroProduto(esterco));
+            assertEquals(2, log.registrarAjusteEstoque(7, -5));
+            long lsn = log.registrarVenda(1000L, 7, 2, 3, 4, 12.5);
+            log.aguardarDurabilidade(lsn);
+            assertEquals(3, log.getLsnDuravel());
+            log.registrarRemocaoProduto(7);
+        }
+        
+        Coletor coletor = new Coletor();
+        assertEquals(4, LogEscrita.percorrer(arquivo, 0, coletor));
+        assertEquals(4, coletor.eventos.size());
+        
+        // O produto é reconstruído com todos os campos
+        Esterco lido = (Esterco) coletor.produtos.get(0);
+        assertEquals(7, lido.getId());
+        assertEquals("Esterco Bovino", lido.getNome());
+        assertEquals(30, lido.getQuantidadeEstoque());
+        assertEquals(5.0, lido.getPesoEmbalagem(), 0.0001);
+        assertTrue(lido.isProcessado());
+        assertEquals("Neutro", lido.getNivelAcidez());
+        
+        assertEquals("ajuste 2 7 -5", coletor.eventos.get(1));
+        assertEquals("venda 3 1000 7 2 3 4 12.5", coletor.eventos.get(2));
+        assertEquals("remocao 4 7", coletor.eventos.get(3));
+        
+        // Leitura a partir de um LSN ignora os registros anteriores
+        Coletor parcial = new Coletor();
+        LogEscrita.percorrer(arquivo, 2, parcial);
+        assertEquals(2, parcial.eventos.size());
+    }
+    
+    @Test
+    public void testGravarCadastroUsuario() throws IOException {
+        Vendedor vendedor = new Vendedor(5, "Ana", "ana@email.com", "senha", 7.5);
+        vendedor.setTotalVendas(3);
+        
+        try (LogEscrita log = new LogEscrita(arquivo, 0, 10)) {
+            // O segmento continua a numeração informada
+            assertEquals(11, log.registrarCadastroUsuario(vendedor));
+        }
+        
+        Coletor coletor = new Coletor();
+        LogEscrita.percorrer(arquivo, 0, coletor);
+        assertEquals("usuario 11 ana@email.com", coletor.eventos.get(0));
+    }
+    
+    @Test
+    public void testContinuaNumeracaoAoReabrir() throws IOException {
+        try (LogEscrita log = new LogEscrita(arquivo, 0)) {
+            log.registrarAjusteEstoque(1, 10);
+            log.registrarAjusteEstoque(1, 20);
+        }
+        
+        try (LogEscrita log = new LogEscrita(arquivo, 0)) {
+            assertEquals(2, log.getLsnDuravel());
+            assertEquals(3, log.registrarAjusteEstoque(1, 30));
+        }
+        
+        assertEquals(3, LogEscrita.percorrer(arquivo, 0, new Coletor()));
+    }
+    
+    @Test
+    public void testReabreLogMaiorQueAJanelaDeLeitura() throws IOException {
+        // Registros de tamanhos variados cruzam as fronteiras das janelas de leitura
+        final int registros = 60_000;
+        try (LogEscrita log = new LogEscrita(arquivo, 0)) {
+            for (int i = 1; i <= registros; i++) {
+                if (i % 1000 == 0) {
+                    log.registrarCadastroProduto(new Muda(i, "Muda " + i, "Descrição " + i, 2.5, i, "Espécie", 30, "Arenoso"));
+                } else {
+                    log.registrarVenda(i, i % 97, 2, 3, 1, 2.5);
+                }
+            }
+        }
+        long tamanho = Files.size(arquivo);
+        assertTrue(tamanho > 2 * 1024 * 1024);
+        
+        // Reabrir não descarta registros válidos
+        try (LogEscrita log = new LogEscrita(arquivo, 0)) {
+            assertEquals(registros, log.getLsnDuravel());
+        }
+        assertEquals(tamanho, Files.size(arquivo));
+        
+        Coletor coletor = new Coletor();
+        assertEquals(registros, LogEscrita.percorrer(arquivo, 0, coletor));
+        assertEquals(registros, coletor.eventos.size());
+        assertEquals(registros / 1000, coletor.produtos.size());
+        assertEquals(59_000, coletor.produtos.get(58).getId());
+    }
+    
+    @Test
+    public void testDescartaFinalIncompleto() throws IOException {
+        try (LogEscrita log = new LogEscrita(arquivo, 0)) {
+            log.registrarAjusteEstoque(1, 10);
+            log.registrarAjusteEstoque(1, 20);
+        }
+        
+        // Simula uma queda no meio da gravação do último registro
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.WRITE)) {
+            canal.truncate(canal.size() - 3);
+        }
+        assertEquals(1, LogEscrita.percorrer(arquivo, 0, new Coletor()));
+        
+        try (LogEscrita log = new LogEscrita(arquivo, 0)) {
+            assertEquals(2, log.registrarAjusteEstoque(1, 30));
+        }
+        
+        Coletor coletor = new Coletor();
+        LogEscrita.percorrer(arquivo, 0, coletor);
+        assertEquals("ajuste 2 1 30", coletor.eventos.get(1));
+    }
+    
+    @Test
+    public void testGravacaoConcorrente() throws Exception {
+        final int threads = 8;
+        final int registrosPorThread = 500;
+        AtomicInteger falhas = new AtomicInteger();
+        
+        try (LogEscrita log = new LogEscrita(arquivo, 200)) {
+            List<Thread> lista = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final int idProduto = t + 1;
+                Thread thread = new Thread(() -> {
+                    for (int i = 0; i < registrosPorThread; i++) {
+                        long lsn = log.registrarVenda(i, idProduto, 0, 0, 1, 2.0);
+                        log.aguardarDurabilidade(lsn);
+                        if (log.getLsnDuravel() < lsn) {
+                            falhas.incrementAndGet();
+                        }
+                    }
+                });
+                lista.add(thread);
+                thread.start();
+            }
+            for (Thread thread : lista) {
+                thread.join();
+            }
+        }
+        
+        assertEquals(0, falhas.get());
+        Coletor coletor = new Coletor();
+        assertEquals(threads * registrosPorThread, LogEscrita.percorrer(arquivo, 0, coletor));
+        assertEquals(threads * registrosPorThread, coletor.eventos.size());
+    }
+    
+    @Test
+    public void testLeituraDeMudaSemCamposOpcionais() throws IOException {
+        Muda muda = new Muda(3, "Muda de Ipê", null, 25.0, 4, "Ipê", 90, null);
+        
+        try (LogEscrita log = new LogEscrita(arquivo, 0)) {
+            log.registrarCadastroProduto(muda);
+        }
+        
+        Coletor coletor = new Coletor();
+        LogEscrita.percorrer(arquivo, 0, coletor);
+        Muda lida = (Muda) coletor.produtos.get(0);
+        assertNull(lida.getDescricao());
+        assertNull(lida.getTipoSolo());
+        assertEquals(90, lida.getTempoMaturacao());
+    }
+    
+    @Test
+    public void testCadastroGravaQuantidadeInicial() throws IOException {
+        // Uma venda concorrente baixou o estoque depois da publicação e antes da codificação
+        Muda muda = new Muda(4, "Muda de Ipê", "Muda", 25.0, 10, "Ipê", 90, "Argiloso");
+        assertTrue(muda.reduzirEstoque(3));
+        
+        try (LogEscrita log = new LogEscrita(arquivo, 0)) {
+            log.registrarCadastroProduto(muda, 10);
+            log.registrarVenda(1000L, 4, 0, 0, 3, 25.0);
+        }
+        
+        // A venda é descontada só uma vez na reaplicação
+        Coletor coletor = new Coletor();
+        LogEscrita.percorrer(arquivo, 0, coletor);
+        assertEquals(10, coletor.produtos.get(0).getQuantidadeEstoque());
+    }
+    
+    @Test
+    public void testCadastroRejeitadoNaoInterrompeOLog() throws IOException {
+        // Um tipo de produto que o codec não conhece
+        Produto desconhecido = new Produto(5, "Vaso", "Cerâmica", 30.0, 2) {
+            @Override
+            public String getInformacoesEspecificas() {
+                return "";
+            }
+        };
+        
+        try (LogEscrita log = new LogEscrita(arquivo, 0)) {
+            assertEquals(1, log.registrarVenda(1000L, 4, 0, 0, 1, 25.0));
+            try {
+                log.registrarCadastroProduto(desconhecido);
+                fail("Tipo de produto não suportado deveria ser rejeitado");
+            } catch (IllegalArgumentException e) {
+                // esperado
+            }
+            
+            // O registro rejeitado não consome LSN nem deixa cabeçalho no log
+            assertEquals(2, log.registrarVenda(2000L, 4, 0, 0, 1, 25.0));
+            long lsn = log.registrarVenda(3000L, 4, 0, 0, 1, 25.0);
+            log.aguardarDurabilidade(lsn);
+        }
+        
+        Coletor coletor = new Coletor();
+        assertEquals(3, LogEscrita.percorrer(arquivo, 0, coletor));
+        assertEquals(3, coletor.eventos.size());
+        assertEquals("venda 3 3000 4 0 0 1 25.0", coletor.eventos.get(2));
+    }
+    
+    /**
+     * Visitante que guarda os registros lidos em texto
+     */
+    private static class Coletor implements VisitanteLog {
+        private final List<String> eventos = new ArrayList<>();
+        private final List<Produto> produtos = new ArrayList<>();
+        
+        @Override
+        public void produtoCadastrado(long lsn, Produto produto) {
+            eventos.add("cadastro " + lsn + " " + produto.getId());
+            produtos.add(produto);
+        }
+        
+        @Override
+        public void produtoRemovido(long lsn, int idProduto) {
+            eventos.add("remocao " + lsn + " " + idProduto);
+        }
+        
+        @Override
+        public void estoqueAjustado(long lsn, int idProduto, int delta) {
+            eventos.add("ajuste " + lsn + " " + idProduto + " " + delta);
+        }
+        
+        @Override
+        public void usuarioCadastrado(long lsn, Usuario usuario) {
+            eventos.add("usuario " + lsn + " " + usuario.getEmail());
+        }
+        
+        @Override
+        public void vendaRealizada(long lsn, long instante, int idProduto, int idVendedor, int idCliente,
+                                   int quantidade, double precoUnitario) {
+            eventos.add("venda " + lsn + " " + instante + " " + idProduto + " " + idVendedor + " "
+                        + idCliente + " " + quantidade + " " + precoUnitario);
+        }
+    }
+}
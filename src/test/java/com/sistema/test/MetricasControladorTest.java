@@ -0,0 +1,140 @@
+package com.sistema.test;
+
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sistema.model.Humus;
+import com.sistema.model.StatusItemVenda;
+import com.sistema.service.Controlador;
+import com.sistema.service.MetricasControlador;
+import com.sistema.service.Operacao;
+import com.sistema.service.ResumoMetricas;
+import com.sistema.service.ResumoOperacao;
+import com.sistema.util.HistogramaLatencia;
+
+/**
+ * Classe de teste para as métricas do Controlador e o HistogramaLatencia
+ */
+public class MetricasControladorTest {
+    
+    private Controlador controlador;
+    private MetricasControlador metricas;
+    
+    @Before
+    public void setUp() {
+        controlador = Controlador.getInstancia();
+        metricas = controlador.getMetricas();
+        controlador.removerProduto(9100);
+        controlador.cadastrarProduto(new Humus(9100, "Húmus Métricas", "Teste", 10.0, 5,
+                                               "Minhoca", 1.0, "Nitrogênio"));
+        metricas.setIntervaloAmostragem(1);
+        metricas.reiniciar();
+    }
+    
+    @After
+    public void tearDown() {
+        controlador.removerProduto(9100);
+        metricas.setIntervaloAmostragem(16);
+        metricas.setAtivo(true);
+    }
+    
+    @Test
+    public void testHistogramaPercentis() {
+        HistogramaLatencia histograma = new HistogramaLatencia();
+        assertEquals(0, histograma.percentil(99));
+        
+        for (long valor = 1; valor <= 10_000; valor++) {
+            histograma.registrar(valor * 1000);
+        }
+        
+        assertEquals(10_000, histograma.getContagem());
+        assertEquals(10_000_000, histograma.getMaximo());
+        assertEquals(5_000_500.0, histograma.getMedia(), 0.001);
+        // Erro relativo das faixas abaixo de ~3%
+        assertEquals(5_000_000, histograma.percentil(50), 5_000_000 * 0.035);
+        assertEquals(9_900_000, histograma.percentil(99), 9_900_000 * 0.035);
+        assertEquals(9_990_000, histograma.percentil(99.9), 9_990_000 * 0.035);
+        assertEquals(10_000_000, histograma.percentil(100));
+        
+        histograma.limpar();
+        assertEquals(0, histograma.getContagem());
+        assertEquals(0, histograma.getMaximo());
+    }
+    
+    @Test
+    public void testHistogramaValoresPequenosExatos() {
+        HistogramaLatencia histograma = new HistogramaLatencia();
+        histograma.registrar(3);
+        histograma.registrar(7);
+        histograma.registrar(-5);
+        
+        assertEquals(3, histograma.percentil(50));
+        assertEquals(7, histograma.percentil(99));
+        assertEquals(Long.MAX_VALUE, histogramaComMaximo().percentil(100));
+    }
+    
+    @Test
+    public void testContadoresDeVenda() {
+        assertTrue(controlador.realizarVenda(9100, 2));
+        assertTrue(controlador.realizarVenda(9100, 3));
+        assertFalse(controlador.realizarVenda(9100, 1));
+        assertFalse(controlador.realizarVenda(9100, 0));
+        assertFalse(controlador.realizarVenda(9199, 1));
+        
+        ResumoMetricas resumo = metricas.resumir();
+        ResumoOperacao vendas = resumo.getOperacao(Operacao.REALIZAR_VENDA);
+        
+        assertEquals(5, vendas.getChamadas());
+        assertEquals(2, vendas.getSucessos());
+        assertEquals(3, vendas.getFalhas());
+        assertEquals(5, vendas.getAmostras());
+        assertEquals(0.6, vendas.getTaxaFalhas(), 0.0001);
+        assertTrue(vendas.getP50() > 0);
+        assertTrue(vendas.getP999() >= vendas.getP50());
+        assertTrue(vendas.getChamadasPorSegundo() > 0);
+        
+        assertEquals(1, resumo.getRejeicoesVenda(StatusItemVenda.ESTOQUE_INSUFICIENTE));
+        assertEquals(1, resumo.getRejeicoesVenda(StatusItemVenda.QUANTIDADE_INVALIDA));
+        assertEquals(1, resumo.getRejeicoesVenda(StatusItemVenda.PRODUTO_INEXISTENTE));
+        assertTrue(resumo.toString().contains("REALIZAR_VENDA"));
+    }
+    
+    @Test
+    public void testRejeicoesEmLote() {
+        assertFalse(controlador.realizarVendasEmLote(new int[] {9100, 9199}, new int[] {1, 1}).isSucesso());
+        
+        ResumoMetricas resumo = metricas.resumir();
+        assertEquals(1, resumo.getOperacao(Operacao.REALIZAR_VENDAS_EM_LOTE).getFalhas());
+        assertEquals(1, resumo.getRejeicoesVenda(StatusItemVenda.PRODUTO_INEXISTENTE));
+        assertEquals(0, resumo.getRejeicoesVenda(StatusItemVenda.CANCELADO));
+    }
+    
+    @Test
+    public void testAmostragemEDesativacao() {
+        assertFalse(metricas.setIntervaloAmostragem(3));
+        assertTrue(metricas.setIntervaloAmostragem(1024));
+        
+        for (int i = 0; i < 100; i++) {
+            controlador.buscarProduto(9100);
+        }
+        ResumoOperacao buscas = metricas.resumir().getOperacao(Operacao.BUSCAR_PRODUTO);
+        assertEquals(100, buscas.getChamadas());
+        assertTrue(buscas.getAmostras() < 100);
+        
+        // Operações pouco frequentes são sempre medidas
+        controlador.gerarRelatorioVendas();
+        assertEquals(1, metricas.resumir().getOperacao(Operacao.GERAR_RELATORIO_VENDAS).getAmostras());
+        
+        metricas.setAtivo(false);
+        controlador.buscarProduto(9100);
+        assertEquals(100, metricas.resumir().getOperacao(Operacao.BUSCAR_PRODUTO).getChamadas());
+    }
+    
+    private static HistogramaLatencia histogramaComMaximo() {
+        HistogramaLatencia histograma = new HistogramaLatencia();
+        histograma.registrar(Long.MAX_VALUE);
+        return histograma;
+    }
+}
@@ -0,0 +1,159 @@
+package com.sistema.test;
+
+import static org.junit.Assert.*;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.junit.Test;
+
+import com.sistema.model.ClassificacaoVendedores;
+import com.sistema.model.PlacarVendedores;
+import com.sistema.model.Vendedor;
+
+/**
+ * Classe de teste para os contadores do Vendedor e o placar diário de vendedores
+ */
+public class PlacarVendedoresTest {
+
+    private static final ZoneId FUSO = ZoneOffset.UTC;
+    private static final long INICIO_DIA = LocalDate.of(2024, 3, 10).atStartOfDay(FUSO).toInstant().toEpochMilli();
+
+    @Test
+    public void testContadoresConcorrentes() throws Exception {
+        // Vendas simultâneas do mesmo vendedor não podem perder atualizações
+        final Vendedor vendedor = new Vendedor(9901, "Vera", "vera@placar.com", "s", 10.0);
+        final int threads = 8;
+        final int vendas = 20_000;
+        final CountDownLatch largada = new CountDownLatch(1);
+        List<Thread> lista = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    largada.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < vendas; i++) {
+                    vendedor.registrarVenda(2, 5.0);
+                }
+            });
+            lista.add(thread);
+            thread.start();
+        }
+
+        largada.countDown();
+        for (Thread thread : lista) {
+            thread.join();
+        }
+
+        assertEquals(threads * vendas, vendedor.getTotalVendas());
+        assertEquals(threads * vendas * 10.0, vendedor.getReceitaVendas(), 0.001);
+        assertEquals(threads * vendas * 1.0, vendedor.getComissaoAcumulada(), 0.001);
+    }
+
+    @Test
+    public void testClassificacaoIncremental() {
+        // Compara o placar com a ordenação completa das receitas após vendas aleatórias
+        PlacarVendedores placar = new PlacarVendedores(10, () -> INICIO_DIA + 1000, FUSO);
+        long[] receitas = new long[500];
+        Random random = new Random(25);
+
+        for (int i = 0; i < 50_000; i++) {
+            // Distribuição desigual: poucos vendedores concentram a maior parte das vendas
+            int vendedor = (int) Math.min(receitas.length - 1, Math.abs(random.nextGaussian()) * 60);
+            long valor = 1 + random.nextInt(10_000);
+            receitas[vendedor] += valor;
+            placar.registrar(vendedor + 1, valor);
+        }
+
+        ClassificacaoVendedores classificacao = placar.getClassificacao();
+        long[] ordenadas = receitas.clone();
+        Arrays.sort(ordenadas);
+        assertEquals(10, classificacao.getQuantidade());
+        assertEquals(LocalDate.of(2024, 3, 10), classificacao.getDia());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(ordenadas[ordenadas.length - 1 - i], classificacao.getReceitaCentavos(i));
+            assertEquals(receitas[classificacao.getIdVendedor(i) - 1], classificacao.getReceitaCentavos(i));
+        }
+    }
+
+    @Test
+    public void testClassificacaoConcorrente() throws Exception {
+        // Várias threads vendem para os mesmos vendedores; o placar final deve ser exato
+        final PlacarVendedores placar = new PlacarVendedores(5, () -> INICIO_DIA, FUSO);
+        final AtomicLongArray receitas = new AtomicLongArray(40);
+        final int threads = 8;
+        final CountDownLatch largada = new CountDownLatch(1);
+        List<Thread> lista = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            final int semente = t;
+            Thread thread = new Thread(() -> {
+                Random random = new Random(semente);
+                try {
+                    largada.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < 20_000; i++) {
+                    int vendedor = random.nextInt(receitas.length());
+                    long valor = 1 + random.nextInt(1000);
+                    receitas.addAndGet(vendedor, valor);
+                    placar.registrar(vendedor + 1, valor);
+                }
+            });
+            lista.add(thread);
+            thread.start();
+        }
+
+        largada.countDown();
+        for (Thread thread : lista) {
+            thread.join();
+        }
+
+        long[] ordenadas = new long[receitas.length()];
+        for (int i = 0; i < ordenadas.length; i++) {
+            ordenadas[i] = receitas.get(i);
+        }
+        Arrays.sort(ordenadas);
+        ClassificacaoVendedores classificacao = placar.getClassificacao();
+        for (int i = 0; i < 5; i++) {
+            assertEquals(ordenadas[ordenadas.length - 1 - i], classificacao.getReceitaCentavos(i));
+        }
+    }
+
+    @Test
+    public void testViradaDoDia() {
+        AtomicLong agora = new AtomicLong(INICIO_DIA + 1000);
+        PlacarVendedores placar = new PlacarVendedores(3, agora::get, FUSO);
+        placar.registrar(1, 500);
+        placar.registrar(2, 300);
+        assertEquals(2, placar.getClassificacao().getQuantidade());
+        assertEquals(500, placar.getReceitaDoDiaCentavos(1));
+
+        // No dia seguinte o placar recomeça
+        agora.set(INICIO_DIA + 86_400_000L);
+        ClassificacaoVendedores classificacao = placar.getClassificacao();
+        assertEquals(0, classificacao.getQuantidade());
+        assertEquals(LocalDate.of(2024, 3, 11), classificacao.getDia());
+        assertEquals(0, placar.getReceitaDoDiaCentavos(1));
+
+        placar.registrar(2, 100);
+        classificacao = placar.getClassificacao();
+        assertEquals(1, classificacao.getQuantidade());
+        assertEquals(2, classificacao.getIdVendedor(0));
+        assertEquals(1.0, classificacao.getReceita(0), 0.001);
+    }
+}
@@ -0,0 +1,185 @@
+package com.sistema.test;
+
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.sistema.model.RegistroVendas;
+import com.sistema.model.ResumoVendas;
+
+/**
+ * Classe de teste para a classe RegistroVendas
+ */
+public class RegistroVendasTest {
+    
+    private RegistroVendas registro;
+    
+    @Before
+    public void setUp() {
+        // Obtém a instância do registro (Singleton) e descarta vendas anteriores
+        registro = RegistroVendas.getInstancia();
+        registro.limpar();
+    }
+    
+    @Test
+    public void testResumo() {
+        // Registra vendas de três produtos por dois vendedores
+        registro.registrar(1, 10, 100, 5, 2.0);   // 10,00
+        registro.registrar(2, 10, 101, 1, 50.0);  // 50,00
+        registro.registrar(1, 11, 100, 20, 2.0);  // 40,00
+        registro.registrar(3, RegistroVendas.SEM_IDENTIFICACAO, 102, 2, 1.5); // 3,00
+        
+        ResumoVendas resumo = registro.resumir();
+        assertEquals(4, resumo.getTotalVendas());
+        assertEquals(28, resumo.getTotalUnidades());
+        assertEquals(103.0, resumo.getReceita(), 0.001);
+        
+        // Produtos ordenados por unidades vendidas
+        assertEquals(3, resumo.getQuantidadeProdutos());
+        assertEquals(1, resumo.getIdProduto(0));
+        assertEquals(25, resumo.getUnidadesProduto(0));
+        assertEquals(50.0, resumo.getReceitaProduto(0), 0.001);
+        
+        // Vendedores ordenados por receita, ignorando vendas sem vendedor
+        assertEquals(2, resumo.getQuantidadeVendedores());
+        assertEquals(10, resumo.getIdVendedor(0));
+        assertEquals(60.0, resumo.getReceitaVendedor(0), 0.001);
+        assertEquals(11, resumo.getIdVendedor(1));
+    }
+    
+    @Test
+    public void testVariosBlocos() {
+        // Registra vendas suficientes para ocupar mais de um bloco interno
+        for (int i = 0; i < 200000; i++) {
+            registro.registrar(i % 7, 1 + i % 3, 0, 1, 1.0);
+        }
+        
+        ResumoVendas resumo = registro.resumir();
+        assertEquals(200000, resumo.getTotalVendas());
+        assertEquals(200000.0, resumo.getReceita(), 0.001);
+        assertEquals(5, resumo.getQuantidadeProdutos());
+        assertEquals(3, resumo.getQuantidadeVendedores());
+    }
+    
+    @Test
+    public void testRegistroConcorrente() throws Exception {
+        // Vendas simultâneas não podem se perder nem publicar entradas incompletas
+        final int threads = 8;
+        final int vendas = 20000;
+        final CountDownLatch largada = new CountDownLatch(1);
+        final AtomicBoolean ativo = new AtomicBoolean(true);
+        final AtomicReference<Throwable> erro = new AtomicReference<>();
+        List<Thread> lista = new ArrayList<>();
+        
+        for (int t = 0; t < threads; t++) {
+            final int vendedor = t + 1;
+            Thread thread = new Thread(() -> {
+                try {
+                    largada.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < vendas; i++) {
+                    registro.registrar(1000L + i, vendedor, vendedor, 0, 1, 2.0);
+                }
+            });
+            lista.add(thread);
+            thread.start();
+        }
+        
+        // Leitor concorrente: toda entrada publicada já está preenchida
+        Thread leitor = new Thread(() -> {
+            try {
+                while (ativo.get()) {
+                    registro.paraCada(Long.MAX_VALUE, (instante, idProduto, idVendedor, idCliente, quantidade, preco) -> {
+                        if (quantidade != 1 || idProduto != idVendedor) {
+                            throw new AssertionError("Entrada incompleta publicada");
+                        }
+                    });
+                    registro.resumirPeriodo(0, Long.MAX_VALUE);
+                }
+            } catch (Throwable e) {
+                erro.set(e);
+            }
+        });
+        leitor.start();
+        
+        largada.countDown();
+        for (Thread thread : lista) {
+            thread.join();
+        }
+        ativo.set(false);
+        leitor.join();
+        
+        assertNull(erro.get());
+        ResumoVendas resumo = registro.resumir();
+        assertEquals(threads * vendas, resumo.getTotalVendas());
+        assertEquals(threads * vendas, resumo.getTotalUnidades());
+        assertEquals(threads * vendas * 2.0, resumo.getReceita(), 0.001);
+        assertEquals(5, resumo.getQuantidadeVendedores());
+        assertEquals(vendas * 2.0, resumo.getReceitaVendedor(0), 0.001);
+        assertEquals(threads * vendas, registro.resumirPeriodo(0, Long.MAX_VALUE).getTotalVendas());
+    }
+    
+    @Test
+    public void testLimparDuranteLeituras() throws Exception {
+        // Limpar o registro não pode quebrar leituras em andamento
+        final AtomicBoolean ativo = new AtomicBoolean(true);
+        final AtomicReference<Throwable> erro = new AtomicReference<>();
+        Thread leitor = new Thread(() -> {
+            try {
+                while (ativo.get()) {
+                    ResumoVendas resumo = registro.resumirPeriodo(0, Long.MAX_VALUE);
+                    assertTrue(resumo.getTotalVendas() >= 0);
+                    registro.paraCada(Long.MAX_VALUE, (instante, idProduto, idVendedor, idCliente, quantidade, preco) -> { });
+                }
+            } catch (Throwable e) {
+                erro.set(e);
+            }
+        });
+        leitor.start();
+        
+        for (int rodada = 0; rodada < 20; rodada++) {
+            for (int i = 0; i < 70000; i++) {
+                registro.registrar(1000L, 1, 10, 0, 1, 1.0);
+            }
+            registro.limpar();
+        }
+        ativo.set(false);
+        leitor.join();
+        
+        assertNull(erro.get());
+        assertEquals(0, registro.getTotalVendas());
+    }
+    
+    @Test
+    public void testResumoPeriodo() {
+        // Registra vendas em instantes diferentes
+        registro.registrar(1000L, 1, 10, 0, 2, 5.0);
+        registro.registrar(2000L, 2, 11, 0, 1, 7.0);
+        registro.registrar(3000L, 1, 10, 0, 4, 5.0);
+        
+        ResumoVendas resumo = registro.resumirPeriodo(1500L, 3500L);
+        assertEquals(2, resumo.getTotalVendas());
+        assertEquals(5, resumo.getTotalUnidades());
+        assertEquals(27.0, resumo.getReceita(), 0.001);
+        assertEquals(1, resumo.getIdProduto(0));
+        assertEquals(10, resumo.getIdVendedor(0));
+    }
+    
+    @Test
+    public void testRelatorio() {
+        registro.registrar(1, 10, 100, 5, 2.0);
+        
+        String relatorio = registro.gerarRelatorio();
+        assertTrue(relatorio.contains("RELATÓRIO DE VENDAS"));
+        assertTrue(relatorio.contains("Total de vendas realizadas: 1"));
+    }
+}
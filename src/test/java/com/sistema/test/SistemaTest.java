@@ -113,4 +113,32 @@ public class SistemaTest {
         assertFalse(sistema.login("joao@email.com", "senhaerrada"));
         assertNull(sistema.getUsuarioLogado());
     }
+    
+    @Test
+    public void testLoginEmailNormalizado() {
+        // Limpa usuários anteriores para o teste
+        while (!sistema.getUsuarios().isEmpty()) {
+            sistema.removerUsuario(sistema.getUsuarios().get(0).getId());
+        }
+        
+        sistema.cadastrarUsuario(vendedor);
+        
+        // Testa que o email não diferencia maiúsculas nem espaços nas extremidades
+        assertFalse(sistema.cadastrarUsuario(new Vendedor(9, "Outro", " JOAO@email.com", "x", 1.0)));
+        assertTrue(sistema.login("Joao@Email.com ", "senha123"));
+        assertEquals(vendedor, sistema.getUsuarioLogado());
+        sistema.logout();
+        
+        // Testa que usuário inativo não consegue realizar login
+        vendedor.setAtivo(false);
+        assertFalse(sistema.login("joao@email.com", "senha123"));
+        
+        // Testa que o email fica livre após a remoção do usuário
+        assertTrue(sistema.removerUsuario(1));
+        assertFalse(sistema.login("joao@email.com", "senha123"));
+        assertTrue(sistema.cadastrarUsuario(new Vendedor(9, "Outro", "joao@email.com", "x", 1.0)));
+        
+        // Não deixa o usuário cadastrado para os demais testes
+        assertTrue(sistema.removerUsuario(9));
+    }
 }
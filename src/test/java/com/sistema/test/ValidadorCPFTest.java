@@ -0,0 +1,102 @@
+package com.sistema.test;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.Random;
+
+import com.sistema.util.Util;
+import com.sistema.util.ValidadorCPF;
+
+/**
+ * Classe de teste para a classe ValidadorCPF
+ */
+public class ValidadorCPFTest {
+    
+    @Test
+    public void testCpfsConhecidos() {
+        assertTrue(Util.validarCPF("12345678909"));
+        assertTrue(Util.validarCPF("52998224725"));
+        assertTrue(ValidadorCPF.validar("00000000191"));
+        
+        assertFalse(Util.validarCPF("12345678901"));
+        assertFalse(Util.validarCPF("52998224726"));
+        assertFalse(Util.validarCPF("11111111111"));
+        assertFalse(Util.validarCPF("00000000000"));
+        assertFalse(Util.validarCPF("1234567890a"));
+        assertFalse(Util.validarCPF("123.456.789-09"));
+        assertFalse(Util.validarCPF("1234567890"));
+        assertFalse(Util.validarCPF(null));
+    }
+    
+    @Test
+    public void testFaixasDeCaracteresEBytes() {
+        char[] texto = "xx12345678909yy".toCharArray();
+        assertTrue(ValidadorCPF.validar(texto, 2));
+        assertFalse(ValidadorCPF.validar(texto, 3));
+        assertFalse(ValidadorCPF.validar(texto, 5));
+        
+        byte[] linha = "Pedro;12345678909;Rua A".getBytes(StandardCharsets.US_ASCII);
+        assertTrue(ValidadorCPF.validar(linha, 6, 17));
+        assertFalse(ValidadorCPF.validar(linha, 6, 18));
+        assertFalse(ValidadorCPF.validar(linha, 15, 26));
+    }
+    
+    @Test
+    public void testIgualAoCalculoDeReferencia() {
+        Random aleatorio = new Random(42);
+        char[] cpf = new char[11];
+        
+        for (int n = 0; n < 200_000; n++) {
+            for (int i = 0; i < 11; i++) {
+                cpf[i] = (char) ('0' + aleatorio.nextInt(10));
+            }
+            if (n % 2 == 0) {
+                // Metade com os dígitos verificadores corretos
+                cpf[9] = (char) ('0' + digitoReferencia(cpf, 9));
+                cpf[10] = (char) ('0' + digitoReferencia(cpf, 10));
+            }
+            
+            String texto = new String(cpf);
+            boolean esperado = validoReferencia(cpf);
+            assertEquals(texto, esperado, ValidadorCPF.validar(texto));
+            assertEquals(texto, esperado, ValidadorCPF.validar(cpf, 0));
+        }
+    }
+    
+    @Test
+    public void testValidacaoEmColuna() {
+        String[] coluna = {"12345678909", "12345678901", null, "52998224725", "abc"};
+        BitSet invalidos = ValidadorCPF.validarColuna(coluna);
+        assertEquals(3, invalidos.cardinality());
+        assertTrue(invalidos.get(1));
+        assertTrue(invalidos.get(2));
+        assertTrue(invalidos.get(4));
+        
+        byte[] dados = "12345678909\n52998224726\n52998224725\n".getBytes(StandardCharsets.US_ASCII);
+        int[] inicios = {0, 12, 24};
+        int[] fins = {11, 23, 35};
+        BitSet invalidosBytes = ValidadorCPF.validarColuna(dados, inicios, fins, 3);
+        assertEquals(1, invalidosBytes.cardinality());
+        assertTrue(invalidosBytes.get(1));
+    }
+    
+    private static int digitoReferencia(char[] cpf, int posicao) {
+        int soma = 0;
+        for (int i = 0; i < posicao; i++) {
+            soma += (cpf[i] - '0') * (posicao + 1 - i);
+        }
+        int resto = soma % 11;
+        return resto < 2 ? 0 : 11 - resto;
+    }
+    
+    private static boolean validoReferencia(char[] cpf) {
+        boolean todosIguais = true;
+        for (int i = 1; i < 11; i++) {
+            todosIguais &= cpf[i] == cpf[0];
+        }
+        return !todosIguais && cpf[9] - '0' == digitoReferencia(cpf, 9) && cpf[10] - '0' == digitoReferencia(cpf, 10);
+    }
+}